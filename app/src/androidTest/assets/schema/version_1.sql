@@ -0,0 +1,3 @@
+-- Schema of a version 1 database as onCreate created it, one statement per line.
+CREATE TABLE matches(match_id INTEGER PRIMARY KEY AUTOINCREMENT, match_date TEXT NOT NULL, city TEXT NOT NULL, team_a TEXT NOT NULL, team_b TEXT NOT NULL, team_a_goals INTEGER NOT NULL, team_b_goals INTEGER NOT NULL);
+CREATE TABLE team_stats(team_id INTEGER PRIMARY KEY AUTOINCREMENT, team_name TEXT UNIQUE NOT NULL, matches_played INTEGER DEFAULT 0, wins INTEGER DEFAULT 0, draws INTEGER DEFAULT 0, losses INTEGER DEFAULT 0, goals_scored INTEGER DEFAULT 0, goals_against INTEGER DEFAULT 0, points INTEGER DEFAULT 0);
@@ -0,0 +1,14 @@
+-- Schema of a version 5 database as onCreate created it, one statement per line.
+CREATE TABLE team_stats(team_id INTEGER PRIMARY KEY AUTOINCREMENT, team_name TEXT UNIQUE NOT NULL, matches_played INTEGER DEFAULT 0, wins INTEGER DEFAULT 0, draws INTEGER DEFAULT 0, losses INTEGER DEFAULT 0, goals_scored INTEGER DEFAULT 0, goals_against INTEGER DEFAULT 0, points INTEGER DEFAULT 0);
+CREATE TABLE matches(match_id INTEGER PRIMARY KEY AUTOINCREMENT, match_date TEXT NOT NULL, match_day INTEGER NOT NULL DEFAULT -2147483648, city TEXT NOT NULL, team_a_id INTEGER NOT NULL REFERENCES team_stats(team_id), team_b_id INTEGER NOT NULL REFERENCES team_stats(team_id), team_a_goals INTEGER NOT NULL, team_b_goals INTEGER NOT NULL);
+CREATE INDEX idx_matches_match_day ON matches(match_day);
+CREATE INDEX idx_matches_team_a ON matches(team_a_id, match_day);
+CREATE INDEX idx_matches_team_b ON matches(team_b_id, match_day);
+CREATE VIEW match_details AS SELECT m.match_id, m.match_date, m.match_day, m.city, m.team_a_id, a.team_name AS team_a, m.team_b_id, b.team_name AS team_b, m.team_a_goals, m.team_b_goals FROM matches m LEFT JOIN team_stats a ON a.team_id = m.team_a_id LEFT JOIN team_stats b ON b.team_id = m.team_b_id;
+CREATE TRIGGER trg_matches_insert_stats AFTER INSERT ON matches BEGIN UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_a_goals > NEW.team_b_goals), draws = draws + (NEW.team_a_goals = NEW.team_b_goals), losses = losses + (NEW.team_a_goals < NEW.team_b_goals), goals_scored = goals_scored + NEW.team_a_goals, goals_against = goals_against + NEW.team_b_goals, points = points + (CASE WHEN NEW.team_a_goals > NEW.team_b_goals THEN 3 WHEN NEW.team_a_goals = NEW.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_a_id; UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_b_goals > NEW.team_a_goals), draws = draws + (NEW.team_b_goals = NEW.team_a_goals), losses = losses + (NEW.team_b_goals < NEW.team_a_goals), goals_scored = goals_scored + NEW.team_b_goals, goals_against = goals_against + NEW.team_a_goals, points = points + (CASE WHEN NEW.team_b_goals > NEW.team_a_goals THEN 3 WHEN NEW.team_b_goals = NEW.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_b_id; END;
+CREATE TRIGGER trg_matches_update_stats AFTER UPDATE OF team_a_id, team_b_id, team_a_goals, team_b_goals ON matches BEGIN UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_a_goals > OLD.team_b_goals), draws = draws - (OLD.team_a_goals = OLD.team_b_goals), losses = losses - (OLD.team_a_goals < OLD.team_b_goals), goals_scored = goals_scored - OLD.team_a_goals, goals_against = goals_against - OLD.team_b_goals, points = points - (CASE WHEN OLD.team_a_goals > OLD.team_b_goals THEN 3 WHEN OLD.team_a_goals = OLD.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_a_id; UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_b_goals > OLD.team_a_goals), draws = draws - (OLD.team_b_goals = OLD.team_a_goals), losses = losses - (OLD.team_b_goals < OLD.team_a_goals), goals_scored = goals_scored - OLD.team_b_goals, goals_against = goals_against - OLD.team_a_goals, points = points - (CASE WHEN OLD.team_b_goals > OLD.team_a_goals THEN 3 WHEN OLD.team_b_goals = OLD.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_b_id; UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_a_goals > NEW.team_b_goals), draws = draws + (NEW.team_a_goals = NEW.team_b_goals), losses = losses + (NEW.team_a_goals < NEW.team_b_goals), goals_scored = goals_scored + NEW.team_a_goals, goals_against = goals_against + NEW.team_b_goals, points = points + (CASE WHEN NEW.team_a_goals > NEW.team_b_goals THEN 3 WHEN NEW.team_a_goals = NEW.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_a_id; UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_b_goals > NEW.team_a_goals), draws = draws + (NEW.team_b_goals = NEW.team_a_goals), losses = losses + (NEW.team_b_goals < NEW.team_a_goals), goals_scored = goals_scored + NEW.team_b_goals, goals_against = goals_against + NEW.team_a_goals, points = points + (CASE WHEN NEW.team_b_goals > NEW.team_a_goals THEN 3 WHEN NEW.team_b_goals = NEW.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_b_id; END;
+CREATE TRIGGER trg_matches_delete_stats AFTER DELETE ON matches BEGIN UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_a_goals > OLD.team_b_goals), draws = draws - (OLD.team_a_goals = OLD.team_b_goals), losses = losses - (OLD.team_a_goals < OLD.team_b_goals), goals_scored = goals_scored - OLD.team_a_goals, goals_against = goals_against - OLD.team_b_goals, points = points - (CASE WHEN OLD.team_a_goals > OLD.team_b_goals THEN 3 WHEN OLD.team_a_goals = OLD.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_a_id; UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_b_goals > OLD.team_a_goals), draws = draws - (OLD.team_b_goals = OLD.team_a_goals), losses = losses - (OLD.team_b_goals < OLD.team_a_goals), goals_scored = goals_scored - OLD.team_b_goals, goals_against = goals_against - OLD.team_a_goals, points = points - (CASE WHEN OLD.team_b_goals > OLD.team_a_goals THEN 3 WHEN OLD.team_b_goals = OLD.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_b_id; END;
+CREATE INDEX idx_matches_city ON matches(city, match_day);
+CREATE VIRTUAL TABLE team_search USING fts4(tokens);
+CREATE VIRTUAL TABLE city_search USING fts4(city, tokens, notindexed=city);
+CREATE TRIGGER trg_team_stats_delete_search AFTER DELETE ON team_stats BEGIN DELETE FROM team_search WHERE docid = OLD.team_id; END;
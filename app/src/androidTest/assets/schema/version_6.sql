@@ -0,0 +1,16 @@
+-- Schema of a version 6 database as onCreate created it, one statement per line.
+CREATE TABLE team_stats(team_id INTEGER PRIMARY KEY AUTOINCREMENT, team_name TEXT UNIQUE NOT NULL, matches_played INTEGER DEFAULT 0, wins INTEGER DEFAULT 0, draws INTEGER DEFAULT 0, losses INTEGER DEFAULT 0, goals_scored INTEGER DEFAULT 0, goals_against INTEGER DEFAULT 0, points INTEGER DEFAULT 0);
+CREATE TABLE matches(match_id INTEGER PRIMARY KEY AUTOINCREMENT, match_date TEXT NOT NULL, match_day INTEGER NOT NULL DEFAULT -2147483648, city TEXT NOT NULL, team_a_id INTEGER NOT NULL REFERENCES team_stats(team_id), team_b_id INTEGER NOT NULL REFERENCES team_stats(team_id), team_a_goals INTEGER NOT NULL, team_b_goals INTEGER NOT NULL);
+CREATE INDEX idx_matches_match_day ON matches(match_day);
+CREATE INDEX idx_matches_team_a ON matches(team_a_id, match_day);
+CREATE INDEX idx_matches_team_b ON matches(team_b_id, match_day);
+CREATE VIEW match_details AS SELECT m.match_id, m.match_date, m.match_day, m.city, m.team_a_id, a.team_name AS team_a, m.team_b_id, b.team_name AS team_b, m.team_a_goals, m.team_b_goals FROM matches m LEFT JOIN team_stats a ON a.team_id = m.team_a_id LEFT JOIN team_stats b ON b.team_id = m.team_b_id;
+CREATE INDEX idx_matches_pair ON matches(min(team_a_id, team_b_id), max(team_a_id, team_b_id), match_day);
+CREATE TABLE head_to_head(low_team_id INTEGER NOT NULL, high_team_id INTEGER NOT NULL, meetings INTEGER NOT NULL DEFAULT 0, low_wins INTEGER NOT NULL DEFAULT 0, draws INTEGER NOT NULL DEFAULT 0, high_wins INTEGER NOT NULL DEFAULT 0, low_goals INTEGER NOT NULL DEFAULT 0, high_goals INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (low_team_id, high_team_id)) WITHOUT ROWID;
+CREATE TRIGGER trg_matches_insert_stats AFTER INSERT ON matches BEGIN UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_a_goals > NEW.team_b_goals), draws = draws + (NEW.team_a_goals = NEW.team_b_goals), losses = losses + (NEW.team_a_goals < NEW.team_b_goals), goals_scored = goals_scored + NEW.team_a_goals, goals_against = goals_against + NEW.team_b_goals, points = points + (CASE WHEN NEW.team_a_goals > NEW.team_b_goals THEN 3 WHEN NEW.team_a_goals = NEW.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_a_id; UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_b_goals > NEW.team_a_goals), draws = draws + (NEW.team_b_goals = NEW.team_a_goals), losses = losses + (NEW.team_b_goals < NEW.team_a_goals), goals_scored = goals_scored + NEW.team_b_goals, goals_against = goals_against + NEW.team_a_goals, points = points + (CASE WHEN NEW.team_b_goals > NEW.team_a_goals THEN 3 WHEN NEW.team_b_goals = NEW.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_b_id; INSERT OR IGNORE INTO head_to_head (low_team_id, high_team_id) VALUES (min(NEW.team_a_id, NEW.team_b_id), max(NEW.team_a_id, NEW.team_b_id)); UPDATE head_to_head SET meetings = meetings + 1, low_wins = low_wins + ((CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END) > (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END)), draws = draws + ((CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END) = (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END)), high_wins = high_wins + ((CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END) < (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END)), low_goals = low_goals + (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END), high_goals = high_goals + (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END) WHERE low_team_id = min(NEW.team_a_id, NEW.team_b_id) AND high_team_id = max(NEW.team_a_id, NEW.team_b_id); END;
+CREATE TRIGGER trg_matches_update_stats AFTER UPDATE OF team_a_id, team_b_id, team_a_goals, team_b_goals ON matches BEGIN UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_a_goals > OLD.team_b_goals), draws = draws - (OLD.team_a_goals = OLD.team_b_goals), losses = losses - (OLD.team_a_goals < OLD.team_b_goals), goals_scored = goals_scored - OLD.team_a_goals, goals_against = goals_against - OLD.team_b_goals, points = points - (CASE WHEN OLD.team_a_goals > OLD.team_b_goals THEN 3 WHEN OLD.team_a_goals = OLD.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_a_id; UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_b_goals > OLD.team_a_goals), draws = draws - (OLD.team_b_goals = OLD.team_a_goals), losses = losses - (OLD.team_b_goals < OLD.team_a_goals), goals_scored = goals_scored - OLD.team_b_goals, goals_against = goals_against - OLD.team_a_goals, points = points - (CASE WHEN OLD.team_b_goals > OLD.team_a_goals THEN 3 WHEN OLD.team_b_goals = OLD.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_b_id; UPDATE head_to_head SET meetings = meetings - 1, low_wins = low_wins - ((CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END) > (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END)), draws = draws - ((CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END) = (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END)), high_wins = high_wins - ((CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END) < (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END)), low_goals = low_goals - (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END), high_goals = high_goals - (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END) WHERE low_team_id = min(OLD.team_a_id, OLD.team_b_id) AND high_team_id = max(OLD.team_a_id, OLD.team_b_id); DELETE FROM head_to_head WHERE low_team_id = min(OLD.team_a_id, OLD.team_b_id) AND high_team_id = max(OLD.team_a_id, OLD.team_b_id) AND meetings <= 0; UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_a_goals > NEW.team_b_goals), draws = draws + (NEW.team_a_goals = NEW.team_b_goals), losses = losses + (NEW.team_a_goals < NEW.team_b_goals), goals_scored = goals_scored + NEW.team_a_goals, goals_against = goals_against + NEW.team_b_goals, points = points + (CASE WHEN NEW.team_a_goals > NEW.team_b_goals THEN 3 WHEN NEW.team_a_goals = NEW.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_a_id; UPDATE team_stats SET matches_played = matches_played + 1, wins = wins + (NEW.team_b_goals > NEW.team_a_goals), draws = draws + (NEW.team_b_goals = NEW.team_a_goals), losses = losses + (NEW.team_b_goals < NEW.team_a_goals), goals_scored = goals_scored + NEW.team_b_goals, goals_against = goals_against + NEW.team_a_goals, points = points + (CASE WHEN NEW.team_b_goals > NEW.team_a_goals THEN 3 WHEN NEW.team_b_goals = NEW.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = NEW.team_b_id; INSERT OR IGNORE INTO head_to_head (low_team_id, high_team_id) VALUES (min(NEW.team_a_id, NEW.team_b_id), max(NEW.team_a_id, NEW.team_b_id)); UPDATE head_to_head SET meetings = meetings + 1, low_wins = low_wins + ((CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END) > (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END)), draws = draws + ((CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END) = (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END)), high_wins = high_wins + ((CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END) < (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END)), low_goals = low_goals + (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_a_goals ELSE NEW.team_b_goals END), high_goals = high_goals + (CASE WHEN NEW.team_a_id <= NEW.team_b_id THEN NEW.team_b_goals ELSE NEW.team_a_goals END) WHERE low_team_id = min(NEW.team_a_id, NEW.team_b_id) AND high_team_id = max(NEW.team_a_id, NEW.team_b_id); END;
+CREATE TRIGGER trg_matches_delete_stats AFTER DELETE ON matches BEGIN UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_a_goals > OLD.team_b_goals), draws = draws - (OLD.team_a_goals = OLD.team_b_goals), losses = losses - (OLD.team_a_goals < OLD.team_b_goals), goals_scored = goals_scored - OLD.team_a_goals, goals_against = goals_against - OLD.team_b_goals, points = points - (CASE WHEN OLD.team_a_goals > OLD.team_b_goals THEN 3 WHEN OLD.team_a_goals = OLD.team_b_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_a_id; UPDATE team_stats SET matches_played = matches_played - 1, wins = wins - (OLD.team_b_goals > OLD.team_a_goals), draws = draws - (OLD.team_b_goals = OLD.team_a_goals), losses = losses - (OLD.team_b_goals < OLD.team_a_goals), goals_scored = goals_scored - OLD.team_b_goals, goals_against = goals_against - OLD.team_a_goals, points = points - (CASE WHEN OLD.team_b_goals > OLD.team_a_goals THEN 3 WHEN OLD.team_b_goals = OLD.team_a_goals THEN 1 ELSE 0 END) WHERE team_id = OLD.team_b_id; UPDATE head_to_head SET meetings = meetings - 1, low_wins = low_wins - ((CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END) > (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END)), draws = draws - ((CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END) = (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END)), high_wins = high_wins - ((CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END) < (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END)), low_goals = low_goals - (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_a_goals ELSE OLD.team_b_goals END), high_goals = high_goals - (CASE WHEN OLD.team_a_id <= OLD.team_b_id THEN OLD.team_b_goals ELSE OLD.team_a_goals END) WHERE low_team_id = min(OLD.team_a_id, OLD.team_b_id) AND high_team_id = max(OLD.team_a_id, OLD.team_b_id); DELETE FROM head_to_head WHERE low_team_id = min(OLD.team_a_id, OLD.team_b_id) AND high_team_id = max(OLD.team_a_id, OLD.team_b_id) AND meetings <= 0; END;
+CREATE INDEX idx_matches_city ON matches(city, match_day);
+CREATE VIRTUAL TABLE team_search USING fts4(tokens);
+CREATE VIRTUAL TABLE city_search USING fts4(city, tokens, notindexed=city);
+CREATE TRIGGER trg_team_stats_delete_search AFTER DELETE ON team_stats BEGIN DELETE FROM team_search WHERE docid = OLD.team_id; END;
@@ -0,0 +1,184 @@
+package com.example.footballresults.database;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.DateFormatter;
+import com.example.footballresults.utils.StandingsAccumulator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for {@link MatchDao#addMatches(SQLiteDatabase, Iterable, int)}:
+ * the same matches are bulk inserted into one scratch database and added one at a
+ * time through the statistics triggers into another, and the team statistics and
+ * form, head to head records and past standings of both must agree.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BulkInsertTest {
+    private static final int TEAM_COUNT = 12;
+
+    /** First match day of the fixtures */
+    private static final int FIRST_DAY = DateFormatter.toEpochDay("01/01/2024");
+
+    /** Days the matches added before the bulk insert are spread over */
+    private static final int DAYS = 400;
+
+    @Rule
+    public final ScratchDatabase bulkScratch = new ScratchDatabase("bulk_insert_test.db");
+
+    @Rule
+    public final ScratchDatabase singleScratch = new ScratchDatabase("single_insert_test.db");
+
+    private SQLiteDatabase bulk;
+    private SQLiteDatabase single;
+    private final Random random = new Random(42);
+
+    @Before
+    public void setUp() {
+        bulk = bulkScratch.open();
+        single = singleScratch.open();
+    }
+
+    @Test
+    public void addMatches_leavesTheSameStatisticsAsAddingEachMatch() {
+        // Enough earlier matches, in day order, for the past tables to take checkpoints
+        List<Match> earlier = new ArrayList<>();
+        for (int i = 0; i < 3 * StandingsCheckpoints.CHECKPOINT_INTERVAL; i++) {
+            earlier.add(randomMatch(FIRST_DAY + i * DAYS / (3 * StandingsCheckpoints.CHECKPOINT_INTERVAL)));
+        }
+        addToBoth(earlier, 100);
+        for (int day = FIRST_DAY; day < FIRST_DAY + DAYS; day += 97) {
+            StandingsCheckpoints.getStandingsAsOf(bulk, day + DAYS);
+            StandingsCheckpoints.getStandingsAsOf(single, day + DAYS);
+        }
+        assertTrue(DatabaseUtils.queryNumEntries(bulk, DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS) > 0);
+        assertSameStatistics();
+
+        // Later matches appended to the teams' form, and some played before checkpoints already taken
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int day = i % 4 == 0 ? FIRST_DAY + random.nextInt(DAYS) : FIRST_DAY + DAYS + i / 5;
+            matches.add(randomMatch(day));
+        }
+        matches.add(new Match("31/02/2024", "חיפה", teamName(1), teamName(2), 4, 0));
+        matches.add(new Match("not a date", "חיפה", teamName(3), teamName(1), 0, 0));
+        matches.add(new Match(DateFormatter.formatEpochDay(FIRST_DAY), "חיפה", "קבוצה חדשה", teamName(5), 1, 2));
+        addToBoth(matches, 37);
+        assertSameStatistics();
+
+        // The triggers still count a match added on its own after a bulk insert
+        Match late = randomMatch(FIRST_DAY + 3);
+        assertTrue(MatchDao.addMatch(bulk, late) != -1);
+        assertTrue(MatchDao.addMatch(single, late) != -1);
+        assertSameStatistics();
+    }
+
+    @Test
+    public void addMatches_skipsRejectedRowsAndEndsTheBulkLoad() {
+        List<Match> matches = randomMatches(20, FIRST_DAY);
+        matches.add(7, new Match("01/01/2024", "חיפה", null, teamName(1), 1, 0));
+
+        BatchInsertResult result = MatchDao.addMatches(bulk, matches, 8);
+        assertEquals(20, result.getInsertedCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(0, DatabaseUtils.queryNumEntries(bulk, DatabaseHelper.TABLE_BULK_LOAD));
+
+        matches.remove(7);
+        for (Match match : matches) {
+            assertTrue(MatchDao.addMatch(single, match) != -1);
+        }
+        assertSameStatistics();
+    }
+
+    /**
+     * Bulk inserts the matches into one database and adds them one at a time to the other.
+     */
+    private void addToBoth(List<Match> matches, int batchSize) {
+        BatchInsertResult result = MatchDao.addMatches(bulk, matches, batchSize);
+        assertTrue(result.getFailures().isEmpty());
+        for (Match match : matches) {
+            assertTrue(MatchDao.addMatch(single, match) != -1);
+        }
+    }
+
+    /**
+     * Checks that both databases hold the same team statistics and form, head to
+     * head records and standings at the end of every day of the fixtures.
+     */
+    private void assertSameStatistics() {
+        String teamStats = "SELECT * FROM " + DatabaseHelper.TABLE_TEAM_STATS
+                + " ORDER BY " + DatabaseHelper.COLUMN_TEAM_ID;
+        assertEquals(readRows(single, teamStats), readRows(bulk, teamStats));
+        String headToHead = "SELECT * FROM " + DatabaseHelper.TABLE_HEAD_TO_HEAD
+                + " ORDER BY " + DatabaseHelper.COLUMN_LOW_TEAM_ID + ", " + DatabaseHelper.COLUMN_HIGH_TEAM_ID;
+        assertEquals(readRows(single, headToHead), readRows(bulk, headToHead));
+
+        for (int day = FIRST_DAY - 1; day <= FIRST_DAY + DAYS + 70; day++) {
+            assertEquals("day " + day, standingsRows(StandingsCheckpoints.getStandingsAsOf(single, day)),
+                    standingsRows(StandingsCheckpoints.getStandingsAsOf(bulk, day)));
+        }
+    }
+
+    private List<Match> randomMatches(int count, int day) {
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            matches.add(randomMatch(day));
+        }
+        return matches;
+    }
+
+    private Match randomMatch(int day) {
+        int teamA = 1 + random.nextInt(TEAM_COUNT);
+        int teamB = 1 + (teamA + random.nextInt(TEAM_COUNT - 1)) % TEAM_COUNT;
+        return new Match(DateFormatter.formatEpochDay(day), "חיפה", teamName(teamA), teamName(teamB),
+                random.nextInt(4), random.nextInt(4));
+    }
+
+    private static String teamName(int team) {
+        return "קבוצה " + team;
+    }
+
+    private static List<String> readRows(SQLiteDatabase db, String sql) {
+        List<String> rows = new ArrayList<>();
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            while (cursor.moveToNext()) {
+                StringBuilder row = new StringBuilder();
+                for (int column = 0; column < cursor.getColumnCount(); column++) {
+                    row.append(cursor.getString(column)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+
+    private static List<String> standingsRows(StandingsAccumulator standings) {
+        List<String> rows = new ArrayList<>();
+        for (int teamId = 0; teamId < standings.getTeamIdLimit(); teamId++) {
+            if (standings.getMatchesPlayed(teamId) > 0) {
+                rows.add(teamId + ": " + standings.getMatchesPlayed(teamId) + " " + standings.getWins(teamId)
+                        + " " + standings.getDraws(teamId) + " " + standings.getLosses(teamId)
+                        + " " + standings.getGoalsScored(teamId) + " " + standings.getGoalsAgainst(teamId)
+                        + " " + standings.getPoints(teamId));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.footballresults.database;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures the throughput of {@link MatchCsvImporter} on a generated file of one
+ * million matches.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class CsvImportBenchmark {
+    private static final String TAG = "CsvImportBenchmark";
+    private static final int TEAM_COUNT = 20;
+    private static final int ROW_COUNT = 1_000_000;
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("csv_import_benchmark.db");
+
+    private SQLiteDatabase db;
+    private File csvFile;
+
+    @Before
+    public void setUp() throws IOException {
+        db = scratch.open();
+
+        csvFile = new File(scratch.getContext().getCacheDir(), "csv_import_benchmark.csv");
+        writeRandomMatches(csvFile, new Random(42), ROW_COUNT);
+    }
+
+    @After
+    public void tearDown() {
+        csvFile.delete();
+    }
+
+    @Test
+    public void importMillionRows() throws IOException {
+        MatchCsvImporter.Result result = new MatchCsvImporter.Result();
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        try (Reader reader = new InputStreamReader(new FileInputStream(csvFile), StandardCharsets.UTF_8)) {
+            MatchCsvImporter.importMatches(db, reader, MatchDao.DEFAULT_BATCH_SIZE, null, result);
+        }
+        long elapsedMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+
+        assertEquals(ROW_COUNT, result.getRowsRead());
+        assertEquals(ROW_COUNT, result.getRowsImported());
+        assertEquals(2L * ROW_COUNT, DatabaseUtils.longForQuery(db, "SELECT SUM("
+                + DatabaseHelper.COLUMN_MATCHES_PLAYED + ") FROM " + DatabaseHelper.TABLE_TEAM_STATS, null));
+        Log.i(TAG, ROW_COUNT + " rows imported in " + elapsedMs + " ms ("
+                + (ROW_COUNT * 1000L / Math.max(elapsedMs, 1)) + " rows/s)");
+    }
+
+    /**
+     * Writes a CSV file of random matches between the benchmark teams.
+     */
+    private void writeRandomMatches(File file, Random random, int count) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write(String.join(",", MatchCsvImporter.HEADER));
+            writer.write('\n');
+            for (int i = 0; i < count; i++) {
+                int teamA = 1 + random.nextInt(TEAM_COUNT);
+                int teamB = 1 + (teamA + random.nextInt(TEAM_COUNT - 1)) % TEAM_COUNT;
+                writer.write(String.format("%02d/%02d/%d,City %d,\"Team \"\"%d\"\"\",\"Team \"\"%d\"\"\",%d,%d\n",
+                        1 + random.nextInt(28), 1 + random.nextInt(12), 1990 + random.nextInt(35),
+                        random.nextInt(10), teamA, teamB, random.nextInt(5), random.nextInt(5)));
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.footballresults.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.footballresults.utils.DateCodec;
+import com.example.footballresults.utils.DateFormatter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for {@link DatabaseHelper}: upgrades from databases created by
+ * earlier versions, and the statistics triggers' handling of the standings checkpoints.
+ * The old schemas are read from the schema/version_N.sql test assets, as dumped
+ * from databases those versions created.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseHelperTest {
+    private static final long TEAM_A = 1;
+    private static final long TEAM_B = 2;
+    private static final long TEAM_C = 3;
+
+    /** The teams' names, in the order of their IDs */
+    private static final String[] TEAM_NAMES = {"מכבי תל אביב", "הפועל באר שבע", "בית\"ר ירושלים"};
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("database_helper_test.db");
+
+    @Test
+    public void upgradeFromVersion1() throws IOException {
+        SQLiteDatabase old = scratch.openWithoutHelper();
+        try {
+            createSchema(old, 1);
+            insertTeams(old);
+            // Whatever the old app had counted is replaced by a rebuild from the matches
+            old.execSQL("UPDATE " + DatabaseHelper.TABLE_TEAM_STATS + " SET "
+                    + DatabaseHelper.COLUMN_MATCHES_PLAYED + " = 99, " + DatabaseHelper.COLUMN_POINTS + " = 99");
+            insertMatchByName(old, "01/01/2024", TEAM_A, TEAM_B, 2, 0);
+            insertMatchByName(old, "02/01/2024", TEAM_B, TEAM_C, 1, 1);
+            insertMatchByName(old, "03/01/2024", TEAM_C, TEAM_A, 0, 3);
+            insertMatchByName(old, "04/01/2024", TEAM_A, TEAM_B, 1, 2);
+            old.setVersion(1);
+        } finally {
+            old.close();
+        }
+
+        SQLiteDatabase db = scratch.open();
+        Cursor cursor = db.rawQuery("SELECT " + DatabaseHelper.COLUMN_DATE + ", " + DatabaseHelper.COLUMN_MATCH_DAY + ", "
+                + DatabaseHelper.COLUMN_TEAM_A_ID + ", " + DatabaseHelper.COLUMN_TEAM_B_ID
+                + " FROM " + DatabaseHelper.TABLE_MATCHES
+                + " ORDER BY " + DatabaseHelper.COLUMN_MATCH_ID, null);
+        try {
+            assertEquals(4, cursor.getCount());
+            while (cursor.moveToNext()) {
+                assertEquals(DateCodec.parse(cursor.getString(0)), cursor.getInt(1));
+            }
+            assertTrue(cursor.moveToPosition(2));
+            assertEquals(TEAM_C, cursor.getLong(2));
+            assertEquals(TEAM_A, cursor.getLong(3));
+        } finally {
+            cursor.close();
+        }
+
+        assertUpgraded(db);
+
+        List<SearchIndex.Hit> hits = SearchIndex.find(db, "מכבי");
+        assertEquals(1, hits.size());
+        assertEquals(TEAM_A, hits.get(0).teamId);
+        boolean cityFound = false;
+        for (SearchIndex.Hit hit : SearchIndex.find(db, "תל אביב")) {
+            cityFound |= "תל אביב".equals(hit.city);
+        }
+        assertTrue(cityFound);
+    }
+
+    @Test
+    public void upgradeFromVersion4() throws IOException {
+        assertUpgradeFrom(4);
+    }
+
+    @Test
+    public void upgradeFromVersion5() throws IOException {
+        assertUpgradeFrom(5);
+    }
+
+    @Test
+    public void upgradeFromVersion6() throws IOException {
+        assertUpgradeFrom(6);
+    }
+
+    @Test
+    public void editKeepingTheDate_keepsTheCheckpoints() {
+        SQLiteDatabase db = openCurrentDatabase();
+        long matchId = insertMatch(db, "01/01/2024", TEAM_A, TEAM_B, 2, 0);
+        insertCheckpoint(db, DateCodec.parse("03/01/2024"));
+
+        // Every match edit writes the date back, even when it did not change
+        ContentValues values = new ContentValues();
+        values.put(DatabaseHelper.COLUMN_CITY, "חיפה");
+        values.put(DatabaseHelper.COLUMN_MATCH_DAY, DateCodec.parse("01/01/2024"));
+        db.update(DatabaseHelper.TABLE_MATCHES, values, DatabaseHelper.COLUMN_MATCH_ID + " = " + matchId, null);
+        assertEquals(1, countCheckpoints(db));
+
+        values.put(DatabaseHelper.COLUMN_MATCH_DAY, DateCodec.parse("02/01/2024"));
+        db.update(DatabaseHelper.TABLE_MATCHES, values, DatabaseHelper.COLUMN_MATCH_ID + " = " + matchId, null);
+        assertEquals(0, countCheckpoints(db));
+    }
+
+    @Test
+    public void changeToMatchWithUnreadableDate_keepsTheCheckpoints() {
+        SQLiteDatabase db = openCurrentDatabase();
+        long matchId = insertMatch(db, "31/02/2024", TEAM_A, TEAM_B, 2, 0);
+        insertCheckpoint(db, DateCodec.parse("03/01/2024"));
+
+        ContentValues values = new ContentValues();
+        values.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 3);
+        values.put(DatabaseHelper.COLUMN_MATCH_DAY, DateFormatter.INVALID_EPOCH_DAY);
+        db.update(DatabaseHelper.TABLE_MATCHES, values, DatabaseHelper.COLUMN_MATCH_ID + " = " + matchId, null);
+        db.delete(DatabaseHelper.TABLE_MATCHES, DatabaseHelper.COLUMN_MATCH_ID + " = " + matchId, null);
+        insertMatch(db, "31/02/2024", TEAM_B, TEAM_C, 1, 1);
+        assertEquals(1, countCheckpoints(db));
+
+        // A readable date the match moves to or from still counts
+        long movedId = insertMatch(db, "31/02/2024", TEAM_A, TEAM_C, 0, 0);
+        values.clear();
+        values.put(DatabaseHelper.COLUMN_MATCH_DAY, DateCodec.parse("02/01/2024"));
+        db.update(DatabaseHelper.TABLE_MATCHES, values, DatabaseHelper.COLUMN_MATCH_ID + " = " + movedId, null);
+        assertEquals(0, countCheckpoints(db));
+    }
+
+    /**
+     * Creates a database with an old version's schema and a few matches, and
+     * checks it once opened through the helper.
+     */
+    private void assertUpgradeFrom(int version) throws IOException {
+        SQLiteDatabase old = scratch.openWithoutHelper();
+        try {
+            createSchema(old, version);
+            insertTeams(old);
+            insertMatch(old, "01/01/2024", TEAM_A, TEAM_B, 2, 0);
+            insertMatch(old, "02/01/2024", TEAM_B, TEAM_C, 1, 1);
+            insertMatch(old, "03/01/2024", TEAM_C, TEAM_A, 0, 3);
+            insertMatch(old, "04/01/2024", TEAM_A, TEAM_B, 1, 2);
+            old.setVersion(version);
+        } finally {
+            old.close();
+        }
+        assertUpgraded(scratch.open());
+    }
+
+    /**
+     * Checks that every table the upgrades add is filled from the four matches
+     * both upgrade tests start from, and that the current triggers are in place.
+     */
+    private static void assertUpgraded(SQLiteDatabase db) {
+        for (String trigger : new String[]{DatabaseHelper.TRIGGER_MATCH_INSERTED, DatabaseHelper.TRIGGER_MATCH_UPDATED,
+                DatabaseHelper.TRIGGER_MATCH_DELETED, DatabaseHelper.TRIGGER_MATCH_DAY_UPDATED}) {
+            assertEquals(trigger, 1, DatabaseUtils.longForQuery(db,
+                    "SELECT count(*) FROM sqlite_master WHERE type = 'trigger' AND name = ?", new String[]{trigger}));
+        }
+        assertEquals(0, DatabaseUtils.queryNumEntries(db, DatabaseHelper.TABLE_BULK_LOAD));
+
+        assertTeam(db, TEAM_A, 3, 6, "WWL");
+        assertTeam(db, TEAM_B, 3, 4, "LDW");
+        assertTeam(db, TEAM_C, 2, 1, "DL");
+        assertEquals(2, DatabaseUtils.longForQuery(db, "SELECT " + DatabaseHelper.COLUMN_MEETINGS
+                + " FROM " + DatabaseHelper.TABLE_HEAD_TO_HEAD
+                + " WHERE " + DatabaseHelper.COLUMN_LOW_TEAM_ID + " = " + TEAM_A
+                + " AND " + DatabaseHelper.COLUMN_HIGH_TEAM_ID + " = " + TEAM_B, null));
+
+        // The reinstalled triggers keep everything in step with new matches
+        insertMatch(db, "05/01/2024", TEAM_A, TEAM_C, 1, 0);
+        assertTeam(db, TEAM_A, 4, 9, "WWLW");
+        assertTeam(db, TEAM_C, 3, 1, "DLL");
+        assertEquals(2, DatabaseUtils.longForQuery(db, "SELECT " + DatabaseHelper.COLUMN_MEETINGS
+                + " FROM " + DatabaseHelper.TABLE_HEAD_TO_HEAD
+                + " WHERE " + DatabaseHelper.COLUMN_LOW_TEAM_ID + " = " + TEAM_A
+                + " AND " + DatabaseHelper.COLUMN_HIGH_TEAM_ID + " = " + TEAM_C, null));
+    }
+
+    /**
+     * Runs the statements of an old version's schema asset.
+     */
+    private static void createSchema(SQLiteDatabase db, int version) throws IOException {
+        Context testContext = InstrumentationRegistry.getInstrumentation().getContext();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                testContext.getAssets().open("schema/version_" + version + ".sql"), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("--")) {
+                    db.execSQL(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private SQLiteDatabase openCurrentDatabase() {
+        SQLiteDatabase db = scratch.open();
+        insertTeams(db);
+        return db;
+    }
+
+    private static void insertTeams(SQLiteDatabase db) {
+        for (String name : TEAM_NAMES) {
+            ContentValues values = new ContentValues();
+            values.put(DatabaseHelper.COLUMN_TEAM_NAME, name);
+            db.insertOrThrow(DatabaseHelper.TABLE_TEAM_STATS, null, values);
+        }
+    }
+
+    private static long insertMatch(SQLiteDatabase db, String date, long teamAId, long teamBId,
+                                    int teamAGoals, int teamBGoals) {
+        ContentValues values = new ContentValues();
+        values.put(DatabaseHelper.COLUMN_DATE, date);
+        values.put(DatabaseHelper.COLUMN_MATCH_DAY, DateCodec.parse(date));
+        values.put(DatabaseHelper.COLUMN_CITY, "תל אביב");
+        values.put(DatabaseHelper.COLUMN_TEAM_A_ID, teamAId);
+        values.put(DatabaseHelper.COLUMN_TEAM_B_ID, teamBId);
+        values.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, teamAGoals);
+        values.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, teamBGoals);
+        return db.insertOrThrow(DatabaseHelper.TABLE_MATCHES, null, values);
+    }
+
+    /**
+     * Inserts a match the way version 1 stored it, by team name and without a match day.
+     */
+    private static void insertMatchByName(SQLiteDatabase db, String date, long teamAId, long teamBId,
+                                          int teamAGoals, int teamBGoals) {
+        ContentValues values = new ContentValues();
+        values.put(DatabaseHelper.COLUMN_DATE, date);
+        values.put(DatabaseHelper.COLUMN_CITY, "תל אביב");
+        values.put(DatabaseHelper.COLUMN_TEAM_A, TEAM_NAMES[(int) teamAId - 1]);
+        values.put(DatabaseHelper.COLUMN_TEAM_B, TEAM_NAMES[(int) teamBId - 1]);
+        values.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, teamAGoals);
+        values.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, teamBGoals);
+        db.insertOrThrow(DatabaseHelper.TABLE_MATCHES, null, values);
+    }
+
+    private static void insertCheckpoint(SQLiteDatabase db, int checkpointDay) {
+        ContentValues values = new ContentValues();
+        values.put(DatabaseHelper.COLUMN_CHECKPOINT_DAY, checkpointDay);
+        values.put(DatabaseHelper.COLUMN_TEAM_ID, TEAM_A);
+        for (String column : new String[]{DatabaseHelper.COLUMN_MATCHES_PLAYED, DatabaseHelper.COLUMN_WINS,
+                DatabaseHelper.COLUMN_DRAWS, DatabaseHelper.COLUMN_LOSSES, DatabaseHelper.COLUMN_GOALS_SCORED,
+                DatabaseHelper.COLUMN_GOALS_AGAINST, DatabaseHelper.COLUMN_POINTS}) {
+            values.put(column, 0);
+        }
+        db.insertOrThrow(DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS, null, values);
+    }
+
+    private static long countCheckpoints(SQLiteDatabase db) {
+        return DatabaseUtils.queryNumEntries(db, DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS);
+    }
+
+    private static void assertTeam(SQLiteDatabase db, long teamId, int matchesPlayed, int points, String form) {
+        Cursor cursor = db.rawQuery("SELECT " + DatabaseHelper.COLUMN_MATCHES_PLAYED + ", "
+                + DatabaseHelper.COLUMN_POINTS + ", " + DatabaseHelper.COLUMN_FORM
+                + " FROM " + DatabaseHelper.TABLE_TEAM_STATS
+                + " WHERE " + DatabaseHelper.COLUMN_TEAM_ID + " = " + teamId, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(matchesPlayed, cursor.getInt(0));
+            assertEquals(points, cursor.getInt(1));
+            assertEquals(form, cursor.getString(2));
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.footballresults.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.footballresults.utils.MatchGenerator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures the native memory a PDF export of the match list holds, which grows
+ * with its pages until the document is written, on a database of 500,000 matches.
+ * The export is cut short at {@link ReportExporter#MAX_PDF_ROWS}, so its peak
+ * must stay within a fixed budget however long the match list is.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class PdfExportBenchmark {
+    private static final String TAG = "PdfExportBenchmark";
+    private static final int MATCH_COUNT = 500_000;
+
+    /** Most native heap the capped export may add while its pages are held */
+    private static final long PEAK_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("pdf_export_benchmark.db");
+
+    private SQLiteDatabase db;
+    private File pdfFile;
+
+    @Before
+    public void setUp() {
+        db = scratch.open();
+        MatchGenerator generator = MatchGenerator.forMatchCount(MATCH_COUNT, 42);
+        assertEquals(MATCH_COUNT, DatabaseSeeder.generateMatches(db, generator, MatchDao.DEFAULT_BATCH_SIZE, null));
+        pdfFile = new File(scratch.getContext().getCacheDir(), "pdf_export_benchmark.pdf");
+    }
+
+    @After
+    public void tearDown() {
+        pdfFile.delete();
+    }
+
+    @Test
+    public void exportCappedMatchList() throws IOException {
+        // A tenth of the cap shows what each page costs; the capped export must stay within budget
+        long smallPeak = exportPdf(ReportExporter.MAX_PDF_ROWS / 10);
+        long peak = exportPdf(ReportExporter.MAX_PDF_ROWS);
+        assertTrue("Peak native heap " + peak / 1024 + " KB over budget", peak <= PEAK_BUDGET_BYTES);
+
+        try (InputStream in = new FileInputStream(pdfFile)) {
+            byte[] header = new byte[5];
+            assertEquals(header.length, in.read(header));
+            assertEquals("%PDF-", new String(header, StandardCharsets.US_ASCII));
+        }
+        Log.i(TAG, "Native heap held: " + smallPeak / 1024 + " KB at " + ReportExporter.MAX_PDF_ROWS / 10
+                + " rows, " + peak / 1024 + " KB at " + ReportExporter.MAX_PDF_ROWS + " rows of "
+                + MATCH_COUNT + "; " + pdfFile.length() / 1024 + " KB written");
+    }
+
+    /**
+     * Exports the match list to the PDF file, sampling the native heap as rows are
+     * laid out. The last sample is taken at the last row, when every page is held.
+     * @return The most native heap the export added over what was allocated before it
+     */
+    private long exportPdf(int maxRows) throws IOException {
+        Runtime.getRuntime().gc();
+        long before = Debug.getNativeHeapAllocatedSize();
+        long[] peak = {before};
+
+        ReportExporter exporter = new ReportExporter(scratch.getContext());
+        long start = SystemClock.elapsedRealtimeNanos();
+        int rows;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(pdfFile))) {
+            rows = exporter.writePdf(db, ReportExporter.Report.MATCHES, out, maxRows,
+                    (rowsWritten, totalRows) -> peak[0] = Math.max(peak[0], Debug.getNativeHeapAllocatedSize()));
+        }
+        long elapsedMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+
+        assertEquals(maxRows, rows);
+        Log.i(TAG, rows + " rows laid out and written in " + elapsedMs + " ms");
+        return peak[0] - before;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.footballresults.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.rules.ExternalResource;
+
+/**
+ * A database file of a test's own, so the app's own data is never touched. The file
+ * is deleted before each test and again once it finishes, with the helper that
+ * opened it closed first.
+ */
+class ScratchDatabase extends ExternalResource {
+    private final String name;
+    private Context context;
+    private DatabaseHelper dbHelper;
+
+    ScratchDatabase(String name) {
+        this.name = name;
+    }
+
+    @Override
+    protected void before() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(name);
+    }
+
+    @Override
+    protected void after() {
+        if (dbHelper != null) {
+            dbHelper.close();
+            dbHelper = null;
+        }
+        context.deleteDatabase(name);
+    }
+
+    Context getContext() {
+        return context;
+    }
+
+    /**
+     * Opens the database through {@link DatabaseHelper}, creating or upgrading it
+     * the first time.
+     */
+    SQLiteDatabase open() {
+        if (dbHelper == null) {
+            dbHelper = new DatabaseHelper(context, name);
+        }
+        return dbHelper.getWritableDatabase();
+    }
+
+    /**
+     * Opens the file without the helper, for laying down an older version's schema.
+     * The caller closes it before calling {@link #open()}.
+     */
+    SQLiteDatabase openWithoutHelper() {
+        return context.openOrCreateDatabase(name, Context.MODE_PRIVATE, null);
+    }
+}
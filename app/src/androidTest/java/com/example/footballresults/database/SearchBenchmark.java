@@ -0,0 +1,71 @@
+package com.example.footballresults.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.footballresults.utils.MatchGenerator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times search as you type over a million generated matches: every prefix of a few
+ * team and city names is searched as if typed a letter at a time, reading the first
+ * page and the page after it. Every page is timed, and the slowest of each query
+ * must come within {@link #PAGE_BUDGET_MS} so that results keep up with typing.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmark {
+    private static final String TAG = "SearchBenchmark";
+    private static final int MATCH_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String[] QUERIES = {"Team 12", "City 7", "1"};
+
+    /** Longest a page of results may take, about the delay after which typing feels laggy */
+    private static final long PAGE_BUDGET_MS = 100;
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("search_benchmark.db");
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = scratch.open();
+    }
+
+    @Test
+    public void searchAsYouType() {
+        MatchGenerator generator = MatchGenerator.forMatchCount(MATCH_COUNT, 42);
+        assertEquals(MATCH_COUNT, DatabaseSeeder.generateMatches(db, generator, MatchDao.DEFAULT_BATCH_SIZE, null));
+
+        for (String query : QUERIES) {
+            long slowestUs = 0;
+            for (int length = 1; length <= query.length(); length++) {
+                String typed = query.substring(0, length);
+                long start = SystemClock.elapsedRealtimeNanos();
+                MatchPage first = MatchDao.searchMatches(db, typed, MatchPage.Key.FIRST, PAGE_SIZE);
+                long firstUs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000;
+                assertEquals(PAGE_SIZE, first.getMatches().size());
+
+                start = SystemClock.elapsedRealtimeNanos();
+                MatchPage next = MatchDao.searchMatches(db, typed, first.getNextKey(), PAGE_SIZE);
+                long nextUs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000;
+                assertEquals(PAGE_SIZE, next.getMatches().size());
+
+                Log.i(TAG, "\"" + typed + "\": first page " + firstUs + " us, next page " + nextUs + " us");
+                slowestUs = Math.max(slowestUs, Math.max(firstUs, nextUs));
+            }
+            assertTrue("\"" + query + "\": slowest page " + slowestUs + " us", slowestUs <= PAGE_BUDGET_MS * 1_000);
+        }
+    }
+}
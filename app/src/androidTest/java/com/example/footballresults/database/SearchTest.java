@@ -0,0 +1,167 @@
+package com.example.footballresults.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.DateFormatter;
+import com.example.footballresults.utils.SearchText;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for {@link MatchDao#searchMatches(SQLiteDatabase, String, MatchPage.Key, int)}
+ * on small fixtures: the order of the ranks, matches found more than once, paging
+ * through rank boundaries and past the window walked along the match day index,
+ * and Hebrew spelling variants.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchTest {
+    /** Team named exactly as searched for */
+    private static final String EXACT_TEAM = "מכבי";
+
+    /** Team whose name starts with the query */
+    private static final String PREFIX_TEAM = "מכבי חיפה";
+
+    /** Team with the query as a later word of its name */
+    private static final String WORD_TEAM = "הכח מכבי";
+
+    /** City with a word starting with the query */
+    private static final String WORD_CITY = "מודיעין מכבים רעות";
+
+    private static final String OTHER_TEAM = "הפועל באר שבע";
+    private static final String OTHER_TEAM_2 = "בית\"ר ירושלים";
+    private static final String OTHER_CITY = "באר שבע";
+
+    /** First match day of the fixtures */
+    private static final int FIRST_DAY = DateFormatter.toEpochDay("01/01/2024");
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("search_test.db");
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = scratch.open();
+    }
+
+    @Test
+    public void searchMatches_listsExactThenPrefixThenWordMatchesOnce() {
+        long exact = addMatch(0, OTHER_CITY, EXACT_TEAM, OTHER_TEAM);
+        long prefix = addMatch(9, OTHER_CITY, PREFIX_TEAM, OTHER_TEAM);
+        long word = addMatch(3, OTHER_CITY, OTHER_TEAM_2, WORD_TEAM);
+        long city = addMatch(4, WORD_CITY, OTHER_TEAM, OTHER_TEAM_2);
+        long bothTeams = addMatch(2, OTHER_CITY, PREFIX_TEAM, EXACT_TEAM);
+        long bothPrefixTeams = addMatch(8, OTHER_CITY, "מכבי נתניה", PREFIX_TEAM);
+        long teamAndCity = addMatch(1, WORD_CITY, EXACT_TEAM, OTHER_TEAM_2);
+        addMatch(5, OTHER_CITY, OTHER_TEAM, OTHER_TEAM_2);
+
+        // Newest first within a rank; a match is listed under the best rank it is found by
+        List<Long> expected = Arrays.asList(bothTeams, teamAndCity, exact, prefix, bothPrefixTeams, city, word);
+        for (int pageSize = 1; pageSize <= expected.size() + 1; pageSize++) {
+            assertEquals("page size " + pageSize, expected, searchAll(EXACT_TEAM, pageSize));
+        }
+    }
+
+    @Test
+    public void searchMatches_pagesPastTheScanWindowWithoutGapsOrRepeats() {
+        // Matches of the searched teams and city are spread thinly among many others,
+        // several a day, so the results run well past the window walked at first
+        List<Match> matches = new ArrayList<>();
+        List<long[]> expected = new ArrayList<>();
+        for (int i = 0; i < 7000; i++) {
+            String teamA = OTHER_TEAM;
+            String teamB = OTHER_TEAM_2;
+            String city = OTHER_CITY;
+            int rank = -1;
+            if (i % 211 == 0) {
+                teamA = EXACT_TEAM;
+                rank = SearchText.RANK_EXACT;
+            }
+            if (i % 97 == 0) {
+                teamB = PREFIX_TEAM;
+                rank = rank == -1 ? SearchText.RANK_PREFIX : rank;
+            }
+            if (i % 89 == 0) {
+                teamA = teamA.equals(OTHER_TEAM) ? WORD_TEAM : teamA;
+                rank = rank == -1 ? SearchText.RANK_WORD : rank;
+            }
+            // Every other match of the word rank team is also played in the word rank city
+            if (i % 131 == 0 || i % 178 == 0) {
+                city = WORD_CITY;
+                rank = rank == -1 ? SearchText.RANK_WORD : rank;
+            }
+            int day = FIRST_DAY + i / 3;
+            matches.add(new Match(DateFormatter.formatEpochDay(day), city, teamA, teamB, i % 4, i % 3));
+            if (rank != -1) {
+                expected.add(new long[]{rank, day, matches.size()});
+            }
+        }
+        MatchDao.addMatches(db, matches, MatchDao.DEFAULT_BATCH_SIZE);
+
+        Collections.sort(expected, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(b[2], a[2]));
+        List<Long> expectedIds = new ArrayList<>();
+        for (long[] row : expected) {
+            expectedIds.add(matches.get((int) row[2] - 1).getId());
+        }
+        for (int pageSize : new int[]{7, 50, 1000}) {
+            assertEquals("page size " + pageSize, expectedIds, searchAll(EXACT_TEAM, pageSize));
+        }
+    }
+
+    @Test
+    public void searchMatches_foldsHebrewSpellingVariants() {
+        long telAviv = addMatch(0, "תל אביב", "מכבי ת\"א", OTHER_TEAM);
+        long jerusalem = addMatch(1, OTHER_CITY, OTHER_TEAM, OTHER_TEAM_2);
+
+        // Quotes and gershayim in abbreviations
+        assertEquals(Collections.singletonList(telAviv), searchAll("מכבי תא", 10));
+        assertEquals(Collections.singletonList(telAviv), searchAll("ת״א", 10));
+        // Final letters, typed or not
+        assertEquals(Collections.singletonList(jerusalem), searchAll("ירושלים", 10));
+        assertEquals(Collections.singletonList(jerusalem), searchAll("ירושלימ", 10));
+        // A name found without its leading article
+        assertEquals(Arrays.asList(jerusalem, telAviv), searchAll("פועל", 10));
+        assertEquals(Arrays.asList(jerusalem, telAviv), searchAll("הפועל", 10));
+    }
+
+    /**
+     * Adds one match on the given day after the first, returning its ID.
+     */
+    private long addMatch(int day, String city, String teamA, String teamB) {
+        Match match = new Match(DateFormatter.formatEpochDay(FIRST_DAY + day), city, teamA, teamB, 1, 0);
+        MatchDao.addMatches(db, Collections.singletonList(match), 1);
+        assertTrue(match.getId() > 0);
+        return match.getId();
+    }
+
+    /**
+     * Reads every page of a search, checking that only the last is short.
+     */
+    private List<Long> searchAll(String query, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        MatchPage.Key after = MatchPage.Key.FIRST;
+        while (after != null) {
+            MatchPage page = MatchDao.searchMatches(db, query, after, pageSize);
+            for (Match match : page.getMatches()) {
+                ids.add(match.getId());
+            }
+            after = page.getNextKey();
+            assertTrue(after == null || page.getMatches().size() == pageSize);
+        }
+        return ids;
+    }
+}
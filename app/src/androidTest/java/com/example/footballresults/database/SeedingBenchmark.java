@@ -0,0 +1,154 @@
+package com.example.footballresults.database;
+
+import android.annotation.SuppressLint;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.footballresults.utils.MatchGenerator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares seeding through the batched bulk insert, which scores each batch in
+ * memory and writes one UPDATE per team, with the original seeding pass that
+ * walked every match with a cursor and ran a SELECT and an UPDATE for each side.
+ * The bulk time covers inserting and scoring; the per-match time covers scoring
+ * alone, so the saving reported is a lower bound.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class SeedingBenchmark {
+    private static final String TAG = "SeedingBenchmark";
+    private static final int[] MATCH_COUNTS = {100, 1_000, 10_000, 100_000};
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("seeding_benchmark.db");
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = scratch.open();
+    }
+
+    @Test
+    public void bulkVersusPerMatchScoring() {
+        for (int matchCount : MATCH_COUNTS) {
+            MatchGenerator generator = MatchGenerator.forMatchCount(matchCount, 42);
+
+            long start = SystemClock.elapsedRealtimeNanos();
+            int inserted = DatabaseSeeder.generateMatches(db, generator, MatchDao.DEFAULT_BATCH_SIZE, null);
+            long bulkMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+            assertEquals(matchCount, inserted);
+            String expected = dumpTeamStats();
+
+            start = SystemClock.elapsedRealtimeNanos();
+            scorePerMatch();
+            long perMatchMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+            assertEquals(expected, dumpTeamStats());
+
+            Log.i(TAG, matchCount + " matches: bulk seed " + bulkMs + " ms, per-match scoring "
+                    + perMatchMs + " ms");
+        }
+    }
+
+    /**
+     * Recomputes team_stats the way seeding originally did, in one transaction:
+     * reset every team, then for each match look up both teams by name and write
+     * their updated totals back.
+     */
+    private void scorePerMatch() {
+        db.beginTransaction();
+        try {
+            ContentValues zero = new ContentValues();
+            zero.put(DatabaseHelper.COLUMN_MATCHES_PLAYED, 0);
+            zero.put(DatabaseHelper.COLUMN_WINS, 0);
+            zero.put(DatabaseHelper.COLUMN_DRAWS, 0);
+            zero.put(DatabaseHelper.COLUMN_LOSSES, 0);
+            zero.put(DatabaseHelper.COLUMN_GOALS_SCORED, 0);
+            zero.put(DatabaseHelper.COLUMN_GOALS_AGAINST, 0);
+            zero.put(DatabaseHelper.COLUMN_POINTS, 0);
+            db.update(DatabaseHelper.TABLE_TEAM_STATS, zero, null, null);
+
+            Cursor cursor = db.query(DatabaseHelper.VIEW_MATCH_DETAILS, null, null, null, null, null, null);
+            try {
+                while (cursor.moveToNext()) {
+                    @SuppressLint("Range") String teamA = cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_A));
+                    @SuppressLint("Range") String teamB = cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_B));
+                    @SuppressLint("Range") int teamAGoals = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_A_GOALS));
+                    @SuppressLint("Range") int teamBGoals = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_B_GOALS));
+                    scoreTeam(teamA, teamAGoals, teamBGoals);
+                    scoreTeam(teamB, teamBGoals, teamAGoals);
+                }
+            } finally {
+                cursor.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Adds one result to a team with a SELECT by name followed by an UPDATE.
+     */
+    @SuppressLint("Range")
+    private void scoreTeam(String teamName, int goalsScored, int goalsAgainst) {
+        String[] args = {teamName};
+        Cursor cursor = db.query(DatabaseHelper.TABLE_TEAM_STATS, null,
+                DatabaseHelper.COLUMN_TEAM_NAME + "=?", args, null, null, null);
+        try {
+            if (!cursor.moveToFirst()) {
+                return;
+            }
+            boolean win = goalsScored > goalsAgainst;
+            boolean draw = goalsScored == goalsAgainst;
+            ContentValues values = new ContentValues();
+            values.put(DatabaseHelper.COLUMN_MATCHES_PLAYED,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_MATCHES_PLAYED)) + 1);
+            values.put(DatabaseHelper.COLUMN_WINS,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_WINS)) + (win ? 1 : 0));
+            values.put(DatabaseHelper.COLUMN_DRAWS,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_DRAWS)) + (draw ? 1 : 0));
+            values.put(DatabaseHelper.COLUMN_LOSSES,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_LOSSES)) + (win || draw ? 0 : 1));
+            values.put(DatabaseHelper.COLUMN_GOALS_SCORED,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_GOALS_SCORED)) + goalsScored);
+            values.put(DatabaseHelper.COLUMN_GOALS_AGAINST,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_GOALS_AGAINST)) + goalsAgainst);
+            values.put(DatabaseHelper.COLUMN_POINTS,
+                    cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_POINTS)) + (win ? 3 : draw ? 1 : 0));
+            db.update(DatabaseHelper.TABLE_TEAM_STATS, values, DatabaseHelper.COLUMN_TEAM_NAME + "=?", args);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private String dumpTeamStats() {
+        StringBuilder dump = new StringBuilder();
+        Cursor cursor = db.query(DatabaseHelper.TABLE_TEAM_STATS, null, null, null, null, null,
+                DatabaseHelper.COLUMN_TEAM_ID);
+        try {
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < cursor.getColumnCount(); i++) {
+                    dump.append(cursor.getString(i)).append(',');
+                }
+                dump.append('\n');
+            }
+        } finally {
+            cursor.close();
+        }
+        return dump.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.footballresults.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.footballresults.utils.MatchGenerator;
+import com.example.footballresults.utils.StandingsAccumulator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times the standings as of past dates over a million generated matches: the first
+ * read takes the standings checkpoints, and later reads of random dates start from
+ * the nearest one.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class StandingsAsOfBenchmark {
+    private static final String TAG = "StandingsAsOfBenchmark";
+    private static final int MATCH_COUNT = 1_000_000;
+    private static final int READS = 50;
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("standings_as_of_benchmark.db");
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = scratch.open();
+    }
+
+    @Test
+    public void standingsAsOfRandomDates() {
+        MatchGenerator generator = MatchGenerator.forMatchCount(MATCH_COUNT, 42);
+        assertEquals(MATCH_COUNT, DatabaseSeeder.generateMatches(db, generator, MatchDao.DEFAULT_BATCH_SIZE, null));
+
+        Cursor cursor = db.rawQuery("SELECT min(" + DatabaseHelper.COLUMN_MATCH_DAY + "), max("
+                + DatabaseHelper.COLUMN_MATCH_DAY + ") FROM " + DatabaseHelper.TABLE_MATCHES, null);
+        int firstDay;
+        int lastDay;
+        try {
+            assertTrue(cursor.moveToFirst());
+            firstDay = cursor.getInt(0);
+            lastDay = cursor.getInt(1);
+        } finally {
+            cursor.close();
+        }
+
+        long start = SystemClock.elapsedRealtime();
+        StandingsAccumulator latest = StandingsCheckpoints.getStandingsAsOf(db, lastDay);
+        long buildMs = SystemClock.elapsedRealtime() - start;
+        int played = 0;
+        for (int teamId = 0; teamId < latest.getTeamIdLimit(); teamId++) {
+            played += latest.getMatchesPlayed(teamId);
+        }
+        assertEquals(2 * MATCH_COUNT, played);
+        Log.i(TAG, "First read, taking the checkpoints: " + buildMs + " ms");
+
+        Random random = new Random(42);
+        long slowestUs = 0;
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < READS; i++) {
+            int day = firstDay + random.nextInt(lastDay - firstDay + 1);
+            long readStart = SystemClock.elapsedRealtimeNanos();
+            StandingsCheckpoints.getStandingsAsOf(db, day);
+            slowestUs = Math.max(slowestUs, (SystemClock.elapsedRealtimeNanos() - readStart) / 1_000);
+        }
+        long averageUs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000 / READS;
+        Log.i(TAG, READS + " random dates: " + averageUs + " us on average, slowest " + slowestUs + " us");
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.footballresults.database;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures how {@link TeamStatsDao#rebuildAllTeamStats(SQLiteDatabase)} scales
+ * with the number of matches.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatsRebuildBenchmark {
+    private static final String TAG = "StatsRebuildBenchmark";
+    private static final int TEAM_COUNT = 20;
+    private static final int[] MATCH_COUNTS = {1_000, 10_000, 100_000, 1_000_000};
+
+    @Rule
+    public final ScratchDatabase scratch = new ScratchDatabase("stats_rebuild_benchmark.db");
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = scratch.open();
+
+        for (int i = 1; i <= TEAM_COUNT; i++) {
+            TeamStatsDao.getOrCreateTeamId(db, "Team " + i);
+        }
+    }
+
+    @Test
+    public void rebuildScaling() {
+        Random random = new Random(42);
+        int inserted = 0;
+
+        for (int matchCount : MATCH_COUNTS) {
+            insertRandomMatches(random, matchCount - inserted);
+            inserted = matchCount;
+
+            // Warm up once so every size is timed with a hot page cache
+            TeamStatsDao.rebuildAllTeamStats(db);
+
+            long start = SystemClock.elapsedRealtimeNanos();
+            int processed = TeamStatsDao.rebuildAllTeamStats(db);
+            long elapsedMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+
+            assertEquals(matchCount, processed);
+            assertEquals(2L * matchCount, sumMatchesPlayed());
+            Log.i(TAG, matchCount + " matches rebuilt in " + elapsedMs + " ms");
+        }
+    }
+
+    /**
+     * Appends random matches between the benchmark teams in one transaction.
+     */
+    private void insertRandomMatches(Random random, int count) {
+        SQLiteStatement statement = db.compileStatement("INSERT INTO " + DatabaseHelper.TABLE_MATCHES + " ("
+                + DatabaseHelper.COLUMN_DATE + ", " + DatabaseHelper.COLUMN_MATCH_DAY + ", "
+                + DatabaseHelper.COLUMN_CITY + ", " + DatabaseHelper.COLUMN_TEAM_A_ID + ", "
+                + DatabaseHelper.COLUMN_TEAM_B_ID + ", " + DatabaseHelper.COLUMN_TEAM_A_GOALS + ", "
+                + DatabaseHelper.COLUMN_TEAM_B_GOALS + ") VALUES ('01/01/2023', 19358, 'City', ?, ?, ?, ?)");
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < count; i++) {
+                int teamA = 1 + random.nextInt(TEAM_COUNT);
+                int teamB = 1 + (teamA + random.nextInt(TEAM_COUNT - 1)) % TEAM_COUNT;
+                statement.bindLong(1, teamA);
+                statement.bindLong(2, teamB);
+                statement.bindLong(3, random.nextInt(5));
+                statement.bindLong(4, random.nextInt(5));
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    private long sumMatchesPlayed() {
+        return DatabaseUtils.longForQuery(db, "SELECT SUM("
+                + DatabaseHelper.COLUMN_MATCHES_PLAYED + ") FROM " + DatabaseHelper.TABLE_TEAM_STATS, null);
+    }
+}
@@ -1,36 +1,201 @@
 package com.example.footballresults.activities;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.net.Uri;
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.util.Log;
 import android.view.View;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.footballresults.R;
-import com.example.footballresults.database.DatabaseSeeder;
+import com.example.footballresults.database.MatchCsvImporter;
+import com.example.footballresults.repository.FootballRepository;
+import com.example.footballresults.utils.MatchGenerator;
 
 /**
  * Main entry point of the application.
  * This activity serves as the home screen and provides navigation to all major features
  * including adding matches, viewing match history, checking team statistics, and searching matches.
+ * Its menu imports historical matches from a CSV file.
+ * In debuggable builds, starting it with {@link #EXTRA_GENERATE_MATCHES} replaces all
+ * data with a synthetic league for load testing, for example:
+ * adb shell am start -n com.example.footballresults/.activities.MainActivity --ei generate_matches 100000
  */
 public class MainActivity extends AppCompatActivity {
+    private static final String TAG = "MainActivity";
+
+    /** Intent extras of the synthetic data generator; only the match count is required */
+    public static final String EXTRA_GENERATE_MATCHES = "generate_matches";
+    public static final String EXTRA_GENERATE_TEAMS = "generate_teams";
+    public static final String EXTRA_GENERATE_SEASONS = "generate_seasons";
+    public static final String EXTRA_GENERATE_FIRST_YEAR = "generate_first_year";
+    public static final String EXTRA_GENERATE_HOME_GOALS = "generate_home_goals";
+    public static final String EXTRA_GENERATE_AWAY_GOALS = "generate_away_goals";
+    public static final String EXTRA_GENERATE_SEED = "generate_seed";
+
     /** UI Components for navigation buttons */
     private View btnAddMatch, btnViewMatches, btnTeamStats, btnSearch;
 
+    /** Pending database requests, cancelled when the activity is destroyed */
+    private final FootballRepository.RequestGroup requests = new FootballRepository.RequestGroup();
+
+    /** MIME types offered when picking a file to import */
+    private static final String[] CSV_MIME_TYPES = {"text/csv", "text/comma-separated-values", "text/plain"};
+
+    /** Lets the user pick the CSV file to import */
+    private final ActivityResultLauncher<String[]> importPicker = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importMatches);
+
+    /** Dialog shown while an import or a data generation runs */
+    private AlertDialog progressDialog;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Seed database with initial data if needed
-        DatabaseSeeder seeder = new DatabaseSeeder(this);
-        seeder.seedDatabase();
+        // Seed database with initial data if needed, in the background.
+        // Screens opened meanwhile queue behind it on the database thread.
+        requests.add(FootballRepository.getInstance(this).seedDatabase(null));
+        if (savedInstanceState == null && getIntent().hasExtra(EXTRA_GENERATE_MATCHES) && isDebuggable()) {
+            generateMatches(getIntent());
+        }
 
         // Initialize UI components
         initializeViews();
     }
 
+    @Override
+    protected void onDestroy() {
+        requests.cancelAll();
+        if (progressDialog != null) {
+            progressDialog.dismiss();
+        }
+        super.onDestroy();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_main, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == R.id.action_import_csv) {
+            importPicker.launch(CSV_MIME_TYPES);
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    /**
+     * Imports the matches of the picked file in the background, showing how many
+     * rows have been read so far.
+     * @param uri The picked file, or null if the user backed out
+     */
+    private void importMatches(Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        progressDialog = new AlertDialog.Builder(this)
+                .setTitle(R.string.import_matches)
+                .setMessage(getString(R.string.import_in_progress, 0))
+                .setCancelable(false)
+                .show();
+        requests.add(FootballRepository.getInstance(this).importMatches(uri,
+                rowsRead -> progressDialog.setMessage(getString(R.string.import_in_progress, rowsRead)),
+                this::showImportResult));
+    }
+
+    /**
+     * Replaces all data with the synthetic league described by the intent's extras,
+     * showing how many matches have been stored so far.
+     * @param intent The intent carrying {@link #EXTRA_GENERATE_MATCHES} and optional settings
+     */
+    private void generateMatches(Intent intent) {
+        MatchGenerator generator;
+        try {
+            int matchCount = intent.getIntExtra(EXTRA_GENERATE_MATCHES, 0);
+            generator = MatchGenerator.forMatchCount(matchCount, intent.getLongExtra(EXTRA_GENERATE_SEED, 42));
+            if (intent.hasExtra(EXTRA_GENERATE_SEASONS)) {
+                int seasons = intent.getIntExtra(EXTRA_GENERATE_SEASONS, 1);
+                generator.setSeasons(seasons).setMatchesPerSeason(Math.max(1, matchCount / Math.max(1, seasons)));
+            }
+            if (intent.hasExtra(EXTRA_GENERATE_TEAMS)) {
+                generator.setTeamCount(intent.getIntExtra(EXTRA_GENERATE_TEAMS, 0));
+            }
+            if (intent.hasExtra(EXTRA_GENERATE_FIRST_YEAR)) {
+                generator.setFirstSeasonYear(intent.getIntExtra(EXTRA_GENERATE_FIRST_YEAR, 0));
+            }
+            if (intent.hasExtra(EXTRA_GENERATE_HOME_GOALS) || intent.hasExtra(EXTRA_GENERATE_AWAY_GOALS)) {
+                generator.setGoalsMeans(intent.getFloatExtra(EXTRA_GENERATE_HOME_GOALS, 1.5f),
+                        intent.getFloatExtra(EXTRA_GENERATE_AWAY_GOALS, 1.1f));
+            }
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Invalid generator settings: " + e.getMessage());
+            return;
+        }
+
+        progressDialog = new AlertDialog.Builder(this)
+                .setTitle(R.string.generate_matches)
+                .setMessage(getString(R.string.generate_in_progress, 0))
+                .setCancelable(false)
+                .show();
+        requests.add(FootballRepository.getInstance(this).generateMatches(generator,
+                matchesInserted -> progressDialog.setMessage(getString(R.string.generate_in_progress, matchesInserted)),
+                matchesInserted -> {
+                    progressDialog.dismiss();
+                    progressDialog = null;
+                    new AlertDialog.Builder(this)
+                            .setTitle(R.string.generate_matches)
+                            .setMessage(getString(R.string.generate_finished, matchesInserted))
+                            .setPositiveButton(R.string.ok, null)
+                            .show();
+                }));
+    }
+
+    /**
+     * Checks whether the app was built debuggable, the only builds that may generate data.
+     * @return true for debuggable builds
+     */
+    private boolean isDebuggable() {
+        return (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    /**
+     * Replaces the progress dialog with a summary of the import.
+     * @param result The outcome of the import
+     */
+    private void showImportResult(MatchCsvImporter.Result result) {
+        progressDialog.dismiss();
+        progressDialog = null;
+
+        StringBuilder message = new StringBuilder();
+        if (result.isReadFailed()) {
+            message.append(getString(R.string.error_import_read)).append('\n');
+        }
+        message.append(getString(R.string.import_finished, result.getRowsImported(), result.getRowsRejected()));
+        if (!result.getErrors().isEmpty()) {
+            MatchCsvImporter.RowError error = result.getErrors().get(0);
+            message.append('\n').append(getString(R.string.import_first_error,
+                    error.getLineNumber(), getString(error.getMessageId())));
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.import_matches)
+                .setMessage(message)
+                .setPositiveButton(R.string.ok, null)
+                .show();
+    }
+
     /**
      * Initializes all UI components and sets up their click listeners.
      * Each button launches a different activity for specific functionality:
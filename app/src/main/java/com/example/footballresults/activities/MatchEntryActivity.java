@@ -2,40 +2,68 @@ package com.example.footballresults.activities;
 
 import android.app.DatePickerDialog;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.footballresults.R;
-import com.example.footballresults.database.MatchDao;
+import com.example.footballresults.adapters.SuggestionAdapter;
+import com.example.footballresults.database.HeadToHeadDao;
+import com.example.footballresults.models.HeadToHead;
 import com.example.footballresults.models.Match;
+import com.example.footballresults.repository.FootballRepository;
 import com.example.footballresults.utils.DateFormatter;
-import com.example.footballresults.utils.StatisticsCalculator;
+import com.example.footballresults.utils.HeadToHeadFormatter;
+import com.example.footballresults.utils.MatchValidator;
+import com.example.footballresults.utils.NameSuggestions;
 
 import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Activity for adding new matches or editing existing ones.
  * This activity provides a form interface for users to input match details
  * including date, location, teams, and scores. It handles both creation of
  * new matches and editing of existing ones.
+ * Team and city fields suggest the names already stored, and a new name that is
+ * close to a known one is confirmed before saving, so a typo does not create a
+ * second team or city. Once both teams are filled in, their head to head record
+ * so far is shown under them.
  */
 public class MatchEntryActivity extends AppCompatActivity {
     // UI Components
-    private EditText etDate, etCity, etTeamA, etTeamB, etTeamAGoals, etTeamBGoals;
+    private EditText etDate, etTeamAGoals, etTeamBGoals;
+    private AutoCompleteTextView etCity, etTeamA, etTeamB;
     private Button btnSave, btnCancel, btnDelete;
+    private TextView tvHeadToHead;
+
+    // Suggestion dropdowns of the name fields
+    private SuggestionAdapter cityAdapter, teamAAdapter, teamBAdapter;
     
-    // Data Access Objects and Utilities
-    private MatchDao matchDao;
-    private StatisticsCalculator statsCalculator;
+    // Repository for background database access, and its pending requests
+    private FootballRepository repository;
+    private final FootballRepository.RequestGroup requests = new FootballRepository.RequestGroup();
+
+    // Request for the head to head record, cancelled when either team changes
+    private FootballRepository.Request headToHeadRequest;
     
     // State Variables
     private Match existingMatch;
     private Calendar calendar;
 
+    // Known names, null until loaded, and new names the user chose to keep
+    private NameSuggestions nameSuggestions;
+    private final Set<String> confirmedNames = new HashSet<>();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -61,6 +89,14 @@ public class MatchEntryActivity extends AppCompatActivity {
         btnSave = findViewById(R.id.btn_save);
         btnCancel = findViewById(R.id.btn_cancel);
         btnDelete = findViewById(R.id.btn_delete);
+        tvHeadToHead = findViewById(R.id.tv_head_to_head);
+
+        cityAdapter = new SuggestionAdapter(this);
+        teamAAdapter = new SuggestionAdapter(this);
+        teamBAdapter = new SuggestionAdapter(this);
+        etCity.setAdapter(cityAdapter);
+        etTeamA.setAdapter(teamAAdapter);
+        etTeamB.setAdapter(teamBAdapter);
     }
 
     /**
@@ -68,26 +104,42 @@ public class MatchEntryActivity extends AppCompatActivity {
      * If editing an existing match, loads its data into the form.
      */
     private void initializeData() {
-        matchDao = new MatchDao(this);
-        statsCalculator = new StatisticsCalculator(this);
+        repository = FootballRepository.getInstance(this);
         calendar = Calendar.getInstance();
+        requests.add(repository.getNameSuggestions(this::showNameSuggestions));
 
         // Check if we're editing an existing match
         if (getIntent().hasExtra("match_id")) {
             long matchId = getIntent().getLongExtra("match_id", -1);
             if (matchId != -1) {
-                matchDao.open();
-                existingMatch = matchDao.getMatchById(matchId);
-                matchDao.close();
-
-                if (existingMatch != null) {
-                    populateFields(existingMatch);
-                    btnDelete.setVisibility(View.VISIBLE);
-                }
+                requests.add(repository.getMatchById(matchId, match -> {
+                    existingMatch = match;
+                    if (existingMatch != null) {
+                        populateFields(existingMatch);
+                        btnDelete.setVisibility(View.VISIBLE);
+                    }
+                }));
             }
         }
     }
 
+    /**
+     * Starts suggesting the known names in the team and city fields.
+     * @param suggestions The known team names and cities
+     */
+    private void showNameSuggestions(NameSuggestions suggestions) {
+        nameSuggestions = suggestions;
+        cityAdapter.setLookup(suggestions::suggestCities);
+        teamAAdapter.setLookup(suggestions::suggestTeams);
+        teamBAdapter.setLookup(suggestions::suggestTeams);
+    }
+
+    @Override
+    protected void onDestroy() {
+        requests.cancelAll();
+        super.onDestroy();
+    }
+
     /**
      * Sets up click listeners for all interactive components.
      * This includes the date picker dialog and action buttons.
@@ -113,13 +165,31 @@ public class MatchEntryActivity extends AppCompatActivity {
         // Save button
         btnSave.setOnClickListener(v -> {
             if (validateInputs()) {
-                saveMatch();
+                confirmNamesAndSave();
             }
         });
 
         // Cancel button
         btnCancel.setOnClickListener(v -> finish());
 
+        // Head to head record of the two teams
+        TextWatcher teamWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                refreshHeadToHead();
+            }
+        };
+        etTeamA.addTextChangedListener(teamWatcher);
+        etTeamB.addTextChangedListener(teamWatcher);
+
         // Delete button
         btnDelete.setOnClickListener(v -> {
             if (existingMatch != null) {
@@ -134,111 +204,166 @@ public class MatchEntryActivity extends AppCompatActivity {
      */
     private void populateFields(Match match) {
         etDate.setText(match.getDate());
-        etCity.setText(match.getCity());
-        etTeamA.setText(match.getTeamA());
-        etTeamB.setText(match.getTeamB());
+        etCity.setText(match.getCity(), false);
+        etTeamA.setText(match.getTeamA(), false);
+        etTeamB.setText(match.getTeamB(), false);
         etTeamAGoals.setText(String.valueOf(match.getTeamAGoals()));
         etTeamBGoals.setText(String.valueOf(match.getTeamBGoals()));
     }
 
+    /**
+     * Shows the head to head record of the two teams typed in, or hides it while
+     * either team is missing or unknown, or the teams have never met.
+     */
+    private void refreshHeadToHead() {
+        if (headToHeadRequest != null) {
+            headToHeadRequest.cancel();
+            headToHeadRequest = null;
+        }
+        String teamA = getName(etTeamA);
+        String teamB = getName(etTeamB);
+        if (teamA.isEmpty() || teamB.isEmpty() || teamA.equals(teamB)) {
+            tvHeadToHead.setVisibility(View.GONE);
+            return;
+        }
+        headToHeadRequest = requests.add(repository.getHeadToHead(teamA, teamB,
+                HeadToHeadDao.DEFAULT_MEETING_COUNT, this::showHeadToHead));
+    }
+
+    /**
+     * Shows a head to head record under the team fields.
+     * @param record The record from team A's side, or null to hide it
+     */
+    private void showHeadToHead(HeadToHead record) {
+        if (record == null) {
+            tvHeadToHead.setVisibility(View.GONE);
+        } else {
+            tvHeadToHead.setText(HeadToHeadFormatter.format(this, record));
+            tvHeadToHead.setVisibility(View.VISIBLE);
+        }
+    }
+
     /**
      * Validates all input fields to ensure they contain valid data.
+     * Uses the same rules as the CSV import, see {@link MatchValidator}.
      * Shows appropriate error messages if validation fails.
      * @return true if all inputs are valid, false otherwise
      */
     private boolean validateInputs() {
-        if (etDate.getText().toString().trim().isEmpty()) {
-            showToast(getString(R.string.error_date_required));
-            return false;
-        }
-
-        String dateStr = etDate.getText().toString().trim();
-        if (!DateFormatter.isValidDate(dateStr)) {
-            showToast(getString(R.string.error_invalid_date));
+        MatchValidator.Error error = MatchValidator.validate(
+                etDate.getText().toString(),
+                etCity.getText().toString(),
+                etTeamA.getText().toString(),
+                etTeamB.getText().toString(),
+                etTeamAGoals.getText().toString(),
+                etTeamBGoals.getText().toString());
+        if (error != null) {
+            showToast(getString(error.getMessageId()));
             return false;
         }
+        return true;
+    }
 
-        if (etCity.getText().toString().trim().isEmpty()) {
-            showToast(getString(R.string.error_city_required));
-            return false;
-        }
-        if (etTeamA.getText().toString().trim().isEmpty()) {
-            showToast(getString(R.string.error_team_a_required));
-            return false;
-        }
-        if (etTeamB.getText().toString().trim().isEmpty()) {
-            showToast(getString(R.string.error_team_b_required));
-            return false;
-        }
-        if (etTeamAGoals.getText().toString().trim().isEmpty()) {
-            showToast(getString(R.string.error_team_a_goals_required));
-            return false;
-        }
-        if (etTeamBGoals.getText().toString().trim().isEmpty()) {
-            showToast(getString(R.string.error_team_b_goals_required));
-            return false;
+    /**
+     * Saves the match once every new team and city name is settled: a name close to
+     * a known one is shown to the user, who either takes the known name or keeps
+     * the new one.
+     */
+    private void confirmNamesAndSave() {
+        if (nameSuggestions != null) {
+            if (confirmName(etTeamA, nameSuggestions.findSimilarTeam(getName(etTeamA)), R.string.similar_team_message)
+                    || confirmName(etTeamB, nameSuggestions.findSimilarTeam(getName(etTeamB)), R.string.similar_team_message)
+                    || confirmName(etCity, nameSuggestions.findSimilarCity(getName(etCity)), R.string.similar_city_message)) {
+                return;
+            }
         }
+        saveMatch();
+    }
 
-        String teamA = etTeamA.getText().toString().trim();
-        String teamB = etTeamB.getText().toString().trim();
-        if (teamA.equals(teamB)) {
-            showToast(getString(R.string.error_same_teams));
+    /**
+     * Asks whether a new name was meant to be a known one, unless the user already chose to keep it.
+     * Either answer goes on with the save.
+     * @param field The field holding the new name
+     * @param similarName The known name it is close to, or null if there is none
+     * @param messageId The message that explains the question
+     * @return true if the question was asked, so the save waits for the answer
+     */
+    private boolean confirmName(AutoCompleteTextView field, String similarName, int messageId) {
+        String name = getName(field);
+        if (similarName == null || confirmedNames.contains(name)) {
             return false;
         }
-
+        new AlertDialog.Builder(this)
+                .setTitle(getString(R.string.similar_name_title, similarName))
+                .setMessage(getString(messageId, name))
+                .setPositiveButton(getString(R.string.use_existing_name, similarName), (dialog, which) -> {
+                    field.setText(similarName, false);
+                    // The known name may now clash with the other team
+                    if (validateInputs()) {
+                        confirmNamesAndSave();
+                    }
+                })
+                .setNegativeButton(R.string.keep_new_name, (dialog, which) -> {
+                    confirmedNames.add(name);
+                    confirmNamesAndSave();
+                })
+                .setNeutralButton(R.string.cancel, null)
+                .show();
         return true;
     }
 
+    /**
+     * Gets the name typed in a field, as it will be saved.
+     * @param field The team or city field
+     * @return The trimmed text
+     */
+    private static String getName(EditText field) {
+        return field.getText().toString().trim();
+    }
+
     /**
      * Saves the match data to the database.
      * If editing an existing match, updates its data and recalculates statistics.
      * If creating a new match, adds it to the database and updates statistics.
+     * The match and both teams' statistics are written in a single transaction.
      */
     private void saveMatch() {
         String date = etDate.getText().toString().trim();
         String city = etCity.getText().toString().trim();
         String teamA = etTeamA.getText().toString().trim();
         String teamB = etTeamB.getText().toString().trim();
-        int teamAGoals = Integer.parseInt(etTeamAGoals.getText().toString().trim());
-        int teamBGoals = Integer.parseInt(etTeamBGoals.getText().toString().trim());
+        int teamAGoals = MatchValidator.parseGoals(etTeamAGoals.getText().toString());
+        int teamBGoals = MatchValidator.parseGoals(etTeamBGoals.getText().toString());
 
         Match match = new Match(date, city, teamA, teamB, teamAGoals, teamBGoals);
-
-        matchDao.open();
+        setButtonsEnabled(false);
 
         if (existingMatch != null) {
             // We need to update an existing match
             match.setId(existingMatch.getId());
 
-            // First remove the old match's impact on statistics
-            statsCalculator.removeMatchStats(existingMatch);
-
-            // Update the match
-            boolean success = matchDao.updateMatch(match);
-
-            if (success) {
-                // Add the new match's impact on statistics
-                statsCalculator.calculateStatsForMatch(match);
-                showToast(getString(R.string.match_updated));
-                finish();
-            } else {
-                showToast(getString(R.string.error_update_match));
-            }
+            // Replace the old match's impact on statistics with the new one
+            requests.add(repository.updateMatch(match, success -> {
+                if (success) {
+                    showToast(getString(R.string.match_updated));
+                    finish();
+                } else {
+                    showToast(getString(R.string.error_update_match));
+                    setButtonsEnabled(true);
+                }
+            }));
         } else {
-            // Adding a new match
-            long matchId = matchDao.addMatch(match);
-
-            if (matchId != -1) {
-                match.setId(matchId);
-                statsCalculator.calculateStatsForMatch(match);
-                showToast(getString(R.string.match_added));
-                finish();
-            } else {
-                showToast(getString(R.string.error_add_match));
-            }
+            // Adding a new match together with its impact on statistics
+            requests.add(repository.insertMatch(match, matchId -> {
+                if (matchId != -1) {
+                    showToast(getString(R.string.match_added));
+                    finish();
+                } else {
+                    showToast(getString(R.string.error_add_match));
+                    setButtonsEnabled(true);
+                }
+            }));
         }
-
-        matchDao.close();
     }
 
     /**
@@ -247,23 +372,28 @@ public class MatchEntryActivity extends AppCompatActivity {
      * @param matchId The ID of the match to delete
      */
     private void deleteMatch(long matchId) {
-        matchDao.open();
-        Match match = matchDao.getMatchById(matchId);
-
-        if (match != null) {
-            // Remove this match's impact on team statistics
-            statsCalculator.removeMatchStats(match);
+        setButtonsEnabled(false);
 
-            boolean success = matchDao.deleteMatch(matchId);
+        // Remove the match and its impact on team statistics together
+        requests.add(repository.deleteMatch(matchId, success -> {
             if (success) {
                 showToast(getString(R.string.match_deleted));
                 finish();
             } else {
                 showToast(getString(R.string.error_delete_match));
+                setButtonsEnabled(true);
             }
-        }
+        }));
+    }
 
-        matchDao.close();
+    /**
+     * Enables or disables the save and delete buttons, so a write that is
+     * still running cannot be submitted twice.
+     * @param enabled true to enable the buttons
+     */
+    private void setButtonsEnabled(boolean enabled) {
+        btnSave.setEnabled(enabled);
+        btnDelete.setEnabled(enabled);
     }
 
     /**
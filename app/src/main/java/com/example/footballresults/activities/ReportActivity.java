@@ -1,13 +1,18 @@
 package com.example.footballresults.activities;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.TextView;
+import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -15,36 +20,57 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.footballresults.R;
 import com.example.footballresults.adapters.MatchAdapter;
 import com.example.footballresults.adapters.TeamStatsAdapter;
-import com.example.footballresults.database.MatchDao;
-import com.example.footballresults.database.TeamStatsDao;
-import com.example.footballresults.models.Match;
+import com.example.footballresults.database.MatchPage;
+import com.example.footballresults.database.ReportExporter;
 import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.repository.FootballRepository;
+import com.example.footballresults.utils.MatchPagedList;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Activity for displaying various types of reports.
  * This activity can show either a list of matches or team statistics
  * depending on the report type specified in the intent.
- * Supports viewing match details and editing matches from the list.
+ * Supports viewing match details and editing matches from the list,
+ * and exporting the report to a CSV, JSON or PDF file.
  */
 public class ReportActivity extends AppCompatActivity {
     /** UI Components */
     private RecyclerView recyclerView;
     private TextView tvTitle, tvNoData;
     
-    /** Data Access Objects */
-    private MatchDao matchDao;
-    private TeamStatsDao teamStatsDao;
+    /** Repository for background database access, and its pending requests */
+    private FootballRepository repository;
+    private final FootballRepository.RequestGroup requests = new FootballRepository.RequestGroup();
     
     /** Type of report to display ("matches" or "stats") */
     private String reportType;
 
+    /** Adapters kept across reloads so refreshed data is applied as a diff */
+    private MatchAdapter matchAdapter;
+    private TeamStatsAdapter teamStatsAdapter;
+
+    /** Let the user choose where to save an export, one per file format */
+    private final Map<ReportExporter.Format, ActivityResultLauncher<String>> exportPickers =
+            new EnumMap<>(ReportExporter.Format.class);
+
+    /** Dialog shown while an export runs */
+    private AlertDialog exportDialog;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_report);
 
+        for (ReportExporter.Format format : ReportExporter.Format.values()) {
+            exportPickers.put(format, registerForActivityResult(
+                    new ActivityResultContracts.CreateDocument(format.getMimeType()),
+                    uri -> exportReport(uri, format)));
+        }
+
         // Set up toolbar with back button
         if (getSupportActionBar() != null) {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
@@ -70,11 +96,10 @@ public class ReportActivity extends AppCompatActivity {
     }
 
     /**
-     * Initializes data access objects.
+     * Initializes the repository.
      */
     private void initializeData() {
-        matchDao = new MatchDao(this);
-        teamStatsDao = new TeamStatsDao(this);
+        repository = FootballRepository.getInstance(this);
     }
 
     /**
@@ -107,6 +132,15 @@ public class ReportActivity extends AppCompatActivity {
         loadReportData();
     }
 
+    @Override
+    protected void onDestroy() {
+        requests.cancelAll();
+        if (exportDialog != null) {
+            exportDialog.dismiss();
+        }
+        super.onDestroy();
+    }
+
     /**
      * Loads the appropriate report data based on the report type.
      */
@@ -121,43 +155,71 @@ public class ReportActivity extends AppCompatActivity {
     /**
      * Loads and displays the matches report.
      * Shows a list of all matches sorted by date, with the ability to edit matches.
+     * Matches are read a page at a time as the list scrolls.
      */
     private void loadMatchesReport() {
-        matchDao.open();
-        // Use the new method that returns matches sorted by date
-        List<Match> matches = matchDao.getAllMatchesSortedByDate();
-        matchDao.close();
+        int firstPageSize = matchAdapter != null ? matchAdapter.getRefreshSize() : MatchPagedList.DEFAULT_PAGE_SIZE;
+        requests.add(repository.getMatchPage(-1, MatchPage.Key.FIRST, firstPageSize, this::showMatchesReport));
+    }
 
-        if (matches.isEmpty()) {
-            showNoData();
-        } else {
-            showData();
-            MatchAdapter adapter = new MatchAdapter(this, matches);
-            adapter.setOnItemClickListener(match -> {
+    /**
+     * Displays the matches report once its first page has been read.
+     * @param firstPage The first page of matches
+     */
+    private void showMatchesReport(MatchPage firstPage) {
+        if (matchAdapter == null) {
+            matchAdapter = new MatchAdapter(this);
+            matchAdapter.setOnItemClickListener(match -> {
                 // Open match details for editing
                 Intent intent = new Intent(ReportActivity.this, MatchEntryActivity.class);
                 intent.putExtra("match_id", match.getId());
                 startActivity(intent);
             });
-            recyclerView.setAdapter(adapter);
+            matchAdapter.setOnListStaleListener(this::loadMatchesReport);
+            recyclerView.setAdapter(matchAdapter);
+        }
+        matchAdapter.submitList(new MatchPagedList(this::loadMatchPage, firstPage));
+
+        if (firstPage.getMatches().isEmpty()) {
+            showNoData();
+        } else {
+            showData();
         }
     }
 
+    /**
+     * Reads one page of the matches report.
+     * @param after The key to continue after
+     * @param pageSize The maximum number of matches to read
+     * @param callback Receives the page read
+     */
+    private void loadMatchPage(MatchPage.Key after, int pageSize, FootballRepository.Callback<MatchPage> callback) {
+        requests.add(repository.getMatchPage(-1, after, pageSize, callback));
+    }
+
     /**
      * Loads and displays the team statistics report.
      * Shows a table of team statistics including matches played, wins, draws, etc.
      */
     private void loadTeamStatsReport() {
-        teamStatsDao.open();
-        List<TeamStats> teamStats = teamStatsDao.getAllTeamStats();
-        teamStatsDao.close();
+        requests.add(repository.getAllTeamStats(this::showTeamStatsReport));
+    }
+
+    /**
+     * Displays the team statistics report once it has been read.
+     * @param teamStats The statistics of every team
+     */
+    private void showTeamStatsReport(List<TeamStats> teamStats) {
+        if (teamStatsAdapter == null) {
+            teamStatsAdapter = new TeamStatsAdapter(this);
+            recyclerView.setAdapter(teamStatsAdapter);
+        }
+        teamStatsAdapter.submitList(teamStats);
 
         if (teamStats.isEmpty()) {
             showNoData();
         } else {
             showData();
-            TeamStatsAdapter adapter = new TeamStatsAdapter(this, teamStats);
-            recyclerView.setAdapter(adapter);
         }
     }
 
@@ -198,11 +260,77 @@ public class ReportActivity extends AppCompatActivity {
             finish();
             return true;
         } else if (id == R.id.action_print) {
-            // Handle print report functionality
-            // This would typically involve creating a PDF and printing it
+            chooseExportFormat();
             return true;
         }
 
         return super.onOptionsItemSelected(item);
     }
+
+    /**
+     * Asks which file format to export the report in, then where to save it.
+     */
+    private void chooseExportFormat() {
+        ReportExporter.Format[] formats = ReportExporter.Format.values();
+        String[] labels = new String[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            labels[i] = getString(formats[i].getLabelId());
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.export_report)
+                .setItems(labels, (dialog, which) -> exportPickers.get(formats[which])
+                        .launch(getExportFileName(formats[which])))
+                .show();
+    }
+
+    /**
+     * Gets the file name suggested when saving an export.
+     * @param format The format of the export
+     * @return The suggested file name
+     */
+    private String getExportFileName(ReportExporter.Format format) {
+        return reportType + "_report." + format.getExtension();
+    }
+
+    /**
+     * Gets the report shown by this activity.
+     * @return The report to export
+     */
+    private ReportExporter.Report getExportReport() {
+        return reportType.equals("matches") ? ReportExporter.Report.MATCHES : ReportExporter.Report.STANDINGS;
+    }
+
+    /**
+     * Exports the report to the chosen file in the background, showing how much
+     * of it has been written so far.
+     * @param uri The chosen file, or null if the user backed out
+     * @param format The format to write
+     */
+    private void exportReport(Uri uri, ReportExporter.Format format) {
+        if (uri == null) {
+            return;
+        }
+        exportDialog = new AlertDialog.Builder(this)
+                .setTitle(R.string.export_report)
+                .setMessage(getString(R.string.export_in_progress, 0))
+                .setCancelable(false)
+                .show();
+        requests.add(repository.exportReport(uri, getExportReport(), format,
+                percent -> exportDialog.setMessage(getString(R.string.export_in_progress, percent)),
+                this::showExportResult));
+    }
+
+    /**
+     * Closes the progress dialog and tells the user how the export went.
+     * @param rowsWritten The number of rows written, or -1 if the file could not be written
+     */
+    private void showExportResult(int rowsWritten) {
+        exportDialog.dismiss();
+        exportDialog = null;
+
+        String message = rowsWritten < 0
+                ? getString(R.string.error_export)
+                : getString(R.string.export_finished, rowsWritten);
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+    }
 }
\ No newline at end of file
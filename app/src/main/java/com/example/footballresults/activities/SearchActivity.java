@@ -1,10 +1,13 @@
 package com.example.footballresults.activities;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
+import android.widget.EditText;
 import android.widget.Spinner;
 import android.widget.TextView;
 
@@ -15,35 +18,56 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.footballresults.R;
 import com.example.footballresults.adapters.MatchAdapter;
-import com.example.footballresults.database.MatchDao;
-import com.example.footballresults.database.TeamStatsDao;
-import com.example.footballresults.models.Match;
+import com.example.footballresults.database.MatchPage;
+import com.example.footballresults.models.HeadToHead;
 import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.repository.FootballRepository;
+import com.example.footballresults.utils.FormFormatter;
+import com.example.footballresults.utils.HeadToHeadFormatter;
+import com.example.footballresults.utils.MatchPagedList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Activity for searching matches by team.
- * This activity allows users to select a team from a dropdown spinner
- * and view all matches where that team participated, either as team A or team B.
+ * Activity for searching matches by team or city.
+ * Matches are listed as the user types part of a team or city name, best matching
+ * names first; with no search text, a team can be picked from a dropdown spinner
+ * to view all matches where that team participated, either as team A or team B.
+ * Picking an opponent as well shows the two teams' head to head record and
+ * lists only the matches between them.
  */
 public class SearchActivity extends AppCompatActivity {
     /** UI Components */
-    private Spinner spinnerTeam;
+    private EditText etSearch;
+    private Spinner spinnerTeam, spinnerOpponent;
     private RecyclerView recyclerViewMatches;
-    private TextView tvNoMatches;
+    private TextView tvNoMatches, tvHeadToHead, tvTeamForm;
     
     /** Adapter for displaying matches */
     private MatchAdapter matchAdapter;
     
-    /** Data Access Objects */
-    private MatchDao matchDao;
-    private TeamStatsDao teamStatsDao;
+    /** Repository for background database access, and its pending requests */
+    private FootballRepository repository;
+    private final FootballRepository.RequestGroup requests = new FootballRepository.RequestGroup();
+
+    /** Request for the current search, cancelled when the text changes or another team is picked */
+    private FootballRepository.Request searchRequest;
+
+    /** Request for the head to head record of the picked teams, cancelled along with the search */
+    private FootballRepository.Request headToHeadRequest;
+
+    /** Request for the recent form of the picked teams, cancelled along with the search */
+    private FootballRepository.Request formRequest;
     
     /** List of team names for the spinner */
     private List<String> teamNames;
 
+    /** Team IDs matching the spinner entries (index 0 is the prompt) */
+    private List<Long> teamIds;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -58,6 +82,7 @@ public class SearchActivity extends AppCompatActivity {
         // Initialize views and data
         initializeViews();
         initializeData();
+        setupSearchField();
         setupSpinner();
     }
 
@@ -65,64 +90,104 @@ public class SearchActivity extends AppCompatActivity {
      * Initializes all UI components by finding their views.
      */
     private void initializeViews() {
+        etSearch = findViewById(R.id.et_search);
         spinnerTeam = findViewById(R.id.spinner_team);
+        spinnerOpponent = findViewById(R.id.spinner_opponent);
         recyclerViewMatches = findViewById(R.id.recycler_matches);
         tvNoMatches = findViewById(R.id.tv_no_matches);
+        tvHeadToHead = findViewById(R.id.tv_head_to_head);
+        tvTeamForm = findViewById(R.id.tv_team_form);
 
         // Set up RecyclerView
         recyclerViewMatches.setLayoutManager(new LinearLayoutManager(this));
+        matchAdapter = new MatchAdapter(this);
+        matchAdapter.setOnListStaleListener(() -> refreshResults(matchAdapter.getRefreshSize()));
+        recyclerViewMatches.setAdapter(matchAdapter);
     }
 
     /**
-     * Initializes data access objects.
+     * Initializes the repository.
      */
     private void initializeData() {
-        matchDao = new MatchDao(this);
-        teamStatsDao = new TeamStatsDao(this);
+        repository = FootballRepository.getInstance(this);
+    }
+
+    @Override
+    protected void onDestroy() {
+        requests.cancelAll();
+        super.onDestroy();
+    }
+
+    /**
+     * Sets up the search field to list matching matches as the user types.
+     */
+    private void setupSearchField() {
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                refreshResults();
+            }
+        });
     }
 
     /**
-     * Sets up the team selection spinner with data and listener.
-     * Loads all team names and configures the spinner's behavior
+     * Sets up the team and opponent selection spinners with data and listener.
+     * Loads all team names and configures the spinners' behavior
      * when a team is selected.
      */
     private void setupSpinner() {
         loadTeamNames();
 
         // Set spinner listener
-        spinnerTeam.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+        AdapterView.OnItemSelectedListener listener = new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                if (position > 0) { // Skip the "Select a team" option
-                    String selectedTeam = teamNames.get(position);
-                    searchMatchesByTeam(selectedTeam);
+                if (position > 0 && etSearch.length() > 0) {
+                    // Picking a team replaces the search text; clearing it refreshes the results
+                    etSearch.setText(null);
                 } else {
-                    // Clear the list if "Select a team" is selected
-                    showNoMatches();
+                    refreshResults();
                 }
             }
 
             @Override
             public void onNothingSelected(AdapterView<?> parent) {
-                showNoMatches();
+                refreshResults();
             }
-        });
+        };
+        spinnerTeam.setOnItemSelectedListener(listener);
+        spinnerOpponent.setOnItemSelectedListener(listener);
     }
 
     /**
-     * Loads all team names from the database and populates the spinner.
-     * Adds a default "Select a team" option at the beginning of the list.
+     * Loads all team names from the database in the background.
      */
     private void loadTeamNames() {
-        teamStatsDao.open();
-        List<TeamStats> allTeams = teamStatsDao.getAllTeamStats();
-        teamStatsDao.close();
+        requests.add(repository.getTeamNames(this::showTeamNames));
+    }
 
+    /**
+     * Populates the spinners with the loaded team names.
+     * Adds a default "Select a team" option at the beginning of each list.
+     * @param allTeams All teams, in table order, with only their ID and name set
+     */
+    private void showTeamNames(List<TeamStats> allTeams) {
         teamNames = new ArrayList<>();
+        teamIds = new ArrayList<>();
         teamNames.add(getString(R.string.select_team)); // First item is a prompt
+        teamIds.add(-1L);
 
         for (TeamStats team : allTeams) {
             teamNames.add(team.getTeamName());
+            teamIds.add(team.getId());
         }
 
         // Set up the spinner with team names
@@ -130,41 +195,181 @@ public class SearchActivity extends AppCompatActivity {
                 this, android.R.layout.simple_spinner_item, teamNames);
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerTeam.setAdapter(adapter);
+
+        // The opponent spinner lists the same teams under its own prompt
+        List<String> opponentNames = new ArrayList<>(teamNames);
+        opponentNames.set(0, getString(R.string.select_opponent));
+        ArrayAdapter<String> opponentAdapter = new ArrayAdapter<>(
+                this, android.R.layout.simple_spinner_item, opponentNames);
+        opponentAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerOpponent.setAdapter(opponentAdapter);
     }
 
     /**
-     * Searches for and displays all matches involving the selected team.
-     * @param teamName The name of the team to search for
+     * Replaces the results with those of the search text, or of the selected team
+     * if there is no search text, or of the selected pair of teams if an opponent
+     * is selected too.
      */
-    private void searchMatchesByTeam(String teamName) {
-        matchDao.open();
-        List<Match> matches = matchDao.getMatchesByTeam(teamName);
-        matchDao.close();
+    private void refreshResults() {
+        refreshResults(MatchPagedList.DEFAULT_PAGE_SIZE);
+    }
 
-        if (matches.isEmpty()) {
-            showNoMatches();
+    /**
+     * Replaces the results as {@link #refreshResults()} does, reading a given
+     * number of matches up front.
+     * @param firstPageSize Number of matches to read on the first page, a multiple of the page size
+     */
+    private void refreshResults(int firstPageSize) {
+        cancelSearch();
+        tvHeadToHead.setVisibility(View.GONE);
+        tvTeamForm.setVisibility(View.GONE);
+        String query = etSearch.getText().toString().trim();
+        int position = spinnerTeam.getSelectedItemPosition();
+        int opponentPosition = spinnerOpponent.getSelectedItemPosition();
+        if (!query.isEmpty()) {
+            searchMatches(query, firstPageSize);
+        } else if (position > 0 && opponentPosition > 0 && opponentPosition != position) {
+            searchHeadToHead(teamIds.get(position), teamIds.get(opponentPosition), firstPageSize);
+            loadTeamForm(Arrays.asList(teamIds.get(position), teamIds.get(opponentPosition)));
+        } else if (position > 0) { // Skip the "Select a team" option
+            searchMatchesByTeam(teamIds.get(position), firstPageSize);
+            loadTeamForm(Collections.singletonList(teamIds.get(position)));
         } else {
-            showMatches(matches);
+            // Clear the list if "Select a team" is selected
+            showNoMatches(R.string.no_matches_found);
         }
     }
 
     /**
-     * Shows the "no matches found" message and hides the RecyclerView.
+     * Searches for and displays the matches whose teams or city match the search text.
+     * Matches are read a page at a time as the list scrolls.
+     * @param query What the user typed
+     * @param firstPageSize Number of matches to read on the first page
      */
-    private void showNoMatches() {
+    private void searchMatches(String query, int firstPageSize) {
+        searchRequest = requests.add(repository.searchMatches(query, MatchPage.Key.FIRST,
+                firstPageSize, firstPage -> {
+                    if (firstPage.getMatches().isEmpty()) {
+                        showNoMatches(R.string.no_search_results);
+                    } else {
+                        showMatches(new MatchPagedList((after, pageSize, callback) ->
+                                requests.add(repository.searchMatches(query, after, pageSize, callback)), firstPage));
+                    }
+                }));
+    }
+
+    /**
+     * Searches for and displays all matches involving the selected team.
+     * Matches are read a page at a time as the list scrolls.
+     * @param teamId The ID of the team to search for
+     * @param firstPageSize Number of matches to read on the first page
+     */
+    private void searchMatchesByTeam(long teamId, int firstPageSize) {
+        searchRequest = requests.add(repository.getMatchPage(teamId, MatchPage.Key.FIRST,
+                firstPageSize, firstPage -> {
+                    if (firstPage.getMatches().isEmpty()) {
+                        showNoMatches(R.string.no_matches_found);
+                    } else {
+                        showMatches(new MatchPagedList((after, pageSize, callback) ->
+                                requests.add(repository.getMatchPage(teamId, after, pageSize, callback)), firstPage));
+                    }
+                }));
+    }
+
+    /**
+     * Shows the head to head record of two teams and lists the matches between them.
+     * The record is read by its team pair and the matches a page at a time through
+     * the pair index, so neither depends on how many matches either team has played.
+     * @param teamId The ID of the team to see the record from
+     * @param opponentId The ID of the opponent
+     * @param firstPageSize Number of matches to read on the first page
+     */
+    private void searchHeadToHead(long teamId, long opponentId, int firstPageSize) {
+        headToHeadRequest = requests.add(repository.getHeadToHead(teamId, opponentId, 1, record -> {
+            if (record != null) {
+                showHeadToHead(record);
+            }
+        }));
+        searchRequest = requests.add(repository.getHeadToHeadPage(teamId, opponentId, MatchPage.Key.FIRST,
+                firstPageSize, firstPage -> {
+                    if (firstPage.getMatches().isEmpty()) {
+                        showNoMatches(R.string.no_meetings_found);
+                    } else {
+                        showMatches(new MatchPagedList((after, pageSize, callback) ->
+                                requests.add(repository.getHeadToHeadPage(teamId, opponentId, after, pageSize, callback)),
+                                firstPage));
+                    }
+                }));
+    }
+
+    /**
+     * Shows the totals of a head to head record above the list of matches.
+     * @param record The record to show
+     */
+    private void showHeadToHead(HeadToHead record) {
+        tvHeadToHead.setText(HeadToHeadFormatter.formatSummary(this, record));
+        tvHeadToHead.setVisibility(View.VISIBLE);
+    }
+
+    /**
+     * Shows the recent form of the picked teams above the list of matches.
+     * The form is stored with each team's statistics, so no match is read for it.
+     * @param teamIds The IDs of the picked teams
+     */
+    private void loadTeamForm(List<Long> teamIds) {
+        formRequest = requests.add(repository.getTeamStats(teamIds, teams -> {
+            if (teams.isEmpty()) {
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            for (TeamStats team : teams) {
+                if (text.length() > 0) {
+                    text.append('\n');
+                }
+                text.append(FormFormatter.formatTeam(this, team));
+            }
+            tvTeamForm.setText(text);
+            tvTeamForm.setVisibility(View.VISIBLE);
+        }));
+    }
+
+    /**
+     * Cancels a search whose results have not arrived yet, so they cannot
+     * replace the results of a newer one.
+     */
+    private void cancelSearch() {
+        if (searchRequest != null) {
+            searchRequest.cancel();
+            searchRequest = null;
+        }
+        if (headToHeadRequest != null) {
+            headToHeadRequest.cancel();
+            headToHeadRequest = null;
+        }
+        if (formRequest != null) {
+            formRequest.cancel();
+            formRequest = null;
+        }
+    }
+
+    /**
+     * Shows a "no matches found" message and hides the RecyclerView.
+     * @param messageId The message to show
+     */
+    private void showNoMatches(int messageId) {
+        tvNoMatches.setText(messageId);
         recyclerViewMatches.setVisibility(View.GONE);
         tvNoMatches.setVisibility(View.VISIBLE);
     }
 
     /**
      * Shows the list of matches and hides the "no matches" message.
-     * @param matches List of matches to display
+     * @param matches Paged list of matches to display
      */
-    private void showMatches(List<Match> matches) {
+    private void showMatches(MatchPagedList matches) {
         recyclerViewMatches.setVisibility(View.VISIBLE);
         tvNoMatches.setVisibility(View.GONE);
-        matchAdapter = new MatchAdapter(this, matches);
-        recyclerViewMatches.setAdapter(matchAdapter);
+        matchAdapter.submitList(matches);
     }
 
     @Override
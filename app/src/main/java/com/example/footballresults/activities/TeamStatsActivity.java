@@ -1,11 +1,13 @@
 package com.example.footballresults.activities;
 
+import android.app.DatePickerDialog;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.HorizontalScrollView;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -15,10 +17,14 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.footballresults.R;
 import com.example.footballresults.adapters.TeamStatsAdapter;
-import com.example.footballresults.database.TeamStatsDao;
 import com.example.footballresults.models.TeamStats;
-import com.example.footballresults.utils.StatisticsCalculator;
+import com.example.footballresults.repository.FootballRepository;
+import com.example.footballresults.utils.DateCodec;
+import com.example.footballresults.utils.DateFormatter;
 
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -26,20 +32,31 @@ import java.util.List;
  * Shows a sortable table of team statistics including matches played,
  * wins, draws, losses, goals scored, and total points.
  * Provides functionality to recalculate statistics and sort by points.
+ * The table can also be shown as it stood at the end of a past date.
  */
 public class TeamStatsActivity extends AppCompatActivity {
     /** UI Components */
     private RecyclerView recyclerView;
     private ImageView sortIndicator;
+    private TextView tvTitle;
     
     /** Data handling components */
     private TeamStatsAdapter adapter;
-    private TeamStatsDao teamStatsDao;
-    private StatisticsCalculator statsCalculator;
+    private FootballRepository repository;
+    private final FootballRepository.RequestGroup requests = new FootballRepository.RequestGroup();
     
     /** State tracking */
     private boolean isAscendingSort = false;
 
+    /** Day the standings are shown as of, or {@link DateFormatter#INVALID_EPOCH_DAY} for the current ones */
+    private int asOfDay = DateFormatter.INVALID_EPOCH_DAY;
+
+    /** Pending standings load, cancelled when another one replaces it */
+    private FootballRepository.Request loadRequest;
+
+    /** Statistics last loaded, highest points first */
+    private List<TeamStats> teamStatsList = Collections.emptyList();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -63,7 +80,11 @@ public class TeamStatsActivity extends AppCompatActivity {
     private void initializeViews() {
         recyclerView = findViewById(R.id.recycler_team_stats);
         sortIndicator = findViewById(R.id.sort_indicator);
+        tvTitle = findViewById(R.id.tv_title);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new TeamStatsAdapter(this);
+        recyclerView.setAdapter(adapter);
+        findViewById(R.id.points_header).setOnClickListener(v -> toggleSortOrder());
 
         // Synchronize horizontal scrolling between header and data
         HorizontalScrollView headerScroll = findViewById(R.id.header_scroll);
@@ -77,11 +98,10 @@ public class TeamStatsActivity extends AppCompatActivity {
     }
 
     /**
-     * Initializes data access objects and utilities.
+     * Initializes the repository.
      */
     private void initializeData() {
-        teamStatsDao = new TeamStatsDao(this);
-        statsCalculator = new StatisticsCalculator(this);
+        repository = FootballRepository.getInstance(this);
     }
 
     /**
@@ -95,6 +115,15 @@ public class TeamStatsActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Flips the sort direction. The loaded statistics are only reordered in memory.
+     */
+    private void toggleSortOrder() {
+        isAscendingSort = !isAscendingSort;
+        updateSortIndicator();
+        showTeamStats(teamStatsList);
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -102,17 +131,73 @@ public class TeamStatsActivity extends AppCompatActivity {
         loadTeamStats();
     }
 
+    @Override
+    protected void onDestroy() {
+        requests.cancelAll();
+        super.onDestroy();
+    }
+
     /**
-     * Loads team statistics from the database and displays them.
-     * Statistics are sorted according to the current sort direction.
+     * Loads team statistics in the background. The current standings are served
+     * from the standings cache unless a write has changed them since; past ones
+     * are built from the nearest standings checkpoint.
      */
     private void loadTeamStats() {
-        teamStatsDao.open();
-        List<TeamStats> teamStatsList = teamStatsDao.getAllTeamStatsSorted(isAscendingSort);
-        teamStatsDao.close();
+        if (loadRequest != null) {
+            loadRequest.cancel();
+        }
+        if (asOfDay == DateFormatter.INVALID_EPOCH_DAY) {
+            tvTitle.setText(R.string.team_statistics);
+            loadRequest = repository.getAllTeamStats(this::showTeamStats);
+        } else {
+            tvTitle.setText(getString(R.string.standings_as_of_title, DateFormatter.formatEpochDay(asOfDay)));
+            loadRequest = repository.getStandingsAsOf(asOfDay, this::showTeamStats);
+        }
+        requests.add(loadRequest);
+    }
 
-        adapter = new TeamStatsAdapter(this, teamStatsList);
-        recyclerView.setAdapter(adapter);
+    /**
+     * Lets the user pick a date and shows the standings as they stood at the end of it.
+     */
+    private void pickAsOfDate() {
+        Calendar calendar = Calendar.getInstance();
+        if (asOfDay != DateFormatter.INVALID_EPOCH_DAY) {
+            calendar.setTime(DateFormatter.parseDate(DateFormatter.formatEpochDay(asOfDay)));
+        }
+        new DatePickerDialog(this,
+                (view, year, month, dayOfMonth) -> {
+                    asOfDay = DateCodec.toEpochDay(year, month + 1, dayOfMonth);
+                    invalidateOptionsMenu();
+                    loadTeamStats();
+                },
+                calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH),
+                calendar.get(Calendar.DAY_OF_MONTH)
+        ).show();
+    }
+
+    /**
+     * Goes back from past standings to the current ones.
+     */
+    private void showCurrentStandings() {
+        asOfDay = DateFormatter.INVALID_EPOCH_DAY;
+        invalidateOptionsMenu();
+        loadTeamStats();
+    }
+
+    /**
+     * Displays team statistics in the current sort direction.
+     * @param teamStatsList The statistics, highest points first
+     */
+    private void showTeamStats(List<TeamStats> teamStatsList) {
+        this.teamStatsList = teamStatsList;
+        if (isAscendingSort) {
+            List<TeamStats> ascending = new ArrayList<>(teamStatsList);
+            Collections.reverse(ascending);
+            adapter.submitList(ascending);
+        } else {
+            adapter.submitList(teamStatsList);
+        }
     }
 
     @Override
@@ -121,6 +206,12 @@ public class TeamStatsActivity extends AppCompatActivity {
         return true;
     }
 
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        menu.findItem(R.id.action_current_standings).setVisible(asOfDay != DateFormatter.INVALID_EPOCH_DAY);
+        return super.onPrepareOptionsMenu(menu);
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         int id = item.getItemId();
@@ -133,6 +224,12 @@ public class TeamStatsActivity extends AppCompatActivity {
             // Recalculate all statistics
             recalculateAllStats();
             return true;
+        } else if (id == R.id.action_standings_as_of) {
+            pickAsOfDate();
+            return true;
+        } else if (id == R.id.action_current_standings) {
+            showCurrentStandings();
+            return true;
         }
 
         return super.onOptionsItemSelected(item);
@@ -143,8 +240,9 @@ public class TeamStatsActivity extends AppCompatActivity {
      * This is useful if statistics become out of sync or after bulk operations.
      */
     private void recalculateAllStats() {
-        statsCalculator.recalculateAllStats();
-        loadTeamStats();
-        Toast.makeText(this, getString(R.string.stats_recalculated), Toast.LENGTH_SHORT).show();
+        requests.add(repository.recalculateAllStats(result -> {
+            loadTeamStats();
+            Toast.makeText(this, getString(R.string.stats_recalculated), Toast.LENGTH_SHORT).show();
+        }));
     }
 }
\ No newline at end of file
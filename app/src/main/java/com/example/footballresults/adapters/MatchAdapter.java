@@ -2,28 +2,71 @@ package com.example.footballresults.adapters;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.footballresults.R;
 import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.MatchPagedList;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * RecyclerView adapter for displaying football match items.
  * This adapter handles the presentation of match data including date, location,
  * team names, and scores. It also provides visual feedback through color-coding
- * of match results (win/loss/draw).
+ * of match results (win/loss/draw). Matches come from a {@link MatchPagedList},
+ * so only the pages around the visible rows are held in memory.
+ * A refreshed list is given with {@link #submitList(MatchPagedList)}; it is compared
+ * with the current one by match ID in the background, so only changed rows rebind.
+ * When the current list finds that matches were added or deleted under it, the
+ * {@link OnListStaleListener} is asked to submit a refreshed one.
  */
 public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHolder> {
-    /** List of matches to display */
-    private final List<Match> matchList;
+    /** Thread the list differences are computed on */
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "match-diff"));
+
+    /** Handler used to apply computed differences on the main thread */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** Paged list of matches to display, null until the first list is submitted */
+    private MatchPagedList matchList;
+
+    /** Incremented on every submit, so only the newest difference is applied */
+    private int submitGeneration;
+
+    /** Forwards paged list changes to the RecyclerView */
+    private final MatchPagedList.Callback listCallback = new MatchPagedList.Callback() {
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position, count);
+        }
+
+        @Override
+        public void onChanged(int position, int count) {
+            notifyItemRangeChanged(position, count);
+        }
+
+        @Override
+        public void onStale() {
+            if (staleListener != null) {
+                staleListener.onListStale();
+            }
+        }
+    };
     
     /** Context for resource access */
     private final Context context;
@@ -31,6 +74,9 @@ public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHol
     /** Listener for handling item click events */
     private OnItemClickListener listener;
 
+    /** Listener that refreshes the list once it is out of date */
+    private OnListStaleListener staleListener;
+
     /**
      * Interface for handling click events on match items.
      */
@@ -43,13 +89,95 @@ public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHol
     }
 
     /**
-     * Constructs a new MatchAdapter.
+     * Interface for refreshing the matches once the displayed list is out of date.
+     */
+    public interface OnListStaleListener {
+        /**
+         * Called when matches were added or deleted since the displayed list was read,
+         * so its unread rows can no longer be filled in. The listener should read the
+         * list again, starting with {@link #getRefreshSize()} matches, and submit it.
+         */
+        void onListStale();
+    }
+
+    /**
+     * Constructs a new MatchAdapter with no matches.
      * @param context The context for inflating layouts
-     * @param matchList The list of matches to display
      */
-    public MatchAdapter(Context context, List<Match> matchList) {
+    public MatchAdapter(Context context) {
         this.context = context;
-        this.matchList = matchList;
+    }
+
+    /**
+     * Replaces the displayed matches. The first list is shown at once; later lists
+     * are compared with the current one on a background thread and only the rows
+     * that were added, removed, moved or changed are updated.
+     * @param newList The paged list of matches to display
+     */
+    public void submitList(MatchPagedList newList) {
+        int generation = ++submitGeneration;
+        MatchPagedList oldList = matchList;
+        if (oldList == null) {
+            swapList(newList);
+            notifyItemRangeInserted(0, newList.size());
+            return;
+        }
+
+        // Rows past the refreshed range are dropped rather than compared
+        oldList.close();
+        int oldSize = oldList.size();
+        int comparedSize = Math.min(oldSize, oldList.getRefreshSize());
+        List<Match> oldItems = snapshot(oldList, comparedSize);
+        List<Match> newItems = snapshot(newList, newList.size());
+
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new MatchDiffCallback(oldItems, newItems));
+            mainHandler.post(() -> {
+                if (generation != submitGeneration) {
+                    return;
+                }
+                swapList(newList);
+                if (comparedSize < oldSize) {
+                    notifyItemRangeRemoved(comparedSize, oldSize - comparedSize);
+                }
+                result.dispatchUpdatesTo(this);
+            });
+        });
+    }
+
+    /**
+     * Gets how many matches a refreshed list should start with, so it covers
+     * the rows reached in the current one.
+     * @return The first page size to request
+     */
+    public int getRefreshSize() {
+        return matchList != null ? matchList.getRefreshSize() : MatchPagedList.DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Makes a list the one being displayed and listens for its changes.
+     * @param newList The list to display
+     */
+    private void swapList(MatchPagedList newList) {
+        if (matchList != null) {
+            matchList.setCallback(null);
+        }
+        matchList = newList;
+        newList.setCallback(listCallback);
+    }
+
+    /**
+     * Copies the in-memory matches of a paged list, with null for rows not in memory.
+     * @param list The list to copy
+     * @param count Number of rows to copy
+     * @return The copied rows
+     */
+    private static List<Match> snapshot(MatchPagedList list, int count) {
+        List<Match> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(list.peek(i));
+        }
+        return items;
     }
 
     /**
@@ -60,6 +188,14 @@ public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHol
         this.listener = listener;
     }
 
+    /**
+     * Sets the listener that refreshes the matches once the displayed list is out of date.
+     * @param staleListener The OnListStaleListener to submit a refreshed list
+     */
+    public void setOnListStaleListener(OnListStaleListener staleListener) {
+        this.staleListener = staleListener;
+    }
+
     @NonNull
     @Override
     public MatchViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -70,7 +206,12 @@ public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHol
     @Override
     public void onBindViewHolder(@NonNull MatchViewHolder holder, int position) {
         Match match = matchList.get(position);
-        
+        if (match == null) {
+            // Placeholder while the page is read again
+            holder.clear();
+            return;
+        }
+
         // Set match details
         holder.tvDate.setText(match.getDate());
         holder.tvCity.setText(match.getCity());
@@ -112,7 +253,50 @@ public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHol
 
     @Override
     public int getItemCount() {
-        return matchList.size();
+        return matchList != null ? matchList.size() : 0;
+    }
+
+    /**
+     * Compares two snapshots of match rows by match ID and displayed contents.
+     * Rows that were not in memory never match, so they are simply rebound.
+     */
+    private static class MatchDiffCallback extends DiffUtil.Callback {
+        private final List<Match> oldItems;
+        private final List<Match> newItems;
+
+        MatchDiffCallback(List<Match> oldItems, List<Match> newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            Match oldMatch = oldItems.get(oldPosition);
+            Match newMatch = newItems.get(newPosition);
+            return oldMatch != null && newMatch != null && oldMatch.getId() == newMatch.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            Match oldMatch = oldItems.get(oldPosition);
+            Match newMatch = newItems.get(newPosition);
+            return Objects.equals(oldMatch.getDate(), newMatch.getDate())
+                    && Objects.equals(oldMatch.getCity(), newMatch.getCity())
+                    && Objects.equals(oldMatch.getTeamA(), newMatch.getTeamA())
+                    && Objects.equals(oldMatch.getTeamB(), newMatch.getTeamB())
+                    && oldMatch.getTeamAGoals() == newMatch.getTeamAGoals()
+                    && oldMatch.getTeamBGoals() == newMatch.getTeamBGoals();
+        }
     }
 
     /**
@@ -141,9 +325,26 @@ public class MatchAdapter extends RecyclerView.Adapter<MatchAdapter.MatchViewHol
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (listener != null && position != RecyclerView.NO_POSITION) {
-                    listener.onItemClick(matchList.get(position));
+                    Match match = matchList.get(position);
+                    if (match != null) {
+                        listener.onItemClick(match);
+                    }
                 }
             });
         }
+
+        /**
+         * Empties all views, for a row whose match is not loaded yet.
+         */
+        void clear() {
+            tvDate.setText(null);
+            tvCity.setText(null);
+            tvTeamA.setText(null);
+            tvTeamB.setText(null);
+            tvTeamAGoals.setText(null);
+            tvTeamBGoals.setText(null);
+            tvTeamAGoals.setBackground(null);
+            tvTeamBGoals.setBackground(null);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.footballresults.adapters;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Dropdown adapter for an AutoCompleteTextView whose suggestions are looked up for
+ * the text typed, such as in a {@link com.example.footballresults.utils.NameSuggestions}
+ * trie, instead of being filtered out of a fixed list item by item.
+ * Until a lookup is set, nothing is suggested.
+ */
+public class SuggestionAdapter extends ArrayAdapter<String> {
+    /** Finds the suggestions for a prefix; called on the filtering thread */
+    private volatile Function<String, List<String>> lookup = prefix -> Collections.emptyList();
+
+    /** Looks the typed text up and shows its suggestions */
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            List<String> suggestions = constraint == null
+                    ? Collections.emptyList() : lookup.apply(constraint.toString());
+            FilterResults results = new FilterResults();
+            results.values = suggestions;
+            results.count = suggestions.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            setNotifyOnChange(false);
+            clear();
+            if (results.values != null) {
+                addAll((List<String>) results.values);
+            }
+            notifyDataSetChanged();
+        }
+    };
+
+    /**
+     * Constructs a new SuggestionAdapter with no suggestions.
+     * @param context The context for inflating layouts
+     */
+    public SuggestionAdapter(Context context) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+    }
+
+    /**
+     * Sets where suggestions are looked up from.
+     * @param lookup Returns the suggestions for a prefix; must be safe to call from any thread
+     */
+    public void setLookup(Function<String, List<String>> lookup) {
+        this.lookup = lookup;
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+}
@@ -1,41 +1,76 @@
 package com.example.footballresults.adapters;
 
 import android.content.Context;
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.footballresults.R;
 import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.utils.FormFormatter;
 
 import java.util.List;
 
 /**
  * RecyclerView adapter for displaying team statistics in a tabular format.
  * This adapter handles the presentation of team statistics including matches played,
- * wins, draws, losses, goals scored, and total points. It also implements
+ * wins, draws, losses, goals scored, total points and recent form. It also implements
  * alternating row colors for better readability.
+ * New lists are given with {@link #submitList(List)}; the difference from the
+ * current list is computed in the background, so only changed rows rebind.
  */
-public class TeamStatsAdapter extends RecyclerView.Adapter<TeamStatsAdapter.TeamStatsViewHolder> {
-    /** List of team statistics to display */
-    private List<TeamStats> teamStatsList;
-    
+public class TeamStatsAdapter extends ListAdapter<TeamStats, TeamStatsAdapter.TeamStatsViewHolder> {
+    /** Payload for rows that only need their alternating background updated */
+    private static final Object PAYLOAD_ROW_COLOR = new Object();
+
+    /** Matches rows by team ID and compares every displayed statistic */
+    private static final DiffUtil.ItemCallback<TeamStats> DIFF_CALLBACK = new DiffUtil.ItemCallback<TeamStats>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TeamStats oldItem, @NonNull TeamStats newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TeamStats oldItem, @NonNull TeamStats newItem) {
+            return oldItem.getTeamName().equals(newItem.getTeamName())
+                    && oldItem.getMatchesPlayed() == newItem.getMatchesPlayed()
+                    && oldItem.getWins() == newItem.getWins()
+                    && oldItem.getDraws() == newItem.getDraws()
+                    && oldItem.getLosses() == newItem.getLosses()
+                    && oldItem.getGoalsScored() == newItem.getGoalsScored()
+                    && oldItem.getPoints() == newItem.getPoints()
+                    && oldItem.getForm().equals(newItem.getForm());
+        }
+    };
+
     /** Context for resource access */
-    private Context context;
+    private final Context context;
+
+    /** Alternating row background colors, resolved once */
+    private final int evenRowColor, oddRowColor;
 
     /**
-     * Constructs a new TeamStatsAdapter.
+     * Constructs a new TeamStatsAdapter with an empty list.
      * @param context The context for inflating layouts
-     * @param teamStatsList The list of team statistics to display
      */
-    public TeamStatsAdapter(Context context, List<TeamStats> teamStatsList) {
+    public TeamStatsAdapter(Context context) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.teamStatsList = teamStatsList;
+        this.evenRowColor = ContextCompat.getColor(context, R.color.surface);
+        this.oddRowColor = ContextCompat.getColor(context, R.color.background);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     @NonNull
@@ -45,9 +80,19 @@ public class TeamStatsAdapter extends RecyclerView.Adapter<TeamStatsAdapter.Team
         return new TeamStatsViewHolder(view);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull TeamStatsViewHolder holder, int position, @NonNull List<Object> payloads) {
+        // A row whose only pending change is its color keeps its text as it is
+        if (payloads.contains(PAYLOAD_ROW_COLOR) && payloads.size() == 1) {
+            bindRowColor(holder, position);
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull TeamStatsViewHolder holder, int position) {
-        TeamStats teamStats = teamStatsList.get(position);
+        TeamStats teamStats = getItem(position);
 
         // Set the statistics values
         holder.tvTeamName.setText(teamStats.getTeamName());
@@ -57,18 +102,32 @@ public class TeamStatsAdapter extends RecyclerView.Adapter<TeamStatsAdapter.Team
         holder.tvLosses.setText(String.valueOf(teamStats.getLosses()));
         holder.tvGoalsScored.setText(String.valueOf(teamStats.getGoalsScored()));
         holder.tvPoints.setText(String.valueOf(teamStats.getPoints()));
+        holder.tvForm.setText(FormFormatter.format(context, teamStats.getForm()));
 
-        // Apply alternating row colors for better readability
-        if (position % 2 == 0) {
-            holder.itemView.setBackgroundColor(Color.parseColor("#FFFFFF")); // White
-        } else {
-            holder.itemView.setBackgroundColor(Color.parseColor("#F5F5F5")); // Light gray
-        }
+        bindRowColor(holder, position);
     }
 
+    /**
+     * Applies alternating row colors for better readability.
+     * @param holder The row to color
+     * @param position The row's position
+     */
+    private void bindRowColor(TeamStatsViewHolder holder, int position) {
+        holder.itemView.setBackgroundColor(position % 2 == 0 ? evenRowColor : oddRowColor);
+    }
+
+    /**
+     * Recolors rows that moved without changing, since the diff does not rebind them.
+     * @param previousList The list shown before
+     * @param currentList The list shown now
+     */
     @Override
-    public int getItemCount() {
-        return teamStatsList.size();
+    public void onCurrentListChanged(@NonNull List<TeamStats> previousList, @NonNull List<TeamStats> currentList) {
+        for (int i = 0; i < currentList.size() && i < previousList.size(); i++) {
+            if (currentList.get(i).getId() != previousList.get(i).getId()) {
+                notifyItemChanged(i, PAYLOAD_ROW_COLOR);
+            }
+        }
     }
 
     /**
@@ -77,7 +136,7 @@ public class TeamStatsAdapter extends RecyclerView.Adapter<TeamStatsAdapter.Team
      */
     class TeamStatsViewHolder extends RecyclerView.ViewHolder {
         /** TextViews for displaying team statistics */
-        TextView tvTeamName, tvMatchesPlayed, tvWins, tvDraws, tvLosses, tvGoalsScored, tvPoints;
+        TextView tvTeamName, tvMatchesPlayed, tvWins, tvDraws, tvLosses, tvGoalsScored, tvPoints, tvForm;
 
         /**
          * Constructs a new TeamStatsViewHolder.
@@ -93,6 +152,7 @@ public class TeamStatsAdapter extends RecyclerView.Adapter<TeamStatsAdapter.Team
             tvLosses = itemView.findViewById(R.id.tv_losses);
             tvGoalsScored = itemView.findViewById(R.id.tv_goals_scored);
             tvPoints = itemView.findViewById(R.id.tv_points);
+            tvForm = itemView.findViewById(R.id.tv_form);
         }
     }
-}
\ No newline at end of file
+}
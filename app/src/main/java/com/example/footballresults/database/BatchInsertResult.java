@@ -0,0 +1,125 @@
+package com.example.footballresults.database;
+
+import com.example.footballresults.models.Match;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk match insert: how many rows were written and which
+ * rows were rejected. A rejected row does not stop the rest of its batch.
+ */
+public class BatchInsertResult {
+    /** Number of matches inserted */
+    private int insertedCount;
+
+    /** Number of team_stats UPDATEs run to score the inserted matches */
+    private int teamUpdateCount;
+
+    /** Rows that could not be inserted, in input order */
+    private final List<Failure> failures = new ArrayList<>();
+
+    /**
+     * Gets the number of matches inserted.
+     * @return The inserted count
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * Gets the number of team_stats UPDATEs run to score the inserted matches:
+     * one per team that played in each batch.
+     * @return The UPDATE count
+     */
+    public int getTeamUpdateCount() {
+        return teamUpdateCount;
+    }
+
+    /**
+     * Gets the rows that could not be inserted.
+     * @return Unmodifiable list of failures, in input order
+     */
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Checks whether any row was rejected.
+     * @return true if at least one row failed
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Records one inserted row.
+     */
+    void addInserted() {
+        insertedCount++;
+    }
+
+    /**
+     * Records the team_stats UPDATEs run for one batch.
+     * @param count Number of teams updated
+     */
+    void addTeamUpdates(int count) {
+        teamUpdateCount += count;
+    }
+
+    /**
+     * Records one rejected row.
+     * @param index Position of the row in the input
+     * @param match The rejected match
+     * @param reason Why it was rejected
+     */
+    void addFailure(int index, Match match, String reason) {
+        failures.add(new Failure(index, match, reason));
+    }
+
+    /**
+     * One row that could not be inserted.
+     */
+    public static final class Failure {
+        private final int index;
+        private final Match match;
+        private final String reason;
+
+        /**
+         * Constructs a new Failure.
+         * @param index Position of the row in the input
+         * @param match The rejected match
+         * @param reason Why it was rejected
+         */
+        Failure(int index, Match match, String reason) {
+            this.index = index;
+            this.match = match;
+            this.reason = reason;
+        }
+
+        /**
+         * Gets the position of the row in the input, counting from zero.
+         * @return The row index
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the rejected match.
+         * @return The match
+         */
+        public Match getMatch() {
+            return match;
+        }
+
+        /**
+         * Gets why the row was rejected.
+         * @return The reason
+         */
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -4,27 +4,62 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import com.example.footballresults.models.MatchResult;
+import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.utils.DateFormatter;
+
 /**
  * SQLite database helper class for managing the football results database.
  * This class handles database creation, schema management, and version upgrades.
  * It defines the structure for two main tables:
- * 1. Matches table - stores individual match results
- * 2. Team Stats table - stores cumulative team statistics
+ * 1. Matches table - stores individual match results, referencing teams by id
+ * 2. Team Stats table - stores cumulative team statistics, one row per team
+ * and a match details view that joins the team names back onto each match.
+ * Triggers on the matches table keep the team stats table up to date, so every
+ * insert, update or delete of a match adjusts both teams' standings in the same statement.
+ * Two FTS4 tables index the team and city names for search; see {@link SearchIndex}.
+ * A head to head table holds one row per pair of teams that have met, kept by the
+ * same triggers, so the record between two teams is read without scanning matches.
+ * A standings checkpoints table holds the whole table as it stood at some past
+ * match days; the triggers drop every checkpoint a match change falls before.
+ * Each team's recent form is kept in its team stats row by the same triggers:
+ * a match played after all of the team's others is appended to it, and any
+ * other change reads it again from the team's latest few matches.
+ * A bulk load table holds one row while a batch of matches is being bulk inserted;
+ * the insert trigger skips rows written while it is there, and the batch brings
+ * the statistics up to date once before it commits.
  */
 public class DatabaseHelper extends SQLiteOpenHelper {
     /** Database name and version */
     private static final String DATABASE_NAME = "football.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 10;
 
     /** Match table constants */
     public static final String TABLE_MATCHES = "matches";
     public static final String COLUMN_MATCH_ID = "match_id";
     public static final String COLUMN_DATE = "match_date";
+    public static final String COLUMN_MATCH_DAY = "match_day";
     public static final String COLUMN_CITY = "city";
-    public static final String COLUMN_TEAM_A = "team_a";
-    public static final String COLUMN_TEAM_B = "team_b";
+    public static final String COLUMN_TEAM_A_ID = "team_a_id";
+    public static final String COLUMN_TEAM_B_ID = "team_b_id";
     public static final String COLUMN_TEAM_A_GOALS = "team_a_goals";
     public static final String COLUMN_TEAM_B_GOALS = "team_b_goals";
+    public static final String INDEX_MATCHES_MATCH_DAY = "idx_matches_match_day";
+    public static final String INDEX_MATCHES_TEAM_A = "idx_matches_team_a";
+    public static final String INDEX_MATCHES_TEAM_B = "idx_matches_team_b";
+    public static final String INDEX_MATCHES_CITY = "idx_matches_city";
+    public static final String INDEX_MATCHES_PAIR = "idx_matches_pair";
+
+    /** Trigger names for keeping team statistics in step with the matches table */
+    public static final String TRIGGER_MATCH_INSERTED = "trg_matches_insert_stats";
+    public static final String TRIGGER_MATCH_UPDATED = "trg_matches_update_stats";
+    public static final String TRIGGER_MATCH_DELETED = "trg_matches_delete_stats";
+    public static final String TRIGGER_MATCH_DAY_UPDATED = "trg_matches_update_day_checkpoints";
+
+    /** Match details view constants (matches joined with both team names) */
+    public static final String VIEW_MATCH_DETAILS = "match_details";
+    public static final String COLUMN_TEAM_A = "team_a";
+    public static final String COLUMN_TEAM_B = "team_b";
 
     /** Team Stats table constants */
     public static final String TABLE_TEAM_STATS = "team_stats";
@@ -37,17 +72,170 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public static final String COLUMN_GOALS_SCORED = "goals_scored";
     public static final String COLUMN_GOALS_AGAINST = "goals_against";
     public static final String COLUMN_POINTS = "points";
+    public static final String COLUMN_FORM = "form";
+
+    /** Search index constants: one full-text row per team (docid = team ID) and per city */
+    public static final String TABLE_TEAM_SEARCH = "team_search";
+    public static final String TABLE_CITY_SEARCH = "city_search";
+    public static final String COLUMN_SEARCH_TOKENS = "tokens";
+    public static final String TRIGGER_TEAM_DELETED = "trg_team_stats_delete_search";
+
+    /**
+     * Head to head table constants: one row per unordered pair of teams, keyed by the
+     * lower and higher team ID, with the record seen from the lower ID's side
+     */
+    public static final String TABLE_HEAD_TO_HEAD = "head_to_head";
+    public static final String COLUMN_LOW_TEAM_ID = "low_team_id";
+    public static final String COLUMN_HIGH_TEAM_ID = "high_team_id";
+    public static final String COLUMN_MEETINGS = "meetings";
+    public static final String COLUMN_LOW_WINS = "low_wins";
+    public static final String COLUMN_HIGH_WINS = "high_wins";
+    public static final String COLUMN_LOW_GOALS = "low_goals";
+    public static final String COLUMN_HIGH_GOALS = "high_goals";
+
+    /**
+     * Standings checkpoints table constants: each checkpoint day holds one row per team
+     * with the totals of every match played before that day
+     */
+    public static final String TABLE_STANDINGS_CHECKPOINTS = "standings_checkpoints";
+    public static final String COLUMN_CHECKPOINT_DAY = "checkpoint_day";
+
+    /**
+     * Bulk load table constants: holds one row, with the highest match ID from
+     * before the batch, while a batch of matches is bulk inserted
+     */
+    public static final String TABLE_BULK_LOAD = "bulk_load";
+    public static final String COLUMN_LAST_MATCH_ID = "last_match_id";
+
+    /** Expressions giving the lower and higher team ID of a match, as the pair index stores them */
+    public static final String LOW_TEAM_ID = "min(" + COLUMN_TEAM_A_ID + ", " + COLUMN_TEAM_B_ID + ")";
+    public static final String HIGH_TEAM_ID = "max(" + COLUMN_TEAM_A_ID + ", " + COLUMN_TEAM_B_ID + ")";
 
     /** SQL statement to create the matches table */
-    private static final String CREATE_MATCHES_TABLE = "CREATE TABLE " + TABLE_MATCHES + "("
-            + COLUMN_MATCH_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
-            + COLUMN_DATE + " TEXT NOT NULL, "
-            + COLUMN_CITY + " TEXT NOT NULL, "
-            + COLUMN_TEAM_A + " TEXT NOT NULL, "
-            + COLUMN_TEAM_B + " TEXT NOT NULL, "
-            + COLUMN_TEAM_A_GOALS + " INTEGER NOT NULL, "
-            + COLUMN_TEAM_B_GOALS + " INTEGER NOT NULL"
-            + ")";
+    private static final String CREATE_MATCHES_TABLE = createMatchesTableSql(TABLE_MATCHES);
+
+    /**
+     * SQL statement to index the matches table by match day.
+     * The index also carries the row id, so ORDER BY match_day, match_id is served without sorting.
+     */
+    private static final String CREATE_MATCH_DAY_INDEX = "CREATE INDEX " + INDEX_MATCHES_MATCH_DAY
+            + " ON " + TABLE_MATCHES + "(" + COLUMN_MATCH_DAY + ")";
+
+    /** SQL statements to index the matches table by team, newest matches first within each team */
+    private static final String CREATE_TEAM_A_INDEX = "CREATE INDEX " + INDEX_MATCHES_TEAM_A
+            + " ON " + TABLE_MATCHES + "(" + COLUMN_TEAM_A_ID + ", " + COLUMN_MATCH_DAY + ")";
+    private static final String CREATE_TEAM_B_INDEX = "CREATE INDEX " + INDEX_MATCHES_TEAM_B
+            + " ON " + TABLE_MATCHES + "(" + COLUMN_TEAM_B_ID + ", " + COLUMN_MATCH_DAY + ")";
+
+    /** SQL statement to index the matches table by city, newest matches first within each city */
+    private static final String CREATE_CITY_INDEX = "CREATE INDEX " + INDEX_MATCHES_CITY
+            + " ON " + TABLE_MATCHES + "(" + COLUMN_CITY + ", " + COLUMN_MATCH_DAY + ")";
+
+    /**
+     * SQL statement to index the matches table by unordered pair of teams, newest
+     * meetings first within each pair. An expression index needs SQLite 3.9, which
+     * every supported Android version has.
+     */
+    private static final String CREATE_PAIR_INDEX = "CREATE INDEX " + INDEX_MATCHES_PAIR
+            + " ON " + TABLE_MATCHES + "(" + LOW_TEAM_ID + ", " + HIGH_TEAM_ID + ", " + COLUMN_MATCH_DAY + ")";
+
+    /**
+     * SQL statement to create the match details view.
+     * Team names live only in the team stats table; the view joins them back in
+     * so readers get the same columns the matches table used to have.
+     */
+    private static final String CREATE_MATCH_DETAILS_VIEW = "CREATE VIEW " + VIEW_MATCH_DETAILS + " AS SELECT "
+            + "m." + COLUMN_MATCH_ID + ", "
+            + "m." + COLUMN_DATE + ", "
+            + "m." + COLUMN_MATCH_DAY + ", "
+            + "m." + COLUMN_CITY + ", "
+            + "m." + COLUMN_TEAM_A_ID + ", "
+            + "a." + COLUMN_TEAM_NAME + " AS " + COLUMN_TEAM_A + ", "
+            + "m." + COLUMN_TEAM_B_ID + ", "
+            + "b." + COLUMN_TEAM_NAME + " AS " + COLUMN_TEAM_B + ", "
+            + "m." + COLUMN_TEAM_A_GOALS + ", "
+            + "m." + COLUMN_TEAM_B_GOALS
+            + " FROM " + TABLE_MATCHES + " m"
+            + " LEFT JOIN " + TABLE_TEAM_STATS + " a ON a." + COLUMN_TEAM_ID + " = m." + COLUMN_TEAM_A_ID
+            + " LEFT JOIN " + TABLE_TEAM_STATS + " b ON b." + COLUMN_TEAM_ID + " = m." + COLUMN_TEAM_B_ID;
+
+    /**
+     * SQL statement to add a new match's result to both teams.
+     * Matches inserted while a bulk load is in progress are skipped; the bulk
+     * insert brings the statistics up to date for its whole batch at once.
+     */
+    private static final String CREATE_MATCH_INSERTED_TRIGGER = "CREATE TRIGGER " + TRIGGER_MATCH_INSERTED
+            + " AFTER INSERT ON " + TABLE_MATCHES
+            + " WHEN NOT EXISTS (SELECT 1 FROM " + TABLE_BULK_LOAD + ") BEGIN "
+            + teamStatsDeltaSql("NEW", "+")
+            + headToHeadDeltaSql("NEW", "+")
+            + dropCheckpointsSql(readableDaySql("NEW." + COLUMN_MATCH_DAY))
+            + appendFormSql()
+            + "END";
+
+    /**
+     * SQL statement to move an edited match's result from the old teams and score to the new ones.
+     * Edits that only touch the date or city do not fire it.
+     */
+    private static final String CREATE_MATCH_UPDATED_TRIGGER = "CREATE TRIGGER " + TRIGGER_MATCH_UPDATED
+            + " AFTER UPDATE OF " + COLUMN_TEAM_A_ID + ", " + COLUMN_TEAM_B_ID + ", "
+            + COLUMN_TEAM_A_GOALS + ", " + COLUMN_TEAM_B_GOALS + " ON " + TABLE_MATCHES + " BEGIN "
+            + teamStatsDeltaSql("OLD", "-")
+            + headToHeadDeltaSql("OLD", "-")
+            + teamStatsDeltaSql("NEW", "+")
+            + headToHeadDeltaSql("NEW", "+")
+            + dropCheckpointsSql(earliestReadableDaySql())
+            + rebuildFormSql("OLD")
+            + rebuildFormSql("NEW")
+            + "END";
+
+    /** SQL statement to remove a deleted match's result from both teams */
+    private static final String CREATE_MATCH_DELETED_TRIGGER = "CREATE TRIGGER " + TRIGGER_MATCH_DELETED
+            + " AFTER DELETE ON " + TABLE_MATCHES + " BEGIN "
+            + teamStatsDeltaSql("OLD", "-")
+            + headToHeadDeltaSql("OLD", "-")
+            + dropCheckpointsSql(readableDaySql("OLD." + COLUMN_MATCH_DAY))
+            + rebuildFormSql("OLD")
+            + "END";
+
+    /**
+     * SQL statement to drop the standings checkpoints a moved match falls before
+     * and to read its teams' form again, since the order of their matches changed.
+     * Only a change of date fires it, not an edit that writes the same date back;
+     * the statistics are not affected.
+     */
+    private static final String CREATE_MATCH_DAY_UPDATED_TRIGGER = "CREATE TRIGGER " + TRIGGER_MATCH_DAY_UPDATED
+            + " AFTER UPDATE OF " + COLUMN_MATCH_DAY + " ON " + TABLE_MATCHES
+            + " WHEN OLD." + COLUMN_MATCH_DAY + " IS NOT NEW." + COLUMN_MATCH_DAY + " BEGIN "
+            + dropCheckpointsSql(earliestReadableDaySql())
+            + rebuildFormSql("NEW")
+            + "END";
+
+    /**
+     * SQL statement to fill the match day column from the dd/MM/yyyy text date.
+     * Rows whose date cannot be read get {@link DateFormatter#INVALID_EPOCH_DAY} so they sort last.
+     */
+    private static final String BACKFILL_MATCH_DAY = "UPDATE " + TABLE_MATCHES + " SET " + COLUMN_MATCH_DAY
+            + " = COALESCE(CASE WHEN length(" + COLUMN_DATE + ") = 10 THEN CAST(julianday("
+            + "substr(" + COLUMN_DATE + ", 7, 4) || '-' || substr(" + COLUMN_DATE + ", 4, 2) || '-' || substr(" + COLUMN_DATE + ", 1, 2)"
+            + ") - 2440587.5 AS INTEGER) END, " + DateFormatter.INVALID_EPOCH_DAY + ")";
+
+    /**
+     * SQL statements to create the search index. FTS4 rather than FTS5, which is not
+     * available on every supported Android version. The tokens column holds the
+     * name as normalized by {@link com.example.footballresults.utils.SearchText},
+     * so the default tokenizer only has to split it on spaces.
+     */
+    private static final String CREATE_TEAM_SEARCH_TABLE = "CREATE VIRTUAL TABLE " + TABLE_TEAM_SEARCH
+            + " USING fts4(" + COLUMN_SEARCH_TOKENS + ")";
+    private static final String CREATE_CITY_SEARCH_TABLE = "CREATE VIRTUAL TABLE " + TABLE_CITY_SEARCH
+            + " USING fts4(" + COLUMN_CITY + ", " + COLUMN_SEARCH_TOKENS + ", notindexed=" + COLUMN_CITY + ")";
+
+    /** SQL statement to drop a team from the search index when the team is deleted */
+    private static final String CREATE_TEAM_DELETED_TRIGGER = "CREATE TRIGGER " + TRIGGER_TEAM_DELETED
+            + " AFTER DELETE ON " + TABLE_TEAM_STATS + " BEGIN "
+            + "DELETE FROM " + TABLE_TEAM_SEARCH + " WHERE docid = OLD." + COLUMN_TEAM_ID + "; "
+            + "END";
 
     /** SQL statement to create the team stats table */
     private static final String CREATE_TEAM_STATS_TABLE = "CREATE TABLE " + TABLE_TEAM_STATS + "("
@@ -59,9 +247,276 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             + COLUMN_LOSSES + " INTEGER DEFAULT 0, "
             + COLUMN_GOALS_SCORED + " INTEGER DEFAULT 0, "
             + COLUMN_GOALS_AGAINST + " INTEGER DEFAULT 0, "
-            + COLUMN_POINTS + " INTEGER DEFAULT 0"
+            + COLUMN_POINTS + " INTEGER DEFAULT 0, "
+            + COLUMN_FORM + " TEXT NOT NULL DEFAULT ''"
             + ")";
 
+    /**
+     * SQL statement to create the head to head table. Without a row ID, the rows
+     * are stored in the primary key's B-tree, so a pair is one index seek.
+     */
+    private static final String CREATE_HEAD_TO_HEAD_TABLE = "CREATE TABLE " + TABLE_HEAD_TO_HEAD + "("
+            + COLUMN_LOW_TEAM_ID + " INTEGER NOT NULL, "
+            + COLUMN_HIGH_TEAM_ID + " INTEGER NOT NULL, "
+            + COLUMN_MEETINGS + " INTEGER NOT NULL DEFAULT 0, "
+            + COLUMN_LOW_WINS + " INTEGER NOT NULL DEFAULT 0, "
+            + COLUMN_DRAWS + " INTEGER NOT NULL DEFAULT 0, "
+            + COLUMN_HIGH_WINS + " INTEGER NOT NULL DEFAULT 0, "
+            + COLUMN_LOW_GOALS + " INTEGER NOT NULL DEFAULT 0, "
+            + COLUMN_HIGH_GOALS + " INTEGER NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY (" + COLUMN_LOW_TEAM_ID + ", " + COLUMN_HIGH_TEAM_ID + ")"
+            + ") WITHOUT ROWID";
+
+    /**
+     * SQL statement to create the standings checkpoints table. Keyed by day first,
+     * so a checkpoint is read, and the checkpoints after a day are dropped, with
+     * one range of the primary key.
+     */
+    private static final String CREATE_STANDINGS_CHECKPOINTS_TABLE = "CREATE TABLE " + TABLE_STANDINGS_CHECKPOINTS + "("
+            + COLUMN_CHECKPOINT_DAY + " INTEGER NOT NULL, "
+            + COLUMN_TEAM_ID + " INTEGER NOT NULL, "
+            + COLUMN_MATCHES_PLAYED + " INTEGER NOT NULL, "
+            + COLUMN_WINS + " INTEGER NOT NULL, "
+            + COLUMN_DRAWS + " INTEGER NOT NULL, "
+            + COLUMN_LOSSES + " INTEGER NOT NULL, "
+            + COLUMN_GOALS_SCORED + " INTEGER NOT NULL, "
+            + COLUMN_GOALS_AGAINST + " INTEGER NOT NULL, "
+            + COLUMN_POINTS + " INTEGER NOT NULL, "
+            + "PRIMARY KEY (" + COLUMN_CHECKPOINT_DAY + ", " + COLUMN_TEAM_ID + ")"
+            + ") WITHOUT ROWID";
+
+    /** SQL statement to create the bulk load table, which never holds more than one row */
+    private static final String CREATE_BULK_LOAD_TABLE = "CREATE TABLE " + TABLE_BULK_LOAD + "("
+            + COLUMN_LAST_MATCH_ID + " INTEGER NOT NULL)";
+
+    /** SQL statement that starts a bulk load, noting the highest match ID so far */
+    private static final String BEGIN_BULK_LOAD = "INSERT INTO " + TABLE_BULK_LOAD + "(" + COLUMN_LAST_MATCH_ID + ")"
+            + " SELECT coalesce(max(" + COLUMN_MATCH_ID + "), 0) FROM " + TABLE_MATCHES;
+
+    /**
+     * SQL statement that drops the standings checkpoints the matches of a bulk load
+     * fall before, as the insert trigger does for a single match
+     */
+    private static final String DROP_BULK_LOAD_CHECKPOINTS = dropCheckpointsSql(
+            "(SELECT min(" + readableDaySql(COLUMN_MATCH_DAY) + ") FROM " + TABLE_MATCHES
+            + " WHERE " + COLUMN_MATCH_ID + " > (SELECT " + COLUMN_LAST_MATCH_ID + " FROM " + TABLE_BULK_LOAD + "))");
+
+    /**
+     * Builds the CREATE TABLE statement for the matches table.
+     * Teams are referenced by their team stats id instead of by name.
+     * @param tableName Name of the table to create
+     * @return The CREATE TABLE statement
+     */
+    private static String createMatchesTableSql(String tableName) {
+        return "CREATE TABLE " + tableName + "("
+                + COLUMN_MATCH_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_DATE + " TEXT NOT NULL, "
+                + COLUMN_MATCH_DAY + " INTEGER NOT NULL DEFAULT " + DateFormatter.INVALID_EPOCH_DAY + ", "
+                + COLUMN_CITY + " TEXT NOT NULL, "
+                + COLUMN_TEAM_A_ID + " INTEGER NOT NULL REFERENCES " + TABLE_TEAM_STATS + "(" + COLUMN_TEAM_ID + "), "
+                + COLUMN_TEAM_B_ID + " INTEGER NOT NULL REFERENCES " + TABLE_TEAM_STATS + "(" + COLUMN_TEAM_ID + "), "
+                + COLUMN_TEAM_A_GOALS + " INTEGER NOT NULL, "
+                + COLUMN_TEAM_B_GOALS + " INTEGER NOT NULL"
+                + ")";
+    }
+
+    /**
+     * Builds the trigger body statements that add or subtract one match row's
+     * result to the statistics of both of its teams.
+     * @param row The trigger row to read, NEW or OLD
+     * @param sign "+" to add the result, "-" to subtract it
+     * @return Two UPDATE statements, each terminated by a semicolon
+     */
+    private static String teamStatsDeltaSql(String row, String sign) {
+        return teamDeltaSql(row, sign, COLUMN_TEAM_A_ID, COLUMN_TEAM_A_GOALS, COLUMN_TEAM_B_GOALS)
+                + teamDeltaSql(row, sign, COLUMN_TEAM_B_ID, COLUMN_TEAM_B_GOALS, COLUMN_TEAM_A_GOALS);
+    }
+
+    /**
+     * Builds one trigger body UPDATE for a single side of a match.
+     * Comparisons evaluate to 0 or 1 in SQLite, which gives the win, draw and loss increments.
+     * @param row The trigger row to read, NEW or OLD
+     * @param sign "+" to add the result, "-" to subtract it
+     * @param teamColumn Column holding this side's team id
+     * @param forColumn Column holding this side's goals
+     * @param againstColumn Column holding the opponent's goals
+     * @return The UPDATE statement, terminated by a semicolon
+     */
+    private static String teamDeltaSql(String row, String sign, String teamColumn, String forColumn, String againstColumn) {
+        String goalsFor = row + "." + forColumn;
+        String goalsAgainst = row + "." + againstColumn;
+        return "UPDATE " + TABLE_TEAM_STATS + " SET "
+                + COLUMN_MATCHES_PLAYED + " = " + COLUMN_MATCHES_PLAYED + " " + sign + " 1, "
+                + COLUMN_WINS + " = " + COLUMN_WINS + " " + sign + " (" + goalsFor + " > " + goalsAgainst + "), "
+                + COLUMN_DRAWS + " = " + COLUMN_DRAWS + " " + sign + " (" + goalsFor + " = " + goalsAgainst + "), "
+                + COLUMN_LOSSES + " = " + COLUMN_LOSSES + " " + sign + " (" + goalsFor + " < " + goalsAgainst + "), "
+                + COLUMN_GOALS_SCORED + " = " + COLUMN_GOALS_SCORED + " " + sign + " " + goalsFor + ", "
+                + COLUMN_GOALS_AGAINST + " = " + COLUMN_GOALS_AGAINST + " " + sign + " " + goalsAgainst + ", "
+                + COLUMN_POINTS + " = " + COLUMN_POINTS + " " + sign + " (CASE"
+                + " WHEN " + goalsFor + " > " + goalsAgainst + " THEN " + MatchResult.WIN.getPoints()
+                + " WHEN " + goalsFor + " = " + goalsAgainst + " THEN " + MatchResult.DRAW.getPoints()
+                + " ELSE " + MatchResult.LOSS.getPoints() + " END)"
+                + " WHERE " + COLUMN_TEAM_ID + " = " + row + "." + teamColumn + "; ";
+    }
+
+    /**
+     * Builds the trigger body statements that add or subtract one match row's
+     * result to the head to head record of its pair of teams. Adding creates the
+     * pair's row first if the teams have not met before; subtracting deletes the
+     * row once no meeting is left.
+     * @param row The trigger row to read, NEW or OLD
+     * @param sign "+" to add the result, "-" to subtract it
+     * @return The statements, each terminated by a semicolon
+     */
+    private static String headToHeadDeltaSql(String row, String sign) {
+        String teamA = row + "." + COLUMN_TEAM_A_ID;
+        String teamB = row + "." + COLUMN_TEAM_B_ID;
+        String goalsA = row + "." + COLUMN_TEAM_A_GOALS;
+        String goalsB = row + "." + COLUMN_TEAM_B_GOALS;
+        String lowGoals = "(CASE WHEN " + teamA + " <= " + teamB + " THEN " + goalsA + " ELSE " + goalsB + " END)";
+        String highGoals = "(CASE WHEN " + teamA + " <= " + teamB + " THEN " + goalsB + " ELSE " + goalsA + " END)";
+        String pair = " WHERE " + COLUMN_LOW_TEAM_ID + " = min(" + teamA + ", " + teamB + ")"
+                + " AND " + COLUMN_HIGH_TEAM_ID + " = max(" + teamA + ", " + teamB + ")";
+
+        String sql = "";
+        if (sign.equals("+")) {
+            sql += "INSERT OR IGNORE INTO " + TABLE_HEAD_TO_HEAD
+                    + " (" + COLUMN_LOW_TEAM_ID + ", " + COLUMN_HIGH_TEAM_ID + ")"
+                    + " VALUES (min(" + teamA + ", " + teamB + "), max(" + teamA + ", " + teamB + ")); ";
+        }
+        sql += "UPDATE " + TABLE_HEAD_TO_HEAD + " SET "
+                + COLUMN_MEETINGS + " = " + COLUMN_MEETINGS + " " + sign + " 1, "
+                + COLUMN_LOW_WINS + " = " + COLUMN_LOW_WINS + " " + sign + " (" + lowGoals + " > " + highGoals + "), "
+                + COLUMN_DRAWS + " = " + COLUMN_DRAWS + " " + sign + " (" + lowGoals + " = " + highGoals + "), "
+                + COLUMN_HIGH_WINS + " = " + COLUMN_HIGH_WINS + " " + sign + " (" + lowGoals + " < " + highGoals + "), "
+                + COLUMN_LOW_GOALS + " = " + COLUMN_LOW_GOALS + " " + sign + " " + lowGoals + ", "
+                + COLUMN_HIGH_GOALS + " = " + COLUMN_HIGH_GOALS + " " + sign + " " + highGoals
+                + pair + "; ";
+        if (sign.equals("-")) {
+            sql += "DELETE FROM " + TABLE_HEAD_TO_HEAD + pair + " AND " + COLUMN_MEETINGS + " <= 0; ";
+        }
+        return sql;
+    }
+
+    /**
+     * Builds the trigger body statement that drops the standings checkpoints taken
+     * after a changed match's day, since they no longer hold the right totals.
+     * They are taken again the next time a past table is asked for.
+     * @param matchDay SQL expression for the earliest match day changed, or NULL if
+     *                 no readable day changed, in which case nothing is dropped
+     * @return The DELETE statement, terminated by a semicolon
+     */
+    private static String dropCheckpointsSql(String matchDay) {
+        return "DELETE FROM " + TABLE_STANDINGS_CHECKPOINTS
+                + " WHERE " + COLUMN_CHECKPOINT_DAY + " > " + matchDay + "; ";
+    }
+
+    /**
+     * Builds an SQL expression for a match day that is NULL when the date could not be read.
+     * Such matches are never counted in the standings checkpoints, so they do not
+     * make any of them out of date.
+     * @param matchDay SQL expression for the match day
+     * @return The NULLIF expression
+     */
+    private static String readableDaySql(String matchDay) {
+        return "nullif(" + matchDay + ", " + DateFormatter.INVALID_EPOCH_DAY + ")";
+    }
+
+    /**
+     * Builds an SQL expression for the earlier of an updated match's old and new
+     * days, leaving out a day that could not be read.
+     * @return The expression, NULL if neither day could be read
+     */
+    private static String earliestReadableDaySql() {
+        String oldDay = readableDaySql("OLD." + COLUMN_MATCH_DAY);
+        String newDay = readableDaySql("NEW." + COLUMN_MATCH_DAY);
+        return "min(coalesce(" + oldDay + ", " + newDay + "), coalesce(" + newDay + ", " + oldDay + "))";
+    }
+
+    /**
+     * Builds an SQL expression for a team's form read from the tail of its history:
+     * the results of its latest {@link TeamStats#FORM_LENGTH} matches, oldest first.
+     * Matches are ordered by day and then by ID. Each side of the union reads at most
+     * that many rows backwards through its team index, so the cost does not depend
+     * on how many matches the team has played.
+     * @param teamId SQL expression for the team ID, such as a trigger row column or a parameter
+     * @return The parenthesized scalar subquery
+     */
+    static String recentFormSql(String teamId) {
+        String latest = " ORDER BY " + COLUMN_MATCH_DAY + " DESC, " + COLUMN_MATCH_ID + " DESC"
+                + " LIMIT " + TeamStats.FORM_LENGTH;
+        return "(SELECT coalesce(group_concat(result, ''), '') FROM (SELECT result FROM ("
+                + recentSideSql(teamId, COLUMN_TEAM_A_ID, COLUMN_TEAM_A_GOALS, COLUMN_TEAM_B_GOALS, latest)
+                + " UNION ALL "
+                + recentSideSql(teamId, COLUMN_TEAM_B_ID, COLUMN_TEAM_B_GOALS, COLUMN_TEAM_A_GOALS, latest)
+                + latest + ") ORDER BY " + COLUMN_MATCH_DAY + ", " + COLUMN_MATCH_ID + "))";
+    }
+
+    /**
+     * Builds the query for a team's latest results on one side of its matches.
+     */
+    private static String recentSideSql(String teamId, String teamColumn, String forColumn, String againstColumn,
+                                        String latest) {
+        return "SELECT * FROM (SELECT " + COLUMN_MATCH_DAY + ", " + COLUMN_MATCH_ID + ", "
+                + resultCodeSql(forColumn, againstColumn) + " AS result"
+                + " FROM " + TABLE_MATCHES + " WHERE " + teamColumn + " = " + teamId + latest + ")";
+    }
+
+    /**
+     * Builds an SQL expression for the {@link MatchResult#getCode()} letter of one side's result.
+     * @param goalsFor SQL expression for the side's goals
+     * @param goalsAgainst SQL expression for the opponent's goals
+     * @return The CASE expression
+     */
+    private static String resultCodeSql(String goalsFor, String goalsAgainst) {
+        return "(CASE WHEN " + goalsFor + " > " + goalsAgainst + " THEN '" + MatchResult.WIN.getCode() + "'"
+                + " WHEN " + goalsFor + " = " + goalsAgainst + " THEN '" + MatchResult.DRAW.getCode() + "'"
+                + " ELSE '" + MatchResult.LOSS.getCode() + "' END)";
+    }
+
+    /**
+     * Builds the trigger body statements that add a new match to both teams' form.
+     * When the match was played after all of a team's other matches, its result is
+     * appended and the oldest one dropped; a match entered for an earlier day is
+     * placed by reading the team's form again from its latest matches.
+     * @return Two UPDATE statements, each terminated by a semicolon
+     */
+    private static String appendFormSql() {
+        return appendFormSql(COLUMN_TEAM_A_ID, COLUMN_TEAM_A_GOALS, COLUMN_TEAM_B_GOALS)
+                + appendFormSql(COLUMN_TEAM_B_ID, COLUMN_TEAM_B_GOALS, COLUMN_TEAM_A_GOALS);
+    }
+
+    /**
+     * Builds the trigger body UPDATE that adds a new match to one side's form.
+     */
+    private static String appendFormSql(String teamColumn, String forColumn, String againstColumn) {
+        String teamId = "NEW." + teamColumn;
+        String later = " AND " + COLUMN_MATCH_DAY + " > NEW." + COLUMN_MATCH_DAY + ")";
+        return "UPDATE " + TABLE_TEAM_STATS + " SET " + COLUMN_FORM + " = CASE"
+                + " WHEN NOT EXISTS (SELECT 1 FROM " + TABLE_MATCHES + " WHERE " + COLUMN_TEAM_A_ID + " = " + teamId + later
+                + " AND NOT EXISTS (SELECT 1 FROM " + TABLE_MATCHES + " WHERE " + COLUMN_TEAM_B_ID + " = " + teamId + later
+                + " THEN substr(" + COLUMN_FORM + " || " + resultCodeSql("NEW." + forColumn, "NEW." + againstColumn)
+                + ", -" + TeamStats.FORM_LENGTH + ")"
+                + " ELSE " + recentFormSql(teamId) + " END"
+                + " WHERE " + COLUMN_TEAM_ID + " = " + teamId + "; ";
+    }
+
+    /**
+     * Builds the trigger body statements that read both teams' form of a changed
+     * match again from their latest matches.
+     * @param row The trigger row to read, NEW or OLD
+     * @return Two UPDATE statements, each terminated by a semicolon
+     */
+    private static String rebuildFormSql(String row) {
+        String sql = "";
+        for (String teamColumn : new String[]{COLUMN_TEAM_A_ID, COLUMN_TEAM_B_ID}) {
+            String teamId = row + "." + teamColumn;
+            sql += "UPDATE " + TABLE_TEAM_STATS + " SET " + COLUMN_FORM + " = " + recentFormSql(teamId)
+                    + " WHERE " + COLUMN_TEAM_ID + " = " + teamId + "; ";
+        }
+        return sql;
+    }
+
     /**
      * Constructor for DatabaseHelper.
      * @param context The application context
@@ -70,30 +525,263 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
 
+    /**
+     * Constructs a DatabaseHelper for a database other than the app's own,
+     * such as a scratch database used by benchmarks.
+     * @param context The application context
+     * @param name The database file name, or null for an in-memory database
+     */
+    DatabaseHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+    }
+
     /**
      * Called when the database is created for the first time.
-     * Creates both the matches and team stats tables.
+     * Creates the team stats and matches tables, their indexes, the match details view,
+     * the head to head, standings checkpoints and bulk load tables, the triggers
+     * that maintain them and the search index.
      * @param db The database being created
      */
     @Override
     public void onCreate(SQLiteDatabase db) {
-        db.execSQL(CREATE_MATCHES_TABLE);
         db.execSQL(CREATE_TEAM_STATS_TABLE);
+        db.execSQL(CREATE_MATCHES_TABLE);
+        db.execSQL(CREATE_MATCH_DAY_INDEX);
+        db.execSQL(CREATE_TEAM_A_INDEX);
+        db.execSQL(CREATE_TEAM_B_INDEX);
+        db.execSQL(CREATE_MATCH_DETAILS_VIEW);
+        createHeadToHead(db);
+        db.execSQL(CREATE_STANDINGS_CHECKPOINTS_TABLE);
+        db.execSQL(CREATE_BULK_LOAD_TABLE);
+        createStatsTriggers(db);
+        createSearchIndex(db);
+    }
+
+    /**
+     * Creates the head to head table and the pair index its meetings are read through.
+     * @param db The database to create them in
+     */
+    private static void createHeadToHead(SQLiteDatabase db) {
+        db.execSQL(CREATE_PAIR_INDEX);
+        db.execSQL(CREATE_HEAD_TO_HEAD_TABLE);
+    }
+
+    /**
+     * Creates the search tables, the city index their results are read through
+     * and the trigger that removes deleted teams from the index.
+     * @param db The database to create them in
+     */
+    private static void createSearchIndex(SQLiteDatabase db) {
+        db.execSQL(CREATE_CITY_INDEX);
+        db.execSQL(CREATE_TEAM_SEARCH_TABLE);
+        db.execSQL(CREATE_CITY_SEARCH_TABLE);
+        db.execSQL(CREATE_TEAM_DELETED_TRIGGER);
+    }
+
+    /**
+     * Installs the triggers that keep team statistics and form, head to head records
+     * and standings checkpoints in step with the matches table.
+     * @param db The database to install them in
+     */
+    static void createStatsTriggers(SQLiteDatabase db) {
+        db.execSQL(CREATE_MATCH_INSERTED_TRIGGER);
+        db.execSQL(CREATE_MATCH_UPDATED_TRIGGER);
+        db.execSQL(CREATE_MATCH_DELETED_TRIGGER);
+        db.execSQL(CREATE_MATCH_DAY_UPDATED_TRIGGER);
+    }
+
+    /**
+     * Removes the statistics triggers, so an upgrade can install their current
+     * version, or all data can be deleted without the triggers updating the
+     * statistics row by row. Must be done inside a transaction that reinstalls them
+     * with {@link #createStatsTriggers(SQLiteDatabase)} before it commits.
+     * Triggers that are missing are skipped, since databases created before
+     * every trigger existed are upgraded too.
+     * @param db The database to remove them from
+     */
+    static void dropStatsTriggers(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_MATCH_INSERTED);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_MATCH_UPDATED);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_MATCH_DELETED);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_MATCH_DAY_UPDATED);
+    }
+
+    /**
+     * Starts a bulk load: the insert trigger skips the matches inserted until
+     * {@link #endBulkLoad(SQLiteDatabase)}. Must be called inside the transaction
+     * that inserts them, which ends the bulk load before it commits, so no other
+     * write ever finds the trigger skipping.
+     * @param db The database to insert into
+     */
+    static void beginBulkLoad(SQLiteDatabase db) {
+        db.execSQL(BEGIN_BULK_LOAD);
+    }
+
+    /**
+     * Ends a bulk load, dropping the standings checkpoints that its matches fall
+     * before. The caller adds their results to the team statistics, head to head
+     * records and form, which the insert trigger skipped.
+     * @param db The database being inserted into
+     */
+    static void endBulkLoad(SQLiteDatabase db) {
+        db.execSQL(DROP_BULK_LOAD_CHECKPOINTS);
+        db.delete(TABLE_BULK_LOAD, null, null);
     }
 
     /**
      * Called when the database needs to be upgraded to a new version.
-     * Currently implements a simple drop and recreate strategy.
+     * Applies each schema migration in turn so existing match data is kept.
      * @param db The database being upgraded
      * @param oldVersion The old database version
      * @param newVersion The new database version
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Drop existing tables
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MATCHES);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_TEAM_STATS);
-        // Recreate tables
-        onCreate(db);
+        if (oldVersion < 2) {
+            upgradeToVersion2(db);
+        }
+        if (oldVersion < 3) {
+            upgradeToVersion3(db);
+        }
+        if (oldVersion < 4) {
+            upgradeToVersion4(db);
+        }
+        if (oldVersion < 5) {
+            upgradeToVersion5(db);
+        }
+        if (oldVersion < 6) {
+            upgradeToVersion6(db);
+        }
+        if (oldVersion < 7) {
+            upgradeToVersion7(db);
+        }
+        if (oldVersion < 8) {
+            upgradeToVersion8(db);
+        }
+        if (oldVersion < 9) {
+            upgradeToVersion9(db);
+        }
+        if (oldVersion < 10) {
+            upgradeToVersion10(db);
+        }
+    }
+
+    /**
+     * Version 2 adds the sortable match day column, backfills it from the
+     * existing text dates and indexes it.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion2(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE " + TABLE_MATCHES + " ADD COLUMN " + COLUMN_MATCH_DAY
+                + " INTEGER NOT NULL DEFAULT " + DateFormatter.INVALID_EPOCH_DAY);
+        db.execSQL(BACKFILL_MATCH_DAY);
+        db.execSQL(CREATE_MATCH_DAY_INDEX);
+    }
+
+    /**
+     * Version 3 replaces the team name columns of the matches table with team ids.
+     * Every team named in a match gets a team stats row, the table is rebuilt with
+     * the integer references (SQLite cannot drop columns in place), and the team
+     * indexes and match details view are created.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion3(SQLiteDatabase db) {
+        String newTable = TABLE_MATCHES + "_new";
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_TEAM_STATS + "(" + COLUMN_TEAM_NAME + ")"
+                + " SELECT " + COLUMN_TEAM_A + " FROM " + TABLE_MATCHES
+                + " UNION SELECT " + COLUMN_TEAM_B + " FROM " + TABLE_MATCHES);
+        db.execSQL(createMatchesTableSql(newTable));
+        db.execSQL("INSERT INTO " + newTable + " SELECT "
+                + "m." + COLUMN_MATCH_ID + ", m." + COLUMN_DATE + ", m." + COLUMN_MATCH_DAY + ", m." + COLUMN_CITY + ", "
+                + "(SELECT " + COLUMN_TEAM_ID + " FROM " + TABLE_TEAM_STATS + " WHERE " + COLUMN_TEAM_NAME + " = m." + COLUMN_TEAM_A + "), "
+                + "(SELECT " + COLUMN_TEAM_ID + " FROM " + TABLE_TEAM_STATS + " WHERE " + COLUMN_TEAM_NAME + " = m." + COLUMN_TEAM_B + "), "
+                + "m." + COLUMN_TEAM_A_GOALS + ", m." + COLUMN_TEAM_B_GOALS
+                + " FROM " + TABLE_MATCHES + " m");
+        db.execSQL("DROP TABLE " + TABLE_MATCHES);
+        db.execSQL("ALTER TABLE " + newTable + " RENAME TO " + TABLE_MATCHES);
+        db.execSQL(CREATE_MATCH_DAY_INDEX);
+        db.execSQL(CREATE_TEAM_A_INDEX);
+        db.execSQL(CREATE_TEAM_B_INDEX);
+        db.execSQL(CREATE_MATCH_DETAILS_VIEW);
+    }
+
+    /**
+     * Version 4 moves team statistics maintenance into the database.
+     * The triggers are installed and the statistics rebuilt once from the
+     * matches table, so they start out consistent with it.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion4(SQLiteDatabase db) {
+        createStatsTriggers(db);
+        TeamStatsDao.rebuildAllTeamStats(db);
+    }
+
+    /**
+     * Version 5 adds the team and city search index and fills it from the
+     * existing teams and matches.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion5(SQLiteDatabase db) {
+        createSearchIndex(db);
+        SearchIndex.rebuild(db);
+    }
+
+    /**
+     * Version 6 adds the head to head table and pair index, fills the table from
+     * the existing matches, and reinstalls the statistics triggers so they keep it.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion6(SQLiteDatabase db) {
+        createHeadToHead(db);
+        dropStatsTriggers(db);
+        createStatsTriggers(db);
+        HeadToHeadDao.rebuildAllRecords(db);
+    }
+
+    /**
+     * Version 7 adds the standings checkpoints table and reinstalls the statistics
+     * triggers so they drop outdated checkpoints. The table starts out empty;
+     * checkpoints are taken the first time a past table is asked for.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion7(SQLiteDatabase db) {
+        db.execSQL(CREATE_STANDINGS_CHECKPOINTS_TABLE);
+        dropStatsTriggers(db);
+        createStatsTriggers(db);
+    }
+
+    /**
+     * Version 8 adds each team's recent form to the team stats table, fills it
+     * from every team's latest matches, and reinstalls the statistics triggers
+     * so they keep it.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion8(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE " + TABLE_TEAM_STATS + " ADD COLUMN " + COLUMN_FORM + " TEXT NOT NULL DEFAULT ''");
+        dropStatsTriggers(db);
+        createStatsTriggers(db);
+        TeamStatsDao.rebuildAllForm(db);
+    }
+
+    /**
+     * Version 9 reinstalls the statistics triggers so that an edit which writes
+     * back the same date, or changes a match whose date cannot be read, leaves
+     * the standings checkpoints in place.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion9(SQLiteDatabase db) {
+        dropStatsTriggers(db);
+        createStatsTriggers(db);
+    }
+
+    /**
+     * Version 10 adds the bulk load table and reinstalls the statistics triggers
+     * so the insert trigger skips the matches of a bulk load.
+     * @param db The database being upgraded
+     */
+    private void upgradeToVersion10(SQLiteDatabase db) {
+        db.execSQL(CREATE_BULK_LOAD_TABLE);
+        dropStatsTriggers(db);
+        createStatsTriggers(db);
     }
-}
\ No newline at end of file
+}
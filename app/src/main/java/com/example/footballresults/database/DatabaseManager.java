@@ -0,0 +1,73 @@
+package com.example.footballresults.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Process-wide owner of the football results database connection.
+ * All DAOs lease the same long-lived SQLiteDatabase from this class instead of
+ * opening and closing their own helper around every operation. The database
+ * runs in write-ahead logging mode, so reads on other threads can proceed
+ * while a write transaction is open.
+ * Leases are reference counted; the connection stays open when the count drops
+ * to zero because reopening it is the cost this class exists to avoid.
+ */
+public final class DatabaseManager {
+    /** The single instance, created on first use */
+    private static DatabaseManager instance;
+
+    /** Helper that creates, upgrades and opens the database */
+    private final DatabaseHelper dbHelper;
+
+    /** The shared connection, opened on the first lease */
+    private SQLiteDatabase database;
+
+    /** Number of leases currently held */
+    private int leaseCount;
+
+    /**
+     * Constructs the manager. Use {@link #getInstance(Context)} instead.
+     * @param context The application context
+     */
+    private DatabaseManager(Context context) {
+        dbHelper = new DatabaseHelper(context);
+        dbHelper.setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Gets the process-wide database manager.
+     * @param context Any context; only its application context is kept
+     * @return The shared DatabaseManager
+     */
+    public static synchronized DatabaseManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseManager(context != null ? context.getApplicationContext() : null);
+        }
+        return instance;
+    }
+
+    /**
+     * Leases the shared database, opening it on first use.
+     * Every call must be matched by a call to {@link #release()}.
+     * @return The shared writable database
+     */
+    public synchronized SQLiteDatabase acquire() {
+        if (database == null || !database.isOpen()) {
+            database = dbHelper.getWritableDatabase();
+        }
+        leaseCount++;
+        return database;
+    }
+
+    /**
+     * Returns a lease taken with {@link #acquire()}.
+     * The connection itself is kept open for the next caller.
+     * @throws IllegalStateException if no lease is held
+     */
+    public synchronized void release() {
+        if (leaseCount == 0) {
+            throw new IllegalStateException("release() called without a matching acquire()");
+        }
+        leaseCount--;
+    }
+}
@@ -1,25 +1,45 @@
 package com.example.footballresults.database;
 
-import android.annotation.SuppressLint;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.MatchGenerator;
 import com.example.footballresults.utils.StatisticsCalculator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Database seeder class responsible for populating the database with initial data.
  * This class provides functionality to seed the database with sample matches and teams,
- * and calculates initial statistics. It ensures the database is only seeded once
- * by checking if data already exists.
+ * whose statistics are filled in by the bulk match insert.
+ * It ensures the database is only seeded once by checking if data already exists.
+ * For load testing it can instead replace all data with synthetic matches from a
+ * {@link MatchGenerator}, written through the batched bulk insert.
  */
 public class DatabaseSeeder {
     private static final String TAG = "DatabaseSeeder";
+
+    /** Teams of the sample data */
+    private static final String[] SAMPLE_TEAMS = {
+            "מכבי ת\"א",
+            "הפועל ת\"א",
+            "ביתר ירושלים",
+            "מכבי חיפה",
+            "מכבי נתניה",
+            "מכבי פתח תקווה",
+            "הפועל באר שבע",
+            "מכבי הרצליה"
+    };
+
     private final Context context;
-    private final DatabaseHelper dbHelper;
+    private final DatabaseManager dbManager;
 
     /**
      * Constructs a new DatabaseSeeder.
@@ -27,7 +47,18 @@ public class DatabaseSeeder {
      */
     public DatabaseSeeder(Context context) {
         this.context = context;
-        this.dbHelper = new DatabaseHelper(context);
+        this.dbManager = DatabaseManager.getInstance(context);
+    }
+
+    /**
+     * Receives progress while synthetic data is generated, on the generating thread.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after every committed batch.
+         * @param matchesInserted Number of matches stored so far
+         */
+        void onProgress(int matchesInserted);
     }
 
     /**
@@ -36,7 +67,7 @@ public class DatabaseSeeder {
      * to prevent duplicate entries.
      */
     public void seedDatabase() {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteDatabase db = dbManager.acquire();
 
         // Check if database already has data
         Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + DatabaseHelper.TABLE_MATCHES, null);
@@ -47,62 +78,70 @@ public class DatabaseSeeder {
         // Only seed if database is empty
         if (count == 0) {
             Log.d(TAG, "Database is empty. Seeding with initial data...");
-            insertSampleData(db);
-            Log.d(TAG, "Database seeding completed successfully.");
+            long start = SystemClock.elapsedRealtime();
+            BatchInsertResult result = insertSampleData(db);
+            if (result != null) {
+                logSeedingReport(result, SystemClock.elapsedRealtime() - start);
+            }
         } else {
             Log.d(TAG, "Database already contains data. Skipping seeding.");
         }
 
-        db.close();
+        dbManager.release();
     }
 
     /**
      * Inserts sample data into the database within a transaction.
      * This method handles the complete seeding process:
      * 1. Inserts teams
-     * 2. Inserts matches
-     * 3. Calculates and updates team statistics
+     * 2. Inserts matches, which also updates team statistics
      * @param db The SQLiteDatabase instance to use for insertions
+     * @return The outcome of the match insert, or null if seeding failed
      */
-    private void insertSampleData(SQLiteDatabase db) {
+    private BatchInsertResult insertSampleData(SQLiteDatabase db) {
+        BatchInsertResult result = null;
         // Create transaction for better performance
         db.beginTransaction();
         try {
             // Insert teams
-            insertTeams(db);
-
-            // Insert matches
-            insertMatches(db);
+            Log.d(TAG, "Inserting initial teams...");
+            insertTeams(db, SAMPLE_TEAMS);
 
-            // Calculate statistics
-            updateStatistics(db);
+            // Insert matches; the bulk insert scores them
+            result = insertMatches(db);
 
             db.setTransactionSuccessful();
         } catch (Exception e) {
             Log.e(TAG, "Error seeding database: " + e.getMessage());
+            result = null;
         } finally {
             db.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
         }
+        return result;
     }
 
     /**
-     * Inserts initial team data into the database.
-     * Creates records for all teams with initial statistics set to zero.
-     * @param db The SQLiteDatabase instance to use for insertions
+     * Logs how long first-run seeding took and how many statements it needed to
+     * score the matches, next to the four per match (a SELECT and an UPDATE for
+     * each side) that scoring them one at a time would take.
+     * @param result The outcome of the match insert
+     * @param elapsedMs Time spent seeding, in milliseconds
      */
-    private void insertTeams(SQLiteDatabase db) {
-        Log.d(TAG, "Inserting initial teams...");
-        String[] teams = {
-                "מכבי ת\"א",
-                "הפועל ת\"א",
-                "ביתר ירושלים",
-                "מכבי חיפה",
-                "מכבי נתניה",
-                "מכבי פתח תקווה",
-                "הפועל באר שבע",
-                "מכבי הרצליה"
-        };
+    private static void logSeedingReport(BatchInsertResult result, long elapsedMs) {
+        int matches = result.getInsertedCount();
+        Log.i(TAG, "First-run seeding: " + SAMPLE_TEAMS.length + " teams and " + matches + " matches in "
+                + elapsedMs + " ms; statistics written with " + result.getTeamUpdateCount()
+                + " statements instead of " + (4 * matches) + " per-match queries and updates");
+    }
 
+    /**
+     * Inserts team records into the database, in order.
+     * Creates records for all teams with initial statistics set to zero and indexes them for search.
+     * @param db The SQLiteDatabase instance to use for insertions
+     * @param teams The names of the teams
+     */
+    private static void insertTeams(SQLiteDatabase db, String[] teams) {
         for (String team : teams) {
             ContentValues values = new ContentValues();
             values.put(DatabaseHelper.COLUMN_TEAM_NAME, team);
@@ -114,185 +153,123 @@ public class DatabaseSeeder {
             values.put(DatabaseHelper.COLUMN_GOALS_AGAINST, 0);
             values.put(DatabaseHelper.COLUMN_POINTS, 0);
 
-            db.insert(DatabaseHelper.TABLE_TEAM_STATS, null, values);
+            long teamId = db.insert(DatabaseHelper.TABLE_TEAM_STATS, null, values);
+            if (teamId != -1) {
+                SearchIndex.addTeam(db, teamId, team);
+            }
         }
     }
 
     /**
      * Inserts sample match data into the database.
-     * Creates records for initial matches with various results.
+     * Creates records for initial matches with various results, written in one
+     * bulk insert that scores them all at once.
      * @param db The SQLiteDatabase instance to use for insertions
+     * @return The number of matches inserted and the rows that were rejected
      */
-    private void insertMatches(SQLiteDatabase db) {
+    private BatchInsertResult insertMatches(SQLiteDatabase db) {
         Log.d(TAG, "Inserting initial matches...");
 
-        // Match 1
-        ContentValues match1 = new ContentValues();
-        match1.put(DatabaseHelper.COLUMN_DATE, "22/11/2022");
-        match1.put(DatabaseHelper.COLUMN_CITY, "תל אביב");
-        match1.put(DatabaseHelper.COLUMN_TEAM_A, "מכבי ת\"א");
-        match1.put(DatabaseHelper.COLUMN_TEAM_B, "הפועל ת\"א");
-        match1.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 2);
-        match1.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 0);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match1);
-
-        // Match 2
-        ContentValues match2 = new ContentValues();
-        match2.put(DatabaseHelper.COLUMN_DATE, "22/11/2022");
-        match2.put(DatabaseHelper.COLUMN_CITY, "כרמיאל");
-        match2.put(DatabaseHelper.COLUMN_TEAM_A, "ביתר ירושלים");
-        match2.put(DatabaseHelper.COLUMN_TEAM_B, "מכבי חיפה");
-        match2.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 1);
-        match2.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 1);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match2);
-
-        // Match 3
-        ContentValues match3 = new ContentValues();
-        match3.put(DatabaseHelper.COLUMN_DATE, "29/11/2022");
-        match3.put(DatabaseHelper.COLUMN_CITY, "חיפה");
-        match3.put(DatabaseHelper.COLUMN_TEAM_A, "מכבי חיפה");
-        match3.put(DatabaseHelper.COLUMN_TEAM_B, "ביתר ירושלים");
-        match3.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 3);
-        match3.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 1);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match3);
-
-        // Match 4
-        ContentValues match4 = new ContentValues();
-        match4.put(DatabaseHelper.COLUMN_DATE, "05/12/2022");
-        match4.put(DatabaseHelper.COLUMN_CITY, "נתניה");
-        match4.put(DatabaseHelper.COLUMN_TEAM_A, "מכבי נתניה");
-        match4.put(DatabaseHelper.COLUMN_TEAM_B, "מכבי ת\"א");
-        match4.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 0);
-        match4.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 2);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match4);
-
-        // Match 5
-        ContentValues match5 = new ContentValues();
-        match5.put(DatabaseHelper.COLUMN_DATE, "12/12/2022");
-        match5.put(DatabaseHelper.COLUMN_CITY, "באר שבע");
-        match5.put(DatabaseHelper.COLUMN_TEAM_A, "הפועל באר שבע");
-        match5.put(DatabaseHelper.COLUMN_TEAM_B, "מכבי חיפה");
-        match5.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 2);
-        match5.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 2);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match5);
-
-        // Match 6
-        ContentValues match6 = new ContentValues();
-        match6.put(DatabaseHelper.COLUMN_DATE, "19/12/2022");
-        match6.put(DatabaseHelper.COLUMN_CITY, "פתח תקווה");
-        match6.put(DatabaseHelper.COLUMN_TEAM_A, "מכבי פתח תקווה");
-        match6.put(DatabaseHelper.COLUMN_TEAM_B, "הפועל ת\"א");
-        match6.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 1);
-        match6.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 3);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match6);
-
-        // Match 7
-        ContentValues match7 = new ContentValues();
-        match7.put(DatabaseHelper.COLUMN_DATE, "26/12/2022");
-        match7.put(DatabaseHelper.COLUMN_CITY, "תל אביב");
-        match7.put(DatabaseHelper.COLUMN_TEAM_A, "מכבי ת\"א");
-        match7.put(DatabaseHelper.COLUMN_TEAM_B, "מכבי חיפה");
-        match7.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 1);
-        match7.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 0);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match7);
-
-        // Match 8
-        ContentValues match8 = new ContentValues();
-        match8.put(DatabaseHelper.COLUMN_DATE, "02/01/2023");
-        match8.put(DatabaseHelper.COLUMN_CITY, "הרצליה");
-        match8.put(DatabaseHelper.COLUMN_TEAM_A, "מכבי הרצליה");
-        match8.put(DatabaseHelper.COLUMN_TEAM_B, "ביתר ירושלים");
-        match8.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, 0);
-        match8.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, 1);
-        db.insert(DatabaseHelper.TABLE_MATCHES, null, match8);
+        List<Match> matches = Arrays.asList(
+                new Match("22/11/2022", "תל אביב", "מכבי ת\"א", "הפועל ת\"א", 2, 0),
+                new Match("22/11/2022", "כרמיאל", "ביתר ירושלים", "מכבי חיפה", 1, 1),
+                new Match("29/11/2022", "חיפה", "מכבי חיפה", "ביתר ירושלים", 3, 1),
+                new Match("05/12/2022", "נתניה", "מכבי נתניה", "מכבי ת\"א", 0, 2),
+                new Match("12/12/2022", "באר שבע", "הפועל באר שבע", "מכבי חיפה", 2, 2),
+                new Match("19/12/2022", "פתח תקווה", "מכבי פתח תקווה", "הפועל ת\"א", 1, 3),
+                new Match("26/12/2022", "תל אביב", "מכבי ת\"א", "מכבי חיפה", 1, 0),
+                new Match("02/01/2023", "הרצליה", "מכבי הרצליה", "ביתר ירושלים", 0, 1));
+
+        BatchInsertResult result = MatchDao.addMatches(db, matches, MatchDao.DEFAULT_BATCH_SIZE);
+        for (BatchInsertResult.Failure failure : result.getFailures()) {
+            Log.e(TAG, "Sample match " + failure.getIndex() + " not inserted: " + failure.getReason());
+        }
+        return result;
     }
 
     /**
-     * Updates team statistics based on match results.
-     * Calculates and updates statistics for all teams by processing
-     * all matches in the database.
-     * @param db The SQLiteDatabase instance to use for updates
+     * Replaces all matches and teams with synthetic data, for load testing.
+     * The same generator settings and seed always produce the same database.
+     * @param generator The matches to store
+     * @param listener Receives progress after every batch, may be null
+     * @return The number of matches stored
      */
-    private void updateStatistics(SQLiteDatabase db) {
-        Log.d(TAG, "Calculating team statistics...");
-
-        // Loop through all matches in the database and update stats manually
-        Cursor cursor = db.query(DatabaseHelper.TABLE_MATCHES, null, null, null, null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                // Extract match data
-                @SuppressLint("Range") String teamA = cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_A));
-                @SuppressLint("Range") String teamB = cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_B));
-                @SuppressLint("Range") int teamAGoals = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_A_GOALS));
-                @SuppressLint("Range") int teamBGoals = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_B_GOALS));
-
-                // Update statistics for both teams
-                updateTeamStats(db, teamA, teamAGoals, teamBGoals, teamAGoals > teamBGoals, teamAGoals == teamBGoals);
-                updateTeamStats(db, teamB, teamBGoals, teamAGoals, teamBGoals > teamAGoals, teamAGoals == teamBGoals);
-
-            } while (cursor.moveToNext());
-            cursor.close();
+    public int generateMatches(MatchGenerator generator, ProgressListener listener) {
+        SQLiteDatabase db = dbManager.acquire();
+        try {
+            return generateMatches(db, generator, MatchDao.DEFAULT_BATCH_SIZE, listener);
+        } finally {
+            dbManager.release();
         }
     }
 
     /**
-     * Updates statistics for a single team based on a match result.
-     * Calculates and updates matches played, wins, draws, losses,
-     * goals scored/against, and points.
-     * @param db The SQLiteDatabase instance to use for updates
-     * @param teamName The name of the team to update
-     * @param goalsScored Goals scored by the team in this match
-     * @param goalsAgainst Goals scored against the team in this match
-     * @param isWin Whether the team won the match
-     * @param isDraw Whether the match was a draw
+     * Deletes all data, adds the generator's teams in order so their IDs are their
+     * team numbers, and streams the generated matches into the bulk insert.
+     * @param db The database to write to
+     * @param generator The matches to store
+     * @param batchSize Number of matches per transaction
+     * @param listener Receives progress after every batch, may be null
+     * @return The number of matches stored
      */
-    private void updateTeamStats(SQLiteDatabase db, String teamName, int goalsScored, int goalsAgainst, boolean isWin, boolean isDraw) {
-        // Get current team stats
-        Cursor cursor = db.query(
-                DatabaseHelper.TABLE_TEAM_STATS,
-                null,
-                DatabaseHelper.COLUMN_TEAM_NAME + "=?",
-                new String[]{teamName},
-                null, null, null
-        );
-
-        ContentValues values = new ContentValues();
-
-        if (cursor != null && cursor.moveToFirst()) {
-            // Update existing team stats
-            @SuppressLint("Range") int matchesPlayed = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_MATCHES_PLAYED)) + 1;
-            @SuppressLint("Range") int wins = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_WINS)) + (isWin ? 1 : 0);
-            @SuppressLint("Range") int draws = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_DRAWS)) + (isDraw ? 1 : 0);
-            @SuppressLint("Range") int losses = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_LOSSES));
-            if (!isWin && !isDraw) losses += 1;
-
-            @SuppressLint("Range") int totalGoalsScored = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_GOALS_SCORED)) + goalsScored;
-            @SuppressLint("Range") int totalGoalsAgainst = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_GOALS_AGAINST)) + goalsAgainst;
-            @SuppressLint("Range") int points = cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_POINTS));
+    static int generateMatches(SQLiteDatabase db, MatchGenerator generator, int batchSize,
+                               ProgressListener listener) {
+        long start = SystemClock.elapsedRealtime();
+        String[] teams = new String[generator.getTeamCount()];
+        for (int i = 0; i < teams.length; i++) {
+            teams[i] = generator.getTeamName(i + 1);
+        }
 
-            // Calculate points (3 for win, 1 for draw)
-            if (isWin) points += 3;
-            else if (isDraw) points += 1;
+        db.beginTransaction();
+        try {
+            // Without the triggers, deleting the matches does not update team_stats and head_to_head row by row
+            DatabaseHelper.dropStatsTriggers(db);
+            db.delete(DatabaseHelper.TABLE_MATCHES, null, null);
+            db.delete(DatabaseHelper.TABLE_TEAM_STATS, null, null);
+            HeadToHeadDao.clear(db);
+            StandingsCheckpoints.clear(db);
+            SearchIndex.clear(db);
+            // Restart the IDs so every generated database is the same
+            db.delete("sqlite_sequence", null, null);
+            DatabaseHelper.createStatsTriggers(db);
+            insertTeams(db, teams);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
+        }
 
-            // Update values
-            values.put(DatabaseHelper.COLUMN_MATCHES_PLAYED, matchesPlayed);
-            values.put(DatabaseHelper.COLUMN_WINS, wins);
-            values.put(DatabaseHelper.COLUMN_DRAWS, draws);
-            values.put(DatabaseHelper.COLUMN_LOSSES, losses);
-            values.put(DatabaseHelper.COLUMN_GOALS_SCORED, totalGoalsScored);
-            values.put(DatabaseHelper.COLUMN_GOALS_AGAINST, totalGoalsAgainst);
-            values.put(DatabaseHelper.COLUMN_POINTS, points);
+        List<Match> batch = new ArrayList<>(batchSize);
+        int inserted = 0;
+        for (Match match : generator) {
+            batch.add(match);
+            if (batch.size() == batchSize) {
+                inserted += insertBatch(db, batch, inserted, listener);
+            }
+        }
+        if (!batch.isEmpty()) {
+            inserted += insertBatch(db, batch, inserted, listener);
+        }
 
-            // Update in database
-            db.update(
-                    DatabaseHelper.TABLE_TEAM_STATS,
-                    values,
-                    DatabaseHelper.COLUMN_TEAM_NAME + "=?",
-                    new String[]{teamName}
-            );
+        Log.d(TAG, "Generated " + inserted + " matches between " + teams.length + " teams in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+        return inserted;
+    }
 
-            cursor.close();
+    /**
+     * Writes one batch of generated matches and reports progress.
+     * @return The number of matches stored
+     */
+    private static int insertBatch(SQLiteDatabase db, List<Match> batch, int insertedBefore,
+                                   ProgressListener listener) {
+        BatchInsertResult result = MatchDao.addMatches(db, batch, batch.size());
+        for (BatchInsertResult.Failure failure : result.getFailures()) {
+            Log.e(TAG, "Generated match not inserted: " + failure.getReason());
+        }
+        batch.clear();
+        if (listener != null) {
+            listener.onProgress(insertedBefore + result.getInsertedCount());
         }
+        return result.getInsertedCount();
     }
-}
\ No newline at end of file
+}
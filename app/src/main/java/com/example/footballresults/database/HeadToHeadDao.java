@@ -0,0 +1,274 @@
+package com.example.footballresults.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.footballresults.models.HeadToHead;
+import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.HeadToHeadAccumulator;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the head to head records of pairs of teams.
+ * The records are kept by the statistics triggers and the bulk insert as matches
+ * change, one row per unordered pair, so reading how two teams did against each
+ * other is a primary key seek plus one seek of the pair index for the latest
+ * meetings, however many matches are stored.
+ */
+public class HeadToHeadDao {
+    /** Number of latest meetings shown with a record */
+    public static final int DEFAULT_MEETING_COUNT = 5;
+
+    /** SQL statement that adds accumulated totals to a pair's record */
+    private static final String ADD_RECORD = "UPDATE " + DatabaseHelper.TABLE_HEAD_TO_HEAD + " SET "
+            + DatabaseHelper.COLUMN_MEETINGS + " = " + DatabaseHelper.COLUMN_MEETINGS + " + ?, "
+            + DatabaseHelper.COLUMN_LOW_WINS + " = " + DatabaseHelper.COLUMN_LOW_WINS + " + ?, "
+            + DatabaseHelper.COLUMN_DRAWS + " = " + DatabaseHelper.COLUMN_DRAWS + " + ?, "
+            + DatabaseHelper.COLUMN_HIGH_WINS + " = " + DatabaseHelper.COLUMN_HIGH_WINS + " + ?, "
+            + DatabaseHelper.COLUMN_LOW_GOALS + " = " + DatabaseHelper.COLUMN_LOW_GOALS + " + ?, "
+            + DatabaseHelper.COLUMN_HIGH_GOALS + " = " + DatabaseHelper.COLUMN_HIGH_GOALS + " + ?"
+            + " WHERE " + DatabaseHelper.COLUMN_LOW_TEAM_ID + " = ? AND " + DatabaseHelper.COLUMN_HIGH_TEAM_ID + " = ?";
+
+    /** SQL statement that stores the record of a pair that has no row yet */
+    private static final String INSERT_RECORD = "INSERT INTO " + DatabaseHelper.TABLE_HEAD_TO_HEAD + " ("
+            + DatabaseHelper.COLUMN_MEETINGS + ", " + DatabaseHelper.COLUMN_LOW_WINS + ", "
+            + DatabaseHelper.COLUMN_DRAWS + ", " + DatabaseHelper.COLUMN_HIGH_WINS + ", "
+            + DatabaseHelper.COLUMN_LOW_GOALS + ", " + DatabaseHelper.COLUMN_HIGH_GOALS + ", "
+            + DatabaseHelper.COLUMN_LOW_TEAM_ID + ", " + DatabaseHelper.COLUMN_HIGH_TEAM_ID
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Goals of the lower and higher team ID of a match, as the record counts them */
+    private static final String LOW_GOALS = "CASE WHEN " + DatabaseHelper.COLUMN_TEAM_A_ID + " <= "
+            + DatabaseHelper.COLUMN_TEAM_B_ID + " THEN " + DatabaseHelper.COLUMN_TEAM_A_GOALS
+            + " ELSE " + DatabaseHelper.COLUMN_TEAM_B_GOALS + " END";
+    private static final String HIGH_GOALS = "CASE WHEN " + DatabaseHelper.COLUMN_TEAM_A_ID + " <= "
+            + DatabaseHelper.COLUMN_TEAM_B_ID + " THEN " + DatabaseHelper.COLUMN_TEAM_B_GOALS
+            + " ELSE " + DatabaseHelper.COLUMN_TEAM_A_GOALS + " END";
+
+    /**
+     * SQL statement that recomputes every record from the matches table.
+     * Grouping by the pair index expressions reads the matches in index order, without sorting.
+     */
+    private static final String INSERT_ALL_RECORDS = "INSERT INTO " + DatabaseHelper.TABLE_HEAD_TO_HEAD + " ("
+            + DatabaseHelper.COLUMN_LOW_TEAM_ID + ", " + DatabaseHelper.COLUMN_HIGH_TEAM_ID + ", "
+            + DatabaseHelper.COLUMN_MEETINGS + ", " + DatabaseHelper.COLUMN_LOW_WINS + ", "
+            + DatabaseHelper.COLUMN_DRAWS + ", " + DatabaseHelper.COLUMN_HIGH_WINS + ", "
+            + DatabaseHelper.COLUMN_LOW_GOALS + ", " + DatabaseHelper.COLUMN_HIGH_GOALS + ") SELECT "
+            + DatabaseHelper.LOW_TEAM_ID + ", " + DatabaseHelper.HIGH_TEAM_ID + ", COUNT(*), "
+            + "SUM((" + LOW_GOALS + ") > (" + HIGH_GOALS + ")), "
+            + "SUM((" + LOW_GOALS + ") = (" + HIGH_GOALS + ")), "
+            + "SUM((" + LOW_GOALS + ") < (" + HIGH_GOALS + ")), "
+            + "SUM(" + LOW_GOALS + "), SUM(" + HIGH_GOALS + ")"
+            + " FROM " + DatabaseHelper.TABLE_MATCHES
+            + " GROUP BY " + DatabaseHelper.LOW_TEAM_ID + ", " + DatabaseHelper.HIGH_TEAM_ID;
+
+    /** Columns of a stored record, in the order {@link #readRecord(Cursor, long, long)} reads them */
+    private static final String[] RECORD_PROJECTION = {
+            DatabaseHelper.COLUMN_MEETINGS, DatabaseHelper.COLUMN_LOW_WINS, DatabaseHelper.COLUMN_DRAWS,
+            DatabaseHelper.COLUMN_HIGH_WINS, DatabaseHelper.COLUMN_LOW_GOALS, DatabaseHelper.COLUMN_HIGH_GOALS};
+
+    /** Database instance for executing SQL operations */
+    private SQLiteDatabase database;
+
+    /** Shared database manager that hands out the connection */
+    private final DatabaseManager dbManager;
+
+    /**
+     * Constructs a new HeadToHeadDao.
+     * @param context The application context
+     */
+    public HeadToHeadDao(Context context) {
+        dbManager = DatabaseManager.getInstance(context);
+    }
+
+    /**
+     * Leases the shared writable database connection.
+     * Calling open on an already open DAO has no effect.
+     * @throws SQLException if the database cannot be opened
+     */
+    public void open() throws SQLException {
+        if (database == null) {
+            database = dbManager.acquire();
+        }
+    }
+
+    /**
+     * Returns the database lease. The shared connection itself stays open.
+     * Calling close on a DAO that is not open has no effect.
+     */
+    public void close() {
+        if (database != null) {
+            database = null;
+            dbManager.release();
+        }
+    }
+
+    /**
+     * Gets how one team has done against another, by team name.
+     * @param teamName The team to see the record from
+     * @param opponentName The opponent
+     * @param meetingCount The most recent meetings to include, at least 1
+     * @return The record, or null if either team is unknown or they have never met
+     */
+    public HeadToHead getHeadToHead(String teamName, String opponentName, int meetingCount) {
+        long teamId = TeamStatsDao.findTeamId(database, teamName);
+        long opponentId = TeamStatsDao.findTeamId(database, opponentName);
+        if (teamId == -1 || opponentId == -1) {
+            return null;
+        }
+        return getHeadToHead(database, teamId, opponentId, meetingCount);
+    }
+
+    /**
+     * Gets how one team has done against another, by team ID.
+     * @param teamId The ID of the team to see the record from
+     * @param opponentId The ID of the opponent
+     * @param meetingCount The most recent meetings to include, at least 1
+     * @return The record, or null if the teams have never met
+     */
+    public HeadToHead getHeadToHead(long teamId, long opponentId, int meetingCount) {
+        return getHeadToHead(database, teamId, opponentId, meetingCount);
+    }
+
+    /**
+     * Rebuilds every head to head record from the matches table.
+     * @return The number of pairs of teams that have met
+     */
+    public int rebuildAllRecords() {
+        return rebuildAllRecords(database);
+    }
+
+    /**
+     * Reads the record of a pair of teams by its primary key and its latest meetings
+     * through the pair index. The team names are taken from the meetings, so the
+     * teams are not looked up separately.
+     * @param db The database to read
+     * @param teamId The ID of the team to see the record from
+     * @param opponentId The ID of the opponent
+     * @param meetingCount The most recent meetings to include, at least 1
+     * @return The record, or null if the teams have never met
+     */
+    static HeadToHead getHeadToHead(SQLiteDatabase db, long teamId, long opponentId, int meetingCount) {
+        if (teamId == opponentId) {
+            return null;
+        }
+        long lowTeamId = Math.min(teamId, opponentId);
+        long highTeamId = Math.max(teamId, opponentId);
+        HeadToHead record;
+        Cursor cursor = db.query(DatabaseHelper.TABLE_HEAD_TO_HEAD, RECORD_PROJECTION,
+                DatabaseHelper.COLUMN_LOW_TEAM_ID + " = ? AND " + DatabaseHelper.COLUMN_HIGH_TEAM_ID + " = ?",
+                new String[]{String.valueOf(lowTeamId), String.valueOf(highTeamId)}, null, null, null);
+        try {
+            record = cursor.moveToFirst() ? readRecord(cursor, lowTeamId, highTeamId) : null;
+        } finally {
+            cursor.close();
+        }
+        if (record == null) {
+            return null;
+        }
+
+        List<Match> meetings = MatchDao.getHeadToHeadPage(db, lowTeamId, highTeamId,
+                MatchPage.Key.FIRST, meetingCount).getMatches();
+        if (!meetings.isEmpty()) {
+            Match latest = meetings.get(0);
+            boolean lowIsTeamA = latest.getTeamAId() == lowTeamId;
+            record.setTeamName(lowIsTeamA ? latest.getTeamA() : latest.getTeamB());
+            record.setOpponentName(lowIsTeamA ? latest.getTeamB() : latest.getTeamA());
+        }
+        record.setLastMeetings(meetings);
+        return teamId == lowTeamId ? record : record.reversed();
+    }
+
+    /**
+     * Reads a stored record, which is seen from the lower team ID.
+     */
+    private static HeadToHead readRecord(Cursor cursor, long lowTeamId, long highTeamId) {
+        HeadToHead record = new HeadToHead(lowTeamId, highTeamId);
+        record.setMeetings(cursor.getInt(0));
+        record.setWins(cursor.getInt(1));
+        record.setDraws(cursor.getInt(2));
+        record.setLosses(cursor.getInt(3));
+        record.setGoalsScored(cursor.getInt(4));
+        record.setGoalsAgainst(cursor.getInt(5));
+        return record;
+    }
+
+    /**
+     * Replaces every record with one computed from the matches table, in one transaction.
+     * @param db The database to rebuild
+     * @return The number of pairs of teams that have met
+     */
+    static int rebuildAllRecords(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            clear(db);
+            db.execSQL(INSERT_ALL_RECORDS);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + DatabaseHelper.TABLE_HEAD_TO_HEAD, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Deletes every record, for when all matches are deleted with the triggers removed.
+     * @param db The database to write to
+     */
+    static void clear(SQLiteDatabase db) {
+        db.delete(DatabaseHelper.TABLE_HEAD_TO_HEAD, null, null);
+    }
+
+    /**
+     * Adds accumulated records to the ones already stored, such as those of a batch
+     * of newly inserted matches. Each pair is updated in place, or inserted if the
+     * teams had not met before.
+     * @param db The database to write to
+     * @param pairs The records to add, each seen from the lower team ID
+     * @return The number of pairs written
+     */
+    static int addRecords(SQLiteDatabase db, HeadToHeadAccumulator pairs) {
+        int written = 0;
+        SQLiteStatement update = db.compileStatement(ADD_RECORD);
+        SQLiteStatement insert = db.compileStatement(INSERT_RECORD);
+        try {
+            for (HeadToHead record : pairs.getRecords()) {
+                if (record.getMeetings() == 0) {
+                    continue;
+                }
+                bindRecord(update, record);
+                if (update.executeUpdateDelete() == 0) {
+                    bindRecord(insert, record);
+                    insert.executeInsert();
+                }
+                written++;
+            }
+        } finally {
+            update.close();
+            insert.close();
+        }
+        return written;
+    }
+
+    /**
+     * Binds a record's six totals followed by its lower and higher team ID.
+     */
+    private static void bindRecord(SQLiteStatement statement, HeadToHead record) {
+        statement.bindLong(1, record.getMeetings());
+        statement.bindLong(2, record.getWins());
+        statement.bindLong(3, record.getDraws());
+        statement.bindLong(4, record.getLosses());
+        statement.bindLong(5, record.getGoalsScored());
+        statement.bindLong(6, record.getGoalsAgainst());
+        statement.bindLong(7, record.getTeamId());
+        statement.bindLong(8, record.getOpponentId());
+    }
+}
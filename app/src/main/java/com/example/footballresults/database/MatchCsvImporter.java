@@ -0,0 +1,266 @@
+package com.example.footballresults.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.StringRes;
+
+import com.example.footballresults.R;
+import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.CsvReader;
+import com.example.footballresults.utils.MatchValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Imports historical matches from a CSV file.
+ * The file is streamed one record at a time, each row is checked with
+ * {@link MatchValidator}, and valid rows are written with the batched bulk insert,
+ * so memory use does not grow with the size of the file.
+ * Expected columns, in order: date (dd/MM/yyyy), city, team A, team B,
+ * team A goals, team B goals. A first line equal to {@link #HEADER} is skipped.
+ */
+public class MatchCsvImporter {
+    private static final String TAG = "MatchCsvImporter";
+
+    /** Column names of the optional header line */
+    public static final String[] HEADER = {"date", "city", "team_a", "team_b", "team_a_goals", "team_b_goals"};
+
+    /** Rejected rows beyond this many are counted but not listed */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    /** Byte order mark some spreadsheet programs put at the start of UTF-8 files */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Context context;
+    private final DatabaseManager dbManager;
+
+    /**
+     * Receives progress while an import runs, on the importing thread.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after every committed batch.
+         * @param rowsRead Number of data rows read so far
+         * @param rowsImported Number of matches stored so far
+         */
+        void onProgress(int rowsRead, int rowsImported);
+    }
+
+    /**
+     * Outcome of an import.
+     */
+    public static class Result {
+        private int rowsRead;
+        private int rowsImported;
+        private int rowsRejected;
+        private final List<RowError> errors = new ArrayList<>();
+        private boolean readFailed;
+
+        /**
+         * Gets the number of data rows read, not counting the header or blank lines.
+         * @return The number of rows read
+         */
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        /**
+         * Gets the number of matches stored.
+         * @return The number of rows imported
+         */
+        public int getRowsImported() {
+            return rowsImported;
+        }
+
+        /**
+         * Gets the number of rows that were not stored.
+         * @return The number of rows rejected
+         */
+        public int getRowsRejected() {
+            return rowsRejected;
+        }
+
+        /**
+         * Gets the first rejected rows, up to {@link #MAX_REPORTED_ERRORS}.
+         * @return Unmodifiable list of errors, in file order
+         */
+        public List<RowError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * Checks whether the file could not be opened or read to the end.
+         * Rows stored before the failure are kept.
+         * @return true if reading failed
+         */
+        public boolean isReadFailed() {
+            return readFailed;
+        }
+
+        private void reject(int lineNumber, @StringRes int messageId) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(lineNumber, messageId));
+            }
+        }
+    }
+
+    /**
+     * One rejected row.
+     */
+    public static final class RowError {
+        private final int lineNumber;
+        private final int messageId;
+
+        RowError(int lineNumber, @StringRes int messageId) {
+            this.lineNumber = lineNumber;
+            this.messageId = messageId;
+        }
+
+        /**
+         * Gets the line of the file the row starts on.
+         * @return The line number, counting from 1
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Gets the message describing why the row was rejected.
+         * @return The string resource ID
+         */
+        @StringRes
+        public int getMessageId() {
+            return messageId;
+        }
+    }
+
+    /**
+     * Constructs a new MatchCsvImporter.
+     * @param context The application context
+     */
+    public MatchCsvImporter(Context context) {
+        this.context = context;
+        this.dbManager = DatabaseManager.getInstance(context);
+    }
+
+    /**
+     * Imports the matches of a CSV document, read as UTF-8.
+     * @param uri The document to read
+     * @param listener Receives progress after every batch, may be null
+     * @return The outcome of the import
+     */
+    public Result importMatches(Uri uri, ProgressListener listener) {
+        Result result = new Result();
+        SQLiteDatabase db = dbManager.acquire();
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) {
+                result.readFailed = true;
+                return result;
+            }
+            importMatches(db, new InputStreamReader(in, StandardCharsets.UTF_8),
+                    MatchDao.DEFAULT_BATCH_SIZE, listener, result);
+        } catch (IOException e) {
+            Log.e(TAG, "Error reading " + uri + ": " + e.getMessage());
+            result.readFailed = true;
+        } finally {
+            dbManager.release();
+        }
+        return result;
+    }
+
+    /**
+     * Streams CSV records into the database in batches.
+     * @param db The database to write to
+     * @param reader The CSV text
+     * @param batchSize Number of matches per transaction
+     * @param listener Receives progress after every batch, may be null
+     * @param result Receives the counts and errors
+     * @throws IOException if the text cannot be read
+     */
+    static void importMatches(SQLiteDatabase db, Reader reader, int batchSize,
+                              ProgressListener listener, Result result) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<Match> batch = new ArrayList<>(batchSize);
+        int[] batchLines = new int[batchSize];
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            int lineNumber = csv.getLineNumber();
+            if (lineNumber == 1 && !record.isEmpty() && !record.get(0).isEmpty()
+                    && record.get(0).charAt(0) == BYTE_ORDER_MARK) {
+                record.set(0, record.get(0).substring(1));
+            }
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                continue;
+            }
+            if (lineNumber == 1 && isHeader(record)) {
+                continue;
+            }
+
+            result.rowsRead++;
+            if (record.size() != HEADER.length) {
+                result.reject(lineNumber, R.string.error_import_columns);
+                continue;
+            }
+            MatchValidator.Error error = MatchValidator.validate(record.get(0), record.get(1),
+                    record.get(2), record.get(3), record.get(4), record.get(5));
+            if (error != null) {
+                result.reject(lineNumber, error.getMessageId());
+                continue;
+            }
+
+            batchLines[batch.size()] = lineNumber;
+            batch.add(new Match(record.get(0).trim(), record.get(1).trim(), record.get(2).trim(),
+                    record.get(3).trim(), MatchValidator.parseGoals(record.get(4)),
+                    MatchValidator.parseGoals(record.get(5))));
+            if (batch.size() == batchSize) {
+                flush(db, batch, batchLines, listener, result);
+            }
+        }
+        flush(db, batch, batchLines, listener, result);
+    }
+
+    /**
+     * Writes the pending rows, if any, as one batch and reports progress.
+     */
+    private static void flush(SQLiteDatabase db, List<Match> batch, int[] batchLines,
+                              ProgressListener listener, Result result) {
+        if (!batch.isEmpty()) {
+            BatchInsertResult inserted = MatchDao.addMatches(db, batch, batch.size());
+            result.rowsImported += inserted.getInsertedCount();
+            for (BatchInsertResult.Failure failure : inserted.getFailures()) {
+                result.reject(batchLines[failure.getIndex()], R.string.error_add_match);
+            }
+            batch.clear();
+            if (listener != null) {
+                listener.onProgress(result.rowsRead, result.rowsImported);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a record is the header line.
+     */
+    private static boolean isHeader(List<String> record) {
+        if (record.size() != HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (!HEADER[i].equalsIgnoreCase(record.get(i).trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
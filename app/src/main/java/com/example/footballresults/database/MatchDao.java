@@ -1,50 +1,137 @@
 package com.example.footballresults.database;
 
-import android.annotation.SuppressLint;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
 
 import com.example.footballresults.models.Match;
 import com.example.footballresults.utils.DateFormatter;
+import com.example.footballresults.utils.HeadToHeadAccumulator;
+import com.example.footballresults.utils.SearchText;
+import com.example.footballresults.utils.StandingsAccumulator;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for handling Match-related database operations.
  * This class provides methods for creating, reading, updating, and deleting
  * match records in the database, as well as querying match data in various ways.
+ * Every write invalidates the {@link TeamStatsCache}, because the statistics
+ * triggers change the team statistics along with the matches, and keeps the
+ * cities of the {@link SearchIndex} in step.
  */
 public class MatchDao {
+    /** Number of matches committed together by {@link #addMatches(Iterable)} */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /** SQL statement that inserts one match row, compiled once per bulk insert */
+    private static final String INSERT_MATCH = "INSERT INTO " + DatabaseHelper.TABLE_MATCHES + " ("
+            + DatabaseHelper.COLUMN_DATE + ", " + DatabaseHelper.COLUMN_MATCH_DAY + ", "
+            + DatabaseHelper.COLUMN_CITY + ", " + DatabaseHelper.COLUMN_TEAM_A_ID + ", "
+            + DatabaseHelper.COLUMN_TEAM_B_ID + ", " + DatabaseHelper.COLUMN_TEAM_A_GOALS + ", "
+            + DatabaseHelper.COLUMN_TEAM_B_GOALS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** Ordering of the match lists: most recent first, latest entered first on the same day */
+    private static final String REPORT_ORDER = DatabaseHelper.COLUMN_MATCH_DAY + " DESC, "
+            + DatabaseHelper.COLUMN_MATCH_ID + " DESC";
+
+    /** Reads every field of a match from the match details view */
+    private static final RowMapper<Match> MATCH_MAPPER = new RowMapper<Match>(
+            DatabaseHelper.COLUMN_MATCH_ID, DatabaseHelper.COLUMN_DATE, DatabaseHelper.COLUMN_CITY,
+            DatabaseHelper.COLUMN_TEAM_A_ID, DatabaseHelper.COLUMN_TEAM_A,
+            DatabaseHelper.COLUMN_TEAM_B_ID, DatabaseHelper.COLUMN_TEAM_B,
+            DatabaseHelper.COLUMN_TEAM_A_GOALS, DatabaseHelper.COLUMN_TEAM_B_GOALS) {
+        @Override
+        Match newRow() {
+            return new Match();
+        }
+
+        @Override
+        void mapRow(Cursor cursor, int[] columns, Match match) {
+            match.setId(cursor.getLong(columns[0]));
+            match.setDate(cursor.getString(columns[1]));
+            match.setCity(cursor.getString(columns[2]));
+            match.setTeamAId(cursor.getLong(columns[3]));
+            match.setTeamA(cursor.getString(columns[4]));
+            match.setTeamBId(cursor.getLong(columns[5]));
+            match.setTeamB(cursor.getString(columns[6]));
+            match.setTeamAGoals(cursor.getInt(columns[7]));
+            match.setTeamBGoals(cursor.getInt(columns[8]));
+        }
+    };
+
+    /** Reads only what a match refers to, its two team IDs and its city, straight from the matches table */
+    private static final RowMapper<Match> REFERENCES_MAPPER = new RowMapper<Match>(
+            DatabaseHelper.COLUMN_TEAM_A_ID, DatabaseHelper.COLUMN_TEAM_B_ID, DatabaseHelper.COLUMN_CITY) {
+        @Override
+        Match newRow() {
+            return new Match();
+        }
+
+        @Override
+        void mapRow(Cursor cursor, int[] columns, Match match) {
+            match.setTeamAId(cursor.getLong(columns[0]));
+            match.setTeamBId(cursor.getLong(columns[1]));
+            match.setCity(cursor.getString(columns[2]));
+        }
+    };
+
+    /** Matches a search walks along the match day index before reading each team and city */
+    private static final int MAX_SEARCH_SCAN = 2000;
+
+    /** Fewest rows read from each team side or city per round of a search */
+    private static final int MIN_SEARCH_READ = 4;
+
+    /** Search results continue after a key in report order, which the match day indexes follow */
+    private static final String AFTER_KEY_SELECTION = DatabaseHelper.COLUMN_MATCH_DAY + " <= ? AND ("
+            + DatabaseHelper.COLUMN_MATCH_DAY + " < ? OR " + DatabaseHelper.COLUMN_MATCH_ID + " < ?)";
+
+    /** Columns of a match page: the match itself and its sort key */
+    private static final String[] PAGE_PROJECTION = MATCH_MAPPER.getProjection(DatabaseHelper.COLUMN_MATCH_DAY);
+
     private SQLiteDatabase database;
-    private final DatabaseHelper dbHelper;
+    private final DatabaseManager dbManager;
 
     /**
-     * Constructor that initializes the database helper.
+     * Constructor that looks up the shared database manager.
      * @param context The application context
      */
     public MatchDao(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbManager = DatabaseManager.getInstance(context);
     }
 
     /**
-     * Opens a writable database connection.
+     * Leases the shared writable database connection.
+     * Calling open on an already open DAO has no effect.
      * @throws SQLException if the database cannot be opened
      */
     public void open() throws SQLException {
-        database = dbHelper.getWritableDatabase();
+        if (database == null) {
+            database = dbManager.acquire();
+        }
     }
 
     /**
-     * Closes the database connection.
+     * Returns the database lease. The shared connection itself stays open.
+     * Calling close on a DAO that is not open has no effect.
      */
     public void close() {
-        dbHelper.close();
+        if (database != null) {
+            database = null;
+            dbManager.release();
+        }
     }
 
     /**
@@ -53,97 +140,302 @@ public class MatchDao {
      * @return The Match object if found, null otherwise
      */
     public Match getMatchById(long matchId) {
-        Match match = null;
         String selection = DatabaseHelper.COLUMN_MATCH_ID + " = ?";
         String[] selectionArgs = {String.valueOf(matchId)};
 
-        Cursor cursor = database.query(DatabaseHelper.TABLE_MATCHES, null, selection, selectionArgs, null, null, null);
+        return MATCH_MAPPER.mapFirst(database.query(DatabaseHelper.VIEW_MATCH_DETAILS,
+                MATCH_MAPPER.getProjection(), selection, selectionArgs, null, null, null));
+    }
 
-        if (cursor != null && cursor.moveToFirst()) {
-            match = cursorToMatch(cursor);
-            cursor.close();
-        }
-        return match;
+    /**
+     * Looks up which teams played a match and where, without joining the team names.
+     * @param matchId The ID of the match
+     * @return A match with only its team IDs and city set, or null if there is no such match
+     */
+    private Match getMatchReferences(long matchId) {
+        String selection = DatabaseHelper.COLUMN_MATCH_ID + " = ?";
+        String[] selectionArgs = {String.valueOf(matchId)};
+
+        return REFERENCES_MAPPER.mapFirst(database.query(DatabaseHelper.TABLE_MATCHES,
+                REFERENCES_MAPPER.getProjection(), selection, selectionArgs, null, null, null));
     }
 
     /**
      * Adds a new match to the database.
+     * Teams are looked up by name and created if they do not exist yet.
      * @param match The Match object to add
      * @return The ID of the newly inserted match, or -1 if the insertion failed
      */
     public long addMatch(Match match) {
-        ContentValues values = new ContentValues();
-        values.put(DatabaseHelper.COLUMN_DATE, match.getDate());
-        values.put(DatabaseHelper.COLUMN_CITY, match.getCity());
-        values.put(DatabaseHelper.COLUMN_TEAM_A, match.getTeamA());
-        values.put(DatabaseHelper.COLUMN_TEAM_B, match.getTeamB());
-        values.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, match.getTeamAGoals());
-        values.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, match.getTeamBGoals());
+        return addMatch(database, match);
+    }
 
-        return database.insert(DatabaseHelper.TABLE_MATCHES, null, values);
+    /**
+     * Adds a new match, whose result the insert trigger adds to both teams.
+     * @param db The database to write to
+     * @param match The Match object to add
+     * @return The ID of the newly inserted match, or -1 if the insertion failed
+     */
+    static long addMatch(SQLiteDatabase db, Match match) {
+        long matchId = db.insert(DatabaseHelper.TABLE_MATCHES, null, toContentValues(db, match));
+        if (matchId != -1) {
+            SearchIndex.addCity(db, match.getCity());
+        }
+        TeamStatsCache.getInstance().invalidate();
+        return matchId;
     }
 
     /**
-     * Retrieves all matches sorted by date in descending order (most recent first).
-     * @return List of all matches sorted by date
+     * Adds a new match, creating any new teams, in one transaction.
+     * The statistics triggers add its result to both teams.
+     * @param match The Match object to add
+     * @return The ID of the newly inserted match, or -1 if the insertion failed
      */
-    public List<Match> getAllMatchesSortedByDate() {
-        List<Match> matches = new ArrayList<>();
-
-        // First, get all matches
-        Cursor cursor = database.query(
-                DatabaseHelper.TABLE_MATCHES,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null  // No SQL sorting here
-        );
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Match match = cursorToMatch(cursor);
-                matches.add(match);
-            } while (cursor.moveToNext());
-            cursor.close();
+    public long insertMatchWithStats(Match match) {
+        database.beginTransaction();
+        try {
+            long matchId = addMatch(match);
+            if (matchId != -1) {
+                match.setId(matchId);
+                database.setTransactionSuccessful();
+            }
+            return matchId;
+        } finally {
+            database.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
         }
+    }
 
-        // Sort matches by date using a custom comparator with DateFormatter
-        Collections.sort(matches, (match1, match2) -> {
-            // Convert the date strings to Date objects using DateFormatter
-            Date date1 = DateFormatter.parseDate(match1.getDate());
-            Date date2 = DateFormatter.parseDate(match2.getDate());
+    /**
+     * Adds many matches at once, committing every {@link #DEFAULT_BATCH_SIZE} rows.
+     * @param matches The matches to add
+     * @return The number of matches added and the rows that were rejected
+     * @see #addMatches(Iterable, int)
+     */
+    public BatchInsertResult addMatches(Iterable<Match> matches) {
+        return addMatches(database, matches, DEFAULT_BATCH_SIZE);
+    }
 
-            // Handle null dates (if parsing fails)
-            if (date1 == null && date2 == null) return 0;
-            if (date1 == null) return 1;
-            if (date2 == null) return -1;
+    /**
+     * Adds many matches at once. Each batch is one transaction in which every row
+     * is written with the same compiled INSERT, and the team statistics and head to
+     * head records are updated once for the whole batch instead of by the insert
+     * trigger for every row.
+     * @param matches The matches to add
+     * @param batchSize Number of matches per transaction
+     * @return The number of matches added and the rows that were rejected
+     */
+    public BatchInsertResult addMatches(Iterable<Match> matches, int batchSize) {
+        return addMatches(database, matches, batchSize);
+    }
 
-            // Most recent dates first (descending order)
-            return date2.compareTo(date1);
-        });
+    /**
+     * Adds many matches in batches of one transaction each.
+     * Each batch is written as a bulk load, which the insert trigger skips: every row
+     * is bound to one compiled INSERT, the results of the inserted rows are accumulated
+     * in memory and added to team_stats with one UPDATE per team and to head_to_head
+     * with one write per pair of teams, the form of each team in the batch is read
+     * again, and the bulk load ends by dropping the standings checkpoints its matches
+     * fall before. A row that cannot be inserted is recorded as a failure and the
+     * batch carries on without it.
+     * Inserted matches get their match and team IDs set, as with {@link #addMatch(Match)}.
+     * @param db The database to write to
+     * @param matches The matches to add
+     * @param batchSize Number of matches per transaction
+     * @return The number of matches added and the rows that were rejected
+     */
+    static BatchInsertResult addMatches(SQLiteDatabase db, Iterable<Match> matches, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        BatchInsertResult result = new BatchInsertResult();
+        Map<String, Long> teamIds = new HashMap<>();
+        Set<String> cities = SearchIndex.getCities(db);
+        SQLiteStatement statement = db.compileStatement(INSERT_MATCH);
+        try {
+            int index = 0;
+            Iterator<Match> iterator = matches.iterator();
+            while (iterator.hasNext()) {
+                StandingsAccumulator standings = new StandingsAccumulator();
+                HeadToHeadAccumulator pairs = new HeadToHeadAccumulator();
+                db.beginTransaction();
+                try {
+                    DatabaseHelper.beginBulkLoad(db);
+                    for (int row = 0; row < batchSize && iterator.hasNext(); row++, index++) {
+                        Match match = iterator.next();
+                        String error = insertMatch(db, statement, match, teamIds);
+                        if (error != null) {
+                            result.addFailure(index, match, error);
+                            continue;
+                        }
+                        standings.addMatch(match.getTeamAId(), match.getTeamBId(),
+                                match.getTeamAGoals(), match.getTeamBGoals(), 1);
+                        pairs.addMatch(match.getTeamAId(), match.getTeamBId(),
+                                match.getTeamAGoals(), match.getTeamBGoals(), 1);
+                        if (cities.add(match.getCity())) {
+                            SearchIndex.insertCity(db, match.getCity());
+                        }
+                        result.addInserted();
+                    }
+                    result.addTeamUpdates(TeamStatsDao.addStandings(db, standings));
+                    TeamStatsDao.rebuildForm(db, standings);
+                    HeadToHeadDao.addRecords(db, pairs);
+                    DatabaseHelper.endBulkLoad(db);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            statement.close();
+            TeamStatsCache.getInstance().invalidate();
+        }
+        return result;
+    }
 
-        return matches;
+    /**
+     * Inserts one match of a bulk insert with the compiled INSERT statement.
+     * @param db The database to write to
+     * @param statement The compiled {@link #INSERT_MATCH} statement
+     * @param match The match to insert
+     * @param teamIds Team IDs already looked up during this bulk insert, by name
+     * @return null if the match was inserted, otherwise why it was rejected
+     */
+    private static String insertMatch(SQLiteDatabase db, SQLiteStatement statement, Match match,
+                                      Map<String, Long> teamIds) {
+        if (match.getDate() == null || match.getCity() == null
+                || match.getTeamA() == null || match.getTeamB() == null) {
+            return "Missing date, city or team name";
+        }
+        try {
+            long teamAId = findOrCreateTeamId(db, match.getTeamA(), teamIds);
+            long teamBId = findOrCreateTeamId(db, match.getTeamB(), teamIds);
+            if (teamAId == -1 || teamBId == -1) {
+                return "Team could not be added";
+            }
+
+            statement.bindString(1, match.getDate());
+            statement.bindLong(2, DateFormatter.toEpochDay(match.getDate()));
+            statement.bindString(3, match.getCity());
+            statement.bindLong(4, teamAId);
+            statement.bindLong(5, teamBId);
+            statement.bindLong(6, match.getTeamAGoals());
+            statement.bindLong(7, match.getTeamBGoals());
+            long matchId = statement.executeInsert();
+            if (matchId == -1) {
+                return "Match could not be inserted";
+            }
+
+            match.setId(matchId);
+            match.setTeamAId(teamAId);
+            match.setTeamBId(teamBId);
+            return null;
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Looks up a team ID by name, remembering it for the rest of a bulk insert.
+     * @param db The database to use
+     * @param teamName The name of the team
+     * @param teamIds Team IDs already looked up, by name
+     * @return The team ID, or -1 if the team could not be added
+     */
+    private static long findOrCreateTeamId(SQLiteDatabase db, String teamName, Map<String, Long> teamIds) {
+        Long teamId = teamIds.get(teamName);
+        if (teamId == null) {
+            teamId = TeamStatsDao.getOrCreateTeamId(db, teamName);
+            if (teamId != -1) {
+                teamIds.put(teamName, teamId);
+            }
+        }
+        return teamId;
+    }
+
+    /**
+     * Updates an existing match in one transaction. The statistics triggers move
+     * its result from the stored teams and score to the new ones.
+     * Teams left without any matches are removed.
+     * @param match The Match object containing updated data
+     * @return true if the update was successful, false otherwise
+     */
+    public boolean updateMatchWithStats(Match match) {
+        database.beginTransaction();
+        try {
+            Match previous = getMatchReferences(match.getId());
+            if (previous == null || !updateMatch(match)) {
+                return false;
+            }
+            TeamStatsDao.deleteTeamsWithoutMatches(database, previous.getTeamAId(), previous.getTeamBId());
+            SearchIndex.deleteUnusedCity(database, previous.getCity());
+
+            database.setTransactionSuccessful();
+            return true;
+        } finally {
+            database.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
+        }
+    }
+
+    /**
+     * Deletes a match in one transaction. The statistics triggers remove its
+     * result from both teams, and teams left without any matches are removed.
+     * @param matchId The ID of the match to delete
+     * @return true if the deletion was successful, false otherwise
+     */
+    public boolean deleteMatchWithStats(long matchId) {
+        database.beginTransaction();
+        try {
+            Match previous = getMatchReferences(matchId);
+            if (previous == null || !deleteMatch(matchId)) {
+                return false;
+            }
+            TeamStatsDao.deleteTeamsWithoutMatches(database, previous.getTeamAId(), previous.getTeamBId());
+            SearchIndex.deleteUnusedCity(database, previous.getCity());
+
+            database.setTransactionSuccessful();
+            return true;
+        } finally {
+            database.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
+        }
+    }
+
+    /**
+     * Retrieves all matches sorted by date in descending order (most recent first).
+     * Sorting is done by SQLite on the indexed match day column, so no dates are parsed here.
+     * Matches with an unreadable date are listed last.
+     * @return List of all matches sorted by date
+     */
+    public List<Match> getAllMatchesSortedByDate() {
+        return MATCH_MAPPER.mapAll(database.query(DatabaseHelper.VIEW_MATCH_DETAILS,
+                MATCH_MAPPER.getProjection(), null, null, null, null, REPORT_ORDER));
+    }
+
+    /**
+     * Gets every city a match is played in, as kept in the {@link SearchIndex}.
+     * @return The city names, in no particular order
+     */
+    public Set<String> getCities() {
+        return SearchIndex.getCities(database);
     }
 
     /**
      * Updates an existing match in the database.
+     * Teams are looked up by name and created if they do not exist yet.
      * @param match The Match object containing updated data
      * @return true if the update was successful, false otherwise
      */
     public boolean updateMatch(Match match) {
-        ContentValues values = new ContentValues();
-        values.put(DatabaseHelper.COLUMN_DATE, match.getDate());
-        values.put(DatabaseHelper.COLUMN_CITY, match.getCity());
-        values.put(DatabaseHelper.COLUMN_TEAM_A, match.getTeamA());
-        values.put(DatabaseHelper.COLUMN_TEAM_B, match.getTeamB());
-        values.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, match.getTeamAGoals());
-        values.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, match.getTeamBGoals());
-
-        return database.update(DatabaseHelper.TABLE_MATCHES, values,
+        boolean updated = database.update(DatabaseHelper.TABLE_MATCHES, toContentValues(database, match),
                 DatabaseHelper.COLUMN_MATCH_ID + " = ?",
                 new String[]{String.valueOf(match.getId())}) > 0;
+        if (updated) {
+            SearchIndex.addCity(database, match.getCity());
+        }
+        TeamStatsCache.getInstance().invalidate();
+        return updated;
     }
 
     /**
@@ -152,9 +444,11 @@ public class MatchDao {
      * @return true if the deletion was successful, false otherwise
      */
     public boolean deleteMatch(long matchId) {
-        return database.delete(DatabaseHelper.TABLE_MATCHES,
+        boolean deleted = database.delete(DatabaseHelper.TABLE_MATCHES,
                 DatabaseHelper.COLUMN_MATCH_ID + " = ?",
                 new String[]{String.valueOf(matchId)}) > 0;
+        TeamStatsCache.getInstance().invalidate();
+        return deleted;
     }
 
     /**
@@ -162,17 +456,8 @@ public class MatchDao {
      * @return List of all matches
      */
     public List<Match> getAllMatches() {
-        List<Match> matches = new ArrayList<>();
-        Cursor cursor = database.query(DatabaseHelper.TABLE_MATCHES, null, null, null, null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Match match = cursorToMatch(cursor);
-                matches.add(match);
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-        return matches;
+        return MATCH_MAPPER.mapAll(database.query(DatabaseHelper.VIEW_MATCH_DETAILS,
+                MATCH_MAPPER.getProjection(), null, null, null, null, null));
     }
 
     /**
@@ -181,37 +466,457 @@ public class MatchDao {
      * @return List of matches where the specified team played
      */
     public List<Match> getMatchesByTeam(String teamName) {
-        List<Match> matches = new ArrayList<>();
-        String selection = DatabaseHelper.COLUMN_TEAM_A + " = ? OR " + DatabaseHelper.COLUMN_TEAM_B + " = ?";
-        String[] selectionArgs = {teamName, teamName};
+        long teamId = TeamStatsDao.findTeamId(database, teamName);
+        if (teamId == -1) {
+            return new ArrayList<>();
+        }
+        return getMatchesByTeamId(teamId);
+    }
+
+    /**
+     * Retrieves all matches involving a specific team, most recent first.
+     * Both team columns are indexed, so this does not scan the matches table.
+     * @param teamId The ID of the team to search for
+     * @return List of matches where the specified team played
+     */
+    public List<Match> getMatchesByTeamId(long teamId) {
+        String selection = DatabaseHelper.COLUMN_TEAM_A_ID + " = ? OR " + DatabaseHelper.COLUMN_TEAM_B_ID + " = ?";
+        String[] selectionArgs = {String.valueOf(teamId), String.valueOf(teamId)};
+
+        return MATCH_MAPPER.mapAll(database.query(DatabaseHelper.VIEW_MATCH_DETAILS,
+                MATCH_MAPPER.getProjection(), selection, selectionArgs, null, null, REPORT_ORDER));
+    }
+
+    /**
+     * Retrieves one page of matches in report order (most recent first).
+     * The page continues strictly after the given key, so the query seeks
+     * straight to it through the match day or team indexes instead of skipping rows.
+     * @param teamId The ID of the team whose matches to page through, or -1 for all matches
+     * @param after The key to continue after, {@link MatchPage.Key#FIRST} for the first page
+     * @param pageSize The maximum number of matches to return
+     * @return The page, whose next key is null once there are no more matches
+     */
+    public MatchPage getMatchPage(long teamId, MatchPage.Key after, int pageSize) {
+        String day = String.valueOf(after.matchDay);
+        String selection = "(" + DatabaseHelper.COLUMN_MATCH_DAY + " < ? OR ("
+                + DatabaseHelper.COLUMN_MATCH_DAY + " = ? AND " + DatabaseHelper.COLUMN_MATCH_ID + " < ?))";
+        String[] selectionArgs;
+        if (teamId == -1) {
+            selectionArgs = new String[]{day, day, String.valueOf(after.matchId)};
+        } else {
+            selection = "(" + DatabaseHelper.COLUMN_TEAM_A_ID + " = ? OR " + DatabaseHelper.COLUMN_TEAM_B_ID + " = ?) AND " + selection;
+            selectionArgs = new String[]{String.valueOf(teamId), String.valueOf(teamId), day, day, String.valueOf(after.matchId)};
+        }
+        return readPage(database, selection, selectionArgs, pageSize);
+    }
+
+    /**
+     * Retrieves one page of the matches two teams played against each other, most
+     * recent first, whichever team was the home side.
+     * @param teamId The ID of one team
+     * @param opponentId The ID of the other team
+     * @param after The key to continue after, {@link MatchPage.Key#FIRST} for the first page
+     * @param pageSize The maximum number of matches to return
+     * @return The page, whose next key is null once there are no more matches
+     */
+    public MatchPage getHeadToHeadPage(long teamId, long opponentId, MatchPage.Key after, int pageSize) {
+        return getHeadToHeadPage(database, teamId, opponentId, after, pageSize);
+    }
+
+    /**
+     * Reads one page of the meetings of two teams through the pair index, which
+     * holds each pair's matches together in match day order, so the page costs one
+     * seek however many matches either team has played.
+     * The team IDs are written into the SQL rather than bound, because a bound
+     * string would not compare equal to the untyped min() and max() expressions.
+     * @param db The database to read
+     * @param teamId The ID of one team
+     * @param opponentId The ID of the other team
+     * @param after The key to continue after, {@link MatchPage.Key#FIRST} for the first page
+     * @param pageSize The maximum number of matches to return
+     * @return The page, whose next key is null once there are no more matches
+     * @see #getHeadToHeadPage(long, long, MatchPage.Key, int)
+     */
+    static MatchPage getHeadToHeadPage(SQLiteDatabase db, long teamId, long opponentId,
+                                       MatchPage.Key after, int pageSize) {
+        String day = String.valueOf(after.matchDay);
+        String selection = DatabaseHelper.LOW_TEAM_ID + " = " + Math.min(teamId, opponentId)
+                + " AND " + DatabaseHelper.HIGH_TEAM_ID + " = " + Math.max(teamId, opponentId)
+                + " AND " + AFTER_KEY_SELECTION;
+        String[] selectionArgs = {day, day, String.valueOf(after.matchId)};
+        return readPage(db, selection, selectionArgs, pageSize);
+    }
+
+    /**
+     * Reads one page of matches in report order from the match details view.
+     * @param db The database to read
+     * @param selection Which matches belong on the page, including the key to continue after
+     * @param selectionArgs The selection's arguments
+     * @param pageSize The maximum number of matches to return
+     * @return The page, whose next key is null once there are no more matches
+     */
+    private static MatchPage readPage(SQLiteDatabase db, String selection, String[] selectionArgs, int pageSize) {
+        List<Match> matches = new ArrayList<>(pageSize);
+        int[] matchDays = new int[pageSize];
+        Cursor cursor = db.query(DatabaseHelper.VIEW_MATCH_DETAILS, PAGE_PROJECTION, selection, selectionArgs,
+                null, null, REPORT_ORDER, String.valueOf(pageSize));
+
+        if (cursor != null) {
+            int[] columns = MATCH_MAPPER.resolve(cursor);
+            int matchDayIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_MATCH_DAY);
+            while (cursor.moveToNext()) {
+                Match match = new Match();
+                MATCH_MAPPER.mapRow(cursor, columns, match);
+                matchDays[matches.size()] = cursor.getInt(matchDayIndex);
+                matches.add(match);
+            }
+            cursor.close();
+        }
+        MatchPage.Key nextKey = matches.size() == pageSize
+                ? new MatchPage.Key(matchDays[pageSize - 1], matches.get(pageSize - 1).getId()) : null;
+        return new MatchPage(matches, matchDays, nextKey);
+    }
+
+    /**
+     * Searches matches by team and city name, a page at a time, for search as you type.
+     * Teams and cities with a word starting with each word of the query are looked up
+     * in the {@link SearchIndex}; their matches are listed by rank, best first, where a
+     * match takes the best rank of its two teams and its city, and newest first within
+     * a rank. A page first walks a bounded stretch of the match day index, then merges
+     * newest-first reads per team side and city through the (team, match day) and
+     * (city, match day) indexes, so its cost depends on the number of names found and
+     * the page size, not on the number of matches.
+     * @param query What the user typed
+     * @param after The key to continue after, {@link MatchPage.Key#FIRST} for the first page
+     * @param pageSize The maximum number of matches to return
+     * @return The page, whose next key is null once there are no more matches
+     */
+    public MatchPage searchMatches(String query, MatchPage.Key after, int pageSize) {
+        return searchMatches(database, query, after, pageSize);
+    }
+
+    /**
+     * Searches matches by team and city name on a given connection.
+     * @param db The database to search
+     * @param query What the user typed
+     * @param after The key to continue after, {@link MatchPage.Key#FIRST} for the first page
+     * @param pageSize The maximum number of matches to return
+     * @return The page, whose next key is null once there are no more matches
+     * @see #searchMatches(String, MatchPage.Key, int)
+     */
+    static MatchPage searchMatches(SQLiteDatabase db, String query, MatchPage.Key after, int pageSize) {
+        List<Match> matches = new ArrayList<>(pageSize);
+        int[] matchDays = new int[pageSize];
+        int[] ranks = new int[pageSize];
+        List<SearchIndex.Hit> hits = SearchIndex.find(db, query);
+
+        // Teams and cities of the ranks already listed, whose matches a worse rank skips
+        Set<Long> betterTeams = new HashSet<>();
+        Set<String> betterCities = new HashSet<>();
+        for (int rank = SearchText.RANK_EXACT; rank <= SearchText.RANK_WORD && matches.size() < pageSize; rank++) {
+            Set<Long> teams = new HashSet<>();
+            Set<String> cities = new HashSet<>();
+            for (SearchIndex.Hit hit : hits) {
+                if (hit.rank != rank) {
+                    continue;
+                }
+                if (hit.city != null) {
+                    cities.add(hit.city);
+                } else {
+                    teams.add(hit.teamId);
+                }
+            }
+            if (rank >= after.rank) {
+                MatchPage.Key start = rank == after.rank ? after : MatchPage.Key.FIRST;
+                searchRank(db, rank, teams, cities, betterTeams, betterCities, start, pageSize, matches, matchDays, ranks);
+            }
+            betterTeams.addAll(teams);
+            betterCities.addAll(cities);
+        }
+
+        int last = matches.size() - 1;
+        MatchPage.Key nextKey = matches.size() == pageSize
+                ? new MatchPage.Key(ranks[last], matchDays[last], matches.get(last).getId()) : null;
+        return new MatchPage(matches, matchDays, ranks, nextKey);
+    }
+
+    /**
+     * Appends the matches of one search rank to a page, newest first, until the page is full.
+     * The next {@link #MAX_SEARCH_SCAN} matches are walked along the match day index first,
+     * which fills the page at once when the rank's teams and cities play often. After
+     * that, every team side and city is read newest first, each a share of the rows
+     * still needed, and the reads are merged. A read that filled its share may have
+     * more rows, so merged rows are only taken up to the earliest such read's last row;
+     * if the page is still not full, reading resumes from there with the reads that may
+     * have more.
+     */
+    private static void searchRank(SQLiteDatabase db, int rank, Set<Long> teams, Set<String> cities,
+                                   Set<Long> betterTeams, Set<String> betterCities, MatchPage.Key after,
+                                   int pageSize, List<Match> matches, int[] matchDays, int[] ranks) {
+        if (teams.isEmpty() && cities.isEmpty()) {
+            return;
+        }
+        MatchPage.Key windowEnd = scanRank(db, rank, teams, cities, betterTeams, betterCities, after, pageSize,
+                matches, matchDays, ranks);
+        if (windowEnd == null || matches.size() == pageSize) {
+            return;
+        }
 
-        Cursor cursor = database.query(DatabaseHelper.TABLE_MATCHES, null, selection, selectionArgs, null, null, null);
+        // Column and value of every read
+        List<String[]> sources = new ArrayList<>();
+        for (long teamId : teams) {
+            sources.add(new String[]{DatabaseHelper.COLUMN_TEAM_A_ID, String.valueOf(teamId)});
+            sources.add(new String[]{DatabaseHelper.COLUMN_TEAM_B_ID, String.valueOf(teamId)});
+        }
+        for (String city : cities) {
+            sources.add(new String[]{DatabaseHelper.COLUMN_CITY, city});
+        }
+        int afterDay = windowEnd.matchDay;
+        long afterId = windowEnd.matchId;
+        while (matches.size() < pageSize && !sources.isEmpty()) {
+            int needed = pageSize - matches.size();
+            int limit = Math.max(MIN_SEARCH_READ, (needed + sources.size() - 1) / sources.size());
+            List<DatedMatch> rows = new ArrayList<>();
+            DatedMatch[] lastRows = new DatedMatch[sources.size()];
+            DatedMatch boundary = null;
+            for (int i = 0; i < sources.size(); i++) {
+                lastRows[i] = readNewest(db, sources.get(i)[0], sources.get(i)[1], afterDay, afterId, limit, rows);
+                if (lastRows[i] != null && (boundary == null
+                        || DatedMatch.NEWEST_FIRST.compare(lastRows[i], boundary) < 0)) {
+                    boundary = lastRows[i];
+                }
+            }
 
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                Match match = cursorToMatch(cursor);
+            Collections.sort(rows, DatedMatch.NEWEST_FIRST);
+            long previousId = -1;
+            for (DatedMatch row : rows) {
+                if (boundary != null && DatedMatch.NEWEST_FIRST.compare(row, boundary) > 0) {
+                    break;
+                }
+                Match match = row.match;
+                // A match found through both teams, or a team and its city, is read more than once
+                if (match.getId() == previousId) {
+                    continue;
+                }
+                previousId = match.getId();
+                if (betterTeams.contains(match.getTeamAId()) || betterTeams.contains(match.getTeamBId())
+                        || betterCities.contains(match.getCity())) {
+                    continue;
+                }
+                matchDays[matches.size()] = row.matchDay;
+                ranks[matches.size()] = rank;
                 matches.add(match);
-            } while (cursor.moveToNext());
+                if (matches.size() == pageSize) {
+                    return;
+                }
+            }
+            if (boundary == null) {
+                return;
+            }
+
+            // Reads that reached their end before the boundary have nothing left to give
+            for (int i = sources.size() - 1; i >= 0; i--) {
+                if (lastRows[i] == null && !hasRowsAfter(rows, sources.get(i), boundary)) {
+                    sources.remove(i);
+                }
+            }
+            afterDay = boundary.matchDay;
+            afterId = boundary.match.getId();
+        }
+    }
+
+    /**
+     * Appends the matches of one search rank among the next {@link #MAX_SEARCH_SCAN}
+     * matches after a key to a page, with a single read along the match day index.
+     * The unary + keeps SQLite from using the team and city indexes, which would gather
+     * every match of the rank and sort them before the limit applies.
+     * @return The key of the last match walked, or null if the walk reached the last match
+     */
+    private static MatchPage.Key scanRank(SQLiteDatabase db, int rank, Set<Long> teams, Set<String> cities,
+                                          Set<Long> betterTeams, Set<String> betterCities, MatchPage.Key after,
+                                          int pageSize, List<Match> matches, int[] matchDays, int[] ranks) {
+        String day = String.valueOf(after.matchDay);
+        String[] keyArgs = {day, day, String.valueOf(after.matchId)};
+        // Skipping along the match day index, which holds the match IDs, reads no match rows
+        MatchPage.Key windowEnd = null;
+        Cursor end = db.query(DatabaseHelper.TABLE_MATCHES,
+                new String[]{DatabaseHelper.COLUMN_MATCH_DAY, DatabaseHelper.COLUMN_MATCH_ID},
+                AFTER_KEY_SELECTION, keyArgs, null, null, REPORT_ORDER, (MAX_SEARCH_SCAN - 1) + ",1");
+        try {
+            if (end.moveToFirst()) {
+                windowEnd = new MatchPage.Key(rank, end.getInt(0), end.getLong(1));
+            }
+        } finally {
+            end.close();
+        }
+
+        List<String> args = new ArrayList<>();
+        String selection = "(" + anyOf(teams, cities, args) + ")";
+        if (!betterTeams.isEmpty() || !betterCities.isEmpty()) {
+            selection += " AND NOT (" + anyOf(betterTeams, betterCities, args) + ")";
+        }
+        selection += " AND " + AFTER_KEY_SELECTION;
+        Collections.addAll(args, keyArgs);
+        if (windowEnd != null) {
+            String endDay = String.valueOf(windowEnd.matchDay);
+            selection += " AND " + DatabaseHelper.COLUMN_MATCH_DAY + " >= ? AND (" + DatabaseHelper.COLUMN_MATCH_DAY
+                    + " > ? OR " + DatabaseHelper.COLUMN_MATCH_ID + " >= ?)";
+            Collections.addAll(args, endDay, endDay, String.valueOf(windowEnd.matchId));
+        }
+
+        Cursor cursor = db.query(DatabaseHelper.VIEW_MATCH_DETAILS, PAGE_PROJECTION, selection,
+                args.toArray(new String[0]), null, null, REPORT_ORDER, String.valueOf(pageSize - matches.size()));
+        try {
+            int[] columns = MATCH_MAPPER.resolve(cursor);
+            int matchDayIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_MATCH_DAY);
+            while (cursor.moveToNext()) {
+                Match match = new Match();
+                MATCH_MAPPER.mapRow(cursor, columns, match);
+                matchDays[matches.size()] = cursor.getInt(matchDayIndex);
+                ranks[matches.size()] = rank;
+                matches.add(match);
+            }
+        } finally {
             cursor.close();
         }
-        return matches;
+        return windowEnd;
+    }
+
+    /**
+     * Builds a condition that holds for matches of any of the teams or in any of the cities.
+     * Every column is prefixed by + so no index is used for it; since that also drops
+     * the column's affinity, team IDs are written into the condition as numbers rather
+     * than bound as text.
+     * @param teams The team IDs
+     * @param cities The city names
+     * @param args Receives the condition's arguments
+     * @return The condition
+     */
+    private static String anyOf(Set<Long> teams, Set<String> cities, List<String> args) {
+        StringBuilder condition = new StringBuilder();
+        if (!teams.isEmpty()) {
+            String teamIds = TextUtils.join(",", teams);
+            condition.append('+').append(DatabaseHelper.COLUMN_TEAM_A_ID).append(" IN (").append(teamIds)
+                    .append(") OR +").append(DatabaseHelper.COLUMN_TEAM_B_ID).append(" IN (").append(teamIds).append(')');
+        }
+        if (!cities.isEmpty()) {
+            StringBuilder placeholders = new StringBuilder("?");
+            for (int i = 1; i < cities.size(); i++) {
+                placeholders.append(",?");
+            }
+            condition.append(teams.isEmpty() ? "+" : " OR +").append(DatabaseHelper.COLUMN_CITY)
+                    .append(" IN (").append(placeholders).append(')');
+            args.addAll(cities);
+        }
+        return condition.toString();
     }
 
     /**
-     * Converts a database cursor to a Match object.
-     * @param cursor The cursor containing match data
-     * @return A Match object populated with the cursor's data
+     * Checks whether a read returned rows past the boundary, which were not taken
+     * and must be read again.
      */
-    @SuppressLint("Range")
-    private Match cursorToMatch(Cursor cursor) {
-        Match match = new Match();
-        match.setId(cursor.getLong(cursor.getColumnIndex(DatabaseHelper.COLUMN_MATCH_ID)));
-        match.setDate(cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_DATE)));
-        match.setCity(cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_CITY)));
-        match.setTeamA(cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_A)));
-        match.setTeamB(cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_B)));
-        match.setTeamAGoals(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_A_GOALS)));
-        match.setTeamBGoals(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_B_GOALS)));
-        return match;
+    private static boolean hasRowsAfter(List<DatedMatch> sortedRows, String[] source, DatedMatch boundary) {
+        for (int i = sortedRows.size() - 1; i >= 0; i--) {
+            DatedMatch row = sortedRows.get(i);
+            if (DatedMatch.NEWEST_FIRST.compare(row, boundary) <= 0) {
+                return false;
+            }
+            if (row.isFrom(source)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the newest matches after a key that have a value in one column.
+     * @param column The team or city column to filter on
+     * @param value The value the column must have
+     * @param afterDay Match day of the key to continue after
+     * @param afterId Match ID of the key to continue after
+     * @param limit The maximum number of matches to read
+     * @param rows Receives the matches read
+     * @return The last match read if the limit was reached, null if there are no more
+     */
+    private static DatedMatch readNewest(SQLiteDatabase db, String column, String value, int afterDay,
+                                         long afterId, int limit, List<DatedMatch> rows) {
+        String day = String.valueOf(afterDay);
+        Cursor cursor = db.query(DatabaseHelper.VIEW_MATCH_DETAILS, PAGE_PROJECTION,
+                column + " = ? AND " + AFTER_KEY_SELECTION, new String[]{value, day, day, String.valueOf(afterId)},
+                null, null, REPORT_ORDER, String.valueOf(limit));
+        DatedMatch row = null;
+        int count = 0;
+        try {
+            int[] columns = MATCH_MAPPER.resolve(cursor);
+            int matchDayIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_MATCH_DAY);
+            while (cursor.moveToNext()) {
+                Match match = new Match();
+                MATCH_MAPPER.mapRow(cursor, columns, match);
+                row = new DatedMatch(match, cursor.getInt(matchDayIndex));
+                rows.add(row);
+                count++;
+            }
+        } finally {
+            cursor.close();
+        }
+        return count == limit ? row : null;
+    }
+
+    /**
+     * A match read together with its match day, for merging search results.
+     */
+    private static final class DatedMatch {
+        /** Report order: newest match day first, then the latest entered */
+        static final Comparator<DatedMatch> NEWEST_FIRST = (a, b) -> a.matchDay != b.matchDay
+                ? Integer.compare(b.matchDay, a.matchDay) : Long.compare(b.match.getId(), a.match.getId());
+
+        final Match match;
+        final int matchDay;
+
+        DatedMatch(Match match, int matchDay) {
+            this.match = match;
+            this.matchDay = matchDay;
+        }
+
+        /**
+         * Checks whether this match was read from a column and value.
+         */
+        boolean isFrom(String[] source) {
+            switch (source[0]) {
+                case DatabaseHelper.COLUMN_TEAM_A_ID:
+                    return String.valueOf(match.getTeamAId()).equals(source[1]);
+                case DatabaseHelper.COLUMN_TEAM_B_ID:
+                    return String.valueOf(match.getTeamBId()).equals(source[1]);
+                default:
+                    return source[1].equals(match.getCity());
+            }
+        }
+    }
+
+    /**
+     * Builds the column values for a match row.
+     * Resolves both team names to team IDs (creating teams as needed) and
+     * stores the IDs back on the match.
+     * @param db The database to look up and create teams in
+     * @param match The match to convert
+     * @return The column values for the matches table
+     */
+    private static ContentValues toContentValues(SQLiteDatabase db, Match match) {
+        if (match.getTeamA() != null) {
+            match.setTeamAId(TeamStatsDao.getOrCreateTeamId(db, match.getTeamA()));
+        }
+        if (match.getTeamB() != null) {
+            match.setTeamBId(TeamStatsDao.getOrCreateTeamId(db, match.getTeamB()));
+        }
+
+        ContentValues values = new ContentValues();
+        values.put(DatabaseHelper.COLUMN_DATE, match.getDate());
+        values.put(DatabaseHelper.COLUMN_MATCH_DAY, DateFormatter.toEpochDay(match.getDate()));
+        values.put(DatabaseHelper.COLUMN_CITY, match.getCity());
+        values.put(DatabaseHelper.COLUMN_TEAM_A_ID, match.getTeamAId());
+        values.put(DatabaseHelper.COLUMN_TEAM_B_ID, match.getTeamBId());
+        values.put(DatabaseHelper.COLUMN_TEAM_A_GOALS, match.getTeamAGoals());
+        values.put(DatabaseHelper.COLUMN_TEAM_B_GOALS, match.getTeamBGoals());
+        return values;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.example.footballresults.database;
+
+import com.example.footballresults.models.Match;
+
+import java.util.List;
+
+/**
+ * One page of matches in report order (newest first), together with the key
+ * the next page starts after. Pages are read by keyset pagination: each query
+ * continues strictly after the (match day, match ID) of the previous page's last
+ * row, so reading page N costs the same as reading page 1.
+ * Search results are ordered by rank first, best first, and newest first within
+ * a rank; their keys carry the rank too.
+ */
+public class MatchPage {
+    /** Matches on this page, newest first */
+    private final List<Match> matches;
+
+    /** Match day of each match, parallel to the matches list */
+    private final int[] matchDays;
+
+    /** Search rank of each match, parallel to the matches list, or null if the page is not ranked */
+    private final int[] ranks;
+
+    /** Key to continue after, or null if this is the last page */
+    private final Key nextKey;
+
+    /**
+     * Constructs a new MatchPage.
+     * @param matches The matches on this page
+     * @param matchDays The match day of each match, in the same order
+     * @param nextKey The key to continue after, or null if there are no more matches
+     */
+    MatchPage(List<Match> matches, int[] matchDays, Key nextKey) {
+        this(matches, matchDays, null, nextKey);
+    }
+
+    /**
+     * Constructs a page of search results.
+     * @param matches The matches on this page
+     * @param matchDays The match day of each match, in the same order
+     * @param ranks The search rank of each match, in the same order
+     * @param nextKey The key to continue after, or null if there are no more matches
+     */
+    MatchPage(List<Match> matches, int[] matchDays, int[] ranks, Key nextKey) {
+        this.matches = matches;
+        this.matchDays = matchDays;
+        this.ranks = ranks;
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * Gets the matches on this page.
+     * @return Matches, newest first
+     */
+    public List<Match> getMatches() {
+        return matches;
+    }
+
+    /**
+     * Gets the key that continues right after one of this page's matches,
+     * for splitting the page into smaller ones.
+     * @param index Index of the match on this page
+     * @return The key of that match
+     */
+    public Key getKeyAfter(int index) {
+        return new Key(ranks != null ? ranks[index] : 0, matchDays[index], matches.get(index).getId());
+    }
+
+    /**
+     * Gets the key the following page starts after.
+     * @return The key, or null if this is the last page
+     */
+    public Key getNextKey() {
+        return nextKey;
+    }
+
+    /**
+     * Position in the report order: a match day plus the match ID that breaks ties
+     * between matches played on the same day, preceded by the rank for search results.
+     */
+    public static final class Key {
+        /** Key that sorts before every match, used to read the first page */
+        public static final Key FIRST = new Key(0, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        /** Search rank, 0 for pages that are not ranked */
+        final int rank;
+
+        /** Match day, in days since 1970-01-01 */
+        final int matchDay;
+
+        /** Match ID */
+        final long matchId;
+
+        /**
+         * Constructs a new Key.
+         * @param matchDay The match day of the row to continue after
+         * @param matchId The match ID of the row to continue after
+         */
+        Key(int matchDay, long matchId) {
+            this(0, matchDay, matchId);
+        }
+
+        /**
+         * Constructs a new Key for search results.
+         * @param rank The search rank of the row to continue after
+         * @param matchDay The match day of the row to continue after
+         * @param matchId The match ID of the row to continue after
+         */
+        Key(int rank, int matchDay, long matchId) {
+            this.rank = rank;
+            this.matchDay = matchDay;
+            this.matchId = matchId;
+        }
+    }
+}
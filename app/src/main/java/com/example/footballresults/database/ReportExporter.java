@@ -0,0 +1,352 @@
+package com.example.footballresults.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.util.JsonWriter;
+import android.util.Log;
+
+import androidx.annotation.StringRes;
+
+import com.example.footballresults.R;
+import com.example.footballresults.utils.CsvWriter;
+import com.example.footballresults.utils.PdfTableWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exports a report, either the match list or the standings, as CSV, JSON or PDF.
+ * Rows are streamed from a database cursor one at a time, straight into a
+ * buffered writer or onto the PDF page being laid out, so no list of the
+ * report's rows is ever built. A PDF keeps all of its pages in memory until it
+ * is written, so it holds at most {@link #MAX_PDF_ROWS} rows; longer reports
+ * end with a note that the full report is in the CSV export.
+ * Matches are exported in report order with the columns the CSV import reads,
+ * so an exported match list can be imported again.
+ */
+public class ReportExporter {
+    private static final String TAG = "ReportExporter";
+
+    /** Number of rows between progress reports */
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    /** Column names of the standings export */
+    public static final String[] STANDINGS_HEADER = {"team_name", "matches_played", "wins", "draws",
+            "losses", "goals_scored", "goals_against", "points"};
+
+    /**
+     * Most rows a PDF export holds, about 230 pages. The pages are kept in native
+     * memory until the whole document is written; see PdfExportBenchmark.
+     */
+    public static final int MAX_PDF_ROWS = 10_000;
+
+    /** Relative PDF column widths of each report */
+    private static final float[] MATCHES_PDF_WEIGHTS = {2f, 2f, 3f, 3f, 1f, 1f};
+    private static final float[] STANDINGS_PDF_WEIGHTS = {4f, 1f, 1f, 1f, 1f, 1f, 1f, 1f};
+
+    /** SQL query that reads the match list in report order, newest first */
+    private static final String SELECT_MATCHES = "SELECT "
+            + DatabaseHelper.COLUMN_DATE + ", " + DatabaseHelper.COLUMN_CITY + ", "
+            + DatabaseHelper.COLUMN_TEAM_A + ", " + DatabaseHelper.COLUMN_TEAM_B + ", "
+            + DatabaseHelper.COLUMN_TEAM_A_GOALS + ", " + DatabaseHelper.COLUMN_TEAM_B_GOALS
+            + " FROM " + DatabaseHelper.VIEW_MATCH_DETAILS
+            + " ORDER BY " + DatabaseHelper.COLUMN_MATCH_DAY + " DESC, " + DatabaseHelper.COLUMN_MATCH_ID + " DESC";
+
+    /** SQL query that reads the standings, highest points first */
+    private static final String SELECT_STANDINGS = "SELECT "
+            + DatabaseHelper.COLUMN_TEAM_NAME + ", " + DatabaseHelper.COLUMN_MATCHES_PLAYED + ", "
+            + DatabaseHelper.COLUMN_WINS + ", " + DatabaseHelper.COLUMN_DRAWS + ", "
+            + DatabaseHelper.COLUMN_LOSSES + ", " + DatabaseHelper.COLUMN_GOALS_SCORED + ", "
+            + DatabaseHelper.COLUMN_GOALS_AGAINST + ", " + DatabaseHelper.COLUMN_POINTS
+            + " FROM " + DatabaseHelper.TABLE_TEAM_STATS
+            + " ORDER BY " + DatabaseHelper.COLUMN_POINTS + " DESC, " + DatabaseHelper.COLUMN_TEAM_ID;
+
+    /**
+     * Reports that can be exported.
+     */
+    public enum Report {
+        /** Every match, newest first */
+        MATCHES,
+        /** Every team's statistics, highest points first */
+        STANDINGS
+    }
+
+    /**
+     * File formats an export can be written in.
+     */
+    public enum Format {
+        CSV("text/csv", "csv", R.string.export_csv),
+        JSON("application/json", "json", R.string.export_json),
+        PDF("application/pdf", "pdf", R.string.export_pdf);
+
+        private final String mimeType;
+        private final String extension;
+        private final int labelId;
+
+        Format(String mimeType, String extension, @StringRes int labelId) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+            this.labelId = labelId;
+        }
+
+        /**
+         * Gets the MIME type of files in this format.
+         * @return The MIME type
+         */
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        /**
+         * Gets the usual file name extension, without the dot.
+         * @return The extension
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Gets the name of this format shown to the user.
+         * @return The string resource ID
+         */
+        @StringRes
+        public int getLabelId() {
+            return labelId;
+        }
+    }
+
+    /**
+     * Receives progress while an export runs, on the exporting thread.
+     */
+    public interface ProgressListener {
+        /**
+         * Called every few rows.
+         * @param rowsWritten Number of rows written so far
+         * @param totalRows Number of rows in the report
+         */
+        void onProgress(int rowsWritten, int totalRows);
+    }
+
+    private final Context context;
+    private final DatabaseManager dbManager;
+
+    /**
+     * Constructs a new ReportExporter.
+     * @param context The application context
+     */
+    public ReportExporter(Context context) {
+        this.context = context;
+        this.dbManager = DatabaseManager.getInstance(context);
+    }
+
+    /**
+     * Exports a report to a document. Text formats are written as UTF-8.
+     * @param uri The document to write
+     * @param report The report to export
+     * @param format The format to write
+     * @param listener Receives progress, may be null
+     * @return The number of rows written, or -1 if the document could not be written
+     */
+    public int export(Uri uri, Report report, Format format, ProgressListener listener) {
+        SQLiteDatabase db = dbManager.acquire();
+        try (OutputStream out = context.getContentResolver().openOutputStream(uri)) {
+            if (out == null) {
+                return -1;
+            }
+            if (format == Format.PDF) {
+                return writePdf(db, report, out, MAX_PDF_ROWS, listener);
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            int rows = export(db, report, format, writer, listener);
+            writer.flush();
+            return rows;
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing " + uri + ": " + e.getMessage());
+            return -1;
+        } finally {
+            dbManager.release();
+        }
+    }
+
+    /**
+     * Streams a report into a writer as text. The writer is flushed but not closed.
+     * @param db The database to read
+     * @param report The report to export
+     * @param format The format to write, CSV or JSON
+     * @param writer The destination, preferably buffered
+     * @param listener Receives progress, may be null
+     * @return The number of rows written
+     * @throws IOException if the output cannot be written
+     */
+    static int export(SQLiteDatabase db, Report report, Format format, Writer writer,
+                      ProgressListener listener) throws IOException {
+        boolean matches = report == Report.MATCHES;
+        int totalRows = countRows(db, report);
+        String[] columns = matches ? MatchCsvImporter.HEADER : STANDINGS_HEADER;
+        // Leading text columns: date, city and both teams, or the team name
+        int textColumns = matches ? 4 : 1;
+
+        Cursor cursor = query(db, report);
+        try {
+            if (format == Format.CSV) {
+                return writeCsv(cursor, columns, textColumns, writer, totalRows, listener);
+            } else if (format == Format.JSON) {
+                return writeJson(cursor, columns, textColumns, writer, totalRows, listener);
+            }
+            throw new IllegalArgumentException("Not a text format: " + format);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Lays out a report as a PDF table, one page at a time, and writes the document.
+     * A report with more rows than the limit is cut short after the first rows, in
+     * report order, and ends with a note saying so.
+     * @param db The database to read
+     * @param report The report to export
+     * @param out The stream the document is written to
+     * @param maxRows Most rows to write
+     * @param listener Receives progress, may be null
+     * @return The number of rows written
+     * @throws IOException if the document cannot be written
+     */
+    int writePdf(SQLiteDatabase db, Report report, OutputStream out, int maxRows,
+                 ProgressListener listener) throws IOException {
+        boolean matches = report == Report.MATCHES;
+        int totalRows = Math.min(countRows(db, report), maxRows);
+        String title = context.getString(matches ? R.string.matches_report : R.string.team_statistics);
+        String[] headers = matches
+                ? getStrings(R.string.report_column_date, R.string.match_city, R.string.team_a,
+                        R.string.team_b, R.string.report_column_goals_a, R.string.report_column_goals_b)
+                : getStrings(R.string.team_name, R.string.matches_played, R.string.wins, R.string.draws,
+                        R.string.losses, R.string.goals_scored, R.string.goals_against, R.string.points);
+
+        try (PdfTableWriter pdf = new PdfTableWriter(out, title, headers,
+                matches ? MATCHES_PDF_WEIGHTS : STANDINGS_PDF_WEIGHTS, context.getString(R.string.report_page))) {
+            // One row past the limit tells whether the report was cut short
+            Cursor cursor = db.rawQuery(getQuery(report) + " LIMIT " + (maxRows + 1), null);
+            try {
+                String[] cells = new String[headers.length];
+                int rows = 0;
+                while (cursor.moveToNext()) {
+                    if (rows == maxRows) {
+                        pdf.writeNote(context.getString(R.string.export_pdf_truncated, rows));
+                        break;
+                    }
+                    for (int i = 0; i < cells.length; i++) {
+                        cells[i] = cursor.getString(i);
+                    }
+                    pdf.writeRow(cells);
+                    rows = reportProgress(rows + 1, totalRows, listener);
+                }
+                return rows;
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Gets several strings from the resources.
+     */
+    private String[] getStrings(int... ids) {
+        String[] strings = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            strings[i] = context.getString(ids[i]);
+        }
+        return strings;
+    }
+
+    /**
+     * Counts the rows of a report, for progress reporting.
+     */
+    private static int countRows(SQLiteDatabase db, Report report) {
+        return (int) DatabaseUtils.queryNumEntries(db,
+                report == Report.MATCHES ? DatabaseHelper.TABLE_MATCHES : DatabaseHelper.TABLE_TEAM_STATS);
+    }
+
+    /**
+     * Opens a cursor over the rows of a report, in report order.
+     */
+    private static Cursor query(SQLiteDatabase db, Report report) {
+        return db.rawQuery(getQuery(report), null);
+    }
+
+    /**
+     * Gets the SQL query that reads the rows of a report, in report order.
+     */
+    private static String getQuery(Report report) {
+        return report == Report.MATCHES ? SELECT_MATCHES : SELECT_STANDINGS;
+    }
+
+    /**
+     * Writes a header line, then one line per cursor row.
+     */
+    private static int writeCsv(Cursor cursor, String[] columns, int textColumns, Writer writer,
+                                int totalRows, ProgressListener listener) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(columns);
+
+        int rows = 0;
+        while (cursor.moveToNext()) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i < textColumns) {
+                    csv.writeField(cursor.getString(i));
+                } else {
+                    csv.writeField(cursor.getLong(i));
+                }
+            }
+            csv.endRecord();
+            rows = reportProgress(rows + 1, totalRows, listener);
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Writes a JSON array with one object per cursor row, keyed by column name.
+     */
+    private static int writeJson(Cursor cursor, String[] columns, int textColumns, Writer writer,
+                                 int totalRows, ProgressListener listener) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginArray();
+
+        int rows = 0;
+        while (cursor.moveToNext()) {
+            json.beginObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.name(columns[i]);
+                if (i < textColumns) {
+                    json.value(cursor.getString(i));
+                } else {
+                    json.value(cursor.getLong(i));
+                }
+            }
+            json.endObject();
+            rows = reportProgress(rows + 1, totalRows, listener);
+        }
+
+        json.endArray();
+        json.flush();
+        return rows;
+    }
+
+    /**
+     * Reports progress every {@link #PROGRESS_INTERVAL} rows and at the last row.
+     * @return The number of rows written, unchanged
+     */
+    private static int reportProgress(int rows, int totalRows, ProgressListener listener) {
+        if (listener != null && (rows % PROGRESS_INTERVAL == 0 || rows == totalRows)) {
+            listener.onProgress(rows, totalRows);
+        }
+        return rows;
+    }
+}
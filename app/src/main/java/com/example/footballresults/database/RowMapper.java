@@ -0,0 +1,119 @@
+package com.example.footballresults.database;
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the rows of a query to objects. A mapper declares the columns it reads,
+ * which callers pass as the query's projection instead of selecting every column;
+ * their positions are looked up once per cursor rather than on every row.
+ * The cursor may hold more columns than the mapper reads, in any order.
+ * @param <T> The type rows are mapped to
+ */
+abstract class RowMapper<T> {
+    /** Columns read by the mapper, in the order {@link #mapRow} receives their indices */
+    private final String[] projection;
+
+    /**
+     * Constructs a new RowMapper.
+     * @param projection The columns the mapper reads
+     */
+    RowMapper(String... projection) {
+        this.projection = projection;
+    }
+
+    /**
+     * Gets the columns the mapper reads, to pass as the projection of a query.
+     * @return A copy of the column names
+     */
+    String[] getProjection() {
+        return projection.clone();
+    }
+
+    /**
+     * Gets the mapper's columns followed by extra ones, for a query that also
+     * reads columns the mapper does not.
+     * @param extraColumns The columns to add
+     * @return The combined projection
+     */
+    String[] getProjection(String... extraColumns) {
+        String[] columns = new String[projection.length + extraColumns.length];
+        System.arraycopy(projection, 0, columns, 0, projection.length);
+        System.arraycopy(extraColumns, 0, columns, projection.length, extraColumns.length);
+        return columns;
+    }
+
+    /**
+     * Creates an empty object to map a row into.
+     * @return The new object
+     */
+    abstract T newRow();
+
+    /**
+     * Copies the current row into an object.
+     * @param cursor The cursor, positioned on a row
+     * @param columns Index in the cursor of each projection column, in projection order
+     * @param row The object to fill in
+     */
+    abstract void mapRow(Cursor cursor, int[] columns, T row);
+
+    /**
+     * Looks up the index of every projection column in a cursor.
+     * @param cursor The cursor to map
+     * @return The indices, in projection order
+     * @throws IllegalArgumentException if a column is missing from the cursor
+     */
+    int[] resolve(Cursor cursor) {
+        int[] columns = new int[projection.length];
+        for (int i = 0; i < projection.length; i++) {
+            columns[i] = cursor.getColumnIndexOrThrow(projection[i]);
+        }
+        return columns;
+    }
+
+    /**
+     * Maps the first row of a cursor and closes it.
+     * @param cursor The cursor to read, may be null
+     * @return The mapped row, or null if the cursor is empty
+     */
+    T mapFirst(Cursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            T row = newRow();
+            mapRow(cursor, resolve(cursor), row);
+            return row;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Maps every row of a cursor to a new object and closes it.
+     * @param cursor The cursor to read, may be null
+     * @return The mapped rows, in cursor order
+     */
+    List<T> mapAll(Cursor cursor) {
+        List<T> rows = new ArrayList<>();
+        if (cursor == null) {
+            return rows;
+        }
+        try {
+            int[] columns = resolve(cursor);
+            while (cursor.moveToNext()) {
+                T row = newRow();
+                mapRow(cursor, columns, row);
+                rows.add(row);
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+}
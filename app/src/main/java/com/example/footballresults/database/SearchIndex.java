@@ -0,0 +1,226 @@
+package com.example.footballresults.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.footballresults.utils.SearchText;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full-text index of team and city names, so matches can be searched by either
+ * while the user types. Names are stored as normalized by {@link SearchText}.
+ * Teams are indexed under their team ID and removed by a trigger when the team is
+ * deleted; cities are added as matches bring them in and removed once their last
+ * match is edited or deleted through the DAO.
+ */
+final class SearchIndex {
+    /** SQL statement that indexes one team */
+    private static final String INSERT_TEAM = "INSERT INTO " + DatabaseHelper.TABLE_TEAM_SEARCH
+            + " (docid, " + DatabaseHelper.COLUMN_SEARCH_TOKENS + ") VALUES (?, ?)";
+
+    /** SQL statement that indexes one city */
+    private static final String INSERT_CITY = "INSERT INTO " + DatabaseHelper.TABLE_CITY_SEARCH
+            + " (" + DatabaseHelper.COLUMN_CITY + ", " + DatabaseHelper.COLUMN_SEARCH_TOKENS + ") VALUES (?, ?)";
+
+    /** SQL statement that removes a city no match is played in any more */
+    private static final String DELETE_UNUSED_CITY = "DELETE FROM " + DatabaseHelper.TABLE_CITY_SEARCH
+            + " WHERE " + DatabaseHelper.COLUMN_CITY + " = ? AND NOT EXISTS (SELECT 1 FROM "
+            + DatabaseHelper.TABLE_MATCHES + " WHERE " + DatabaseHelper.COLUMN_CITY + " = ?1)";
+
+    /** SQL query for the teams whose names match a full-text expression */
+    private static final String FIND_TEAMS = "SELECT " + DatabaseHelper.COLUMN_TEAM_ID + ", "
+            + DatabaseHelper.COLUMN_TEAM_NAME + " FROM " + DatabaseHelper.TABLE_TEAM_STATS
+            + " WHERE " + DatabaseHelper.COLUMN_TEAM_ID + " IN (SELECT docid FROM " + DatabaseHelper.TABLE_TEAM_SEARCH
+            + " WHERE " + DatabaseHelper.TABLE_TEAM_SEARCH + " MATCH ?)";
+
+    /** SQL query for the cities whose names match a full-text expression */
+    private static final String FIND_CITIES = "SELECT " + DatabaseHelper.COLUMN_CITY
+            + " FROM " + DatabaseHelper.TABLE_CITY_SEARCH
+            + " WHERE " + DatabaseHelper.TABLE_CITY_SEARCH + " MATCH ?";
+
+    private SearchIndex() {
+    }
+
+    /**
+     * Indexes a newly added team.
+     * @param db The database to write to
+     * @param teamId The team's ID
+     * @param teamName The team's name
+     */
+    static void addTeam(SQLiteDatabase db, long teamId, String teamName) {
+        db.execSQL(INSERT_TEAM, new Object[]{teamId, SearchText.indexText(teamName)});
+    }
+
+    /**
+     * Indexes a city unless it is indexed already.
+     * @param db The database to write to
+     * @param city The city's name
+     */
+    static void addCity(SQLiteDatabase db, String city) {
+        Cursor cursor = db.query(DatabaseHelper.TABLE_CITY_SEARCH, new String[]{"docid"},
+                DatabaseHelper.COLUMN_CITY + " = ?", new String[]{city}, null, null, null, "1");
+        boolean indexed;
+        try {
+            indexed = cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+        if (!indexed) {
+            insertCity(db, city);
+        }
+    }
+
+    /**
+     * Indexes a city known not to be indexed yet.
+     * @param db The database to write to
+     * @param city The city's name
+     * @see #getCities(SQLiteDatabase)
+     */
+    static void insertCity(SQLiteDatabase db, String city) {
+        db.execSQL(INSERT_CITY, new Object[]{city, SearchText.indexText(city)});
+    }
+
+    /**
+     * Gets every indexed city, for bulk inserts that index new cities as they go.
+     * @param db The database to read
+     * @return The names of the indexed cities
+     */
+    static Set<String> getCities(SQLiteDatabase db) {
+        Set<String> cities = new HashSet<>();
+        Cursor cursor = db.query(DatabaseHelper.TABLE_CITY_SEARCH, new String[]{DatabaseHelper.COLUMN_CITY},
+                null, null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                cities.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return cities;
+    }
+
+    /**
+     * Removes a city from the index if no match is played there any more.
+     * @param db The database to write to
+     * @param city The city's name
+     */
+    static void deleteUnusedCity(SQLiteDatabase db, String city) {
+        db.execSQL(DELETE_UNUSED_CITY, new Object[]{city});
+    }
+
+    /**
+     * Empties the index, for when every team and match is replaced.
+     * @param db The database to write to
+     */
+    static void clear(SQLiteDatabase db) {
+        db.delete(DatabaseHelper.TABLE_TEAM_SEARCH, null, null);
+        db.delete(DatabaseHelper.TABLE_CITY_SEARCH, null, null);
+    }
+
+    /**
+     * Indexes every team and every city again from the tables.
+     * @param db The database to rebuild the index of
+     */
+    static void rebuild(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            clear(db);
+            Cursor teams = db.query(DatabaseHelper.TABLE_TEAM_STATS,
+                    new String[]{DatabaseHelper.COLUMN_TEAM_ID, DatabaseHelper.COLUMN_TEAM_NAME},
+                    null, null, null, null, null);
+            try {
+                while (teams.moveToNext()) {
+                    addTeam(db, teams.getLong(0), teams.getString(1));
+                }
+            } finally {
+                teams.close();
+            }
+            // Read off the city index, without visiting the matches themselves
+            Cursor cities = db.query(true, DatabaseHelper.TABLE_MATCHES, new String[]{DatabaseHelper.COLUMN_CITY},
+                    null, null, null, null, null, null);
+            try {
+                while (cities.moveToNext()) {
+                    insertCity(db, cities.getString(0));
+                }
+            } finally {
+                cities.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Finds the teams and cities that have a word starting with each word of the query.
+     * @param db The database to search
+     * @param query What the user typed
+     * @return The teams and cities found, best ranked first and by name within a rank
+     */
+    static List<Hit> find(SQLiteDatabase db, String query) {
+        List<Hit> hits = new ArrayList<>();
+        String expression = SearchText.prefixQuery(query);
+        if (expression == null) {
+            return hits;
+        }
+        String[] args = {expression};
+
+        Cursor teams = db.rawQuery(FIND_TEAMS, args);
+        try {
+            while (teams.moveToNext()) {
+                String name = teams.getString(1);
+                hits.add(new Hit(teams.getLong(0), null, name, SearchText.rank(name, query)));
+            }
+        } finally {
+            teams.close();
+        }
+        Cursor cities = db.rawQuery(FIND_CITIES, args);
+        try {
+            while (cities.moveToNext()) {
+                String name = cities.getString(0);
+                hits.add(new Hit(-1, name, name, SearchText.rank(name, query)));
+            }
+        } finally {
+            cities.close();
+        }
+
+        Collections.sort(hits, (a, b) -> a.rank != b.rank ? Integer.compare(a.rank, b.rank) : a.name.compareTo(b.name));
+        return hits;
+    }
+
+    /**
+     * A team or a city found by a search.
+     */
+    static final class Hit {
+        /** The team's ID, or -1 for a city */
+        final long teamId;
+
+        /** The city's name, or null for a team */
+        final String city;
+
+        /** The team or city name */
+        final String name;
+
+        /** How well the name matches, one of the {@link SearchText} ranks */
+        final int rank;
+
+        /**
+         * Constructs a new Hit.
+         * @param teamId The team's ID, or -1 for a city
+         * @param city The city's name, or null for a team
+         * @param name The team or city name
+         * @param rank How well the name matches
+         */
+        Hit(long teamId, String city, String name, int rank) {
+            this.teamId = teamId;
+            this.city = city;
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+}
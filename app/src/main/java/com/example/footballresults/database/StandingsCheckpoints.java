@@ -0,0 +1,188 @@
+package com.example.footballresults.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.footballresults.utils.DateFormatter;
+import com.example.footballresults.utils.StandingsAccumulator;
+
+/**
+ * Stored copies of the league table as it stood at past match days, so the table
+ * as of any date is read by loading the nearest earlier checkpoint and replaying
+ * only the matches played since. A checkpoint for day D holds every team's totals
+ * over the matches played before D; matches without a readable date are never
+ * counted. Checkpoints are taken while a past table is replayed, about every
+ * {@link #CHECKPOINT_INTERVAL} matches, and the statistics triggers drop every
+ * checkpoint a changed match falls before.
+ */
+final class StandingsCheckpoints {
+    /** Number of replayed matches after which the next match day gets a checkpoint */
+    static final int CHECKPOINT_INTERVAL = 500;
+
+    /** SQL query for the latest checkpoint at or before a day */
+    private static final String FIND_CHECKPOINT = "SELECT max(" + DatabaseHelper.COLUMN_CHECKPOINT_DAY + ")"
+            + " FROM " + DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS
+            + " WHERE " + DatabaseHelper.COLUMN_CHECKPOINT_DAY + " <= ?";
+
+    /** SQL query for the totals stored at one checkpoint */
+    private static final String SELECT_CHECKPOINT = "SELECT " + DatabaseHelper.COLUMN_TEAM_ID + ", "
+            + DatabaseHelper.COLUMN_MATCHES_PLAYED + ", " + DatabaseHelper.COLUMN_WINS + ", "
+            + DatabaseHelper.COLUMN_DRAWS + ", " + DatabaseHelper.COLUMN_LOSSES + ", "
+            + DatabaseHelper.COLUMN_GOALS_SCORED + ", " + DatabaseHelper.COLUMN_GOALS_AGAINST + ", "
+            + DatabaseHelper.COLUMN_POINTS
+            + " FROM " + DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS
+            + " WHERE " + DatabaseHelper.COLUMN_CHECKPOINT_DAY + " = ?";
+
+    /** SQL query for the results of the matches in a range of days, oldest first */
+    private static final String SELECT_MATCHES_BETWEEN = "SELECT " + DatabaseHelper.COLUMN_MATCH_DAY + ", "
+            + DatabaseHelper.COLUMN_TEAM_A_ID + ", " + DatabaseHelper.COLUMN_TEAM_B_ID + ", "
+            + DatabaseHelper.COLUMN_TEAM_A_GOALS + ", " + DatabaseHelper.COLUMN_TEAM_B_GOALS
+            + " FROM " + DatabaseHelper.TABLE_MATCHES
+            + " WHERE " + DatabaseHelper.COLUMN_MATCH_DAY + " >= ? AND " + DatabaseHelper.COLUMN_MATCH_DAY + " <= ?"
+            + " ORDER BY " + DatabaseHelper.COLUMN_MATCH_DAY;
+
+    /** SQL statement that stores one team's totals at a checkpoint */
+    private static final String INSERT_CHECKPOINT_ROW = "INSERT OR REPLACE INTO " + DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS
+            + " (" + DatabaseHelper.COLUMN_CHECKPOINT_DAY + ", " + DatabaseHelper.COLUMN_TEAM_ID + ", "
+            + DatabaseHelper.COLUMN_MATCHES_PLAYED + ", " + DatabaseHelper.COLUMN_WINS + ", "
+            + DatabaseHelper.COLUMN_DRAWS + ", " + DatabaseHelper.COLUMN_LOSSES + ", "
+            + DatabaseHelper.COLUMN_GOALS_SCORED + ", " + DatabaseHelper.COLUMN_GOALS_AGAINST + ", "
+            + DatabaseHelper.COLUMN_POINTS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private StandingsCheckpoints() {
+    }
+
+    /**
+     * Builds the league table as it stood at the end of a day. Starts from the
+     * latest checkpoint that day allows and replays the matches played since,
+     * taking new checkpoints along the way when the replay is long.
+     * @param db The database to read, and to store new checkpoints in
+     * @param epochDay The last day to count, as a day number
+     * @return The totals of every team over the matches played up to and including that day
+     */
+    static StandingsAccumulator getStandingsAsOf(SQLiteDatabase db, int epochDay) {
+        StandingsAccumulator standings = new StandingsAccumulator();
+        if (epochDay == DateFormatter.INVALID_EPOCH_DAY) {
+            return standings;
+        }
+        // A checkpoint for the day after still only holds matches up to this one
+        long latestUsable = (long) epochDay + 1;
+
+        db.beginTransaction();
+        try {
+            int checkpointDay = findCheckpoint(db, latestUsable);
+            int firstDay;
+            if (checkpointDay == DateFormatter.INVALID_EPOCH_DAY) {
+                firstDay = DateFormatter.INVALID_EPOCH_DAY + 1;
+            } else {
+                loadCheckpoint(db, checkpointDay, standings);
+                firstDay = checkpointDay;
+            }
+            if (firstDay <= epochDay) {
+                replay(db, firstDay, epochDay, standings);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return standings;
+    }
+
+    /**
+     * Drops every checkpoint.
+     * @param db The database to write to
+     */
+    static void clear(SQLiteDatabase db) {
+        db.delete(DatabaseHelper.TABLE_STANDINGS_CHECKPOINTS, null, null);
+    }
+
+    /**
+     * Finds the latest checkpoint at or before a day.
+     * @return The checkpoint day, or {@link DateFormatter#INVALID_EPOCH_DAY} if there is none
+     */
+    private static int findCheckpoint(SQLiteDatabase db, long latestUsable) {
+        Cursor cursor = db.rawQuery(FIND_CHECKPOINT, new String[]{String.valueOf(latestUsable)});
+        try {
+            if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getInt(0);
+            }
+            return DateFormatter.INVALID_EPOCH_DAY;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Adds the totals stored at a checkpoint to the standings.
+     */
+    private static void loadCheckpoint(SQLiteDatabase db, int checkpointDay, StandingsAccumulator standings) {
+        Cursor cursor = db.rawQuery(SELECT_CHECKPOINT, new String[]{String.valueOf(checkpointDay)});
+        try {
+            while (cursor.moveToNext()) {
+                standings.addTotals(cursor.getLong(0), cursor.getInt(1), cursor.getInt(2), cursor.getInt(3),
+                        cursor.getInt(4), cursor.getInt(5), cursor.getInt(6), cursor.getInt(7));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Adds the matches played from one day to another to the standings, oldest
+     * first. Whenever {@link #CHECKPOINT_INTERVAL} matches have been added since
+     * the last checkpoint, the next new day gets one, and so does the day after
+     * the last if the replay ends that far from a checkpoint.
+     */
+    private static void replay(SQLiteDatabase db, int firstDay, int lastDay, StandingsAccumulator standings) {
+        SQLiteStatement insert = db.compileStatement(INSERT_CHECKPOINT_ROW);
+        try {
+            int sinceCheckpoint = 0;
+            Cursor cursor = db.rawQuery(SELECT_MATCHES_BETWEEN,
+                    new String[]{String.valueOf(firstDay), String.valueOf(lastDay)});
+            try {
+                int currentDay = firstDay;
+                while (cursor.moveToNext()) {
+                    int matchDay = cursor.getInt(0);
+                    if (matchDay != currentDay) {
+                        if (sinceCheckpoint >= CHECKPOINT_INTERVAL) {
+                            writeCheckpoint(insert, matchDay, standings);
+                            sinceCheckpoint = 0;
+                        }
+                        currentDay = matchDay;
+                    }
+                    standings.addMatch(cursor.getLong(1), cursor.getLong(2), cursor.getInt(3), cursor.getInt(4), 1);
+                    sinceCheckpoint++;
+                }
+            } finally {
+                cursor.close();
+            }
+            if (sinceCheckpoint >= CHECKPOINT_INTERVAL && lastDay < Integer.MAX_VALUE) {
+                writeCheckpoint(insert, lastDay + 1, standings);
+            }
+        } finally {
+            insert.close();
+        }
+    }
+
+    /**
+     * Stores the current totals of every team that has played as the checkpoint for a day.
+     */
+    private static void writeCheckpoint(SQLiteStatement insert, int checkpointDay, StandingsAccumulator standings) {
+        for (int teamId = 0; teamId < standings.getTeamIdLimit(); teamId++) {
+            if (standings.getMatchesPlayed(teamId) == 0) {
+                continue;
+            }
+            insert.bindLong(1, checkpointDay);
+            insert.bindLong(2, teamId);
+            insert.bindLong(3, standings.getMatchesPlayed(teamId));
+            insert.bindLong(4, standings.getWins(teamId));
+            insert.bindLong(5, standings.getDraws(teamId));
+            insert.bindLong(6, standings.getLosses(teamId));
+            insert.bindLong(7, standings.getGoalsScored(teamId));
+            insert.bindLong(8, standings.getGoalsAgainst(teamId));
+            insert.bindLong(9, standings.getPoints(teamId));
+            insert.executeInsert();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.footballresults.database;
+
+import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.utils.StandingsEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide in-memory copy of the team_stats table, kept in front of
+ * {@link TeamStatsDao} so the standings can be served without querying SQLite.
+ * The table is read once into an immutable {@link Snapshot}; writes made through
+ * the DAOs either update the snapshot directly or invalidate it, in which case it
+ * is read again on the next request.
+ * A snapshot is only stored if no write happened while it was being read, and
+ * never while the reading thread is inside a transaction that may still roll back.
+ * Statistics handed out are shared between callers and must not be modified.
+ */
+final class TeamStatsCache {
+    /** The single instance */
+    private static final TeamStatsCache instance = new TeamStatsCache();
+
+    /** Current contents, or null until the table is read again */
+    private Snapshot snapshot;
+
+    /** Incremented by every write, so a snapshot read before the write is not stored */
+    private int generation;
+
+    private TeamStatsCache() {
+    }
+
+    /**
+     * Gets the process-wide cache.
+     * @return The shared TeamStatsCache
+     */
+    static TeamStatsCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the cached statistics.
+     * @return The current snapshot, or null if the table must be read
+     */
+    synchronized Snapshot get() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the write generation to pass to {@link #put(Snapshot, int)}.
+     * Must be called before the table is read.
+     * @return The current generation
+     */
+    synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores a snapshot read from the table, unless a write happened since the read began.
+     * @param snapshot The snapshot read
+     * @param readGeneration The generation taken before the read
+     */
+    synchronized void put(Snapshot snapshot, int readGeneration) {
+        if (readGeneration == generation) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Adds a team or replaces the team with the same name.
+     * @param teamId The team's ID, or 0 to keep the ID of the team replaced
+     * @param team The team's new statistics
+     */
+    synchronized void putTeam(long teamId, TeamStats team) {
+        generation++;
+        if (snapshot != null) {
+            snapshot = snapshot.withTeam(teamId, team);
+        }
+    }
+
+    /**
+     * Removes a team.
+     * @param teamName The name of the team removed
+     */
+    synchronized void removeTeam(String teamName) {
+        generation++;
+        if (snapshot != null) {
+            snapshot = snapshot.withoutTeam(teamName);
+        }
+    }
+
+    /**
+     * Drops the cached statistics after a write the cache cannot follow,
+     * such as a match change applied by the statistics triggers.
+     */
+    synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+    }
+
+    /**
+     * Immutable view of every team's statistics, indexed by ID and by name
+     * and presorted by points in both directions.
+     */
+    static final class Snapshot {
+        /** Teams by ID, in ID order */
+        private final Map<Long, TeamStats> byId;
+
+        /** Teams by name */
+        private final Map<String, TeamStats> byName;
+
+        /** Teams by points, highest first; ties are listed by ID */
+        private final List<TeamStats> descending;
+
+        /** The descending list reversed */
+        private final List<TeamStats> ascending;
+
+        /**
+         * Constructs a snapshot.
+         * @param teams The statistics of every team, in ID order
+         */
+        Snapshot(Collection<TeamStats> teams) {
+            byId = new LinkedHashMap<>();
+            byName = new HashMap<>();
+            for (TeamStats team : teams) {
+                byId.put(team.getId(), team);
+                byName.put(team.getTeamName(), team);
+            }
+
+            List<TeamStats> sorted = new ArrayList<>(teams);
+            // Stable sort, so equal points stay in ID order
+            Collections.sort(sorted, StandingsEngine.BY_POINTS_DESCENDING);
+            descending = Collections.unmodifiableList(sorted);
+
+            List<TeamStats> reversed = new ArrayList<>(sorted);
+            Collections.reverse(reversed);
+            ascending = Collections.unmodifiableList(reversed);
+        }
+
+        /**
+         * Gets a team by ID.
+         * @param teamId The ID of the team
+         * @return The team, or null if there is no such team
+         */
+        TeamStats getById(long teamId) {
+            return byId.get(teamId);
+        }
+
+        /**
+         * Gets a team by name.
+         * @param teamName The name of the team
+         * @return The team, or null if there is no such team
+         */
+        TeamStats getByName(String teamName) {
+            return byName.get(teamName);
+        }
+
+        /**
+         * Gets every team in ID order.
+         * @return Unmodifiable view of all teams
+         */
+        Collection<TeamStats> getAll() {
+            return Collections.unmodifiableCollection(byId.values());
+        }
+
+        /**
+         * Gets every team sorted by points.
+         * @param ascending If true, the lowest points first; if false, the highest first
+         * @return Unmodifiable list of all teams
+         */
+        List<TeamStats> getSorted(boolean ascending) {
+            return ascending ? this.ascending : descending;
+        }
+
+        /**
+         * Creates a copy of this snapshot with one team added or replaced.
+         * @param teamId The team's ID, or 0 to keep the ID of the team replaced
+         * @param team The team's new statistics
+         * @return The new snapshot
+         */
+        Snapshot withTeam(long teamId, TeamStats team) {
+            TeamStats copy = copyOf(team);
+            copy.setId(teamId);
+            Map<Long, TeamStats> teams = new LinkedHashMap<>(byId);
+            TeamStats previous = byName.get(team.getTeamName());
+            if (previous != null) {
+                if (teamId == 0) {
+                    copy.setId(previous.getId());
+                }
+                // Writing a team's statistics leaves its form as the triggers last set it
+                copy.setForm(previous.getForm());
+                teams.remove(previous.getId());
+            }
+            teams.put(copy.getId(), copy);
+            return new Snapshot(sortedById(teams.values()));
+        }
+
+        /**
+         * Creates a copy of this snapshot without one team.
+         * @param teamName The name of the team to leave out
+         * @return The new snapshot
+         */
+        Snapshot withoutTeam(String teamName) {
+            TeamStats previous = byName.get(teamName);
+            if (previous == null) {
+                return this;
+            }
+            Map<Long, TeamStats> teams = new LinkedHashMap<>(byId);
+            teams.remove(previous.getId());
+            return new Snapshot(teams.values());
+        }
+
+        /**
+         * Sorts teams by ID.
+         * @param teams The teams to sort
+         * @return A new list in ID order
+         */
+        private static List<TeamStats> sortedById(Collection<TeamStats> teams) {
+            List<TeamStats> sorted = new ArrayList<>(teams);
+            Collections.sort(sorted, (a, b) -> Long.compare(a.getId(), b.getId()));
+            return sorted;
+        }
+
+        /**
+         * Copies statistics so later changes by the caller do not reach the cache.
+         * @param team The statistics to copy
+         * @return The copy
+         */
+        private static TeamStats copyOf(TeamStats team) {
+            TeamStats copy = new TeamStats(team.getTeamName());
+            copy.setMatchesPlayed(team.getMatchesPlayed());
+            copy.setWins(team.getWins());
+            copy.setDraws(team.getDraws());
+            copy.setLosses(team.getLosses());
+            copy.setGoalsScored(team.getGoalsScored());
+            copy.setPoints(team.getPoints());
+            return copy;
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package com.example.footballresults.database;
 
-import android.annotation.SuppressLint;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.utils.StandingsAccumulator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,35 +18,126 @@ import java.util.List;
  * This class provides methods for creating, reading, updating, and deleting
  * team statistics records in the database. It also includes functionality
  * for retrieving sorted statistics and managing team data.
+ * Reads are served from the process-wide {@link TeamStatsCache}, which the
+ * table is read into once; writes update or invalidate the cache as they go.
  */
 public class TeamStatsDao {
+    /** SQL statement that overwrites one team's statistics with rebuilt totals */
+    private static final String SET_TEAM_STATS = "UPDATE " + DatabaseHelper.TABLE_TEAM_STATS + " SET "
+            + DatabaseHelper.COLUMN_MATCHES_PLAYED + " = ?, "
+            + DatabaseHelper.COLUMN_WINS + " = ?, "
+            + DatabaseHelper.COLUMN_DRAWS + " = ?, "
+            + DatabaseHelper.COLUMN_LOSSES + " = ?, "
+            + DatabaseHelper.COLUMN_GOALS_SCORED + " = ?, "
+            + DatabaseHelper.COLUMN_GOALS_AGAINST + " = ?, "
+            + DatabaseHelper.COLUMN_POINTS + " = ?"
+            + " WHERE " + DatabaseHelper.COLUMN_TEAM_ID + " = ?";
+
+    /** SQL statement that adds accumulated totals to one team's statistics */
+    private static final String ADD_TEAM_STATS = "UPDATE " + DatabaseHelper.TABLE_TEAM_STATS + " SET "
+            + DatabaseHelper.COLUMN_MATCHES_PLAYED + " = " + DatabaseHelper.COLUMN_MATCHES_PLAYED + " + ?, "
+            + DatabaseHelper.COLUMN_WINS + " = " + DatabaseHelper.COLUMN_WINS + " + ?, "
+            + DatabaseHelper.COLUMN_DRAWS + " = " + DatabaseHelper.COLUMN_DRAWS + " + ?, "
+            + DatabaseHelper.COLUMN_LOSSES + " = " + DatabaseHelper.COLUMN_LOSSES + " + ?, "
+            + DatabaseHelper.COLUMN_GOALS_SCORED + " = " + DatabaseHelper.COLUMN_GOALS_SCORED + " + ?, "
+            + DatabaseHelper.COLUMN_GOALS_AGAINST + " = " + DatabaseHelper.COLUMN_GOALS_AGAINST + " + ?, "
+            + DatabaseHelper.COLUMN_POINTS + " = " + DatabaseHelper.COLUMN_POINTS + " + ?"
+            + " WHERE " + DatabaseHelper.COLUMN_TEAM_ID + " = ?";
+
+    /** SQL query that reads just the columns the standings depend on */
+    private static final String SELECT_MATCH_RESULTS = "SELECT "
+            + DatabaseHelper.COLUMN_TEAM_A_ID + ", " + DatabaseHelper.COLUMN_TEAM_B_ID + ", "
+            + DatabaseHelper.COLUMN_TEAM_A_GOALS + ", " + DatabaseHelper.COLUMN_TEAM_B_GOALS
+            + " FROM " + DatabaseHelper.TABLE_MATCHES;
+
+    /** SQL statement that removes a team once it has no matches left */
+    private static final String DELETE_TEAM_WITHOUT_MATCHES = "DELETE FROM " + DatabaseHelper.TABLE_TEAM_STATS
+            + " WHERE " + DatabaseHelper.COLUMN_TEAM_ID + " = ? AND " + DatabaseHelper.COLUMN_MATCHES_PLAYED + " = 0"
+            + " AND NOT EXISTS (SELECT 1 FROM " + DatabaseHelper.TABLE_MATCHES
+            + " WHERE " + DatabaseHelper.COLUMN_TEAM_A_ID + " = ?1 OR " + DatabaseHelper.COLUMN_TEAM_B_ID + " = ?1)";
+
+    /** SQL statement that reads one team's form again from its latest matches */
+    private static final String REBUILD_TEAM_FORM = "UPDATE " + DatabaseHelper.TABLE_TEAM_STATS
+            + " SET " + DatabaseHelper.COLUMN_FORM + " = " + DatabaseHelper.recentFormSql("?1")
+            + " WHERE " + DatabaseHelper.COLUMN_TEAM_ID + " = ?1";
+
+    /** Reads the statistics a standings row shows */
+    private static final RowMapper<TeamStats> TEAM_STATS_MAPPER = new RowMapper<TeamStats>(
+            DatabaseHelper.COLUMN_TEAM_ID, DatabaseHelper.COLUMN_TEAM_NAME,
+            DatabaseHelper.COLUMN_MATCHES_PLAYED, DatabaseHelper.COLUMN_WINS, DatabaseHelper.COLUMN_DRAWS,
+            DatabaseHelper.COLUMN_LOSSES, DatabaseHelper.COLUMN_GOALS_SCORED, DatabaseHelper.COLUMN_POINTS,
+            DatabaseHelper.COLUMN_FORM) {
+        @Override
+        TeamStats newRow() {
+            return new TeamStats();
+        }
+
+        @Override
+        void mapRow(Cursor cursor, int[] columns, TeamStats teamStats) {
+            teamStats.setId(cursor.getLong(columns[0]));
+            teamStats.setTeamName(cursor.getString(columns[1]));
+            teamStats.setMatchesPlayed(cursor.getInt(columns[2]));
+            teamStats.setWins(cursor.getInt(columns[3]));
+            teamStats.setDraws(cursor.getInt(columns[4]));
+            teamStats.setLosses(cursor.getInt(columns[5]));
+            teamStats.setGoalsScored(cursor.getInt(columns[6]));
+            teamStats.setPoints(cursor.getInt(columns[7]));
+            teamStats.setForm(cursor.getString(columns[8]));
+        }
+    };
+
+    /** Reads only a team's ID and name */
+    private static final RowMapper<TeamStats> TEAM_NAME_MAPPER = new RowMapper<TeamStats>(
+            DatabaseHelper.COLUMN_TEAM_ID, DatabaseHelper.COLUMN_TEAM_NAME) {
+        @Override
+        TeamStats newRow() {
+            return new TeamStats();
+        }
+
+        @Override
+        void mapRow(Cursor cursor, int[] columns, TeamStats teamStats) {
+            teamStats.setId(cursor.getLong(columns[0]));
+            teamStats.setTeamName(cursor.getString(columns[1]));
+        }
+    };
+
     /** Database instance for executing SQL operations */
     private SQLiteDatabase database;
     
-    /** Database helper for managing connections */
-    private DatabaseHelper dbHelper;
+    /** Shared database manager that hands out the connection */
+    private final DatabaseManager dbManager;
+
+    /** In-memory copy of the team statistics */
+    private final TeamStatsCache cache = TeamStatsCache.getInstance();
 
     /**
      * Constructs a new TeamStatsDao.
      * @param context The application context
      */
     public TeamStatsDao(Context context) {
-        dbHelper = new DatabaseHelper(context);
+        dbManager = DatabaseManager.getInstance(context);
     }
 
     /**
-     * Opens a writable database connection.
+     * Leases the shared writable database connection.
+     * Calling open on an already open DAO has no effect.
      * @throws SQLException if the database cannot be opened
      */
     public void open() throws SQLException {
-        database = dbHelper.getWritableDatabase();
+        if (database == null) {
+            database = dbManager.acquire();
+        }
     }
 
     /**
-     * Closes the database connection.
+     * Returns the database lease. The shared connection itself stays open.
+     * Calling close on a DAO that is not open has no effect.
      */
     public void close() {
-        dbHelper.close();
+        if (database != null) {
+            database = null;
+            dbManager.release();
+        }
     }
 
     /**
@@ -63,7 +155,12 @@ public class TeamStatsDao {
         values.put(DatabaseHelper.COLUMN_GOALS_SCORED, team.getGoalsScored());
         values.put(DatabaseHelper.COLUMN_POINTS, team.getPoints());
 
-        return database.insert(DatabaseHelper.TABLE_TEAM_STATS, null, values);
+        long teamId = database.insert(DatabaseHelper.TABLE_TEAM_STATS, null, values);
+        if (teamId != -1) {
+            SearchIndex.addTeam(database, teamId, team.getTeamName());
+            writeThrough(teamId, team);
+        }
+        return teamId;
     }
 
     /**
@@ -80,9 +177,30 @@ public class TeamStatsDao {
         values.put(DatabaseHelper.COLUMN_GOALS_SCORED, team.getGoalsScored());
         values.put(DatabaseHelper.COLUMN_POINTS, team.getPoints());
 
-        return database.update(DatabaseHelper.TABLE_TEAM_STATS, values,
+        boolean updated = database.update(DatabaseHelper.TABLE_TEAM_STATS, values,
                 DatabaseHelper.COLUMN_TEAM_NAME + " = ?",
                 new String[]{team.getTeamName()}) > 0;
+        if (updated) {
+            writeThrough(0, team);
+        }
+        return updated;
+    }
+
+    /**
+     * Rebuilds every team's statistics from the matches table.
+     * @return The number of matches processed
+     */
+    public int rebuildAllTeamStats() {
+        return rebuildAllTeamStats(database);
+    }
+
+    /**
+     * Reads every team's form again from its latest matches. The statistics
+     * triggers keep the form current, so this is only a repair step.
+     * @return The number of teams updated
+     */
+    public int rebuildAllForm() {
+        return rebuildAllForm(database);
     }
 
     /**
@@ -91,77 +209,122 @@ public class TeamStatsDao {
      * @return The TeamStats object if found, null otherwise
      */
     public TeamStats getTeamStatsByName(String teamName) {
-        TeamStats teamStats = null;
-        String selection = DatabaseHelper.COLUMN_TEAM_NAME + " = ?";
-        String[] selectionArgs = {teamName};
-
-        Cursor cursor = database.query(DatabaseHelper.TABLE_TEAM_STATS, null, selection, selectionArgs, null, null, null);
+        return getSnapshot().getByName(teamName);
+    }
 
-        if (cursor != null && cursor.moveToFirst()) {
-            teamStats = cursorToTeamStats(cursor);
-            cursor.close();
-        }
-        return teamStats;
+    /**
+     * Retrieves team statistics by team ID.
+     * @param teamId The ID of the team to retrieve
+     * @return The TeamStats object if found, null otherwise
+     */
+    public TeamStats getTeamStatsById(long teamId) {
+        return getSnapshot().getById(teamId);
     }
 
     /**
      * Retrieves all team statistics sorted by points.
      * @param ascending If true, sorts in ascending order; if false, in descending order
-     * @return List of all team statistics sorted by points
+     * The ascending order is exactly the descending order reversed.
+     * @return Unmodifiable list of all team statistics sorted by points
      */
     public List<TeamStats> getAllTeamStatsSorted(boolean ascending) {
-        List<TeamStats> teamStatsList = new ArrayList<>();
-        String orderBy = DatabaseHelper.COLUMN_POINTS + (ascending ? " ASC" : " DESC");
+        return getSnapshot().getSorted(ascending);
+    }
+
+    /**
+     * Retrieves all team statistics sorted by points in descending order.
+     * @return Unmodifiable list of all team statistics
+     */
+    public List<TeamStats> getAllTeamStats() {
+        return getSnapshot().getSorted(false);
+    }
 
-        Cursor cursor = database.query(DatabaseHelper.TABLE_TEAM_STATS, null, null, null, null, null, orderBy);
+    /**
+     * Retrieves the standings as they stood at the end of a day, counting only the
+     * matches played up to and including it. Read from the nearest standings
+     * checkpoint plus the matches played since, so the cost does not grow with
+     * the length of the history.
+     * Teams that had not played by then are left out.
+     * @param epochDay The last day to count, as a day number
+     * @return Unmodifiable list of the team statistics as of that day, highest points first
+     */
+    public List<TeamStats> getStandingsAsOf(int epochDay) {
+        StandingsAccumulator standings = StandingsCheckpoints.getStandingsAsOf(database, epochDay);
+        TeamStatsCache.Snapshot current = getSnapshot();
 
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                TeamStats teamStats = cursorToTeamStats(cursor);
-                teamStatsList.add(teamStats);
-            } while (cursor.moveToNext());
-            cursor.close();
+        List<TeamStats> teams = new ArrayList<>();
+        for (int teamId = 0; teamId < standings.getTeamIdLimit(); teamId++) {
+            TeamStats team = current.getById(teamId);
+            if (team == null || standings.getMatchesPlayed(teamId) == 0) {
+                continue;
+            }
+            TeamStats asOf = new TeamStats(team.getTeamName());
+            asOf.setId(teamId);
+            asOf.setMatchesPlayed(standings.getMatchesPlayed(teamId));
+            asOf.setWins(standings.getWins(teamId));
+            asOf.setDraws(standings.getDraws(teamId));
+            asOf.setLosses(standings.getLosses(teamId));
+            asOf.setGoalsScored(standings.getGoalsScored(teamId));
+            asOf.setPoints(standings.getPoints(teamId));
+            teams.add(asOf);
         }
-        return teamStatsList;
+        return new TeamStatsCache.Snapshot(teams).getSorted(false);
     }
 
     /**
-     * Retrieves all team statistics sorted by points in descending order.
-     * @return List of all team statistics
+     * Retrieves the ID and name of every team, in the order the teams were added.
+     * Served from the cache when it is filled; otherwise only those two columns
+     * are read, and the cache is left for the standings to fill.
+     * @return Teams with only their ID and name set
      */
-    public List<TeamStats> getAllTeamStats() {
-        List<TeamStats> teamStatsList = new ArrayList<>();
-        String orderBy = DatabaseHelper.COLUMN_POINTS + " DESC";
+    public List<TeamStats> getTeamNames() {
+        TeamStatsCache.Snapshot snapshot = cache.get();
+        if (snapshot != null) {
+            List<TeamStats> teams = new ArrayList<>();
+            for (TeamStats team : snapshot.getAll()) {
+                TeamStats named = new TeamStats(team.getTeamName());
+                named.setId(team.getId());
+                teams.add(named);
+            }
+            return teams;
+        }
+        return TEAM_NAME_MAPPER.mapAll(database.query(DatabaseHelper.TABLE_TEAM_STATS,
+                TEAM_NAME_MAPPER.getProjection(), null, null, null, null, DatabaseHelper.COLUMN_TEAM_ID));
+    }
 
-        Cursor cursor = database.query(DatabaseHelper.TABLE_TEAM_STATS, null, null, null, null, null, orderBy);
+    /**
+     * Gets the cached statistics, reading the whole table if the cache is empty.
+     * A table read inside a transaction is used but not cached, since the
+     * transaction may still be rolled back.
+     * @return The statistics of every team
+     */
+    private TeamStatsCache.Snapshot getSnapshot() {
+        TeamStatsCache.Snapshot snapshot = cache.get();
+        if (snapshot == null) {
+            int generation = cache.getGeneration();
+            List<TeamStats> teamStatsList = TEAM_STATS_MAPPER.mapAll(database.query(DatabaseHelper.TABLE_TEAM_STATS,
+                    TEAM_STATS_MAPPER.getProjection(), null, null, null, null, DatabaseHelper.COLUMN_TEAM_ID));
 
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                TeamStats teamStats = cursorToTeamStats(cursor);
-                teamStatsList.add(teamStats);
-            } while (cursor.moveToNext());
-            cursor.close();
+            snapshot = new TeamStatsCache.Snapshot(teamStatsList);
+            if (!database.inTransaction()) {
+                cache.put(snapshot, generation);
+            }
         }
-        return teamStatsList;
+        return snapshot;
     }
 
     /**
-     * Converts a database cursor to a TeamStats object.
-     * @param cursor The cursor containing team statistics data
-     * @return A TeamStats object populated with the cursor's data
+     * Applies a committed write to the cache, or invalidates the cache if the write
+     * belongs to a transaction that may still be rolled back.
+     * @param teamId The team's ID, or 0 if the team was written by name
+     * @param team The team's statistics as written
      */
-    @SuppressLint("Range")
-    private TeamStats cursorToTeamStats(Cursor cursor) {
-        TeamStats teamStats = new TeamStats();
-        teamStats.setId(cursor.getLong(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_ID)));
-        teamStats.setTeamName(cursor.getString(cursor.getColumnIndex(DatabaseHelper.COLUMN_TEAM_NAME)));
-        teamStats.setMatchesPlayed(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_MATCHES_PLAYED)));
-        teamStats.setWins(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_WINS)));
-        teamStats.setDraws(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_DRAWS)));
-        teamStats.setLosses(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_LOSSES)));
-        teamStats.setGoalsScored(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_GOALS_SCORED)));
-        teamStats.setPoints(cursor.getInt(cursor.getColumnIndex(DatabaseHelper.COLUMN_POINTS)));
-        return teamStats;
+    private void writeThrough(long teamId, TeamStats team) {
+        if (database.inTransaction()) {
+            cache.invalidate();
+        } else {
+            cache.putTeam(teamId, team);
+        }
     }
 
     /**
@@ -170,8 +333,223 @@ public class TeamStatsDao {
      * @return true if the deletion was successful, false otherwise
      */
     public boolean deleteTeamStats(String teamName) {
-        return database.delete(DatabaseHelper.TABLE_TEAM_STATS,
+        boolean deleted = database.delete(DatabaseHelper.TABLE_TEAM_STATS,
                 DatabaseHelper.COLUMN_TEAM_NAME + " = ?",
                 new String[]{teamName}) > 0;
+        if (deleted) {
+            if (database.inTransaction()) {
+                cache.invalidate();
+            } else {
+                cache.removeTeam(teamName);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Looks up a team's ID by name using the unique index on the team name.
+     * @param db The database to query
+     * @param teamName The name of the team
+     * @return The team ID, or -1 if no such team exists
+     */
+    static long findTeamId(SQLiteDatabase db, String teamName) {
+        long teamId = -1;
+        Cursor cursor = db.query(DatabaseHelper.TABLE_TEAM_STATS, new String[]{DatabaseHelper.COLUMN_TEAM_ID},
+                DatabaseHelper.COLUMN_TEAM_NAME + " = ?", new String[]{teamName}, null, null, null);
+
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                teamId = cursor.getLong(0);
+            }
+            cursor.close();
+        }
+        return teamId;
+    }
+
+    /**
+     * Looks up a team's ID by name, adding the team with empty statistics if it does not exist.
+     * @param db The database to use
+     * @param teamName The name of the team
+     * @return The team ID, or -1 if the team could not be added
+     */
+    static long getOrCreateTeamId(SQLiteDatabase db, String teamName) {
+        long teamId = findTeamId(db, teamName);
+        if (teamId == -1) {
+            ContentValues values = new ContentValues();
+            values.put(DatabaseHelper.COLUMN_TEAM_NAME, teamName);
+            teamId = db.insert(DatabaseHelper.TABLE_TEAM_STATS, null, values);
+            if (teamId != -1) {
+                SearchIndex.addTeam(db, teamId, teamName);
+            }
+            TeamStatsCache.getInstance().invalidate();
+        }
+        return teamId;
+    }
+
+    /**
+     * Deletes the given teams if they no longer have any matches.
+     * @param db The database to update
+     * @param teamIds The teams to check
+     */
+    static void deleteTeamsWithoutMatches(SQLiteDatabase db, long... teamIds) {
+        for (long teamId : teamIds) {
+            db.execSQL(DELETE_TEAM_WITHOUT_MATCHES, new Object[]{teamId});
+        }
+        TeamStatsCache.getInstance().invalidate();
+    }
+
+    /**
+     * Rebuilds every team's statistics in a single pass over the matches table.
+     * Results are streamed from one cursor into a {@link StandingsAccumulator},
+     * then written back with one compiled UPDATE per team, all inside one transaction.
+     * @param db The database to rebuild
+     * @return The number of matches processed
+     */
+    static int rebuildAllTeamStats(SQLiteDatabase db) {
+        StandingsAccumulator standings = new StandingsAccumulator();
+
+        db.beginTransaction();
+        try {
+            Cursor cursor = db.rawQuery(SELECT_MATCH_RESULTS, null);
+            try {
+                while (cursor.moveToNext()) {
+                    standings.addMatch(cursor.getLong(0), cursor.getLong(1), cursor.getInt(2), cursor.getInt(3), 1);
+                }
+            } finally {
+                cursor.close();
+            }
+
+            writeStandings(db, standings);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
+        }
+        return standings.getMatchCount();
+    }
+
+    /**
+     * Reads every team's form again from its latest matches, with one compiled
+     * UPDATE per team that reads only that team's last few matches.
+     * @param db The database to update
+     * @return The number of teams updated
+     */
+    static int rebuildAllForm(SQLiteDatabase db) {
+        List<Long> teamIds = new ArrayList<>();
+        Cursor cursor = db.query(DatabaseHelper.TABLE_TEAM_STATS, new String[]{DatabaseHelper.COLUMN_TEAM_ID},
+                null, null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                teamIds.add(cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        db.beginTransaction();
+        try {
+            SQLiteStatement statement = db.compileStatement(REBUILD_TEAM_FORM);
+            try {
+                for (long teamId : teamIds) {
+                    statement.bindLong(1, teamId);
+                    statement.executeUpdateDelete();
+                }
+            } finally {
+                statement.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            TeamStatsCache.getInstance().invalidate();
+        }
+        return teamIds.size();
+    }
+
+    /**
+     * Reads the form of every team in a batch of bulk inserted matches again from
+     * its latest matches, with the same UPDATE as {@link #rebuildAllForm(SQLiteDatabase)},
+     * since the insert trigger skips the rows of a bulk load.
+     * @param db The database to write to
+     * @param standings The totals of the batch; each team with a match in it is updated
+     */
+    static void rebuildForm(SQLiteDatabase db, StandingsAccumulator standings) {
+        SQLiteStatement statement = db.compileStatement(REBUILD_TEAM_FORM);
+        try {
+            for (int teamId = 0; teamId < standings.getTeamIdLimit(); teamId++) {
+                if (standings.getMatchesPlayed(teamId) == 0) {
+                    continue;
+                }
+                statement.bindLong(1, teamId);
+                statement.executeUpdateDelete();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Replaces all team statistics with the accumulated totals.
+     * Teams that do not appear in the accumulator are reset to zero.
+     * @param db The database to write to, inside a transaction
+     * @param standings The accumulated totals
+     */
+    static void writeStandings(SQLiteDatabase db, StandingsAccumulator standings) {
+        ContentValues zero = new ContentValues();
+        zero.put(DatabaseHelper.COLUMN_MATCHES_PLAYED, 0);
+        zero.put(DatabaseHelper.COLUMN_WINS, 0);
+        zero.put(DatabaseHelper.COLUMN_DRAWS, 0);
+        zero.put(DatabaseHelper.COLUMN_LOSSES, 0);
+        zero.put(DatabaseHelper.COLUMN_GOALS_SCORED, 0);
+        zero.put(DatabaseHelper.COLUMN_GOALS_AGAINST, 0);
+        zero.put(DatabaseHelper.COLUMN_POINTS, 0);
+        db.update(DatabaseHelper.TABLE_TEAM_STATS, zero, null, null);
+
+        updateEachTeam(db, SET_TEAM_STATS, standings);
+    }
+
+    /**
+     * Adds accumulated totals to the statistics already stored, such as the
+     * results of a batch of newly inserted matches.
+     * @param db The database to write to
+     * @param standings The totals to add
+     * @return The number of teams updated
+     */
+    static int addStandings(SQLiteDatabase db, StandingsAccumulator standings) {
+        int updated = updateEachTeam(db, ADD_TEAM_STATS, standings);
+        TeamStatsCache.getInstance().invalidate();
+        return updated;
+    }
+
+    /**
+     * Runs a compiled UPDATE once for every team that has accumulated matches,
+     * binding its seven statistics followed by its team ID.
+     * @param db The database to write to
+     * @param sql The UPDATE statement
+     * @param standings The accumulated totals
+     * @return The number of UPDATEs run
+     */
+    private static int updateEachTeam(SQLiteDatabase db, String sql, StandingsAccumulator standings) {
+        int updated = 0;
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            for (int teamId = 0; teamId < standings.getTeamIdLimit(); teamId++) {
+                if (standings.getMatchesPlayed(teamId) == 0) {
+                    continue;
+                }
+                statement.bindLong(1, standings.getMatchesPlayed(teamId));
+                statement.bindLong(2, standings.getWins(teamId));
+                statement.bindLong(3, standings.getDraws(teamId));
+                statement.bindLong(4, standings.getLosses(teamId));
+                statement.bindLong(5, standings.getGoalsScored(teamId));
+                statement.bindLong(6, standings.getGoalsAgainst(teamId));
+                statement.bindLong(7, standings.getPoints(teamId));
+                statement.bindLong(8, teamId);
+                statement.executeUpdateDelete();
+                updated++;
+            }
+        } finally {
+            statement.close();
+        }
+        return updated;
     }
 }
\ No newline at end of file
@@ -0,0 +1,626 @@
+package com.example.footballresults.repository;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.footballresults.database.DatabaseSeeder;
+import com.example.footballresults.database.HeadToHeadDao;
+import com.example.footballresults.database.MatchCsvImporter;
+import com.example.footballresults.database.MatchDao;
+import com.example.footballresults.database.MatchPage;
+import com.example.footballresults.database.ReportExporter;
+import com.example.footballresults.database.TeamStatsDao;
+import com.example.footballresults.models.HeadToHead;
+import com.example.footballresults.models.Match;
+import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.utils.MatchGenerator;
+import com.example.footballresults.utils.NameSuggestions;
+import com.example.footballresults.utils.StatisticsCalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point for all database work done on behalf of the activities.
+ * Every operation runs on one dedicated background thread, in submission order,
+ * and its result is delivered to a callback on the main thread. Because all
+ * DAO calls happen on that one thread, the DAOs held here are never shared
+ * between threads. The long jobs (generating, importing, exporting and
+ * recalculating) run in order on a second thread with DAOs of their own, so the
+ * screens' reads are not queued behind them; write-ahead logging lets those reads
+ * proceed while a job's transactions are open.
+ * Each call returns a {@link Request} that can be cancelled; a cancelled request
+ * never calls its callback, so activities cancel theirs in onDestroy. Cancelling a
+ * read that has not started skips it, while writes always run so no edit is lost.
+ */
+public final class FootballRepository {
+    /** The single instance, created on first use */
+    private static FootballRepository instance;
+
+    /** The thread all database work runs on, except the long jobs */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "football-db"));
+
+    /** The thread the long jobs run on */
+    private final ExecutorService longJobExecutor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "football-db-jobs"));
+
+    /** Handler used to deliver results on the main thread */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Context context;
+    private final MatchDao matchDao;
+    private final TeamStatsDao teamStatsDao;
+    private final HeadToHeadDao headToHeadDao;
+
+    /**
+     * Known team names and cities, read on first request and extended as matches are saved;
+     * dropped after writes that may remove or add many names. Only used on the database thread.
+     */
+    private NameSuggestions nameSuggestions;
+
+    /**
+     * Receives the result of a repository operation on the main thread.
+     * @param <T> Type of the result
+     */
+    public interface Callback<T> {
+        /**
+         * Called with the operation's result.
+         * @param result The result, null for operations without one
+         */
+        void onResult(T result);
+    }
+
+    /**
+     * Handle to a submitted operation.
+     */
+    public static final class Request {
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+
+        /**
+         * Cancels the request. The callback is not called even if the work already ran,
+         * and a read that has not started yet is skipped.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Checks whether the request was cancelled.
+         * @return true if {@link #cancel()} was called
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Checks whether the request has delivered its result or been cancelled.
+         * @return true if nothing more will happen for this request
+         */
+        public boolean isDone() {
+            return finished || cancelled;
+        }
+    }
+
+    /**
+     * Collects the requests made by one screen so they can be cancelled together.
+     * Must be used from the main thread.
+     */
+    public static final class RequestGroup {
+        private final List<Request> requests = new ArrayList<>();
+
+        /**
+         * Adds a request to the group, forgetting requests that are already done.
+         * @param request The request to add
+         * @return The same request
+         */
+        public Request add(Request request) {
+            for (int i = requests.size() - 1; i >= 0; i--) {
+                if (requests.get(i).isDone()) {
+                    requests.remove(i);
+                }
+            }
+            requests.add(request);
+            return request;
+        }
+
+        /**
+         * Cancels every request in the group.
+         */
+        public void cancelAll() {
+            for (Request request : requests) {
+                request.cancel();
+            }
+            requests.clear();
+        }
+    }
+
+    /**
+     * Constructs the repository. Use {@link #getInstance(Context)} instead.
+     * @param context The application context
+     */
+    private FootballRepository(Context context) {
+        this.context = context;
+        this.matchDao = new MatchDao(context);
+        this.teamStatsDao = new TeamStatsDao(context);
+        this.headToHeadDao = new HeadToHeadDao(context);
+    }
+
+    /**
+     * Gets the process-wide repository.
+     * @param context Any context; only its application context is kept
+     * @return The shared FootballRepository
+     */
+    public static synchronized FootballRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new FootballRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Seeds the database with the sample data if it is empty.
+     * @param callback Called once seeding is finished
+     * @return The request handle
+     */
+    public Request seedDatabase(Callback<Void> callback) {
+        return submit(() -> {
+            new DatabaseSeeder(context).seedDatabase();
+            return null;
+        }, callback, false);
+    }
+
+    /**
+     * Replaces all data with synthetic matches, for load testing.
+     * @param generator The matches to store
+     * @param progressCallback Receives the number of matches stored so far after every batch, may be null
+     * @param callback Receives the number of matches stored
+     * @return The request handle
+     */
+    public Request generateMatches(MatchGenerator generator, Callback<Integer> progressCallback,
+                                   Callback<Integer> callback) {
+        Request request = new Request();
+        return submitLongJob(request, () -> {
+            try {
+                return new DatabaseSeeder(context).generateMatches(generator,
+                        matchesInserted -> mainHandler.post(() -> {
+                            if (!request.isCancelled() && progressCallback != null) {
+                                progressCallback.onResult(matchesInserted);
+                            }
+                        }));
+            } finally {
+                dropNameSuggestions();
+            }
+        }, callback);
+    }
+
+    /**
+     * Loads a match by its ID.
+     * @param matchId The ID of the match
+     * @param callback Receives the match, or null if it does not exist
+     * @return The request handle
+     */
+    public Request getMatchById(long matchId, Callback<Match> callback) {
+        return submit(() -> {
+            matchDao.open();
+            try {
+                return matchDao.getMatchById(matchId);
+            } finally {
+                matchDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads one page of matches in report order.
+     * @param teamId The team whose matches to read, or -1 for all matches
+     * @param after The key to continue after
+     * @param pageSize The maximum number of matches to read
+     * @param callback Receives the page
+     * @return The request handle
+     */
+    public Request getMatchPage(long teamId, MatchPage.Key after, int pageSize, Callback<MatchPage> callback) {
+        return submit(() -> {
+            matchDao.open();
+            try {
+                return matchDao.getMatchPage(teamId, after, pageSize);
+            } finally {
+                matchDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads one page of the matches whose teams or city match a search query, best ranked first.
+     * @param query What the user typed
+     * @param after The key to continue after
+     * @param pageSize The maximum number of matches to read
+     * @param callback Receives the page
+     * @return The request handle
+     */
+    public Request searchMatches(String query, MatchPage.Key after, int pageSize, Callback<MatchPage> callback) {
+        return submit(() -> {
+            matchDao.open();
+            try {
+                return matchDao.searchMatches(query, after, pageSize);
+            } finally {
+                matchDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads how one team has done against another, by team name.
+     * @param teamName The team to see the record from
+     * @param opponentName The opponent
+     * @param meetingCount The most recent meetings to include, at least 1
+     * @param callback Receives the record, or null if either team is unknown or they have never met
+     * @return The request handle
+     */
+    public Request getHeadToHead(String teamName, String opponentName, int meetingCount,
+                                 Callback<HeadToHead> callback) {
+        return submit(() -> {
+            headToHeadDao.open();
+            try {
+                return headToHeadDao.getHeadToHead(teamName, opponentName, meetingCount);
+            } finally {
+                headToHeadDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads how one team has done against another, by team ID.
+     * @param teamId The ID of the team to see the record from
+     * @param opponentId The ID of the opponent
+     * @param meetingCount The most recent meetings to include, at least 1
+     * @param callback Receives the record, or null if the teams have never met
+     * @return The request handle
+     */
+    public Request getHeadToHead(long teamId, long opponentId, int meetingCount, Callback<HeadToHead> callback) {
+        return submit(() -> {
+            headToHeadDao.open();
+            try {
+                return headToHeadDao.getHeadToHead(teamId, opponentId, meetingCount);
+            } finally {
+                headToHeadDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads one page of the matches two teams played against each other, most recent first.
+     * @param teamId The ID of one team
+     * @param opponentId The ID of the other team
+     * @param after The key to continue after
+     * @param pageSize The maximum number of matches to read
+     * @param callback Receives the page
+     * @return The request handle
+     */
+    public Request getHeadToHeadPage(long teamId, long opponentId, MatchPage.Key after, int pageSize,
+                                     Callback<MatchPage> callback) {
+        return submit(() -> {
+            matchDao.open();
+            try {
+                return matchDao.getHeadToHeadPage(teamId, opponentId, after, pageSize);
+            } finally {
+                matchDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads the known team names and cities, for suggestions while a match is entered.
+     * They are read once and then kept up to date by the writes made through this repository.
+     * @param callback Receives the names
+     * @return The request handle
+     */
+    public Request getNameSuggestions(Callback<NameSuggestions> callback) {
+        return submit(() -> {
+            if (nameSuggestions == null) {
+                List<String> teamNames = new ArrayList<>();
+                Set<String> cities;
+                teamStatsDao.open();
+                matchDao.open();
+                try {
+                    for (TeamStats team : teamStatsDao.getTeamNames()) {
+                        teamNames.add(team.getTeamName());
+                    }
+                    cities = matchDao.getCities();
+                } finally {
+                    matchDao.close();
+                    teamStatsDao.close();
+                }
+                nameSuggestions = new NameSuggestions(teamNames, cities);
+            }
+            return nameSuggestions;
+        }, callback, true);
+    }
+
+    /**
+     * Adds a new match; the team statistics follow through the database triggers.
+     * @param match The match to add
+     * @param callback Receives the new match ID, or -1 if the insertion failed
+     * @return The request handle
+     */
+    public Request insertMatch(Match match, Callback<Long> callback) {
+        return submit(() -> {
+            long matchId;
+            matchDao.open();
+            try {
+                matchId = matchDao.insertMatchWithStats(match);
+            } finally {
+                matchDao.close();
+            }
+            if (matchId != -1 && nameSuggestions != null) {
+                nameSuggestions.addMatch(match);
+            }
+            return matchId;
+        }, callback, false);
+    }
+
+    /**
+     * Updates an existing match.
+     * @param match The match with its new data
+     * @param callback Receives true if the match was updated
+     * @return The request handle
+     */
+    public Request updateMatch(Match match, Callback<Boolean> callback) {
+        return submit(() -> {
+            boolean updated;
+            matchDao.open();
+            try {
+                updated = matchDao.updateMatchWithStats(match);
+            } finally {
+                matchDao.close();
+            }
+            // The match's previous teams and city may be gone, so the names are read again
+            if (updated) {
+                nameSuggestions = null;
+            }
+            return updated;
+        }, callback, false);
+    }
+
+    /**
+     * Deletes a match.
+     * @param matchId The ID of the match to delete
+     * @param callback Receives true if the match was deleted
+     * @return The request handle
+     */
+    public Request deleteMatch(long matchId, Callback<Boolean> callback) {
+        return submit(() -> {
+            nameSuggestions = null;
+            matchDao.open();
+            try {
+                return matchDao.deleteMatchWithStats(matchId);
+            } finally {
+                matchDao.close();
+            }
+        }, callback, false);
+    }
+
+    /**
+     * Imports matches from a CSV document.
+     * @param uri The document to read
+     * @param progressCallback Receives the number of rows read so far after every batch, may be null
+     * @param callback Receives the outcome of the import
+     * @return The request handle
+     */
+    public Request importMatches(Uri uri, Callback<Integer> progressCallback,
+                                 Callback<MatchCsvImporter.Result> callback) {
+        Request request = new Request();
+        return submitLongJob(request, () -> {
+            try {
+                return new MatchCsvImporter(context).importMatches(uri,
+                        (rowsRead, rowsImported) -> mainHandler.post(() -> {
+                            if (!request.isCancelled() && progressCallback != null) {
+                                progressCallback.onResult(rowsRead);
+                            }
+                        }));
+            } finally {
+                dropNameSuggestions();
+            }
+        }, callback);
+    }
+
+    /**
+     * Exports a report to a document.
+     * @param uri The document to write
+     * @param report The report to export
+     * @param format The format to write
+     * @param progressCallback Receives the percentage of rows written so far, may be null
+     * @param callback Receives the number of rows written, or -1 if the document could not be written
+     * @return The request handle
+     */
+    public Request exportReport(Uri uri, ReportExporter.Report report, ReportExporter.Format format,
+                                Callback<Integer> progressCallback, Callback<Integer> callback) {
+        Request request = new Request();
+        return submitLongJob(request, () -> new ReportExporter(context).export(uri, report, format,
+                (rowsWritten, totalRows) -> mainHandler.post(() -> {
+                    if (!request.isCancelled() && progressCallback != null) {
+                        progressCallback.onResult((int) (100L * rowsWritten / Math.max(totalRows, 1)));
+                    }
+                })), callback);
+    }
+
+    /**
+     * Loads the ID and name of every team, in the order the teams were added.
+     * @param callback Receives teams with only their ID and name set
+     * @return The request handle
+     */
+    public Request getTeamNames(Callback<List<TeamStats>> callback) {
+        return submit(() -> {
+            teamStatsDao.open();
+            try {
+                return teamStatsDao.getTeamNames();
+            } finally {
+                teamStatsDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads the statistics of some teams, including their recent form, from the
+     * standings cache.
+     * @param teamIds The IDs of the teams
+     * @param callback Receives the statistics in the order of the IDs; teams that no longer exist are left out
+     * @return The request handle
+     */
+    public Request getTeamStats(List<Long> teamIds, Callback<List<TeamStats>> callback) {
+        return submit(() -> {
+            teamStatsDao.open();
+            try {
+                List<TeamStats> teams = new ArrayList<>();
+                for (long teamId : teamIds) {
+                    TeamStats team = teamStatsDao.getTeamStatsById(teamId);
+                    if (team != null) {
+                        teams.add(team);
+                    }
+                }
+                return teams;
+            } finally {
+                teamStatsDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads all team statistics sorted by points, highest first.
+     * @param callback Receives the statistics
+     * @return The request handle
+     */
+    public Request getAllTeamStats(Callback<List<TeamStats>> callback) {
+        return submit(() -> {
+            teamStatsDao.open();
+            try {
+                return teamStatsDao.getAllTeamStats();
+            } finally {
+                teamStatsDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads all team statistics sorted by points.
+     * @param ascending true to list the lowest points first
+     * @param callback Receives the sorted statistics
+     * @return The request handle
+     */
+    public Request getAllTeamStatsSorted(boolean ascending, Callback<List<TeamStats>> callback) {
+        return submit(() -> {
+            teamStatsDao.open();
+            try {
+                return teamStatsDao.getAllTeamStatsSorted(ascending);
+            } finally {
+                teamStatsDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Loads the standings as they stood at the end of a day, highest points first.
+     * @param epochDay The last day to count, as a day number
+     * @param callback Receives the statistics of the teams that had played by then
+     * @return The request handle
+     */
+    public Request getStandingsAsOf(int epochDay, Callback<List<TeamStats>> callback) {
+        return submit(() -> {
+            teamStatsDao.open();
+            try {
+                return teamStatsDao.getStandingsAsOf(epochDay);
+            } finally {
+                teamStatsDao.close();
+            }
+        }, callback, true);
+    }
+
+    /**
+     * Rebuilds all team statistics and head to head records from the matches table.
+     * @param callback Called once the rebuild is finished
+     * @return The request handle
+     */
+    public Request recalculateAllStats(Callback<Void> callback) {
+        return submitLongJob(new Request(), () -> {
+            new StatisticsCalculator(context).recalculateAllStats();
+            return null;
+        }, callback);
+    }
+
+    /**
+     * Drops the known names once a long job may have changed many of them.
+     * Queued on the database thread, which is the only one that uses them.
+     */
+    private void dropNameSuggestions() {
+        executor.execute(() -> nameSuggestions = null);
+    }
+
+    /**
+     * Runs work on the database thread and posts its result to the callback.
+     * @param work The work to run
+     * @param callback Receives the result, may be null
+     * @param skipIfCancelled true if the work may be skipped once cancelled (reads only)
+     * @return The request handle
+     */
+    private <T> Request submit(Callable<T> work, Callback<T> callback, boolean skipIfCancelled) {
+        return submit(executor, new Request(), work, callback, skipIfCancelled);
+    }
+
+    /**
+     * Runs a long job on its own thread under an existing request handle, which
+     * the job can use to report progress. Long jobs always run, even once cancelled.
+     * @param request The request handle to use
+     * @param work The work to run; it must not use the DAOs held here
+     * @param callback Receives the result, may be null
+     * @return The same request handle
+     */
+    private <T> Request submitLongJob(Request request, Callable<T> work, Callback<T> callback) {
+        return submit(longJobExecutor, request, work, callback, false);
+    }
+
+    /**
+     * Runs work on a background thread and posts its result to the callback.
+     * A failure is rethrown on the main thread, as it would have been before
+     * the work was moved off it, unless the request was cancelled by then.
+     * @param thread The thread to run the work on
+     * @param request The request handle to use
+     * @param work The work to run
+     * @param callback Receives the result, may be null
+     * @param skipIfCancelled true if the work may be skipped once cancelled (reads only)
+     * @return The same request handle
+     */
+    private <T> Request submit(ExecutorService thread, Request request, Callable<T> work, Callback<T> callback,
+                               boolean skipIfCancelled) {
+        thread.execute(() -> {
+            if (skipIfCancelled && request.isCancelled()) {
+                return;
+            }
+            T result;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                mainHandler.post(() -> {
+                    request.finished = true;
+                    if (!request.isCancelled()) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                return;
+            }
+            mainHandler.post(() -> {
+                request.finished = true;
+                if (!request.isCancelled() && callback != null) {
+                    callback.onResult(result);
+                }
+            });
+        });
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.footballresults.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for comma-separated values (RFC 4180).
+ * Records are read one at a time through a fixed-size character buffer, so a file
+ * of any size is read in constant memory. Fields may be quoted with double quotes,
+ * in which case they can contain commas, line breaks and doubled quotes, as in
+ * team names like מכבי ת"א. Both \n and \r\n line endings are accepted.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    /** Characters read ahead from the stream */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /** Position of the next character in the buffer, and the end of the valid characters */
+    private int position, limit;
+
+    /** Characters of the field being read, reused for every field */
+    private final StringBuilder field = new StringBuilder();
+
+    /** Fields of the record being read, reused for every record */
+    private final List<String> record = new ArrayList<>();
+
+    /** Line on which the last record read starts, counting from 1 */
+    private int lineNumber;
+
+    /** Line the reader is currently on */
+    private int currentLine = 1;
+
+    /**
+     * Constructs a CsvReader.
+     * @param reader The character stream to read; it does not need to be buffered
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     * @return The record's fields, or null at the end of the input.
+     *         The list is reused by the next call.
+     * @throws IOException if the input cannot be read
+     */
+    public List<String> readRecord() throws IOException {
+        record.clear();
+        field.setLength(0);
+        lineNumber = currentLine;
+
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // Unterminated quote; keep what was read
+                    record.add(field.toString());
+                    return record;
+                } else if (c == '"') {
+                    quoted = false;
+                    afterQuote = true;
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                // An opening quote, or the second of a doubled quote inside a quoted field
+                if (afterQuote) {
+                    field.append('"');
+                }
+                quoted = true;
+                afterQuote = false;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    currentLine++;
+                }
+                int end = field.length();
+                if (end > 0 && field.charAt(end - 1) == '\r' && !afterQuote) {
+                    field.setLength(end - 1);
+                }
+                record.add(field.toString());
+                return record;
+            } else if (c != '\r' || !afterQuote) {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Reads the next character, refilling the buffer when it runs out.
+     * @return The character, or -1 at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Gets the line on which the last record read starts.
+     * @return The line number, counting from 1
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
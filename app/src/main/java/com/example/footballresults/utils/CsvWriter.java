@@ -0,0 +1,104 @@
+package com.example.footballresults.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming writer for comma-separated values (RFC 4180), the counterpart of
+ * {@link CsvReader}. Fields are written straight to the underlying writer, which
+ * should be buffered; a field is quoted only if it contains a comma, a double
+ * quote or a line break, with its double quotes doubled.
+ */
+public class CsvWriter implements Closeable {
+    private final Writer writer;
+
+    /** Whether the next field is the first of its record */
+    private boolean firstField = true;
+
+    /**
+     * Constructs a CsvWriter.
+     * @param writer The character stream to write to
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes one text field of the current record.
+     * @param value The field, null is written as empty
+     * @throws IOException if the output cannot be written
+     */
+    public void writeField(String value) throws IOException {
+        startField();
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Writes one numeric field of the current record.
+     * @param value The field
+     * @throws IOException if the output cannot be written
+     */
+    public void writeField(long value) throws IOException {
+        startField();
+        writer.write(Long.toString(value));
+    }
+
+    /**
+     * Writes a whole record of text fields.
+     * @param values The fields
+     * @throws IOException if the output cannot be written
+     */
+    public void writeRecord(String... values) throws IOException {
+        for (String value : values) {
+            writeField(value);
+        }
+        endRecord();
+    }
+
+    /**
+     * Ends the current record.
+     * @throws IOException if the output cannot be written
+     */
+    public void endRecord() throws IOException {
+        writer.write('\n');
+        firstField = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void startField() throws IOException {
+        if (!firstField) {
+            writer.write(',');
+        }
+        firstField = false;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
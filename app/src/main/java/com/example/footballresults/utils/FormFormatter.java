@@ -0,0 +1,56 @@
+package com.example.footballresults.utils;
+
+import android.content.Context;
+
+import com.example.footballresults.R;
+import com.example.footballresults.models.MatchResult;
+import com.example.footballresults.models.TeamStats;
+
+/**
+ * Formats a team's recent form for display, the same way on every screen that shows it.
+ */
+public final class FormFormatter {
+    private FormFormatter() {
+    }
+
+    /**
+     * Formats a stored form as one letter per result, oldest first, separated by spaces.
+     * @param context The context to read the strings from
+     * @param form The form, as {@link MatchResult} codes
+     * @return The text, or a dash if the form is empty
+     */
+    public static String format(Context context, String form) {
+        if (form.isEmpty()) {
+            return context.getString(R.string.no_form);
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < form.length(); i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(context.getString(letterOf(MatchResult.fromCode(form.charAt(i)))));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formats a team's name followed by its form.
+     * @param context The context to read the strings from
+     * @param team The team to format
+     * @return One line of text
+     */
+    public static String formatTeam(Context context, TeamStats team) {
+        return context.getString(R.string.team_form, team.getTeamName(), format(context, team.getForm()));
+    }
+
+    private static int letterOf(MatchResult result) {
+        switch (result) {
+            case WIN:
+                return R.string.form_win;
+            case DRAW:
+                return R.string.form_draw;
+            default:
+                return R.string.form_loss;
+        }
+    }
+}
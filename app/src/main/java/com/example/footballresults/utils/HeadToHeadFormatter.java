@@ -0,0 +1,48 @@
+package com.example.footballresults.utils;
+
+import android.content.Context;
+
+import com.example.footballresults.R;
+import com.example.footballresults.models.HeadToHead;
+import com.example.footballresults.models.Match;
+
+/**
+ * Formats a head to head record for display, the same way on every screen that shows one.
+ */
+public final class HeadToHeadFormatter {
+    private HeadToHeadFormatter() {
+    }
+
+    /**
+     * Formats the totals of a record: meetings, wins, draws, losses and goals,
+     * seen from the record's team.
+     * @param context The context to read the strings from
+     * @param record The record to format
+     * @return One line of text
+     */
+    public static String formatSummary(Context context, HeadToHead record) {
+        return context.getString(R.string.head_to_head_summary,
+                record.getTeamName(), record.getOpponentName(), record.getMeetings(),
+                record.getWins(), record.getDraws(), record.getLosses(),
+                record.getGoalsScored(), record.getGoalsAgainst());
+    }
+
+    /**
+     * Formats the totals of a record followed by its last meetings, one per line.
+     * @param context The context to read the strings from
+     * @param record The record to format
+     * @return The text, one line per meeting after the totals
+     */
+    public static String format(Context context, HeadToHead record) {
+        StringBuilder text = new StringBuilder(formatSummary(context, record));
+        if (!record.getLastMeetings().isEmpty()) {
+            text.append('\n').append(context.getString(R.string.head_to_head_last_meetings));
+            for (Match match : record.getLastMeetings()) {
+                text.append('\n').append(context.getString(R.string.head_to_head_meeting,
+                        match.getDate(), match.getTeamA(), match.getTeamAGoals(),
+                        match.getTeamBGoals(), match.getTeamB()));
+            }
+        }
+        return text.toString();
+    }
+}
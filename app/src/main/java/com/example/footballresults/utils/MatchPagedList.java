@@ -0,0 +1,289 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.database.MatchPage;
+import com.example.footballresults.models.Match;
+import com.example.footballresults.repository.FootballRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A list of matches that is read from the database one fixed-size page at a time.
+ * The next page is appended when the list is read close to its end, and pages far
+ * away from the current position are dropped and read again if the user scrolls back,
+ * so only a bounded window of matches is held in memory however long the history is.
+ * Pages are addressed by the keyset key they start after; only those small keys
+ * are kept for every page that has been reached.
+ * Pages are read asynchronously: a dropped page reads as null placeholders until
+ * it is back, and the callback is told which rows to rebind. If a page comes back
+ * with a different number of matches, matches were added or deleted since the list
+ * was read; the list then stops and the callback is told to replace it.
+ * Must be used from the main thread.
+ */
+public class MatchPagedList {
+    /** Default number of matches per page */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Default number of pages kept in memory around the current position */
+    public static final int DEFAULT_MAX_LOADED_PAGES = 5;
+
+    /**
+     * Source of pages, usually a repository query.
+     */
+    public interface PageLoader {
+        /**
+         * Starts reading one page of matches.
+         * The result must be delivered later on the main thread, never from within this call.
+         * @param after The key to continue after
+         * @param pageSize The maximum number of matches to read
+         * @param callback Receives the page read
+         */
+        void loadPage(MatchPage.Key after, int pageSize, FootballRepository.Callback<MatchPage> callback);
+    }
+
+    /**
+     * Receives notifications when the list changes.
+     */
+    public interface Callback {
+        /**
+         * Called after matches were appended.
+         * @param position Position of the first new match
+         * @param count Number of new matches
+         */
+        void onInserted(int position, int count);
+
+        /**
+         * Called after a dropped page was read back in place of its placeholders.
+         * @param position Position of the first reloaded match
+         * @param count Number of reloaded matches
+         */
+        void onChanged(int position, int count);
+
+        /**
+         * Called when a dropped page was read back with a different number of matches,
+         * so the positions after it no longer hold. The list has been closed and its
+         * placeholders stay empty; it should be read again from the start and submitted
+         * in its place, with {@link #getRefreshSize()} matches on its first page.
+         */
+        void onStale();
+    }
+
+    private final PageLoader loader;
+    private final int pageSize;
+    private final int maxLoadedPages;
+
+    /** Start key of every page reached so far */
+    private final List<MatchPage.Key> pageKeys = new ArrayList<>();
+
+    /** Matches of every page reached so far, null for pages that were dropped */
+    private final List<List<Match>> pages = new ArrayList<>();
+
+    /** Indexes of the pages currently held in memory */
+    private final List<Integer> loadedPages = new ArrayList<>();
+
+    /** Indexes of the dropped pages that are being read again */
+    private final Set<Integer> reloadingPages = new HashSet<>();
+
+    /** Key the next unread page starts after, or null once the end is reached */
+    private MatchPage.Key nextKey;
+
+    /** Number of matches on all pages reached so far */
+    private int size;
+
+    /** Whether the next page is being read */
+    private boolean appendPending;
+
+    /** Whether the list has been replaced and must stop growing */
+    private boolean closed;
+
+    private Callback callback;
+
+    /**
+     * Constructs a paged list with the default page size and window.
+     * @param loader The source of the following pages
+     * @param firstPage The first page, read with a multiple of {@link #DEFAULT_PAGE_SIZE}
+     */
+    public MatchPagedList(PageLoader loader, MatchPage firstPage) {
+        this(loader, firstPage, DEFAULT_PAGE_SIZE, DEFAULT_MAX_LOADED_PAGES);
+    }
+
+    /**
+     * Constructs a paged list.
+     * @param loader The source of the following pages
+     * @param firstPage The first page, read with a multiple of the page size
+     *                  so that it can be split into whole pages
+     * @param pageSize Number of matches per page
+     * @param maxLoadedPages Number of pages kept in memory around the current position
+     */
+    public MatchPagedList(PageLoader loader, MatchPage firstPage, int pageSize, int maxLoadedPages) {
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.maxLoadedPages = Math.max(maxLoadedPages, 2);
+
+        List<Match> matches = firstPage.getMatches();
+        MatchPage.Key key = MatchPage.Key.FIRST;
+        for (int start = 0; start < matches.size(); start += pageSize) {
+            int end = Math.min(start + pageSize, matches.size());
+            loadedPages.add(pages.size());
+            pageKeys.add(key);
+            pages.add(matches.subList(start, end));
+            key = firstPage.getKeyAfter(end - 1);
+        }
+        size = matches.size();
+        nextKey = firstPage.getNextKey();
+    }
+
+    /**
+     * Sets the callback notified when pages are appended.
+     * @param callback The callback, or null to stop notifications
+     */
+    public void setCallback(Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Gets the number of matches on the pages reached so far.
+     * The size grows as the list is read towards its end.
+     * @return The current size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list has no matches at all.
+     * @return true if the first page was empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets how many matches to read as the first page of a list that replaces
+     * this one: everything reached so far, in whole pages, up to the in-memory window.
+     * @return The first page size to use
+     */
+    public int getRefreshSize() {
+        int pageCount = Math.max(1, (size + pageSize - 1) / pageSize);
+        return Math.min(pageCount, maxLoadedPages) * pageSize;
+    }
+
+    /**
+     * Gets the match at a position without reading anything from the database.
+     * @param position The position, below {@link #size()}
+     * @return The match, or null if its page is not in memory
+     */
+    public Match peek(int position) {
+        int pageIndex = position / pageSize;
+        List<Match> page = pages.get(pageIndex);
+        return page != null ? page.get(position - pageIndex * pageSize) : null;
+    }
+
+    /**
+     * Stops the list from growing, once a newer list has replaced it.
+     * Pages being read are discarded when they arrive.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Gets the match at a position. Reading near the end of the list starts
+     * reading the next page, and reading a dropped page starts reading it again.
+     * @param position The position, below {@link #size()}
+     * @return The match at that position, or null while its page is being read
+     */
+    public Match get(int position) {
+        int pageIndex = position / pageSize;
+        List<Match> page = pages.get(pageIndex);
+        if (page == null && !closed) {
+            reloadPage(pageIndex);
+        }
+        dropFarPages(pageIndex);
+
+        if (nextKey != null && !appendPending && !closed && position >= size - pageSize / 2) {
+            appendPending = true;
+            loader.loadPage(nextKey, pageSize, result -> {
+                appendPending = false;
+                if (closed) {
+                    return;
+                }
+                int start = size;
+                if (addPage(nextKey, result) && callback != null) {
+                    callback.onInserted(start, result.getMatches().size());
+                }
+            });
+        }
+        return page != null ? page.get(position - pageIndex * pageSize) : null;
+    }
+
+    /**
+     * Appends a page that was read after the given key.
+     * @param key The key the page was read after
+     * @param page The page read
+     * @return true if the page had any matches
+     */
+    private boolean addPage(MatchPage.Key key, MatchPage page) {
+        List<Match> matches = page.getMatches();
+        nextKey = page.getNextKey();
+        if (matches.isEmpty()) {
+            return false;
+        }
+        loadedPages.add(pages.size());
+        pageKeys.add(key);
+        pages.add(matches);
+        size += matches.size();
+        return true;
+    }
+
+    /**
+     * Starts reading a dropped page again, unless that is already under way.
+     * @param pageIndex Index of the dropped page
+     */
+    private void reloadPage(int pageIndex) {
+        if (!reloadingPages.add(pageIndex)) {
+            return;
+        }
+        loader.loadPage(pageKeys.get(pageIndex), pageSize, result -> {
+            reloadingPages.remove(pageIndex);
+            if (closed) {
+                return;
+            }
+            if (pages.get(pageIndex) != null) {
+                return;
+            }
+            int start = pageIndex * pageSize;
+            int expected = Math.min(pageSize, size - start);
+            if (result.getMatches().size() != expected) {
+                // Keeping the page would shift every later position, so the whole list is read again
+                close();
+                if (callback != null) {
+                    callback.onStale();
+                }
+                return;
+            }
+            pages.set(pageIndex, result.getMatches());
+            loadedPages.add(pageIndex);
+            if (callback != null) {
+                callback.onChanged(start, expected);
+            }
+        });
+    }
+
+    /**
+     * Drops pages that are more than half the window away from the given page.
+     * @param currentPage Index of the page being read
+     */
+    private void dropFarPages(int currentPage) {
+        int reach = maxLoadedPages / 2;
+        for (int i = loadedPages.size() - 1; i >= 0; i--) {
+            int pageIndex = loadedPages.get(i);
+            if (Math.abs(pageIndex - currentPage) > reach) {
+                pages.set(pageIndex, null);
+                loadedPages.remove(i);
+            }
+        }
+    }
+}
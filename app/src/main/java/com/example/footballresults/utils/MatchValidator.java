@@ -0,0 +1,123 @@
+package com.example.footballresults.utils;
+
+import androidx.annotation.StringRes;
+
+import com.example.footballresults.R;
+
+/**
+ * Checks the fields of a match before it is stored.
+ * The same rules apply to matches typed into the entry form and to matches
+ * imported from a file, so both paths reject exactly the same input.
+ */
+public class MatchValidator {
+    /** Largest number of goals accepted for one team */
+    public static final int MAX_GOALS = 99;
+
+    /**
+     * Reasons a match can be rejected, in the order the fields are checked.
+     */
+    public enum Error {
+        DATE_REQUIRED(R.string.error_date_required),
+        INVALID_DATE(R.string.error_invalid_date),
+        CITY_REQUIRED(R.string.error_city_required),
+        TEAM_A_REQUIRED(R.string.error_team_a_required),
+        TEAM_B_REQUIRED(R.string.error_team_b_required),
+        TEAM_A_GOALS_REQUIRED(R.string.error_team_a_goals_required),
+        TEAM_B_GOALS_REQUIRED(R.string.error_team_b_goals_required),
+        INVALID_GOALS(R.string.error_invalid_goals),
+        SAME_TEAMS(R.string.error_same_teams);
+
+        private final int messageId;
+
+        Error(@StringRes int messageId) {
+            this.messageId = messageId;
+        }
+
+        /**
+         * Gets the message shown to the user for this error.
+         * @return The string resource ID
+         */
+        @StringRes
+        public int getMessageId() {
+            return messageId;
+        }
+    }
+
+    /**
+     * Validates the fields of a match. Fields are compared after trimming.
+     * @param date The match date (dd/MM/yyyy)
+     * @param city The city where the match was played
+     * @param teamA The name of the first team
+     * @param teamB The name of the second team
+     * @param teamAGoals Goals scored by the first team, as text
+     * @param teamBGoals Goals scored by the second team, as text
+     * @return The first problem found, or null if the match is valid
+     */
+    public static Error validate(String date, String city, String teamA, String teamB,
+                                 String teamAGoals, String teamBGoals) {
+        if (isBlank(date)) {
+            return Error.DATE_REQUIRED;
+        }
+        if (!DateFormatter.isValidDate(date.trim())) {
+            return Error.INVALID_DATE;
+        }
+        if (isBlank(city)) {
+            return Error.CITY_REQUIRED;
+        }
+        if (isBlank(teamA)) {
+            return Error.TEAM_A_REQUIRED;
+        }
+        if (isBlank(teamB)) {
+            return Error.TEAM_B_REQUIRED;
+        }
+        if (isBlank(teamAGoals)) {
+            return Error.TEAM_A_GOALS_REQUIRED;
+        }
+        if (isBlank(teamBGoals)) {
+            return Error.TEAM_B_GOALS_REQUIRED;
+        }
+        if (parseGoals(teamAGoals) == -1 || parseGoals(teamBGoals) == -1) {
+            return Error.INVALID_GOALS;
+        }
+        if (teamA.trim().equals(teamB.trim())) {
+            return Error.SAME_TEAMS;
+        }
+        return null;
+    }
+
+    /**
+     * Parses a goal count without allocating.
+     * @param text The goal count as text, surrounding spaces allowed
+     * @return The number of goals, or -1 if the text is not a whole number from 0 to {@link #MAX_GOALS}
+     */
+    public static int parseGoals(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return -1;
+        }
+
+        int goals = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            goals = goals * 10 + (c - '0');
+            if (goals > MAX_GOALS) {
+                return -1;
+            }
+        }
+        return goals;
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+}
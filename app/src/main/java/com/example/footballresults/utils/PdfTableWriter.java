@@ -0,0 +1,200 @@
+package com.example.footballresults.utils;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.pdf.PdfDocument;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Writes a table as a paginated A4 PDF, laid out right to left for Hebrew.
+ * Rows are added one at a time and drawn straight onto the current page; when
+ * the page is full it is finished and a new one started. PdfDocument can only
+ * write the document whole, so every finished page stays in native memory until
+ * {@link #close()}: memory grows with the number of pages, and callers limit
+ * how many rows they write. Every page repeats the title and column headers
+ * and carries its page number.
+ * The first column is the rightmost. Each cell is right-aligned in its column
+ * and shortened with an ellipsis if it does not fit; the text itself is drawn
+ * with the platform's bidirectional layout, so Hebrew reads right to left while
+ * numbers and Latin names keep their own order.
+ */
+public class PdfTableWriter implements Closeable {
+    /** A4 page size in PostScript points */
+    public static final int PAGE_WIDTH = 595;
+    public static final int PAGE_HEIGHT = 842;
+
+    private static final float MARGIN = 36f;
+    private static final float TITLE_SIZE = 16f;
+    private static final float TEXT_SIZE = 10f;
+    private static final float ROW_HEIGHT = 16f;
+    private static final float CELL_PADDING = 4f;
+
+    private final PdfDocument document = new PdfDocument();
+    private final OutputStream out;
+    private final String title;
+    private final String[] headers;
+    private final String pageFooterFormat;
+
+    /** Right edge and width of each column, in points */
+    private final float[] columnRights;
+    private final float[] columnWidths;
+
+    private final TextPaint titlePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint headerPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint linePaint = new Paint();
+
+    /** The page being laid out, or null between pages */
+    private PdfDocument.Page page;
+    private int pageCount;
+
+    /** Baseline of the next row on the current page */
+    private float y;
+
+    /**
+     * Constructs a PdfTableWriter. Nothing is written until {@link #close()}.
+     * @param out The stream the finished document is written to
+     * @param title The title printed at the top of every page
+     * @param headers The column headers, first column rightmost
+     * @param columnWeights Relative width of each column
+     * @param pageFooterFormat Format of the page footer, with the page number as its only argument
+     */
+    public PdfTableWriter(OutputStream out, String title, String[] headers, float[] columnWeights,
+                          String pageFooterFormat) {
+        this.out = out;
+        this.title = title;
+        this.headers = headers;
+        this.pageFooterFormat = pageFooterFormat;
+
+        float totalWeight = 0;
+        for (float weight : columnWeights) {
+            totalWeight += weight;
+        }
+        columnRights = new float[columnWeights.length];
+        columnWidths = new float[columnWeights.length];
+        float right = PAGE_WIDTH - MARGIN;
+        for (int i = 0; i < columnWeights.length; i++) {
+            columnRights[i] = right;
+            columnWidths[i] = (PAGE_WIDTH - 2 * MARGIN) * columnWeights[i] / totalWeight;
+            right -= columnWidths[i];
+        }
+
+        titlePaint.setTextSize(TITLE_SIZE);
+        titlePaint.setTypeface(Typeface.DEFAULT_BOLD);
+        titlePaint.setTextAlign(Paint.Align.RIGHT);
+        headerPaint.setTextSize(TEXT_SIZE);
+        headerPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        headerPaint.setTextAlign(Paint.Align.RIGHT);
+        textPaint.setTextSize(TEXT_SIZE);
+        textPaint.setTextAlign(Paint.Align.RIGHT);
+        linePaint.setColor(Color.GRAY);
+        linePaint.setStrokeWidth(0.5f);
+    }
+
+    /**
+     * Adds one row to the table, starting a new page if the current one is full.
+     * @param cells The cell texts, first column rightmost; null cells are left empty
+     */
+    public void writeRow(String... cells) {
+        ensureRoom();
+        drawRow(page.getCanvas(), cells, textPaint);
+    }
+
+    /**
+     * Adds a line of text below the rows written so far, across the whole width
+     * of the table, starting a new page if the current one is full.
+     * @param text The text to add
+     */
+    public void writeNote(String text) {
+        ensureRoom();
+        CharSequence line = TextUtils.ellipsize(text, textPaint,
+                PAGE_WIDTH - 2 * MARGIN - 2 * CELL_PADDING, TextUtils.TruncateAt.END);
+        page.getCanvas().drawText(line, 0, line.length(), PAGE_WIDTH - MARGIN - CELL_PADDING, y, textPaint);
+        y += ROW_HEIGHT;
+    }
+
+    /**
+     * Finishes the last page, writes the document and releases it.
+     * A table without rows still gets one page with its headers.
+     * @throws IOException if the document cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (page == null && pageCount == 0) {
+                startPage();
+            }
+            finishPage();
+            document.writeTo(out);
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Starts a new page if there is no current page or it has no room for another line.
+     */
+    private void ensureRoom() {
+        if (page == null || y > PAGE_HEIGHT - MARGIN - ROW_HEIGHT) {
+            finishPage();
+            startPage();
+        }
+    }
+
+    /**
+     * Starts a new page with the title and column headers.
+     */
+    private void startPage() {
+        pageCount++;
+        page = document.startPage(new PdfDocument.PageInfo.Builder(PAGE_WIDTH, PAGE_HEIGHT, pageCount).create());
+        Canvas canvas = page.getCanvas();
+
+        y = MARGIN + TITLE_SIZE;
+        canvas.drawText(title, PAGE_WIDTH - MARGIN, y, titlePaint);
+        y += 2 * ROW_HEIGHT;
+
+        drawRow(canvas, headers, headerPaint);
+        float lineY = y - ROW_HEIGHT + CELL_PADDING;
+        canvas.drawLine(MARGIN, lineY, PAGE_WIDTH - MARGIN, lineY, linePaint);
+        y += CELL_PADDING;
+    }
+
+    /**
+     * Draws the page number and finishes the current page, if any.
+     */
+    private void finishPage() {
+        if (page == null) {
+            return;
+        }
+        String footer = String.format(Locale.getDefault(), pageFooterFormat, pageCount);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        page.getCanvas().drawText(footer, PAGE_WIDTH / 2f, PAGE_HEIGHT - MARGIN / 2, textPaint);
+        textPaint.setTextAlign(Paint.Align.RIGHT);
+
+        document.finishPage(page);
+        page = null;
+    }
+
+    /**
+     * Draws one line of cells at the current position and moves down a row.
+     */
+    private void drawRow(Canvas canvas, String[] cells, TextPaint paint) {
+        for (int i = 0; i < cells.length && i < columnRights.length; i++) {
+            if (cells[i] == null) {
+                continue;
+            }
+            CharSequence text = TextUtils.ellipsize(cells[i], paint,
+                    columnWidths[i] - 2 * CELL_PADDING, TextUtils.TruncateAt.END);
+            canvas.drawText(text, 0, text.length(), columnRights[i] - CELL_PADDING, y, paint);
+        }
+        y += ROW_HEIGHT;
+    }
+}
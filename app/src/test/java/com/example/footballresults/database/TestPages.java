@@ -0,0 +1,39 @@
+package com.example.footballresults.database;
+
+import com.example.footballresults.models.Match;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds {@link MatchPage}s for local tests outside this package, where the page
+ * constructors and key fields cannot be reached.
+ */
+public final class TestPages {
+    private TestPages() {
+    }
+
+    /**
+     * Reads a page the way the keyset queries do, from matches ordered by
+     * descending ID that all share one match day.
+     * @param matches The matches, newest first
+     * @param after The key to continue after
+     * @param pageSize The maximum number of matches to read
+     * @return The page, with a next key only if it is full
+     */
+    public static MatchPage pageAfter(List<Match> matches, MatchPage.Key after, int pageSize) {
+        List<Match> page = new ArrayList<>();
+        for (Match match : matches) {
+            if (page.size() == pageSize) {
+                break;
+            }
+            if (match.getId() < after.matchId) {
+                page.add(match);
+            }
+        }
+        int[] matchDays = new int[page.size()];
+        MatchPage.Key nextKey = page.size() == pageSize
+                ? new MatchPage.Key(0, page.get(pageSize - 1).getId()) : null;
+        return new MatchPage(page, matchDays, nextKey);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.footballresults.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link CsvReader}.
+ */
+public class CsvReaderTest {
+    @Test
+    public void readRecord_splitsOnCommas() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("01/01/2024", "חיפה", "", "2"),
+                Arrays.asList("x")), readAll("01/01/2024,חיפה,,2\nx\n"));
+        // The last line does not need a line break
+        assertEquals(Arrays.asList(Arrays.asList("a", "b")), readAll("a,b"));
+        assertEquals(new ArrayList<List<String>>(), readAll(""));
+    }
+
+    @Test
+    public void readRecord_keepsCommasInQuotedFields() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("01/01/2024", "תל אביב, יפו", "x")),
+                readAll("01/01/2024,\"תל אביב, יפו\",x\n"));
+    }
+
+    @Test
+    public void readRecord_undoublesQuotes() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("מכבי ת\"א", "\"", "")),
+                readAll("\"מכבי ת\"\"א\",\"\"\"\",\"\"\n"));
+    }
+
+    @Test
+    public void readRecord_acceptsCrLf() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("a", "b"),
+                Arrays.asList("quoted", "c")), readAll("a,b\r\n\"quoted\",c\r\n"));
+        assertEquals(Arrays.asList(Arrays.asList("a", "quoted")), readAll("a,\"quoted\"\r\n"));
+    }
+
+    @Test
+    public void readRecord_keepsLineBreaksInQuotedFields() throws IOException {
+        assertEquals(Arrays.asList(
+                Arrays.asList("one\ntwo", "x"),
+                Arrays.asList("three\r\nfour", "y")), readAll("\"one\ntwo\",x\n\"three\r\nfour\",y\r\n"));
+    }
+
+    @Test
+    public void getLineNumber_countsLinesInsideQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("h1,h2\n\"one\ntwo\nthree\",x\nnext,y\r\nlast,z"));
+        int[] expected = {1, 2, 5, 6};
+        for (int lineNumber : expected) {
+            assertNotNull(reader.readRecord());
+            assertEquals(lineNumber, reader.getLineNumber());
+        }
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void readRecord_readsFieldsLongerThanTheBuffer() throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            name.append("ת\"א,");
+        }
+        String field = name.toString();
+        String quoted = "\"" + field.replace("\"", "\"\"") + "\"";
+        assertEquals(Arrays.asList(
+                Arrays.asList(field, "1"),
+                Arrays.asList("2")), readAll(quoted + ",1\r\n2\r\n"));
+    }
+
+    @Test
+    public void readRecord_keepsAnUnterminatedQuotedField() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "b,\nc")), readAll("a,\"b,\nc"));
+    }
+
+    /**
+     * Reads every record of the text, copying each since the reader reuses the list.
+     */
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        try {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(new ArrayList<>(record));
+            }
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+}
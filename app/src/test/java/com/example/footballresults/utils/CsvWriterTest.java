@@ -0,0 +1,61 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.database.MatchCsvImporter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link CsvWriter}.
+ */
+public class CsvWriterTest {
+    @Test
+    public void writeField_quotesOnlyWhenNeeded() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRecord("01/01/2024", "חיפה", "", null);
+        csv.writeRecord("תל אביב, יפו", "מכבי ת\"א", "one\ntwo", "a\rb");
+        csv.writeField("x");
+        csv.writeField(-3);
+        csv.endRecord();
+        csv.close();
+
+        assertEquals("01/01/2024,חיפה,,\n"
+                + "\"תל אביב, יפו\",\"מכבי ת\"\"א\",\"one\ntwo\",\"a\rb\"\n"
+                + "x,-3\n", out.toString());
+    }
+
+    @Test
+    public void writtenRecords_readBackUnchanged() throws IOException {
+        // A match export as the importer reads it, with every character that needs quoting
+        List<List<String>> records = Arrays.asList(
+                Arrays.asList(MatchCsvImporter.HEADER),
+                Arrays.asList("01/01/2024", "תל אביב, יפו", "מכבי ת\"א", "בית\"ר ירושלים", "2", "0"),
+                Arrays.asList("02/01/2024", "באר\r\nשבע", "\"", "", "1", "1"),
+                Arrays.asList("03/01/2024", "חיפה", "a\nb", ",", "0", "3"));
+
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (List<String> record : records) {
+            writer.writeRecord(record.toArray(new String[0]));
+        }
+        writer.close();
+
+        List<List<String>> read = new ArrayList<>();
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            read.add(new ArrayList<>(record));
+        }
+        reader.close();
+        assertEquals(records, read);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.database.MatchPage;
+import com.example.footballresults.database.TestPages;
+import com.example.footballresults.models.Match;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link MatchPagedList}, over a fake loader whose pages
+ * arrive only when the test delivers them, as they would on the main thread.
+ */
+public class MatchPagedListTest {
+    private static final int PAGE_SIZE = 4;
+    private static final int MAX_LOADED_PAGES = 3;
+    private static final int MATCH_COUNT = 20;
+
+    /** The matches the loader reads from, newest first */
+    private final List<Match> matches = new ArrayList<>();
+
+    /** Page reads started and not yet delivered */
+    private final List<Runnable> pendingLoads = new ArrayList<>();
+
+    /** Notifications the list sent, in order */
+    private final List<String> events = new ArrayList<>();
+
+    private final MatchPagedList.PageLoader loader = (after, pageSize, callback) ->
+            pendingLoads.add(() -> callback.onResult(TestPages.pageAfter(matches, after, pageSize)));
+
+    private MatchPagedList list;
+
+    @Before
+    public void setUp() {
+        for (long id = MATCH_COUNT; id >= 1; id--) {
+            Match match = new Match("01/01/2024", "חיפה", "Team A", "Team B", 1, 0);
+            match.setId(id);
+            matches.add(match);
+        }
+        list = new MatchPagedList(loader, TestPages.pageAfter(matches, MatchPage.Key.FIRST, PAGE_SIZE),
+                PAGE_SIZE, MAX_LOADED_PAGES);
+        list.setCallback(new MatchPagedList.Callback() {
+            @Override
+            public void onInserted(int position, int count) {
+                events.add("inserted " + position + "+" + count);
+            }
+
+            @Override
+            public void onChanged(int position, int count) {
+                events.add("changed " + position + "+" + count);
+            }
+
+            @Override
+            public void onStale() {
+                events.add("stale");
+            }
+        });
+    }
+
+    @Test
+    public void get_nearTheEnd_appendsTheNextPage() {
+        assertEquals(PAGE_SIZE, list.size());
+        list.get(1);
+        assertTrue(pendingLoads.isEmpty());
+
+        list.get(2);
+        list.get(3);
+        assertEquals(1, pendingLoads.size());
+        deliverLoads();
+        assertEquals(2 * PAGE_SIZE, list.size());
+        assertEquals(Arrays.asList("inserted 4+4"), events);
+
+        scrollDown();
+        assertEquals(MATCH_COUNT, list.size());
+        assertEquals(1, list.get(MATCH_COUNT - 1).getId());
+        assertTrue(pendingLoads.isEmpty());
+    }
+
+    @Test
+    public void scrollingDown_dropsPagesAndScrollingBack_readsThemAgain() {
+        scrollDown();
+        assertNull(list.peek(0));
+        assertNotNull(list.peek(MATCH_COUNT - 1));
+
+        events.clear();
+        assertNull(list.get(0));
+        // Asking again while the page is being read does not read it twice
+        assertNull(list.get(1));
+        assertEquals(1, pendingLoads.size());
+        assertNull(list.peek(MATCH_COUNT - 1));
+
+        deliverLoads();
+        assertEquals(Arrays.asList("changed 0+4"), events);
+        for (int position = 0; position < PAGE_SIZE; position++) {
+            assertEquals(MATCH_COUNT - position, list.peek(position).getId());
+        }
+    }
+
+    @Test
+    public void reloadedPageWithADifferentSize_marksTheListStale() {
+        scrollDown();
+        list.get(0);
+        deliverLoads();
+        assertNull(list.peek(MATCH_COUNT - 1));
+
+        // A match on the last page is deleted while it is dropped
+        matches.remove(matches.size() - 2);
+        events.clear();
+        assertNull(list.get(MATCH_COUNT - 1));
+        deliverLoads();
+        assertEquals(Arrays.asList("stale"), events);
+        assertNull(list.peek(MATCH_COUNT - 1));
+        assertEquals(MAX_LOADED_PAGES * PAGE_SIZE, list.getRefreshSize());
+
+        // The stale list reads nothing more
+        list.get(0);
+        assertTrue(pendingLoads.isEmpty());
+    }
+
+    @Test
+    public void close_discardsAPageStillBeingReadAgain() {
+        scrollDown();
+        events.clear();
+        list.get(0);
+        list.close();
+        deliverLoads();
+        assertTrue(events.isEmpty());
+        assertNull(list.peek(0));
+    }
+
+    @Test
+    public void close_discardsAPageStillBeingAppended() {
+        list.get(2);
+        list.close();
+        deliverLoads();
+        assertTrue(events.isEmpty());
+        assertEquals(PAGE_SIZE, list.size());
+    }
+
+    /**
+     * Reads the list one position at a time to its end, delivering every page read on the way.
+     */
+    private void scrollDown() {
+        for (int position = 0; position < list.size(); position++) {
+            list.get(position);
+            deliverLoads();
+        }
+    }
+
+    private void deliverLoads() {
+        while (!pendingLoads.isEmpty()) {
+            pendingLoads.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Machine-readable results, kept per release to compare runs
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
@@ -0,0 +1,97 @@
+package com.example.footballresults.benchmark;
+
+import com.example.footballresults.utils.DateCodec;
+import com.example.footballresults.utils.DateFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the dd/MM/yyyy operations of {@link DateFormatter} with the shared
+ * SimpleDateFormat implementation it replaced, kept here as the baseline.
+ * Each call works on the next date of a fixed set of random dates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateFormatterBenchmark {
+    private static final int DATES = 4096;
+
+    /** The previous implementation, kept here as the baseline */
+    private final SimpleDateFormat legacyFormatter = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+
+    private final String[] dates = new String[DATES];
+    private final char[] buffer = new char[DateCodec.LENGTH];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < DATES; i++) {
+            dates[i] = DateFormatter.formatEpochDay(random.nextInt(365 * 60));
+        }
+    }
+
+    private String nextDate() {
+        return dates[next++ & (DATES - 1)];
+    }
+
+    @Benchmark
+    public Date parseDate() {
+        return DateFormatter.parseDate(nextDate());
+    }
+
+    @Benchmark
+    public boolean isValidDate() {
+        return DateFormatter.isValidDate(nextDate());
+    }
+
+    @Benchmark
+    public int toEpochDay() {
+        return DateFormatter.toEpochDay(nextDate());
+    }
+
+    @Benchmark
+    public char formatTo() {
+        DateCodec.formatTo(next++ & 0x7fff, buffer, 0);
+        return buffer[0];
+    }
+
+    @Benchmark
+    public Date legacyParseDate() {
+        try {
+            return legacyFormatter.parse(nextDate());
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public boolean legacyIsValidDate() {
+        String dateStr = nextDate();
+        try {
+            Date date = legacyFormatter.parse(dateStr);
+            return dateStr.equals(legacyFormatter.format(date));
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.footballresults.benchmark;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.DateFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sorting the match report most recent first. The baseline is the
+ * comparator MatchDao.getAllMatchesSortedByDate used before the report was
+ * sorted in SQL, which parses both dates on every comparison; it is compared
+ * with parsing each date once into an epoch day key, as the match_day column does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchSortBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int matchCount;
+
+    private List<Match> matches;
+
+    @Setup
+    public void setUp() {
+        matches = SyntheticMatches.generate(matchCount, new Random(42));
+    }
+
+    @Benchmark
+    public List<Match> legacyComparator() {
+        List<Match> sorted = new ArrayList<>(matches);
+        Collections.sort(sorted, (match1, match2) -> {
+            Date date1 = DateFormatter.parseDate(match1.getDate());
+            Date date2 = DateFormatter.parseDate(match2.getDate());
+            if (date1 == null && date2 == null) return 0;
+            if (date1 == null) return 1;
+            if (date2 == null) return -1;
+            return date2.compareTo(date1);
+        });
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Match> epochDayKey() {
+        // Sort keys hold the descending day in the high bits and the list index below it,
+        // so equal days keep their order; invalid dates get the largest key and sort last
+        long[] keys = new long[matches.size()];
+        for (int i = 0; i < keys.length; i++) {
+            long day = DateFormatter.toEpochDay(matches.get(i).getDate());
+            keys[i] = ((Integer.MAX_VALUE - day) << 24) | i;
+        }
+        Arrays.sort(keys);
+
+        List<Match> sorted = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            sorted.add(matches.get((int) (key & 0xffffff)));
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.footballresults.benchmark;
+
+import com.example.footballresults.utils.StandingsAccumulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the win/draw/loss delta logic of {@link StandingsAccumulator}: a full
+ * standings rebuild from every match, and the remove-then-add pair applied when
+ * one match's score is corrected.
+ * Matches are held in columns of primitives, the same values the rebuild reads
+ * from its cursor, so the larger datasets do not measure object allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StandingsBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int matchCount;
+
+    private int[] teamAIds;
+    private int[] teamBIds;
+    private int[] teamAGoals;
+    private int[] teamBGoals;
+
+    /** Standings of every match, for the score corrections */
+    private StandingsAccumulator standings;
+
+    /** Whether each match is currently applied with its score reversed */
+    private boolean[] reversed;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        teamAIds = new int[matchCount];
+        teamBIds = new int[matchCount];
+        teamAGoals = new int[matchCount];
+        teamBGoals = new int[matchCount];
+        for (int i = 0; i < matchCount; i++) {
+            teamAIds[i] = SyntheticMatches.randomTeam(random);
+            teamBIds[i] = SyntheticMatches.otherTeam(teamAIds[i], random);
+            teamAGoals[i] = SyntheticMatches.randomGoals(random);
+            teamBGoals[i] = SyntheticMatches.randomGoals(random);
+        }
+
+        standings = rebuild();
+        reversed = new boolean[matchCount];
+    }
+
+    @Benchmark
+    public StandingsAccumulator rebuild() {
+        StandingsAccumulator accumulator = new StandingsAccumulator();
+        for (int i = 0; i < matchCount; i++) {
+            accumulator.addMatch(teamAIds[i], teamBIds[i], teamAGoals[i], teamBGoals[i], 1);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Replaces one match's score with its reverse, or back, as an edit does.
+     * Measured per correction, independent of the dataset size.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int correctScore() {
+        int i = next;
+        next = next + 1 == matchCount ? 0 : next + 1;
+
+        int oldA = reversed[i] ? teamBGoals[i] : teamAGoals[i];
+        int oldB = reversed[i] ? teamAGoals[i] : teamBGoals[i];
+        standings.addMatch(teamAIds[i], teamBIds[i], oldA, oldB, -1);
+        standings.addMatch(teamAIds[i], teamBIds[i], oldB, oldA, 1);
+        reversed[i] = !reversed[i];
+        return standings.getPoints(teamAIds[i]);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.footballresults.benchmark;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.models.TeamStats;
+import com.example.footballresults.utils.StandingsEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a league table with {@link StandingsEngine} from a stream of
+ * match objects, team names included, as a server would from a results feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StandingsEngineBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int matchCount;
+
+    private List<Match> matches;
+
+    @Setup
+    public void setUp() {
+        matches = SyntheticMatches.generate(matchCount, new Random(42));
+    }
+
+    @Benchmark
+    public List<TeamStats> standingsFromMatches() {
+        return new StandingsEngine().addAll(matches).getStandings();
+    }
+}
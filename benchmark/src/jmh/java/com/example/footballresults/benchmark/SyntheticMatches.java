@@ -0,0 +1,64 @@
+package com.example.footballresults.benchmark;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.utils.DateCodec;
+import com.example.footballresults.utils.DateFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random but reproducible match data for the benchmarks: a league of
+ * {@link #TEAM_COUNT} teams playing between 1990 and 2024.
+ */
+final class SyntheticMatches {
+    /** Number of teams in the league; team IDs run from 1 to this */
+    static final int TEAM_COUNT = 20;
+
+    private static final int FIRST_DAY = DateCodec.toEpochDay(1990, 1, 1);
+    private static final int LAST_DAY = DateCodec.toEpochDay(2024, 12, 31);
+    private static final int MAX_GOALS = 6;
+
+    private SyntheticMatches() {
+    }
+
+    /**
+     * Generates matches with their team IDs set.
+     * @param count Number of matches
+     * @param random Source of randomness; the same seed gives the same matches
+     * @return The matches, in no particular order
+     */
+    static List<Match> generate(int count, Random random) {
+        List<Match> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long teamA = randomTeam(random);
+            long teamB = otherTeam(teamA, random);
+            Match match = new Match(DateFormatter.formatEpochDay(randomDay(random)), "City " + teamA,
+                    "Team " + teamA, "Team " + teamB, randomGoals(random), randomGoals(random));
+            match.setTeamAId(teamA);
+            match.setTeamBId(teamB);
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    static int randomDay(Random random) {
+        return FIRST_DAY + random.nextInt(LAST_DAY - FIRST_DAY + 1);
+    }
+
+    static int randomTeam(Random random) {
+        return 1 + random.nextInt(TEAM_COUNT);
+    }
+
+    /**
+     * Picks a team other than the given one.
+     */
+    static int otherTeam(long team, Random random) {
+        return 1 + (int) ((team + random.nextInt(TEAM_COUNT - 1)) % TEAM_COUNT);
+    }
+
+    static int randomGoals(Random random) {
+        return random.nextInt(MAX_GOALS);
+    }
+}
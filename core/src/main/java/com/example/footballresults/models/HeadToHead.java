@@ -0,0 +1,276 @@
+package com.example.footballresults.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Model class representing how two teams have done against each other.
+ * The record is seen from the side of one of the teams: its wins are the
+ * opponent's losses and its goals scored are the opponent's goals against.
+ * {@link #reversed()} gives the same record from the opponent's side.
+ */
+public class HeadToHead {
+    /** ID of the team the record is seen from */
+    private long teamId;
+
+    /** Name of the team the record is seen from */
+    private String teamName;
+
+    /** ID of the opponent */
+    private long opponentId;
+
+    /** Name of the opponent */
+    private String opponentName;
+
+    /** Number of matches the two teams played against each other */
+    private int meetings;
+
+    /** Number of those matches the team won */
+    private int wins;
+
+    /** Number of those matches that were drawn */
+    private int draws;
+
+    /** Number of those matches the team lost */
+    private int losses;
+
+    /** Goals the team scored against the opponent */
+    private int goalsScored;
+
+    /** Goals the opponent scored against the team */
+    private int goalsAgainst;
+
+    /** The most recent meetings, newest first; may hold only some of them */
+    private List<Match> lastMeetings = Collections.emptyList();
+
+    /**
+     * Default constructor for creating an empty record.
+     */
+    public HeadToHead() {
+    }
+
+    /**
+     * Constructor for creating an empty record between two teams.
+     * @param teamId The ID of the team the record is seen from
+     * @param opponentId The ID of the opponent
+     */
+    public HeadToHead(long teamId, long opponentId) {
+        this.teamId = teamId;
+        this.opponentId = opponentId;
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) the result of one meeting.
+     * @param goalsFor Goals the team scored
+     * @param goalsAgainst Goals the opponent scored
+     * @param sign 1 to add the meeting, -1 to remove it
+     */
+    public void addResult(int goalsFor, int goalsAgainst, int sign) {
+        MatchResult result = MatchResult.of(goalsFor, goalsAgainst);
+        meetings += sign;
+        goalsScored += sign * goalsFor;
+        this.goalsAgainst += sign * goalsAgainst;
+        if (result == MatchResult.WIN) {
+            wins += sign;
+        } else if (result == MatchResult.DRAW) {
+            draws += sign;
+        } else {
+            losses += sign;
+        }
+    }
+
+    /**
+     * Gets the same record seen from the opponent's side.
+     * @return A new record with the teams, wins and losses, and goals swapped
+     */
+    public HeadToHead reversed() {
+        HeadToHead reversed = new HeadToHead(opponentId, teamId);
+        reversed.teamName = opponentName;
+        reversed.opponentName = teamName;
+        reversed.meetings = meetings;
+        reversed.wins = losses;
+        reversed.draws = draws;
+        reversed.losses = wins;
+        reversed.goalsScored = goalsAgainst;
+        reversed.goalsAgainst = goalsScored;
+        reversed.lastMeetings = lastMeetings;
+        return reversed;
+    }
+
+    /**
+     * Gets the ID of the team the record is seen from.
+     * @return The team ID
+     */
+    public long getTeamId() {
+        return teamId;
+    }
+
+    /**
+     * Sets the ID of the team the record is seen from.
+     * @param teamId The team ID to set
+     */
+    public void setTeamId(long teamId) {
+        this.teamId = teamId;
+    }
+
+    /**
+     * Gets the name of the team the record is seen from.
+     * @return The team name
+     */
+    public String getTeamName() {
+        return teamName;
+    }
+
+    /**
+     * Sets the name of the team the record is seen from.
+     * @param teamName The team name to set
+     */
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    /**
+     * Gets the ID of the opponent.
+     * @return The opponent's team ID
+     */
+    public long getOpponentId() {
+        return opponentId;
+    }
+
+    /**
+     * Sets the ID of the opponent.
+     * @param opponentId The opponent's team ID to set
+     */
+    public void setOpponentId(long opponentId) {
+        this.opponentId = opponentId;
+    }
+
+    /**
+     * Gets the name of the opponent.
+     * @return The opponent's team name
+     */
+    public String getOpponentName() {
+        return opponentName;
+    }
+
+    /**
+     * Sets the name of the opponent.
+     * @param opponentName The opponent's team name to set
+     */
+    public void setOpponentName(String opponentName) {
+        this.opponentName = opponentName;
+    }
+
+    /**
+     * Gets the number of matches the two teams played against each other.
+     * @return The number of meetings
+     */
+    public int getMeetings() {
+        return meetings;
+    }
+
+    /**
+     * Sets the number of matches the two teams played against each other.
+     * @param meetings The number of meetings to set
+     */
+    public void setMeetings(int meetings) {
+        this.meetings = meetings;
+    }
+
+    /**
+     * Gets the number of meetings the team won.
+     * @return The number of wins
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Sets the number of meetings the team won.
+     * @param wins The number of wins to set
+     */
+    public void setWins(int wins) {
+        this.wins = wins;
+    }
+
+    /**
+     * Gets the number of meetings that were drawn.
+     * @return The number of draws
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * Sets the number of meetings that were drawn.
+     * @param draws The number of draws to set
+     */
+    public void setDraws(int draws) {
+        this.draws = draws;
+    }
+
+    /**
+     * Gets the number of meetings the team lost.
+     * @return The number of losses
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Sets the number of meetings the team lost.
+     * @param losses The number of losses to set
+     */
+    public void setLosses(int losses) {
+        this.losses = losses;
+    }
+
+    /**
+     * Gets the goals the team scored against the opponent.
+     * @return The goals scored
+     */
+    public int getGoalsScored() {
+        return goalsScored;
+    }
+
+    /**
+     * Sets the goals the team scored against the opponent.
+     * @param goalsScored The goals scored to set
+     */
+    public void setGoalsScored(int goalsScored) {
+        this.goalsScored = goalsScored;
+    }
+
+    /**
+     * Gets the goals the opponent scored against the team.
+     * @return The goals against
+     */
+    public int getGoalsAgainst() {
+        return goalsAgainst;
+    }
+
+    /**
+     * Sets the goals the opponent scored against the team.
+     * @param goalsAgainst The goals against to set
+     */
+    public void setGoalsAgainst(int goalsAgainst) {
+        this.goalsAgainst = goalsAgainst;
+    }
+
+    /**
+     * Gets the most recent meetings, newest first.
+     * @return Unmodifiable list of meetings, empty if none were read
+     */
+    public List<Match> getLastMeetings() {
+        return lastMeetings;
+    }
+
+    /**
+     * Sets the most recent meetings.
+     * @param lastMeetings The meetings, newest first
+     */
+    public void setLastMeetings(List<Match> lastMeetings) {
+        this.lastMeetings = Collections.unmodifiableList(new ArrayList<>(lastMeetings));
+    }
+}
@@ -20,6 +20,12 @@ public class Match {
     
     /** Name of the second team */
     private String teamB;
+
+    /** Team ID of the first team (0 if not yet resolved) */
+    private long teamAId;
+
+    /** Team ID of the second team (0 if not yet resolved) */
+    private long teamBId;
     
     /** Number of goals scored by team A */
     private int teamAGoals;
@@ -134,6 +140,38 @@ public class Match {
         this.teamB = teamB;
     }
 
+    /**
+     * Gets the team ID of team A.
+     * @return Team A's ID, or 0 if it has not been resolved yet
+     */
+    public long getTeamAId() {
+        return teamAId;
+    }
+
+    /**
+     * Sets the team ID of team A.
+     * @param teamAId Team A's ID
+     */
+    public void setTeamAId(long teamAId) {
+        this.teamAId = teamAId;
+    }
+
+    /**
+     * Gets the team ID of team B.
+     * @return Team B's ID, or 0 if it has not been resolved yet
+     */
+    public long getTeamBId() {
+        return teamBId;
+    }
+
+    /**
+     * Sets the team ID of team B.
+     * @param teamBId Team B's ID
+     */
+    public void setTeamBId(long teamBId) {
+        this.teamBId = teamBId;
+    }
+
     /**
      * Gets the number of goals scored by team A.
      * @return Team A's goals
@@ -0,0 +1,70 @@
+package com.example.footballresults.models;
+
+/**
+ * The result of a match from one team's point of view.
+ * Each result carries the league points it is worth
+ * (3 for a win, 1 for a draw, 0 for a loss) and the letter
+ * a team's recent form is stored with.
+ */
+public enum MatchResult {
+    WIN(3, 'W'),
+    DRAW(1, 'D'),
+    LOSS(0, 'L');
+
+    /** League points earned for this result */
+    private final int points;
+
+    /** Letter standing for this result in a stored form string */
+    private final char code;
+
+    MatchResult(int points, char code) {
+        this.points = points;
+        this.code = code;
+    }
+
+    /**
+     * Gets the result for a team given the goals on each side.
+     * @param goalsFor Goals scored by the team
+     * @param goalsAgainst Goals scored against the team
+     * @return The team's result
+     */
+    public static MatchResult of(int goalsFor, int goalsAgainst) {
+        if (goalsFor > goalsAgainst) {
+            return WIN;
+        } else if (goalsFor < goalsAgainst) {
+            return LOSS;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Gets the league points earned for this result.
+     * @return 3 for a win, 1 for a draw, 0 for a loss
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Gets the letter standing for this result in a stored form string.
+     * @return 'W' for a win, 'D' for a draw, 'L' for a loss
+     */
+    public char getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the result a form letter stands for.
+     * @param code A letter returned by {@link #getCode()}
+     * @return The result
+     * @throws IllegalArgumentException if the letter stands for no result
+     */
+    public static MatchResult fromCode(char code) {
+        for (MatchResult result : values()) {
+            if (result.code == code) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Unknown result code: " + code);
+    }
+}
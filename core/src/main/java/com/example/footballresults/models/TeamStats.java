@@ -6,6 +6,9 @@ package com.example.footballresults.models;
  * match results, goals scored, and total points earned.
  */
 public class TeamStats {
+    /** Number of latest results a form holds */
+    public static final int FORM_LENGTH = 5;
+
     /** Unique identifier for the team stats record */
     private long id;
     
@@ -30,6 +33,9 @@ public class TeamStats {
     /** Total points earned by the team (3 for win, 1 for draw, 0 for loss) */
     private int points;
 
+    /** Results of the team's latest {@link #FORM_LENGTH} matches, oldest first, as {@link MatchResult} codes */
+    private String form = "";
+
     /**
      * Default constructor for creating an empty team stats object.
      */
@@ -180,4 +186,21 @@ public class TeamStats {
     public void setPoints(int points) {
         this.points = points;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the results of the team's latest matches, oldest first.
+     * Each character is a {@link MatchResult#getCode()} letter.
+     * @return The form, empty if the team has not played or it is not known
+     */
+    public String getForm() {
+        return form;
+    }
+
+    /**
+     * Sets the results of the team's latest matches, oldest first.
+     * @param form The form to set; null is treated as empty
+     */
+    public void setForm(String form) {
+        this.form = form != null ? form : "";
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.footballresults.utils;
+
+import java.util.Calendar;
+
+/**
+ * Allocation-free codec for dates in the app's dd/MM/yyyy format.
+ * Dates are represented as epoch days (days since 01/01/1970) in the proleptic
+ * Gregorian calendar. The codec holds no state, so every method is safe to call
+ * from any number of threads at once.
+ */
+public final class DateCodec {
+
+    /** Returned by {@link #parse(CharSequence)} when the text is not a valid date */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    /** Number of characters in a formatted date (dd/MM/yyyy) */
+    public static final int LENGTH = 10;
+
+    // Days in a 400 year Gregorian cycle
+    private static final int DAYS_PER_ERA = 146097;
+
+    // Days between 01/03/0000 and 01/01/1970
+    private static final int EPOCH_SHIFT = 719468;
+
+    private DateCodec() {
+    }
+
+    /**
+     * Parses a date in dd/MM/yyyy format without allocating.
+     * Only exact matches are accepted: two digit day and month, four digit year,
+     * '/' separators and a day that exists in the given month.
+     *
+     * @param text The text to parse
+     * @return The epoch day, or {@link #INVALID} if the text is not a valid date
+     */
+    public static int parse(CharSequence text) {
+        if (text == null || text.length() != LENGTH
+                || text.charAt(2) != '/' || text.charAt(5) != '/') {
+            return INVALID;
+        }
+
+        int day = twoDigits(text, 0);
+        int month = twoDigits(text, 3);
+        int year = twoDigits(text, 6) * 100 + twoDigits(text, 8);
+        if (day < 0 || month < 0 || year < 0) {
+            return INVALID;
+        }
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Checks whether the text is a valid date in dd/MM/yyyy format.
+     *
+     * @param text The text to check
+     * @return true if valid, false otherwise
+     */
+    public static boolean isValid(CharSequence text) {
+        return parse(text) != INVALID;
+    }
+
+    /**
+     * Writes an epoch day as dd/MM/yyyy into a caller-supplied buffer.
+     * Exactly {@link #LENGTH} characters are written starting at {@code offset}.
+     *
+     * @param epochDay The epoch day to format
+     * @param buffer The buffer to write into
+     * @param offset Index of the first character to write
+     */
+    public static void formatTo(int epochDay, char[] buffer, int offset) {
+        // Civil-from-days conversion, see http://howardhinnant.github.io/date_algorithms.html
+        long z = (long) epochDay + EPOCH_SHIFT;
+        long era = Math.floorDiv(z, DAYS_PER_ERA);
+        int dayOfEra = (int) (z - era * DAYS_PER_ERA);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        writeTwoDigits(day, buffer, offset);
+        buffer[offset + 2] = '/';
+        writeTwoDigits(month, buffer, offset + 3);
+        buffer[offset + 5] = '/';
+        writeTwoDigits(year / 100, buffer, offset + 6);
+        writeTwoDigits(year % 100, buffer, offset + 8);
+    }
+
+    /**
+     * Appends an epoch day as dd/MM/yyyy to a builder.
+     *
+     * @param epochDay The epoch day to format
+     * @param buffer Scratch buffer of at least {@link #LENGTH} characters
+     * @param out The builder to append to
+     */
+    public static void appendTo(int epochDay, char[] buffer, StringBuilder out) {
+        formatTo(epochDay, buffer, 0);
+        out.append(buffer, 0, LENGTH);
+    }
+
+    /**
+     * Converts a calendar date to an epoch day.
+     *
+     * @param year The year (1 - 9999)
+     * @param month The month (1 - 12)
+     * @param day The day of month (1 - 31)
+     * @return Days since 01/01/1970
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        // Days-from-civil conversion, years start on 1st of March
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - EPOCH_SHIFT;
+    }
+
+    /**
+     * Gets the day of week for an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @return One of {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 01/01/1970 was a Thursday
+        return Math.floorMod(epochDay + 4, 7) + Calendar.SUNDAY;
+    }
+
+    /**
+     * Reads two ASCII digits.
+     * @return The value, or -1 if either character is not a digit
+     */
+    private static int twoDigits(CharSequence text, int index) {
+        int tens = text.charAt(index) - '0';
+        int ones = text.charAt(index + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    private static void writeTwoDigits(int value, char[] buffer, int offset) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package com.example.footballresults.utils;
 
+import java.text.DateFormatSymbols;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * Utility class for handling date formatting and conversion throughout the app.
  * Ensures consistent date format across all screens and provides helper methods
  * for date manipulation.
+ * All dd/MM/yyyy work is done by {@link DateCodec}, so these methods are safe to
+ * call from any thread.
  */
 public class DateFormatter {
 
-    // Standard date format for display and storage
-    private static final String DATE_FORMAT = "dd/MM/yyyy";
+    // Number of milliseconds in one day
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
 
-    // Formatter instance with default locale
-    private static final SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT, Locale.getDefault());
+    // Per-thread scratch buffer for formatting
+    private static final ThreadLocal<char[]> buffer = ThreadLocal.withInitial(() -> new char[DateCodec.LENGTH]);
+
+    /** Epoch day used for dates that cannot be parsed; sorts before every real date */
+    public static final int INVALID_EPOCH_DAY = DateCodec.INVALID;
 
     /**
      * Formats a Date object to the standard date string format (dd/MM/yyyy)
@@ -29,26 +35,57 @@ public class DateFormatter {
         if (date == null) {
             return "";
         }
-        return formatter.format(date);
+
+        // Shift to local wall-clock time before taking the day
+        long millis = date.getTime();
+        long localMillis = millis + TimeZone.getDefault().getOffset(millis);
+        return formatEpochDay((int) Math.floorDiv(localMillis, MILLIS_PER_DAY));
+    }
+
+    /**
+     * Formats an epoch day to the standard date string format (dd/MM/yyyy)
+     *
+     * @param epochDay Days since 01/01/1970
+     * @return Formatted date string, or empty string for {@link #INVALID_EPOCH_DAY}
+     */
+    public static String formatEpochDay(int epochDay) {
+        if (epochDay == INVALID_EPOCH_DAY) {
+            return "";
+        }
+
+        char[] chars = buffer.get();
+        DateCodec.formatTo(epochDay, chars, 0);
+        return new String(chars, 0, DateCodec.LENGTH);
     }
 
     /**
      * Parses a date string in the standard format to a Date object
      *
      * @param dateStr The date string to parse
-     * @return Date object or null if parsing fails
+     * @return Date object at local midnight, or null if parsing fails
      */
     public static Date parseDate(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty()) {
+        int epochDay = DateCodec.parse(dateStr);
+        if (epochDay == DateCodec.INVALID) {
             return null;
         }
 
-        try {
-            return formatter.parse(dateStr);
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return null;
-        }
+        // Local midnight; the offset is looked up twice in case midnight falls near a DST change
+        TimeZone timeZone = TimeZone.getDefault();
+        long utcMidnight = epochDay * MILLIS_PER_DAY;
+        long guess = utcMidnight - timeZone.getOffset(utcMidnight);
+        return new Date(utcMidnight - timeZone.getOffset(guess));
+    }
+
+    /**
+     * Converts a date string in the standard format to the number of days since 01/01/1970.
+     * The result is independent of the device time zone, so it can be stored and sorted on.
+     *
+     * @param dateStr The date string to convert
+     * @return Days since the epoch, or {@link #INVALID_EPOCH_DAY} if parsing fails
+     */
+    public static int toEpochDay(String dateStr) {
+        return DateCodec.parse(dateStr);
     }
 
     /**
@@ -67,34 +104,7 @@ public class DateFormatter {
      * @return true if valid, false otherwise
      */
     public static boolean isValidDate(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty()) {
-            return false;
-        }
-
-        try {
-            // Try parsing the date and check constraints
-            Date date = formatter.parse(dateStr);
-
-            // Ensure format is correct by formatting back and comparing
-            String reformatted = formatter.format(date);
-
-            // Check if original and reformatted strings match
-            if (!dateStr.equals(reformatted)) {
-                return false;
-            }
-
-            // Additional validations if needed (e.g., not in future)
-            Date today = new Date();
-
-            // You might want to uncomment this if you want to prevent future dates
-            // if (date.after(today)) {
-            //     return false;
-            // }
-
-            return true;
-        } catch (ParseException e) {
-            return false;
-        }
+        return DateCodec.isValid(dateStr);
     }
 
     /**
@@ -129,16 +139,13 @@ public class DateFormatter {
      * @return Name of day of week, or empty string if parsing fails
      */
     public static String getDayOfWeek(String dateStr) {
-        Date date = parseDate(dateStr);
-        if (date == null) {
+        int epochDay = DateCodec.parse(dateStr);
+        if (epochDay == DateCodec.INVALID) {
             return "";
         }
 
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-
-        SimpleDateFormat dayFormat = new SimpleDateFormat("EEEE", Locale.getDefault());
-        return dayFormat.format(date);
+        String[] weekdays = DateFormatSymbols.getInstance(Locale.getDefault()).getWeekdays();
+        return weekdays[DateCodec.dayOfWeek(epochDay)];
     }
 
     /**
@@ -149,15 +156,10 @@ public class DateFormatter {
      * @return Modified date string, or original string if parsing fails
      */
     public static String addDays(String dateStr, int days) {
-        Date date = parseDate(dateStr);
-        if (date == null) {
+        int epochDay = DateCodec.parse(dateStr);
+        if (epochDay == DateCodec.INVALID) {
             return dateStr;
         }
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        calendar.add(Calendar.DAY_OF_MONTH, days);
-
-        return formatDate(calendar.getTime());
+        return formatEpochDay(epochDay + days);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.HeadToHead;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory head-to-head records of every pair of teams, built by feeding it
+ * match results one at a time. Pairs are unordered: a match between teams 3 and 7
+ * counts towards the same record whichever side is team A. Each record is kept
+ * from the side of the lower team ID, the way the head to head table stores it.
+ */
+public class HeadToHeadAccumulator {
+    /** Records by {@link #pairKey(long, long)} */
+    private final Map<Long, HeadToHead> records = new HashMap<>();
+
+    /**
+     * Adds (sign 1) or removes (sign -1) one match result for its pair of teams.
+     * @param teamAId ID of the first team
+     * @param teamBId ID of the second team
+     * @param teamAGoals Goals scored by the first team
+     * @param teamBGoals Goals scored by the second team
+     * @param sign 1 to add the match, -1 to remove it
+     */
+    public void addMatch(long teamAId, long teamBId, int teamAGoals, int teamBGoals, int sign) {
+        long key = pairKey(teamAId, teamBId);
+        HeadToHead record = records.get(key);
+        if (record == null) {
+            record = new HeadToHead(Math.min(teamAId, teamBId), Math.max(teamAId, teamBId));
+            records.put(key, record);
+        }
+        if (teamAId <= teamBId) {
+            record.addResult(teamAGoals, teamBGoals, sign);
+        } else {
+            record.addResult(teamBGoals, teamAGoals, sign);
+        }
+    }
+
+    /**
+     * Gets the record between two teams, seen from the first one.
+     * @param teamId ID of the team to see the record from
+     * @param opponentId ID of the opponent
+     * @return The record, or null if no match between them was added
+     */
+    public HeadToHead get(long teamId, long opponentId) {
+        HeadToHead record = records.get(pairKey(teamId, opponentId));
+        if (record == null || record.getTeamId() == teamId) {
+            return record;
+        }
+        return record.reversed();
+    }
+
+    /**
+     * Gets every accumulated record, each seen from the team with the lower ID.
+     * Records whose matches were all removed again are included with zero meetings.
+     * @return Unmodifiable view of the records, in no particular order
+     */
+    public Collection<HeadToHead> getRecords() {
+        return Collections.unmodifiableCollection(records.values());
+    }
+
+    /**
+     * Gets the number of pairs of teams with a record.
+     * @return The number of records
+     */
+    public int getPairCount() {
+        return records.size();
+    }
+
+    /**
+     * Packs an unordered pair of team IDs into one key, the lower ID in the high bits.
+     */
+    private static long pairKey(long teamAId, long teamBId) {
+        long low = Math.min(teamAId, teamBId);
+        long high = Math.max(teamAId, teamBId);
+        if (low < 0 || high >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid team IDs: " + teamAId + ", " + teamBId);
+        }
+        return (low << 32) | high;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.Match;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Generates synthetic league data for load testing: a number of seasons of a
+ * given number of matches each, played between teams named "Team 1" to "Team N".
+ * Every season starts on 1 August and its matches are spread evenly over the
+ * following {@link #SEASON_DAYS} days. The home team is picked at random and its
+ * opponent is another random team; each side's goals are drawn from a Poisson
+ * distribution, with a separate mean for the home and away side.
+ * Matches are produced one at a time as the generator is iterated, so any number
+ * of them can be streamed with constant memory. Iterating again with the same
+ * settings and seed gives exactly the same matches.
+ */
+public class MatchGenerator implements Iterable<Match> {
+    /** Length of a season in days */
+    public static final int SEASON_DAYS = 300;
+
+    /** Largest mean number of goals per side that can be configured */
+    public static final double MAX_GOALS_MEAN = 10;
+
+    private int teamCount = 20;
+    private int seasons = 1;
+    private int matchesPerSeason = 380;
+    private int firstSeasonYear = 1990;
+    private double homeGoalsMean = 1.5;
+    private double awayGoalsMean = 1.1;
+    private long seed;
+
+    /**
+     * Constructs a generator with the default settings: one season of 380
+     * matches between 20 teams, starting in 1990, with 1.5 home and 1.1 away
+     * goals per match on average.
+     * @param seed Seed of the random numbers
+     */
+    public MatchGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a generator for exactly the given number of matches between the
+     * default 20 teams, spread over as many seasons, up to 50, as divide it evenly.
+     * @param matchCount The number of matches to generate
+     * @param seed Seed of the random numbers
+     * @return The generator
+     */
+    public static MatchGenerator forMatchCount(int matchCount, long seed) {
+        if (matchCount < 1) {
+            throw new IllegalArgumentException("Match count must be at least 1: " + matchCount);
+        }
+        // Most seasons that divide the match count evenly
+        int seasons = 1;
+        for (int candidate : new int[]{50, 40, 25, 20, 10, 5, 4, 2}) {
+            if (matchCount % candidate == 0) {
+                seasons = candidate;
+                break;
+            }
+        }
+        return new MatchGenerator(seed).setSeasons(seasons).setMatchesPerSeason(matchCount / seasons);
+    }
+
+    /**
+     * Sets the number of teams.
+     * @param teamCount At least 2
+     * @return This generator
+     */
+    public MatchGenerator setTeamCount(int teamCount) {
+        if (teamCount < 2) {
+            throw new IllegalArgumentException("Team count must be at least 2: " + teamCount);
+        }
+        this.teamCount = teamCount;
+        return this;
+    }
+
+    /**
+     * Sets the number of seasons.
+     * @param seasons At least 1
+     * @return This generator
+     */
+    public MatchGenerator setSeasons(int seasons) {
+        if (seasons < 1) {
+            throw new IllegalArgumentException("Season count must be at least 1: " + seasons);
+        }
+        this.seasons = seasons;
+        return this;
+    }
+
+    /**
+     * Sets the number of matches played in each season.
+     * @param matchesPerSeason At least 1
+     * @return This generator
+     */
+    public MatchGenerator setMatchesPerSeason(int matchesPerSeason) {
+        if (matchesPerSeason < 1) {
+            throw new IllegalArgumentException("Matches per season must be at least 1: " + matchesPerSeason);
+        }
+        this.matchesPerSeason = matchesPerSeason;
+        return this;
+    }
+
+    /**
+     * Sets the year the first season starts in.
+     * @param firstSeasonYear The year, between 1 and 9999 minus the number of seasons
+     * @return This generator
+     */
+    public MatchGenerator setFirstSeasonYear(int firstSeasonYear) {
+        if (firstSeasonYear < 1) {
+            throw new IllegalArgumentException("Invalid first season year: " + firstSeasonYear);
+        }
+        this.firstSeasonYear = firstSeasonYear;
+        return this;
+    }
+
+    /**
+     * Sets the score distribution.
+     * @param homeGoalsMean Average goals of the home side, from 0 to {@link #MAX_GOALS_MEAN}
+     * @param awayGoalsMean Average goals of the away side, from 0 to {@link #MAX_GOALS_MEAN}
+     * @return This generator
+     */
+    public MatchGenerator setGoalsMeans(double homeGoalsMean, double awayGoalsMean) {
+        if (!(homeGoalsMean >= 0 && homeGoalsMean <= MAX_GOALS_MEAN)
+                || !(awayGoalsMean >= 0 && awayGoalsMean <= MAX_GOALS_MEAN)) {
+            throw new IllegalArgumentException("Goal means must be between 0 and " + MAX_GOALS_MEAN
+                    + ": " + homeGoalsMean + ", " + awayGoalsMean);
+        }
+        this.homeGoalsMean = homeGoalsMean;
+        this.awayGoalsMean = awayGoalsMean;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the random numbers.
+     * @param seed The seed
+     * @return This generator
+     */
+    public MatchGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Gets the number of teams.
+     * @return The team count
+     */
+    public int getTeamCount() {
+        return teamCount;
+    }
+
+    /**
+     * Gets the total number of matches generated.
+     * @return Seasons times matches per season
+     */
+    public long getMatchCount() {
+        return (long) seasons * matchesPerSeason;
+    }
+
+    /**
+     * Gets the name of a team.
+     * @param team The team number, from 1 to {@link #getTeamCount()}
+     * @return The team's name
+     */
+    public String getTeamName(int team) {
+        return "Team " + team;
+    }
+
+    /**
+     * Gets the city a team plays its home matches in.
+     * @param team The team number, from 1 to {@link #getTeamCount()}
+     * @return The city's name
+     */
+    public String getCity(int team) {
+        return "City " + team;
+    }
+
+    @Override
+    public Iterator<Match> iterator() {
+        return new MatchIterator();
+    }
+
+    /**
+     * Draws a goal count from a Poisson distribution (Knuth's method), fine for small means.
+     */
+    private static int poisson(Random random, double limit) {
+        int goals = -1;
+        double product = 1;
+        do {
+            goals++;
+            product *= random.nextDouble();
+        } while (product > limit);
+        return goals;
+    }
+
+    /**
+     * Produces the matches of every season in date order.
+     */
+    private final class MatchIterator implements Iterator<Match> {
+        private final Random random = new Random(seed);
+        private final String[] teamNames = new String[teamCount + 1];
+        private final String[] cities = new String[teamCount + 1];
+        private final double homeLimit = Math.exp(-homeGoalsMean);
+        private final double awayLimit = Math.exp(-awayGoalsMean);
+
+        private int season;
+        private int seasonStart = DateCodec.toEpochDay(firstSeasonYear, 8, 1);
+        private int matchInSeason;
+
+        MatchIterator() {
+            for (int team = 1; team <= teamCount; team++) {
+                teamNames[team] = getTeamName(team);
+                cities[team] = getCity(team);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return season < seasons;
+        }
+
+        @Override
+        public Match next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int day = seasonStart + (int) ((long) matchInSeason * SEASON_DAYS / matchesPerSeason);
+            int home = 1 + random.nextInt(teamCount);
+            // Any team but the home team
+            int away = 1 + (home + random.nextInt(teamCount - 1)) % teamCount;
+            Match match = new Match(DateFormatter.formatEpochDay(day), cities[home],
+                    teamNames[home], teamNames[away], poisson(random, homeLimit), poisson(random, awayLimit));
+            match.setTeamAId(home);
+            match.setTeamBId(away);
+
+            if (++matchInSeason == matchesPerSeason) {
+                matchInSeason = 0;
+                season++;
+                seasonStart = DateCodec.toEpochDay(firstSeasonYear + season, 8, 1);
+            }
+            return match;
+        }
+    }
+}
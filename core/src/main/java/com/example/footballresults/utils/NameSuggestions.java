@@ -0,0 +1,79 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.Match;
+
+import java.util.List;
+
+/**
+ * Known team names and cities, for autocomplete and typo checks while a match is
+ * entered. Each kind of name is held in its own {@link NameTrie}. Thread-safe, since
+ * names are added on the database thread while suggestion dropdowns look them up on
+ * their own filtering thread.
+ */
+public final class NameSuggestions {
+    /** The most names suggested for one prefix */
+    public static final int MAX_SUGGESTIONS = 8;
+
+    private final NameTrie teams = new NameTrie(MAX_SUGGESTIONS);
+    private final NameTrie cities = new NameTrie(MAX_SUGGESTIONS);
+
+    /**
+     * Constructs suggestions from the names already stored.
+     * @param teamNames The name of every team
+     * @param cityNames The name of every city a match is played in
+     */
+    public NameSuggestions(Iterable<String> teamNames, Iterable<String> cityNames) {
+        teams.addAll(teamNames);
+        cities.addAll(cityNames);
+    }
+
+    /**
+     * Adds the teams and city of a match that was saved.
+     * @param match The match saved
+     */
+    public synchronized void addMatch(Match match) {
+        teams.add(match.getTeamA());
+        teams.add(match.getTeamB());
+        cities.add(match.getCity());
+    }
+
+    /**
+     * Suggests team names for what the user has typed so far.
+     * @param prefix What the user typed
+     * @return Up to {@link #MAX_SUGGESTIONS} names, best first
+     * @see NameTrie#suggest(String)
+     */
+    public synchronized List<String> suggestTeams(String prefix) {
+        return teams.suggest(prefix);
+    }
+
+    /**
+     * Suggests cities for what the user has typed so far.
+     * @param prefix What the user typed
+     * @return Up to {@link #MAX_SUGGESTIONS} names, best first
+     * @see NameTrie#suggest(String)
+     */
+    public synchronized List<String> suggestCities(String prefix) {
+        return cities.suggest(prefix);
+    }
+
+    /**
+     * Finds the known team a new team name is probably meant to be.
+     * @param teamName The team name about to be stored
+     * @return The known team name, or null if the name is known or nothing is close
+     * @see NameTrie#findSimilar(String)
+     */
+    public synchronized String findSimilarTeam(String teamName) {
+        return teams.findSimilar(teamName);
+    }
+
+    /**
+     * Finds the known city a new city name is probably meant to be.
+     * @param city The city name about to be stored
+     * @return The known city name, or null if the name is known or nothing is close
+     * @see NameTrie#findSimilar(String)
+     */
+    public synchronized String findSimilarCity(String city) {
+        return cities.findSimilar(city);
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.footballresults.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix tree of known names, such as team names or cities, for autocomplete and
+ * for catching a misspelt name before it is stored as a new one. Names are keyed
+ * by their {@link SearchText#normalize(String) normalized} form, so case, Hebrew
+ * vowel points, final letter forms and punctuation do not matter, and a name can be
+ * found from the start of any of its words. Every node keeps its best suggestions
+ * ready, so a lookup only walks the prefix, however many names share it.
+ * Not thread-safe.
+ */
+public class NameTrie {
+    /** Shortest normalized name that may differ from a known one by one edit and still be flagged */
+    private static final int ONE_EDIT_LENGTH = 4;
+
+    /** Shortest normalized name that may differ from a known one by two edits and still be flagged */
+    private static final int TWO_EDITS_LENGTH = 8;
+
+    private final int maxSuggestions;
+    private final Node root = new Node();
+    private final Set<String> names = new HashSet<>();
+
+    /**
+     * Constructs an empty trie.
+     * @param maxSuggestions The most names a lookup returns
+     */
+    public NameTrie(int maxSuggestions) {
+        if (maxSuggestions < 1) {
+            throw new IllegalArgumentException("Must suggest at least one name: " + maxSuggestions);
+        }
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Adds every name of a collection.
+     * @param names The names to add
+     * @return This trie
+     */
+    public NameTrie addAll(Iterable<String> names) {
+        for (String name : names) {
+            add(name);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a name, under its whole normalized form and under each of its later words.
+     * @param name The name to add
+     * @return true if the name was not known yet
+     */
+    public boolean add(String name) {
+        if (name == null || !names.add(name)) {
+            return false;
+        }
+        String key = SearchText.normalize(name);
+        if (key.isEmpty()) {
+            return true;
+        }
+        Suggestion whole = new Suggestion(name, key, false);
+        Node node = insert(key, whole);
+        if (node.names == null) {
+            node.names = new ArrayList<>(1);
+        }
+        node.names.add(name);
+
+        Suggestion word = new Suggestion(name, key, true);
+        for (int space = key.indexOf(' '); space != -1; space = key.indexOf(' ', space + 1)) {
+            insert(key.substring(space + 1), word);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a name is known exactly as written.
+     * @param name The name to look up
+     * @return true if the name was added
+     */
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Gets the number of names known.
+     * @return The number of distinct names added
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Suggests known names for what the user has typed so far. Names that start
+     * with it come first, then names with a later word that starts with it, each
+     * group in alphabetical order of the normalized name.
+     * @param prefix What the user typed
+     * @return Up to the maximum number of names, empty if none match
+     */
+    public List<String> suggest(String prefix) {
+        String key = SearchText.normalize(prefix);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<String> suggestions = new ArrayList<>(node.suggestions.size());
+        for (Suggestion suggestion : node.suggestions) {
+            suggestions.add(suggestion.name);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Finds a known name that a new one is probably meant to be: one written the
+     * same way once normalized, or, for longer names, one within one or two typing
+     * mistakes (insertions, deletions or substitutions).
+     * @param name The name about to be stored
+     * @return The closest known name, or null if the name is known or nothing is close
+     */
+    public String findSimilar(String name) {
+        if (name == null || names.contains(name)) {
+            return null;
+        }
+        String key = SearchText.normalize(name);
+        if (key.isEmpty()) {
+            return null;
+        }
+        int maxDistance = key.length() >= TWO_EDITS_LENGTH ? 2 : key.length() >= ONE_EDIT_LENGTH ? 1 : 0;
+
+        // Edit distance to every known name, one row per trie level, so shared prefixes are computed once
+        int[] row = new int[key.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        Closest closest = new Closest(maxDistance);
+        for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+            findSimilar(child.getValue(), child.getKey(), key, row, closest);
+        }
+        return closest.name;
+    }
+
+    /**
+     * Computes the edit distance row of one trie node from its parent's row, notes the
+     * names ending at the node, and goes on to its children while a closer name is possible.
+     */
+    private static void findSimilar(Node node, char c, String key, int[] previous, Closest closest) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        int smallest = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previous[i - 1] + (key.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(row[i - 1], previous[i]) + 1);
+            smallest = Math.min(smallest, row[i]);
+        }
+        int distance = row[row.length - 1];
+        if (node.names != null) {
+            for (String name : node.names) {
+                closest.offer(name, distance);
+            }
+        }
+        if (smallest <= closest.maxDistance) {
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                findSimilar(child.getValue(), child.getKey(), key, row, closest);
+            }
+        }
+    }
+
+    /**
+     * Walks a key from the root, creating nodes as needed, and offers a suggestion
+     * to every node on the way.
+     * @return The node the key ends at
+     */
+    private Node insert(String key, Suggestion suggestion) {
+        Node node = root;
+        node.offer(suggestion, maxSuggestions);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node();
+                node.children.put(key.charAt(i), child);
+            }
+            node = child;
+            node.offer(suggestion, maxSuggestions);
+        }
+        return node;
+    }
+
+    /**
+     * One level of the trie.
+     */
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+
+        /** Best names found through this node, best first */
+        final List<Suggestion> suggestions = new ArrayList<>(1);
+
+        /** Names whose whole normalized form ends at this node, or null if none does */
+        List<String> names;
+
+        /**
+         * Adds a suggestion in order if it is among the best, replacing a worse one for the same name.
+         */
+        void offer(Suggestion suggestion, int maxSuggestions) {
+            for (int i = 0; i < suggestions.size(); i++) {
+                Suggestion existing = suggestions.get(i);
+                if (existing.name.equals(suggestion.name)) {
+                    if (existing.compareTo(suggestion) <= 0) {
+                        return;
+                    }
+                    suggestions.remove(i);
+                    break;
+                }
+            }
+            int index = Collections.binarySearch(suggestions, suggestion);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            if (index < maxSuggestions) {
+                suggestions.add(index, suggestion);
+                if (suggestions.size() > maxSuggestions) {
+                    suggestions.remove(maxSuggestions);
+                }
+            }
+        }
+    }
+
+    /**
+     * A name as suggested from one node: whole names before later-word matches,
+     * then by normalized name.
+     */
+    private static final class Suggestion implements Comparable<Suggestion> {
+        final String name;
+        final String key;
+        final boolean laterWord;
+
+        Suggestion(String name, String key, boolean laterWord) {
+            this.name = name;
+            this.key = key;
+            this.laterWord = laterWord;
+        }
+
+        @Override
+        public int compareTo(Suggestion other) {
+            if (laterWord != other.laterWord) {
+                return laterWord ? 1 : -1;
+            }
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : name.compareTo(other.name);
+        }
+    }
+
+    /**
+     * The closest name found so far by {@link #findSimilar(String)}.
+     */
+    private static final class Closest {
+        final int maxDistance;
+        String name;
+        int distance;
+
+        Closest(int maxDistance) {
+            this.maxDistance = maxDistance;
+            this.distance = maxDistance + 1;
+        }
+
+        void offer(String candidate, int candidateDistance) {
+            if (candidateDistance < distance
+                    || (candidateDistance == distance && name != null && candidate.compareTo(name) < 0)) {
+                name = candidate;
+                distance = candidateDistance;
+            }
+        }
+    }
+}
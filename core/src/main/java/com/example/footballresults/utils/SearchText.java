@@ -0,0 +1,174 @@
+package com.example.footballresults.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns team and city names, and what the user types to find them, into the
+ * plain lowercase words stored in and matched against the full-text search index.
+ * Hebrew text is folded so spelling variants meet: vowel points and cantillation
+ * marks are dropped, final letter forms (ך ם ן ף ץ) become their regular forms so
+ * a half-typed word is a prefix of the full one, and geresh, gershayim and quote
+ * marks are removed so an acronym such as ת"א is one word. Any other character
+ * that is not a letter or digit separates words.
+ */
+public final class SearchText {
+    /** Rank of a name that equals the query */
+    public static final int RANK_EXACT = 0;
+
+    /** Rank of a name that starts with the query */
+    public static final int RANK_PREFIX = 1;
+
+    /** Rank of a name that only has a later word starting with a query word */
+    public static final int RANK_WORD = 2;
+
+    /** Hebrew definite article, also indexed without so "פועל" finds "הפועל" */
+    private static final char ARTICLE = 'ה';
+
+    private SearchText() {
+    }
+
+    /**
+     * Normalizes text to lowercase words separated by single spaces.
+     * @param text The text to normalize, may be null
+     * @return The normalized text, empty if it has no letters or digits
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean separator = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isIgnored(c)) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                separator = false;
+                normalized.append(Character.toLowerCase(toRegularForm(c)));
+            } else {
+                separator = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Builds the words to index for a name: its normalized words, plus every
+     * word that starts with the definite article once more without it.
+     * @param name The team or city name
+     * @return The words, separated by spaces
+     */
+    public static String indexText(String name) {
+        String normalized = normalize(name);
+        StringBuilder text = new StringBuilder(normalized);
+        for (String word : words(normalized)) {
+            // Only strip it from words long enough not to be a short word of their own
+            if (word.length() >= 4 && word.charAt(0) == ARTICLE) {
+                text.append(' ').append(word, 1, word.length());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Builds a full-text MATCH expression that finds names with a word starting
+     * with each word of the query, so results appear while the last word is typed.
+     * @param query What the user typed
+     * @return The expression, or null if the query has no letters or digits
+     */
+    public static String prefixQuery(String query) {
+        List<String> words = words(normalize(query));
+        if (words.isEmpty()) {
+            return null;
+        }
+        StringBuilder expression = new StringBuilder();
+        for (String word : words) {
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append(word).append('*');
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Ranks a name found by {@link #prefixQuery(String)} against the query.
+     * @param name The name found
+     * @param query What the user typed
+     * @return {@link #RANK_EXACT}, {@link #RANK_PREFIX} or {@link #RANK_WORD}
+     */
+    public static int rank(String name, String query) {
+        String normalizedName = normalize(name);
+        String normalizedQuery = normalize(query);
+        if (normalizedName.equals(normalizedQuery)) {
+            return RANK_EXACT;
+        }
+        return normalizedName.startsWith(normalizedQuery) ? RANK_PREFIX : RANK_WORD;
+    }
+
+    /**
+     * Splits normalized text into words.
+     */
+    private static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        while (start < normalized.length()) {
+            int end = normalized.indexOf(' ', start);
+            if (end == -1) {
+                end = normalized.length();
+            }
+            words.add(normalized.substring(start, end));
+            start = end + 1;
+        }
+        return words;
+    }
+
+    /**
+     * Checks whether a character is dropped without separating words:
+     * Hebrew points and marks, geresh, gershayim and quote marks.
+     */
+    private static boolean isIgnored(char c) {
+        if (c >= '\u0591' && c <= '\u05C7') {
+            // Points and cantillation, except maqaf and sof pasuq, which separate words
+            return c != '\u05BE' && c != '\u05C3';
+        }
+        switch (c) {
+            case '\u05F3': // Geresh
+            case '\u05F4': // Gershayim
+            case '\'':
+            case '"':
+            case '\u2018':
+            case '\u2019':
+            case '\u201C':
+            case '\u201D':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Maps a Hebrew final letter to its regular form.
+     */
+    private static char toRegularForm(char c) {
+        switch (c) {
+            case 'ך':
+                return 'כ';
+            case 'ם':
+                return 'מ';
+            case 'ן':
+                return 'נ';
+            case 'ף':
+                return 'פ';
+            case 'ץ':
+                return 'צ';
+            default:
+                return c;
+        }
+    }
+}
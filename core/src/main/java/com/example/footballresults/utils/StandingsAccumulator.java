@@ -0,0 +1,187 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.MatchResult;
+
+import java.util.Arrays;
+
+/**
+ * In-memory league table built by feeding it match results one at a time.
+ * Counters are kept in plain int arrays indexed by team ID, so adding a match
+ * costs a handful of array writes and no allocation. Team IDs are the small,
+ * dense row IDs of the team stats table.
+ */
+public class StandingsAccumulator {
+    private static final int INITIAL_CAPACITY = 32;
+
+    private int[] matchesPlayed = new int[INITIAL_CAPACITY];
+    private int[] wins = new int[INITIAL_CAPACITY];
+    private int[] draws = new int[INITIAL_CAPACITY];
+    private int[] losses = new int[INITIAL_CAPACITY];
+    private int[] goalsScored = new int[INITIAL_CAPACITY];
+    private int[] goalsAgainst = new int[INITIAL_CAPACITY];
+    private int[] points = new int[INITIAL_CAPACITY];
+
+    /** One more than the highest team ID seen so far */
+    private int teamIdLimit;
+
+    /** Number of matches added minus number removed */
+    private int matchCount;
+
+    /**
+     * Adds (sign 1) or removes (sign -1) one match result for both teams.
+     * @param teamAId ID of the first team
+     * @param teamBId ID of the second team
+     * @param teamAGoals Goals scored by the first team
+     * @param teamBGoals Goals scored by the second team
+     * @param sign 1 to add the match, -1 to remove it
+     */
+    public void addMatch(long teamAId, long teamBId, int teamAGoals, int teamBGoals, int sign) {
+        addTeamResult(index(teamAId), teamAGoals, teamBGoals, sign);
+        addTeamResult(index(teamBId), teamBGoals, teamAGoals, sign);
+        matchCount += sign;
+    }
+
+    /**
+     * Adds totals accumulated elsewhere to one team, such as a stored snapshot of
+     * its statistics. The match count is not changed, since the totals do not say
+     * which matches they came from.
+     * @param teamId ID of the team
+     * @param matchesPlayed Matches played to add
+     * @param wins Wins to add
+     * @param draws Draws to add
+     * @param losses Losses to add
+     * @param goalsScored Goals scored to add
+     * @param goalsAgainst Goals conceded to add
+     * @param points Points to add
+     */
+    public void addTotals(long teamId, int matchesPlayed, int wins, int draws, int losses,
+                          int goalsScored, int goalsAgainst, int points) {
+        int team = index(teamId);
+        this.matchesPlayed[team] += matchesPlayed;
+        this.wins[team] += wins;
+        this.draws[team] += draws;
+        this.losses[team] += losses;
+        this.goalsScored[team] += goalsScored;
+        this.goalsAgainst[team] += goalsAgainst;
+        this.points[team] += points;
+    }
+
+    private void addTeamResult(int team, int goalsFor, int goalsAgainstTeam, int sign) {
+        MatchResult result = MatchResult.of(goalsFor, goalsAgainstTeam);
+        matchesPlayed[team] += sign;
+        goalsScored[team] += sign * goalsFor;
+        goalsAgainst[team] += sign * goalsAgainstTeam;
+        points[team] += sign * result.getPoints();
+        if (result == MatchResult.WIN) {
+            wins[team] += sign;
+        } else if (result == MatchResult.DRAW) {
+            draws[team] += sign;
+        } else {
+            losses[team] += sign;
+        }
+    }
+
+    /**
+     * Converts a team ID to an array index, growing the arrays if needed.
+     */
+    private int index(long teamId) {
+        if (teamId < 0 || teamId >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid team ID: " + teamId);
+        }
+        int team = (int) teamId;
+        if (team >= matchesPlayed.length) {
+            int capacity = Math.max(team + 1, matchesPlayed.length * 2);
+            matchesPlayed = Arrays.copyOf(matchesPlayed, capacity);
+            wins = Arrays.copyOf(wins, capacity);
+            draws = Arrays.copyOf(draws, capacity);
+            losses = Arrays.copyOf(losses, capacity);
+            goalsScored = Arrays.copyOf(goalsScored, capacity);
+            goalsAgainst = Arrays.copyOf(goalsAgainst, capacity);
+            points = Arrays.copyOf(points, capacity);
+        }
+        if (team >= teamIdLimit) {
+            teamIdLimit = team + 1;
+        }
+        return team;
+    }
+
+    /**
+     * Gets one more than the highest team ID that has been seen.
+     * Team IDs from 0 up to this limit can be passed to the getters.
+     * @return The team ID limit
+     */
+    public int getTeamIdLimit() {
+        return teamIdLimit;
+    }
+
+    /**
+     * Gets the number of matches currently accumulated.
+     * @return Matches added minus matches removed
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    /**
+     * Gets a team's accumulated matches played.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of matches played
+     */
+    public int getMatchesPlayed(int teamId) {
+        return matchesPlayed[teamId];
+    }
+
+    /**
+     * Gets a team's accumulated wins.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of wins
+     */
+    public int getWins(int teamId) {
+        return wins[teamId];
+    }
+
+    /**
+     * Gets a team's accumulated draws.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of draws
+     */
+    public int getDraws(int teamId) {
+        return draws[teamId];
+    }
+
+    /**
+     * Gets a team's accumulated losses.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of losses
+     */
+    public int getLosses(int teamId) {
+        return losses[teamId];
+    }
+
+    /**
+     * Gets a team's accumulated goals scored.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of goals scored
+     */
+    public int getGoalsScored(int teamId) {
+        return goalsScored[teamId];
+    }
+
+    /**
+     * Gets a team's accumulated goals conceded.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of goals conceded
+     */
+    public int getGoalsAgainst(int teamId) {
+        return goalsAgainst[teamId];
+    }
+
+    /**
+     * Gets a team's accumulated points.
+     * @param teamId The team ID, below {@link #getTeamIdLimit()}
+     * @return Number of points
+     */
+    public int getPoints(int teamId) {
+        return points[teamId];
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.models.TeamStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * League table computed from a stream of matches, with no Android or database
+ * dependency. Teams are identified by name and numbered in the order they first
+ * appear; the counters themselves are kept in a {@link StandingsAccumulator},
+ * so each match costs two map lookups and a handful of array writes.
+ * Matches can be added, removed and corrected in any order, so the engine can
+ * follow a live feed as well as rebuild a table from an archive.
+ * Not thread-safe.
+ */
+public class StandingsEngine {
+    /**
+     * League order: most points first. The sort is stable, so teams level on
+     * points keep the order they were listed in.
+     */
+    public static final Comparator<TeamStats> BY_POINTS_DESCENDING =
+            (a, b) -> Integer.compare(b.getPoints(), a.getPoints());
+
+    private final Map<String, Integer> teamIds = new HashMap<>();
+    private final List<String> teamNames = new ArrayList<>();
+    private final StandingsAccumulator standings = new StandingsAccumulator();
+
+    /**
+     * Adds every match of a stream.
+     * @param matches The matches to add
+     * @return This engine
+     */
+    public StandingsEngine addAll(Iterable<? extends Match> matches) {
+        for (Match match : matches) {
+            addMatch(match);
+        }
+        return this;
+    }
+
+    /**
+     * Adds one match result for both teams.
+     * @param match The match to add
+     */
+    public void addMatch(Match match) {
+        apply(match, 1);
+    }
+
+    /**
+     * Removes a match result added earlier.
+     * @param match The match to remove, with the score it was added with
+     */
+    public void removeMatch(Match match) {
+        apply(match, -1);
+    }
+
+    /**
+     * Replaces a match result with its corrected version.
+     * @param previous The match as it was added
+     * @param updated The corrected match
+     */
+    public void updateMatch(Match previous, Match updated) {
+        removeMatch(previous);
+        addMatch(updated);
+    }
+
+    /**
+     * Gets the number of matches currently in the table.
+     * @return Matches added minus matches removed
+     */
+    public int getMatchCount() {
+        return standings.getMatchCount();
+    }
+
+    /**
+     * Gets the number of teams seen so far, including teams whose matches
+     * have all been removed.
+     * @return The number of teams
+     */
+    public int getTeamCount() {
+        return teamNames.size();
+    }
+
+    /**
+     * Gets one team's statistics.
+     * @param teamName The team's name
+     * @return The team's statistics, or null if the team has not been seen
+     */
+    public TeamStats getTeamStats(String teamName) {
+        Integer teamId = teamIds.get(teamName);
+        return teamId != null ? toTeamStats(teamId) : null;
+    }
+
+    /**
+     * Gets the league table in {@link #BY_POINTS_DESCENDING} order, teams level
+     * on points in the order they first appeared. Teams with no matches left
+     * are not listed.
+     * @return A new list of new TeamStats objects
+     */
+    public List<TeamStats> getStandings() {
+        List<TeamStats> table = new ArrayList<>(teamNames.size());
+        for (int teamId = 0; teamId < teamNames.size(); teamId++) {
+            if (standings.getMatchesPlayed(teamId) != 0) {
+                table.add(toTeamStats(teamId));
+            }
+        }
+        Collections.sort(table, BY_POINTS_DESCENDING);
+        return table;
+    }
+
+    private void apply(Match match, int sign) {
+        standings.addMatch(teamId(match.getTeamA()), teamId(match.getTeamB()),
+                match.getTeamAGoals(), match.getTeamBGoals(), sign);
+    }
+
+    /**
+     * Gets a team's number, assigning the next one to a new team.
+     */
+    private int teamId(String teamName) {
+        Integer teamId = teamIds.get(teamName);
+        if (teamId == null) {
+            teamId = teamNames.size();
+            teamIds.put(teamName, teamId);
+            teamNames.add(teamName);
+        }
+        return teamId;
+    }
+
+    private TeamStats toTeamStats(int teamId) {
+        TeamStats teamStats = new TeamStats(teamNames.get(teamId));
+        teamStats.setId(teamId + 1);
+        teamStats.setMatchesPlayed(standings.getMatchesPlayed(teamId));
+        teamStats.setWins(standings.getWins(teamId));
+        teamStats.setDraws(standings.getDraws(teamId));
+        teamStats.setLosses(standings.getLosses(teamId));
+        teamStats.setGoalsScored(standings.getGoalsScored(teamId));
+        teamStats.setPoints(standings.getPoints(teamId));
+        return teamStats;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.footballresults.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link DateCodec}, checked against java.time.
+ */
+public class DateCodecTest {
+    @Test
+    public void parse_matchesLocalDate() {
+        LocalDate date = LocalDate.of(1899, 1, 1);
+        LocalDate end = LocalDate.of(2101, 1, 1);
+        char[] buffer = new char[DateCodec.LENGTH];
+        while (date.isBefore(end)) {
+            String text = String.format("%02d/%02d/%04d", date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+            int epochDay = (int) date.toEpochDay();
+
+            assertEquals(text, epochDay, DateCodec.parse(text));
+            DateCodec.formatTo(epochDay, buffer, 0);
+            assertEquals(text, new String(buffer));
+            assertEquals(text, date.getDayOfWeek().getValue() % 7 + Calendar.SUNDAY, DateCodec.dayOfWeek(epochDay));
+
+            date = date.plusDays(1);
+        }
+    }
+
+    @Test
+    public void parse_rejectsMalformedDates() {
+        String[] invalid = {
+                null, "", "1/2/2020", "01/2/2020", "01-02-2020", "01/02/20", "01/02/2020x",
+                "32/01/2022", "00/01/2022", "29/02/2023", "31/04/2022", "01/13/2022", "01/00/2022",
+                "01/01/0000", "a1/01/2022", " 1/01/2022"
+        };
+        for (String text : invalid) {
+            assertEquals(String.valueOf(text), DateCodec.INVALID, DateCodec.parse(text));
+            assertFalse(String.valueOf(text), DateFormatter.isValidDate(text));
+        }
+        assertTrue(DateFormatter.isValidDate("29/02/2024"));
+    }
+
+    @Test
+    public void addDays_crossesMonthAndYear() {
+        assertEquals("01/01/2023", DateFormatter.addDays("31/12/2022", 1));
+        assertEquals("28/02/2023", DateFormatter.addDays("01/03/2023", -1));
+        assertEquals("bad", DateFormatter.addDays("bad", 1));
+    }
+
+    @Test
+    public void parseDate_roundTripsThroughFormatDate() {
+        assertEquals("22/11/2022", DateFormatter.formatDate(DateFormatter.parseDate("22/11/2022")));
+        assertNull(DateFormatter.parseDate("22/11/22"));
+    }
+}
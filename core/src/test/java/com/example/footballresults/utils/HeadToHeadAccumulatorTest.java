@@ -0,0 +1,75 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.HeadToHead;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link HeadToHeadAccumulator}.
+ */
+public class HeadToHeadAccumulatorTest {
+    @Test
+    public void addMatch_countsBothOrdersTowardsOneRecord() {
+        HeadToHeadAccumulator pairs = new HeadToHeadAccumulator();
+        pairs.addMatch(7, 3, 2, 0, 1);
+        pairs.addMatch(3, 7, 1, 1, 1);
+        pairs.addMatch(3, 7, 4, 1, 1);
+        pairs.addMatch(3, 5, 0, 1, 1);
+
+        assertEquals(2, pairs.getPairCount());
+
+        HeadToHead record = pairs.get(3, 7);
+        assertEquals(3, record.getTeamId());
+        assertEquals(7, record.getOpponentId());
+        assertEquals(3, record.getMeetings());
+        assertEquals(1, record.getWins());
+        assertEquals(1, record.getDraws());
+        assertEquals(1, record.getLosses());
+        assertEquals(5, record.getGoalsScored());
+        assertEquals(4, record.getGoalsAgainst());
+
+        assertNull(pairs.get(5, 7));
+    }
+
+    @Test
+    public void get_seesTheRecordFromTheTeamAskedFirst() {
+        HeadToHeadAccumulator pairs = new HeadToHeadAccumulator();
+        pairs.addMatch(2, 9, 3, 1, 1);
+        pairs.addMatch(9, 2, 2, 2, 1);
+
+        HeadToHead record = pairs.get(9, 2);
+        assertEquals(9, record.getTeamId());
+        assertEquals(2, record.getOpponentId());
+        assertEquals(2, record.getMeetings());
+        assertEquals(0, record.getWins());
+        assertEquals(1, record.getDraws());
+        assertEquals(1, record.getLosses());
+        assertEquals(3, record.getGoalsScored());
+        assertEquals(5, record.getGoalsAgainst());
+
+        // Every stored record is seen from the lower team ID
+        HeadToHead stored = pairs.getRecords().iterator().next();
+        assertEquals(2, stored.getTeamId());
+        assertEquals(1, stored.getWins());
+    }
+
+    @Test
+    public void addMatch_withNegativeSignRemovesAMeeting() {
+        HeadToHeadAccumulator pairs = new HeadToHeadAccumulator();
+        pairs.addMatch(1, 2, 1, 0, 1);
+        pairs.addMatch(2, 1, 3, 0, 1);
+        pairs.addMatch(1, 2, 1, 0, -1);
+
+        HeadToHead record = pairs.get(1, 2);
+        assertEquals(1, record.getMeetings());
+        assertEquals(0, record.getWins());
+        assertEquals(1, record.getLosses());
+        assertEquals(0, record.getGoalsScored());
+        assertEquals(3, record.getGoalsAgainst());
+
+        pairs.addMatch(2, 1, 3, 0, -1);
+        assertEquals(0, pairs.get(1, 2).getMeetings());
+    }
+}
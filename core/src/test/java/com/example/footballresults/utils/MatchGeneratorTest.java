@@ -0,0 +1,75 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.Match;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link MatchGenerator}.
+ */
+public class MatchGeneratorTest {
+    @Test
+    public void iterator_isReproducible() {
+        MatchGenerator generator = MatchGenerator.forMatchCount(10_000, 7);
+        Iterator<Match> first = generator.iterator();
+        Iterator<Match> second = MatchGenerator.forMatchCount(10_000, 7).iterator();
+        while (first.hasNext()) {
+            Match a = first.next();
+            Match b = second.next();
+            assertEquals(a.getDate(), b.getDate());
+            assertEquals(a.getTeamA(), b.getTeamA());
+            assertEquals(a.getTeamB(), b.getTeamB());
+            assertEquals(a.getTeamAGoals(), b.getTeamAGoals());
+            assertEquals(a.getTeamBGoals(), b.getTeamBGoals());
+        }
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void forMatchCount_generatesExactlyThatMany() {
+        for (int matchCount : new int[]{1, 7, 380, 10_000, 100_001}) {
+            MatchGenerator generator = MatchGenerator.forMatchCount(matchCount, 1);
+            assertEquals(matchCount, generator.getMatchCount());
+            int generated = 0;
+            for (Match ignored : generator) {
+                generated++;
+            }
+            assertEquals(matchCount, generated);
+        }
+    }
+
+    @Test
+    public void matches_followSettings() {
+        MatchGenerator generator = new MatchGenerator(3).setTeamCount(4).setSeasons(3)
+                .setMatchesPerSeason(1000).setFirstSeasonYear(2000).setGoalsMeans(2.0, 0.5);
+        int firstDay = DateCodec.toEpochDay(2000, 8, 1);
+        int lastDay = DateCodec.toEpochDay(2002, 8, 1) + MatchGenerator.SEASON_DAYS;
+        long homeGoals = 0;
+        long awayGoals = 0;
+        int previousDay = Integer.MIN_VALUE;
+        for (Match match : generator) {
+            int day = DateCodec.parse(match.getDate());
+            assertTrue(day >= firstDay && day < lastDay);
+            assertTrue(day >= previousDay);
+            previousDay = day;
+
+            assertNotEquals(match.getTeamA(), match.getTeamB());
+            assertEquals(generator.getTeamName((int) match.getTeamAId()), match.getTeamA());
+            assertEquals(generator.getCity((int) match.getTeamAId()), match.getCity());
+            assertTrue(match.getTeamBId() >= 1 && match.getTeamBId() <= 4);
+            homeGoals += match.getTeamAGoals();
+            awayGoals += match.getTeamBGoals();
+        }
+        assertEquals(2.0, homeGoals / 3000.0, 0.1);
+        assertEquals(0.5, awayGoals / 3000.0, 0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setGoalsMeans_rejectsNegativeMean() {
+        new MatchGenerator(1).setGoalsMeans(-1, 1);
+    }
+}
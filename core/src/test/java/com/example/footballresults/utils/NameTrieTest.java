@@ -0,0 +1,70 @@
+package com.example.footballresults.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link NameTrie}.
+ */
+public class NameTrieTest {
+    private static NameTrie teams() {
+        return new NameTrie(5).addAll(Arrays.asList(
+                "מכבי חיפה", "מכבי תל אביב", "הפועל באר שבע", "הפועל חיפה", "בית\"ר ירושלים"));
+    }
+
+    @Test
+    public void suggest_listsNamesStartingWithThePrefixFirst() {
+        NameTrie trie = teams();
+        assertEquals(Arrays.asList("מכבי חיפה", "מכבי תל אביב"), trie.suggest("מכ"));
+        // A later word matches too, after the names that start with it
+        assertEquals(Arrays.asList("הפועל חיפה", "מכבי חיפה"), trie.suggest("חיפ"));
+        assertEquals(Arrays.asList("בית\"ר ירושלים"), trie.suggest("ביתר"));
+        assertEquals(Arrays.asList("בית\"ר ירושלים"), trie.suggest("ירושלים"));
+        assertEquals(Collections.emptyList(), trie.suggest("נתניה"));
+    }
+
+    @Test
+    public void suggest_keepsOnlyTheBestNames() {
+        NameTrie trie = new NameTrie(2).addAll(Arrays.asList("Team 3", "Team 1", "Team 2", "Old Team"));
+        assertEquals(Arrays.asList("Team 1", "Team 2"), trie.suggest("team"));
+        assertEquals(Arrays.asList("Old Team", "Team 1"), trie.suggest(""));
+        assertEquals(Arrays.asList("Old Team"), trie.suggest("old"));
+    }
+
+    @Test
+    public void add_ignoresNamesAlreadyKnown() {
+        NameTrie trie = teams();
+        assertFalse(trie.add("מכבי חיפה"));
+        assertTrue(trie.add("מכבי נתניה"));
+        assertEquals(6, trie.size());
+        assertTrue(trie.contains("מכבי נתניה"));
+        assertEquals(Arrays.asList("מכבי חיפה", "מכבי נתניה", "מכבי תל אביב"), trie.suggest("מכבי"));
+    }
+
+    @Test
+    public void findSimilar_flagsSpellingVariantsAndTypos() {
+        NameTrie trie = teams();
+        assertNull(trie.findSimilar("מכבי חיפה"));
+        // Same name once normalized
+        assertEquals("בית\"ר ירושלים", trie.findSimilar("ביתר ירושלים"));
+        // One letter missing, one letter swapped for another
+        assertEquals("מכבי חיפה", trie.findSimilar("מכבי חפה"));
+        assertEquals("הפועל חיפה", trie.findSimilar("הפועל חיפא"));
+        // Too far from anything known
+        assertNull(trie.findSimilar("מכבי נתניה"));
+    }
+
+    @Test
+    public void findSimilar_allowsFewerTyposInShortNames() {
+        NameTrie trie = new NameTrie(5).addAll(Arrays.asList("לוד", "רמלה", "Tel Aviv"));
+        assertNull(trie.findSimilar("לוב"));
+        assertEquals("רמלה", trie.findSimilar("רמלא"));
+        assertEquals("Tel Aviv", trie.findSimilar("tel-aviv"));
+        assertEquals("Tel Aviv", trie.findSimilar("Tel Avivv"));
+        assertNull(trie.findSimilar(" - "));
+    }
+}
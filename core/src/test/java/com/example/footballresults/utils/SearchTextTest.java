@@ -0,0 +1,47 @@
+package com.example.footballresults.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SearchText}.
+ */
+public class SearchTextTest {
+    @Test
+    public void normalize_foldsHebrewSpellingVariants() {
+        assertEquals("מכבי תא", SearchText.normalize("מכבי ת\"א"));
+        assertEquals("מכבי תא", SearchText.normalize("מַכַּבִּי ת״א"));
+        assertEquals("ירושלימ", SearchText.normalize("ירושלים"));
+        assertEquals("באר שבע", SearchText.normalize("  באר-שבע! "));
+        assertEquals("real madrid", SearchText.normalize("Real  MADRID"));
+        assertEquals("", SearchText.normalize("-- \"\" --"));
+        assertEquals("", SearchText.normalize(null));
+    }
+
+    @Test
+    public void indexText_addsWordsWithoutTheArticle() {
+        assertEquals("הפועל באר שבע פועל", SearchText.indexText("הפועל באר שבע"));
+        assertEquals("מכבי הרצליה רצליה", SearchText.indexText("מכבי הרצליה"));
+        // Too short to be a word with an article
+        assertEquals("הוד", SearchText.indexText("הוד"));
+    }
+
+    @Test
+    public void prefixQuery_matchesEveryWordAsPrefix() {
+        assertEquals("מכבי* ח*", SearchText.prefixQuery("מכבי ח"));
+        // A final letter typed at the end still matches the regular form indexed
+        assertEquals("ירושלימ*", SearchText.prefixQuery("ירושלים"));
+        // Operators and quotes never reach the full-text engine
+        assertEquals("a* or* b*", SearchText.prefixQuery("a OR \"b"));
+        assertNull(SearchText.prefixQuery(" ' "));
+    }
+
+    @Test
+    public void rank_prefersExactThenLeadingMatches() {
+        assertEquals(SearchText.RANK_EXACT, SearchText.rank("מכבי חיפה", "מכבי חיפה"));
+        assertEquals(SearchText.RANK_EXACT, SearchText.rank("מכבי ת\"א", "מכבי תא"));
+        assertEquals(SearchText.RANK_PREFIX, SearchText.rank("מכבי חיפה", "מכבי ח"));
+        assertEquals(SearchText.RANK_WORD, SearchText.rank("מכבי חיפה", "חיפ"));
+    }
+}
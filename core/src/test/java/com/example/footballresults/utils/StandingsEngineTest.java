@@ -0,0 +1,79 @@
+package com.example.footballresults.utils;
+
+import com.example.footballresults.models.Match;
+import com.example.footballresults.models.TeamStats;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link StandingsEngine}.
+ */
+public class StandingsEngineTest {
+    private static Match match(String teamA, String teamB, int teamAGoals, int teamBGoals) {
+        return new Match("01/01/2024", "City", teamA, teamB, teamAGoals, teamBGoals);
+    }
+
+    @Test
+    public void addAll_countsResultsForBothTeams() {
+        StandingsEngine engine = new StandingsEngine().addAll(Arrays.asList(
+                match("A", "B", 2, 1),
+                match("B", "C", 1, 1),
+                match("C", "A", 0, 3)));
+
+        assertEquals(3, engine.getMatchCount());
+        assertEquals(3, engine.getTeamCount());
+
+        TeamStats a = engine.getTeamStats("A");
+        assertEquals(2, a.getMatchesPlayed());
+        assertEquals(2, a.getWins());
+        assertEquals(0, a.getDraws());
+        assertEquals(0, a.getLosses());
+        assertEquals(5, a.getGoalsScored());
+        assertEquals(6, a.getPoints());
+
+        TeamStats b = engine.getTeamStats("B");
+        assertEquals(0, b.getWins());
+        assertEquals(1, b.getDraws());
+        assertEquals(1, b.getLosses());
+        assertEquals(1, b.getPoints());
+
+        assertNull(engine.getTeamStats("D"));
+    }
+
+    @Test
+    public void getStandings_sortsByPointsKeepingFirstAppearanceOnTies() {
+        StandingsEngine engine = new StandingsEngine().addAll(Arrays.asList(
+                match("A", "B", 0, 0),
+                match("C", "D", 1, 0)));
+
+        List<TeamStats> table = engine.getStandings();
+        assertEquals(4, table.size());
+        assertEquals("C", table.get(0).getTeamName());
+        assertEquals("A", table.get(1).getTeamName());
+        assertEquals("B", table.get(2).getTeamName());
+        assertEquals("D", table.get(3).getTeamName());
+    }
+
+    @Test
+    public void updateAndRemove_undoEarlierResults() {
+        Match original = match("A", "B", 1, 0);
+        Match corrected = match("A", "B", 0, 2);
+        StandingsEngine engine = new StandingsEngine();
+        engine.addMatch(original);
+        engine.updateMatch(original, corrected);
+
+        assertEquals(0, engine.getTeamStats("A").getPoints());
+        assertEquals(1, engine.getTeamStats("A").getLosses());
+        assertEquals(3, engine.getTeamStats("B").getPoints());
+
+        engine.removeMatch(corrected);
+        assertEquals(0, engine.getMatchCount());
+        assertEquals(0, engine.getTeamStats("B").getMatchesPlayed());
+        assertTrue(engine.getStandings().isEmpty());
+    }
+}